@@ -11,16 +11,29 @@ import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.*;
+import java.lang.reflect.Constructor;
 import java.net.URISyntaxException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.snapgames.apps.desktop.game.GameApp.Renderer.buffer;
@@ -117,11 +130,26 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         // use for child entity for update/rendering operation.
         public boolean relativeToParent = false;
 
-        // Enhance Entity with behaviors
-        public List<Behavior> behaviors = new ArrayList<>();
+        // Enhance Entity with behaviors (each one only called with its own entity, see add(Behavior)).
+        public List<Behavior<Entity>> behaviors = new ArrayList<>();
+        // mask of the BehaviorEvent handled by at least one of the behaviors.
+        private int behaviorMask = 0;
 
-        // add any attribute object to this entity.
-        private Map<String, Object> attributes = new HashMap<>();
+        // attributes stored per AttributeKey slot, allocated on first use.
+        private Object[] objectAttributes;
+        private double[] numericAttributes;
+        private long[] numericAttributesSet;
+
+        /**
+         * The {@link RendererPlugin} class which has drawn this entity in the last frame.
+         */
+        @SuppressWarnings("unchecked")
+        public static final AttributeKey<Class<?>> RENDERED_BY =
+                AttributeKey.of("renderedBy", (Class<Class<?>>) (Class<?>) Class.class);
+        /**
+         * Set to true when the mouse is hovering this entity.
+         */
+        public static final AttributeKey<Boolean> MOUSE_HOVER = AttributeKey.of("mouse_hover", Boolean.class);
 
         public Shape shape = new Rectangle2D.Double();
 
@@ -129,6 +157,42 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         public List<Entity> child = new ArrayList<>();
         private Entity parent;
 
+        // the Scene this entity has been added to.
+        private Scene scene;
+
+        // tags (or groups) this entity belongs to, allocated on first use.
+        private Set<String> tags;
+
+        // id of the ECS entity this entity is the view of (-1 if not managed by an EcsWorld).
+        public int ecsId = -1;
+
+        // how this entity is processed by the physics.
+        private BodyType bodyType = BodyType.DYNAMIC;
+
+        // collision category bits of this body (0: no collision) and categories it collides with.
+        public int collisionCategory = 0;
+        public int collisionMask = ~0;
+        // position before the physics step, and last tick collected by the ContactSolver.
+        double prevX, prevY;
+        long contactStamp = -1;
+        // cells of the SpatialIndex this entity is linked to, and marks of its last update and query.
+        int cellC0, cellR0, cellC1, cellR1;
+        boolean cellLinked = false;
+        long spatialTick = -1, queryMark = -1;
+
+        // a sleeping body is skipped by the physics until woken (see GameApp#updateSleep).
+        private boolean sleeping = false;
+        private int stillTicks = 0;
+        // the sleeping state seen by the last physics update, to count the sleeps and wakes (see GameApp#getSleepCount).
+        boolean wasSleeping = false;
+
+        // cached world bounds, recomputed only when the local bounds or the parent ones changed.
+        private final Rectangle2D.Double worldBounds = new Rectangle2D.Double();
+        private double lastX = java.lang.Double.NaN, lastY, lastWidth, lastHeight;
+        private boolean transformDirty = true;
+        // the layout of the children must be computed again (see AlignBehavior).
+        boolean layoutDirty = true;
+
         /**
          * Create a brand new {@link Entity} with its name.
          *
@@ -145,24 +209,107 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         public Entity setPosition(double x, double y) {
             this.x = x;
             this.y = y;
+            this.transformDirty = true;
             return this;
         }
 
         public Entity setSize(double w, double h) {
-            this.width = w;
-            this.height = h;
+            if (w != this.width || h != this.height) {
+                this.width = w;
+                this.height = h;
+                this.transformDirty = true;
+                invalidateLayout();
+            }
+            return this;
+        }
+
+        /**
+         * Request a new layout of this {@link Entity} and of its parent one, as its size or its content changed.
+         *
+         * @return the updated {@link Entity}.
+         */
+        public Entity invalidateLayout() {
+            this.layoutDirty = true;
+            if (parent != null) {
+                parent.layoutDirty = true;
+            }
             return this;
         }
 
         public Entity setVelocity(double dx, double dy) {
             this.dx = dx;
             this.dy = dy;
-            return this;
+            return wake();
         }
 
         public Entity setAcceleration(double ax, double ay) {
             this.ax = ax;
             this.ay = ay;
+            return wake();
+        }
+
+        /**
+         * Put this body to sleep: its velocity is cleared, and it is skipped by the physics until woken by a new
+         * force, a collision or a call to {@link #wake()}. Its acceleration is kept, to be applied again once woken.
+         *
+         * @return the updated {@link Entity}.
+         */
+        public Entity sleep() {
+            if (!sleeping) {
+                sleeping = true;
+                dx = dy = 0;
+            }
+            return this;
+        }
+
+        /**
+         * Wake up this body, to be processed again by the physics.
+         *
+         * @return the updated {@link Entity}.
+         */
+        public Entity wake() {
+            stillTicks = 0;
+            if (sleeping) {
+                sleeping = false;
+            }
+            return this;
+        }
+
+        public boolean isSleeping() {
+            return sleeping;
+        }
+
+        /**
+         * Define how this {@link Entity} is processed by the physics.
+         *
+         * @param bodyType the new {@link BodyType}.
+         * @return the updated {@link Entity}.
+         */
+        public Entity setBodyType(BodyType bodyType) {
+            if (this.bodyType != bodyType) {
+                this.bodyType = bodyType;
+                if (scene != null) {
+                    scene.getIndex().updateBodyType(this);
+                }
+            }
+            return this;
+        }
+
+        public BodyType getBodyType() {
+            return bodyType;
+        }
+
+        /**
+         * Define the collision filter of this body: two bodies collide if the category of each one is in the mask
+         * of the other (see {@link ContactSolver}).
+         *
+         * @param category the category bits of this body (0 to disable its collisions).
+         * @param mask     the category bits of the bodies this one collides with.
+         * @return the updated {@link Entity}.
+         */
+        public Entity setCollisionFilter(int category, int mask) {
+            this.collisionCategory = category;
+            this.collisionMask = mask;
             return this;
         }
 
@@ -177,10 +324,49 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         }
 
         public Entity setActive(boolean a) {
-            this.active = a;
+            if (this.active != a) {
+                this.active = a;
+                if (scene != null) {
+                    scene.getIndex().updateActive(this);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Add some tags to this {@link Entity}. A tag can be used as a group name to retrieve all the tagged
+         * entities of a {@link Scene} (see {@link SceneIndex#getTagged(String)}).
+         *
+         * @param tags the tags to be added.
+         * @return the updated {@link Entity}.
+         */
+        public Entity addTag(String... tags) {
+            if (this.tags == null) {
+                this.tags = new HashSet<>();
+            }
+            for (String tag : tags) {
+                if (this.tags.add(tag) && scene != null) {
+                    scene.getIndex().addTag(this, tag);
+                }
+            }
+            return this;
+        }
+
+        public Entity removeTag(String tag) {
+            if (tags != null && tags.remove(tag) && scene != null) {
+                scene.getIndex().removeTag(this, tag);
+            }
             return this;
         }
 
+        public boolean hasTag(String tag) {
+            return tags != null && tags.contains(tag);
+        }
+
+        public Set<String> getTags() {
+            return tags != null ? Collections.unmodifiableSet(tags) : Collections.emptySet();
+        }
+
         public Entity setBorderColor(Color c) {
             this.borderColor = c;
             return this;
@@ -209,30 +395,186 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             return this;
         }
 
+        /**
+         * Set the value of a typed attribute. For the numeric keys, prefer the unboxed setters.
+         *
+         * @param key   the attribute key.
+         * @param value the new value.
+         * @param <T>   the type of the attribute.
+         * @return the updated {@link Entity}.
+         */
+        public <T> Entity set(AttributeKey<T> key, T value) {
+            if (key.isNumeric()) {
+                if (value == null) {
+                    remove(key);
+                } else {
+                    setNumeric(key, value instanceof Boolean b ? (b ? 1.0 : 0.0) : ((Number) value).doubleValue());
+                }
+            } else {
+                if (objectAttributes == null || key.slot >= objectAttributes.length) {
+                    objectAttributes = Arrays.copyOf(
+                            objectAttributes == null ? new Object[0] : objectAttributes,
+                            AttributeKey.objectSlotCount());
+                }
+                objectAttributes[key.slot] = value;
+            }
+            return this;
+        }
+
+        /**
+         * Retrieve the value of a typed attribute. For the numeric keys, prefer the unboxed getters.
+         *
+         * @param key          the attribute key.
+         * @param defaultValue the value returned if the attribute is not set.
+         * @param <T>          the type of the attribute.
+         * @return the attribute value or the default one.
+         */
+        public <T> T get(AttributeKey<T> key, T defaultValue) {
+            if (!has(key)) {
+                return defaultValue;
+            }
+            if (key.isNumeric()) {
+                double v = numericAttributes[key.slot];
+                Object boxed = key.type == Boolean.class ? (Object) (v != 0.0)
+                        : key.type == Integer.class ? (Object) (int) v
+                        : (Object) v;
+                return key.type.cast(boxed);
+            }
+            return key.type.cast(objectAttributes[key.slot]);
+        }
+
+        public Entity setDouble(AttributeKey<java.lang.Double> key, double value) {
+            return setNumeric(key, value);
+        }
+
+        public double getDouble(AttributeKey<java.lang.Double> key, double defaultValue) {
+            return has(key) ? numericAttributes[key.slot] : defaultValue;
+        }
+
+        public Entity setInt(AttributeKey<Integer> key, int value) {
+            return setNumeric(key, value);
+        }
+
+        public int getInt(AttributeKey<Integer> key, int defaultValue) {
+            return has(key) ? (int) numericAttributes[key.slot] : defaultValue;
+        }
+
+        public Entity setBoolean(AttributeKey<Boolean> key, boolean value) {
+            return setNumeric(key, value ? 1.0 : 0.0);
+        }
+
+        public boolean getBoolean(AttributeKey<Boolean> key, boolean defaultValue) {
+            return has(key) ? numericAttributes[key.slot] != 0.0 : defaultValue;
+        }
+
+        /**
+         * Is the attribute set on this {@link Entity} ?
+         *
+         * @param key the attribute key.
+         * @return true if a value is set.
+         */
+        public boolean has(AttributeKey<?> key) {
+            if (key.isNumeric()) {
+                return numericAttributesSet != null && (key.slot >> 6) < numericAttributesSet.length
+                        && (numericAttributesSet[key.slot >> 6] & (1L << key.slot)) != 0;
+            }
+            return objectAttributes != null && key.slot < objectAttributes.length
+                    && objectAttributes[key.slot] != null;
+        }
+
+        /**
+         * Remove the attribute from this {@link Entity}.
+         *
+         * @param key the attribute key.
+         */
+        public void remove(AttributeKey<?> key) {
+            if (!has(key)) {
+                return;
+            }
+            if (key.isNumeric()) {
+                numericAttributesSet[key.slot >> 6] &= ~(1L << key.slot);
+            } else {
+                objectAttributes[key.slot] = null;
+            }
+        }
+
+        private Entity setNumeric(AttributeKey<?> key, double value) {
+            if (numericAttributes == null || key.slot >= numericAttributes.length) {
+                int count = AttributeKey.numericSlotCount();
+                numericAttributes = Arrays.copyOf(
+                        numericAttributes == null ? new double[0] : numericAttributes, count);
+                numericAttributesSet = Arrays.copyOf(
+                        numericAttributesSet == null ? new long[0] : numericAttributesSet, (count >> 6) + 1);
+            }
+            numericAttributes[key.slot] = value;
+            numericAttributesSet[key.slot >> 6] |= 1L << key.slot;
+            return this;
+        }
+
+        private void clearAttributes() {
+            if (objectAttributes != null) {
+                Arrays.fill(objectAttributes, null);
+            }
+            if (numericAttributesSet != null) {
+                Arrays.fill(numericAttributesSet, 0L);
+            }
+        }
+
+        /*----- String keyed attributes (slow path, through the AttributeKey registry) -----*/
+
+        /**
+         * Set the value of the attribute <code>attrName</code>, registering an <code>Object</code> key for an
+         * unknown name.
+         *
+         * @param attrName  the attribute name.
+         * @param attrValue the new value.
+         * @param <T>       the type of the value.
+         * @throws IllegalArgumentException if the name is registered with a type not matching the value.
+         */
         public <T extends Object> void setAttribute(String attrName, T attrValue) {
-            attributes.put(attrName, attrValue);
+            AttributeKey<?> key = AttributeKey.named(attrName);
+            if (attrValue != null && !key.accepts(attrValue)) {
+                throw new IllegalArgumentException(String.format(
+                        "Attribute '%s' is registered with type %s, a %s value can not be set",
+                        attrName, key.type.getName(), attrValue.getClass().getName()));
+            }
+            set((AttributeKey<Object>) key, attrValue);
         }
 
         public <T extends Object> T getAttribute(String attrName, T defaultValue) {
-            return (T) attributes.getOrDefault(attrName, defaultValue);
+            AttributeKey<?> key = AttributeKey.find(attrName);
+            return key != null && has(key) ? (T) get(key, null) : defaultValue;
         }
 
         public boolean isAttribute(String attrName) {
-            return attributes.containsKey(attrName);
+            AttributeKey<?> key = AttributeKey.find(attrName);
+            return key != null && has(key);
         }
 
         public void removeAttribute(String attrName) {
-            attributes.remove(attrName);
+            AttributeKey<?> key = AttributeKey.find(attrName);
+            if (key != null) {
+                remove(key);
+            }
         }
 
         /**
          * Add a {@link Behavior} to this {@link Entity}.
          *
+         * <p>A <code>Behavior&lt;T&gt;</code> is declared for the type of the entity it is added to: it is kept
+         * as a <code>Behavior&lt;Entity&gt;</code>, to be called without any cast.</p>
+         *
          * @param behavior the specific {@link Behavior} to be added.
          * @return the updated {@link Entity}.
          */
-        public Entity add(Behavior behavior) {
-            behaviors.add(behavior);
+        @SuppressWarnings("unchecked")
+        public Entity add(Behavior<?> behavior) {
+            Behavior<Entity> b = (Behavior<Entity>) behavior;
+            behaviors.add(b);
+            behaviorMask |= BehaviorEvent.maskOf(b);
+            if (scene != null) {
+                scene.getSubscriptions().register(this, b);
+            }
             return this;
         }
 
@@ -245,11 +587,44 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         public Entity add(Entity c) {
             child.add(c);
             c.setParent(this);
+            if (scene != null) {
+                scene.attach(c);
+            }
+            return this;
+        }
+
+        /**
+         * Remove a child {@link Entity}. It stays attached to the {@link Scene}, see {@link Scene#remove(Entity)}.
+         *
+         * @param c the child {@link Entity} to be removed.
+         * @return the updated parent {@link Entity}.
+         */
+        public Entity remove(Entity c) {
+            for (int i = 0; i < child.size(); i++) {
+                if (child.get(i) == c) {
+                    child.remove(i);
+                    c.setParent(null);
+                    layoutDirty = true;
+                    break;
+                }
+            }
             return this;
         }
 
+        /**
+         * Is the {@link BehaviorEvent} handled by at least one of the {@link Behavior}'s of this {@link Entity} ?
+         *
+         * @param be the {@link BehaviorEvent} to be tested.
+         * @return true if at least one {@link Behavior} handles it.
+         */
+        public boolean isHandling(BehaviorEvent be) {
+            return be.isIn(behaviorMask);
+        }
+
         private Entity setParent(Entity p) {
             this.parent = p;
+            this.transformDirty = true;
+            invalidateLayout();
             return this;
         }
 
@@ -257,10 +632,71 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             return parent;
         }
 
+        public Scene getScene() {
+            return scene;
+        }
+
+        public Entity setScene(Scene s) {
+            this.scene = s;
+            return this;
+        }
+
         public boolean isRelativeToParent() {
             return this.relativeToParent;
         }
 
+        public Entity setRelativeToParent(boolean r) {
+            this.relativeToParent = r;
+            this.transformDirty = true;
+            return this;
+        }
+
+        /**
+         * Update the cached world bounds of this {@link Entity} and its child, only if the local bounds changed
+         * or if the parent world bounds changed (<code>parentChanged</code>).
+         *
+         * <p>The world position is the local position, plus the parent world position if this {@link Entity}
+         * is relative to its parent.</p>
+         *
+         * @param parentChanged true if the parent world bounds have just been recomputed.
+         */
+        public void updateTransform(boolean parentChanged) {
+            boolean changed = transformDirty || parentChanged
+                    || x != lastX || y != lastY || width != lastWidth || height != lastHeight;
+            if (changed) {
+                boolean relative = relativeToParent && parent != null;
+                worldBounds.setRect(
+                        relative ? parent.worldBounds.x + x : x,
+                        relative ? parent.worldBounds.y + y : y,
+                        width, height);
+                lastX = x;
+                lastY = y;
+                lastWidth = width;
+                lastHeight = height;
+                transformDirty = false;
+            }
+            for (int i = 0; i < child.size(); i++) {
+                child.get(i).updateTransform(changed);
+            }
+        }
+
+        public double getWorldX() {
+            return worldBounds.x;
+        }
+
+        public double getWorldY() {
+            return worldBounds.y;
+        }
+
+        /**
+         * Retrieve the cached world bounds (see {@link Entity#updateTransform(boolean)}).
+         *
+         * @return the world bounds of this {@link Entity}.
+         */
+        public Rectangle2D getWorldBounds() {
+            return worldBounds;
+        }
+
         public void setChildVisible(boolean b) {
             child.forEach(c -> c.setActive(b));
         }
@@ -268,581 +704,5041 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         public String getName() {
             return name;
         }
-    }
 
-    /**
-     * Possible {@link GameObject} nature
-     *
-     * <p>it can be one of the following nature per {@link GameObject}:
-     * <ul>
-     *     <li><code>DOT</code> a simple dot,</li>
-     *     <li><code>LINE</code> a line,</li>
-     *     <li><code>RECTANGLE</code> a rectangle,</li>
-     *     <li><code>ELLIPSE</code> an ellipse,</li>
-     *     <li><code>POLYGON</code> a polygone.</li>
-     * </ul></p>
-     */
-    public enum GameObjectNature {
-        /**
-         * A simple dot at <code>(x,y)</code> of size <code>w</code> where <code>h=w</code>
-         */
-        DOT,
-        /**
-         * A line from <code>(x,y)</code> to <code>(x+w,y+h)</code>.
-         */
-        LINE,
-        /**
-         * A {@link Rectangle2D} at <code>(x,y)</code> of size <code>(w,h)</code>.
-         */
-        RECTANGLE,
-        /**
-         * An {@link java.awt.geom.Ellipse2D} at <code>(x,y)</code> with radius of <code>(rx=w,ry=h)</code>.
-         */
-        ELLIPSE,
         /**
-         * A {@link Polygon} build of lines at <code>(x,y)</code>.Its size <code>(w,h)</code>
-         * is computed at first display time.
+         * Reset the dynamic state of this {@link Entity} (position, velocity, acceleration, forces,
+         * active status, attributes and ECS link) to let it be reused by an {@link EntityPool}.
+         *
+         * <p>The configured appearance, {@link Material}, mass and {@link Behavior}'s are kept.</p>
+         *
+         * @return the reset {@link Entity}.
          */
-        POLYGON;
+        public Entity reset() {
+            this.x = 0;
+            this.y = 0;
+            this.dx = 0;
+            this.dy = 0;
+            this.ax = 0;
+            this.ay = 0;
+            this.forces.clear();
+            this.sleeping = false;
+            this.stillTicks = 0;
+            this.wasSleeping = false;
+            clearAttributes();
+            this.ecsId = -1;
+            // keep the active entities index of its scene (if any) up to date.
+            setActive(false);
+            return this;
+        }
     }
 
     /**
-     * A {@link GameObject} is an {@link Entity} with a specific {@link Shape}
-     * according to its {@link GameObjectNature}.
+     * A typed {@link Entity} attribute key. A key is registered once with its name and type, and gets a dense
+     * slot index in the per-entity attribute arrays (allocated on first use).
+     *
+     * <p>Numeric keys (<code>Double</code>, <code>Integer</code>, <code>Boolean</code>) are stored unboxed in a
+     * <code>double[]</code> and can be accessed without boxing through {@link Entity#setDouble},
+     * {@link Entity#getInt}, {@link Entity#getBoolean}...; other types are stored in an <code>Object[]</code>.</p>
+     *
+     * <pre>
+     * static final AttributeKey&lt;Integer&gt; ENERGY = AttributeKey.of("energy", Integer.class);
+     * entity.setInt(ENERGY, 100);
+     * </pre>
      *
+     * <p>The String keyed attributes of {@link Entity} are kept as a slow path: the name is looked up in the
+     * registry, and an <code>Object</code> key is registered for an unknown name.</p>
+     *
+     * @param <T> the type of the attribute value.
      * @author Frédéric Delorme
      * @since 1.0.0
      */
-    public static class GameObject extends Entity {
+    public static final class AttributeKey<T> {
+        private static final Map<String, AttributeKey<?>> keys = new ConcurrentHashMap<>();
+        private static int objectSlots = 0;
+        private static int numericSlots = 0;
 
-        public GameObjectNature nature = GameObjectNature.RECTANGLE;
+        public final String name;
+        public final Class<T> type;
+        public final int slot;
+        private final boolean numeric;
+
+        private AttributeKey(String name, Class<T> type, boolean numeric, int slot) {
+            this.name = name;
+            this.type = type;
+            this.numeric = numeric;
+            this.slot = slot;
+        }
 
         /**
-         * Create a brand new {@link GameObject} with its name.
+         * Register (or retrieve) the attribute key <code>name</code> of type <code>type</code>.
          *
-         * @param name name of this new {@link GameObject}.
+         * @param name the attribute name.
+         * @param type the attribute value type.
+         * @param <T>  the attribute value type.
+         * @return the corresponding {@link AttributeKey}.
+         * @throws IllegalArgumentException if the name is already registered with another type.
          */
-        public GameObject(String name) {
-            super(name);
+        public static synchronized <T> AttributeKey<T> of(String name, Class<T> type) {
+            AttributeKey<?> existing = keys.get(name);
+            if (existing != null) {
+                if (existing.type != type) {
+                    throw new IllegalArgumentException(String.format(
+                            "Attribute '%s' is already registered with type %s", name, existing.type.getName()));
+                }
+                return (AttributeKey<T>) existing;
+            }
+            boolean numeric = type == Double.class || type == Integer.class || type == Boolean.class;
+            AttributeKey<T> key = new AttributeKey<>(name, type, numeric, numeric ? numericSlots++ : objectSlots++);
+            keys.put(name, key);
+            return key;
         }
 
-        public GameObject setNature(GameObjectNature n) {
-            this.nature = n;
+        /**
+         * Retrieve the registered key for <code>name</code>, or register a new <code>Object</code> one.
+         *
+         * @param name the attribute name.
+         * @return the corresponding {@link AttributeKey}.
+         */
+        static AttributeKey<?> named(String name) {
+            AttributeKey<?> key = keys.get(name);
+            return key != null ? key : of(name, Object.class);
+        }
 
-            return this;
+        static AttributeKey<?> find(String name) {
+            return keys.get(name);
         }
 
-        @Override
-        public Entity setPosition(double x, double y) {
-            super.setPosition(x, y);
-            setSize(width, height);
-            return this;
+        static synchronized int objectSlotCount() {
+            return objectSlots;
         }
 
-        @Override
-        public void update(GameApp app, double elapsed) {
-            super.update(app, elapsed);
-            switch (nature) {
-                case ELLIPSE -> {
-                    shape = new Ellipse2D.Double(x, y, width, height);
-                }
-                default -> {
-                    shape = new Rectangle2D.Double(x, y, width, height);
-                }
-            }
+        static synchronized int numericSlotCount() {
+            return numericSlots;
         }
-    }
 
-    /**
-     * An {@link ImageObject} is basically an {@link Entity} supporting {@link BufferedImage} drawing.
-     *
-     * @author Frédéric Delorme
-     * @since 1.0.0
-     */
-    public static class ImageObject extends Entity {
-
-        public BufferedImage image;
+        public boolean isNumeric() {
+            return numeric;
+        }
 
         /**
-         * Create a brand new {@link ImageObject} with its name.
+         * Can this value be stored with this key ? The numeric keys accept any <code>Number</code> or
+         * <code>Boolean</code>.
          *
-         * @param name name of this new {@link ImageObject}.
+         * @param value the value to be checked.
+         * @return true if the value matches the key type.
          */
-        public ImageObject(String name) {
-            super(name);
+        public boolean accepts(Object value) {
+            return numeric ? value instanceof Number || value instanceof Boolean : type.isInstance(value);
         }
 
-        public ImageObject setImage(BufferedImage img) {
-            this.image = img;
-            return this;
-        }
-
-        public BufferedImage getImage() {
-            return this.image;
+        @Override
+        public String toString() {
+            return "AttributeKey[" + name + ":" + type.getSimpleName() + "#" + slot + "]";
         }
     }
 
     /**
-     * {@link AnimationFrames} is a list of frames to animate a Sprite (coming soon) or an {@link ImageObject}.
+     * An {@link EntityPool} keeps released {@link Entity} instances to recycle them on the next acquisition,
+     * instead of allocating brand-new ones.
      *
-     * <p>It defines frames for each step of the animation with their display duration.</p>
+     * <p>The <code>factory</code> is the prototype for all the pooled entities: it creates and configures a new
+     * instance (appearance, {@link Material}, {@link Behavior}'s) when no released one is available.
+     * A released {@link Entity} is reset (see {@link Entity#reset()}) and its {@link Behavior}'s are notified
+     * through {@link Behavior#onReset(GameApp, Entity)}.</p>
      *
+     * <pre>
+     * EntityPool&lt;GameObject&gt; pool = new EntityPool&lt;&gt;(app, "enemies", () -&gt; new GameObject("enemy"));
+     * GameObject enemy = pool.acquire();
+     * // ...
+     * pool.release(enemy);
+     * </pre>
+     *
+     * @param <T> the type of pooled {@link Entity}.
      * @author Frédéric Delorme
-     * @see Animations
      * @since 1.0.0
      */
-    public static class AnimationFrames {
-        List<BufferedImage> frames = new ArrayList<>();
-        List<Integer> timeFrames = new ArrayList<>();
-        double elapsedTime = 0;
-        int currentFrame = 0;
+    public static class EntityPool<T extends Entity> {
+        private final GameApp app;
+        private final String name;
+        private final Supplier<T> factory;
+        private final Deque<T> free = new ArrayDeque<>();
+        // the free entities, by identity (Entity inherits the geometric equals() of Rectangle2D).
+        private final Set<T> freeSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        // the entities handed out by this pool and not yet released.
+        private final Set<T> inUseSet = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private long created = 0;
+        private long acquired = 0;
+        private long released = 0;
+        private int inUse = 0;
+        private int peak = 0;
 
-        AnimationFrames(List<BufferedImage> frames, List<Integer> timeFrames) {
-            this.frames = frames;
-            this.timeFrames = timeFrames;
+        /**
+         * Create a new {@link EntityPool}.
+         *
+         * @param app     the parent application.
+         * @param name    the name of this pool (used for statistics).
+         * @param factory the prototype factory creating a new configured {@link Entity}.
+         */
+        public EntityPool(GameApp app, String name, Supplier<T> factory) {
+            this.app = app;
+            this.name = name;
+            this.factory = factory;
         }
 
         /**
-         * Update the currentFrame according to elapsed time since previous call.
+         * Pre-allocate <code>count</code> entities into the pool.
          *
-         * @param delay elapsed time since previous call.
+         * @param count number of entities to be created.
+         * @return the updated {@link EntityPool}.
          */
-        public void update(double delay) {
-            elapsedTime += delay;
-            if (elapsedTime > timeFrames.get(currentFrame)) {
-                currentFrame = (currentFrame + 1 < frames.size() ? currentFrame + 1 : 0);
-                elapsedTime = 0;
+        public EntityPool<T> prefill(int count) {
+            for (int i = 0; i < count; i++) {
+                T e = factory.get();
+                e.reset();
+                free.push(e);
+                freeSet.add(e);
+                created++;
             }
+            return this;
         }
 
         /**
-         * Return the current active frame for this AnimationFrames.
+         * Retrieve a recycled {@link Entity} if any, or a new one from the factory.
          *
-         * <p>According to elapsed time, it returns the corresponding frame for the {@link AnimationFrames}.</p>
-         *
-         * @return BufferedImage corresponding to the current active frame.
+         * @return an active {@link Entity} ready to be used.
          */
-        public BufferedImage getImage() {
-            return this.frames.get(currentFrame);
+        public T acquire() {
+            T e = free.poll();
+            if (e == null) {
+                e = factory.get();
+                created++;
+            } else {
+                freeSet.remove(e);
+            }
+            e.setActive(true);
+            inUseSet.add(e);
+            acquired++;
+            inUse++;
+            peak = Math.max(peak, inUse);
+            return e;
         }
 
-
         /**
-         * Reset this {@link AnimationFrames} to its first frame.
+         * Give back the {@link Entity} to the pool. Its state is reset and its {@link Behavior}'s are notified.
+         * An {@link Entity} already released is ignored, not to be handed out twice. An {@link Entity} not
+         * handed out by this pool is recycled too, without changing the in use count.
+         *
+         * @param e the {@link Entity} to be recycled.
+         * @return true if the entity has been released, false if it was already free.
          */
-        public void reset() {
-            currentFrame = 0;
+        public boolean release(T e) {
+            if (!freeSet.add(e)) {
+                warn("Pool %s: entity %s is already released", name, e.getName());
+                return false;
+            }
+            e.reset();
+            for (Behavior<Entity> b : e.behaviors) {
+                b.onReset(app, e);
+            }
+            free.push(e);
+            released++;
+            if (inUseSet.remove(e)) {
+                inUse--;
+            }
+            return true;
         }
 
         /**
-         * Load all the frames from a broader image by slicing each frame from it.
-         *
-         * <p></p>source is image source and table is list of integer structured like [x,y,w,h,t] for each frame
-         * to slice from the source image where
-         * <ul>
-         *     <li><code>(x,y)</code> is position of the frame in the source image,</li>
-         *     <li><code>(w,h)</code> is the size of the extracted frame,</li>
-         *     <li><code>(t)</code> is the duration for that frame.</li>
-         * </ul>
+         * Take back a free {@link Entity} which has been put in use again without {@link #acquire()}
+         * (e.g. re-added to its scene by a {@link SceneSnapshot} restore).
          *
-         * @param source source for images
-         * @param table  list of [x,y,w,h,t] structures.
-         * @return a brand new AnimationFrames instance.
+         * @param e the {@link Entity} to be taken out of the free list.
+         * @return true if the entity was free.
          */
-        public static AnimationFrames load(BufferedImage source, int[] table) {
-            if (source != null) {
-                List<BufferedImage> images = new ArrayList<>();
-                List<Integer> timeFrames = new ArrayList<>();
-                for (int idx = 0; idx < table.length; idx += 5) {
-                    int x = table[idx];
-                    int y = table[idx + 1];
-                    int w = table[idx + 2];
-                    int h = table[idx + 3];
-                    int timeFrame = table[idx + 4];
-                    images.add(source.getSubimage(x, y, w, h));
-                    timeFrames.add(timeFrame);
-                }
-                return new AnimationFrames(images, timeFrames);
+        public boolean reclaim(T e) {
+            if (!freeSet.remove(e)) {
+                return false;
             }
-            return null;
+            // identity check, Entity inherits the geometric equals() of Rectangle2D.
+            for (Iterator<T> it = free.iterator(); it.hasNext(); ) {
+                if (it.next() == e) {
+                    it.remove();
+                    inUseSet.add(e);
+                    inUse++;
+                    peak = Math.max(peak, inUse);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Drop all the free entities from this pool. The entities in use are still counted until their release.
+         */
+        public void clear() {
+            free.clear();
+            freeSet.clear();
+        }
+
+        /**
+         * @param e the {@link Entity} to be tested.
+         * @return true if the entity is in the free list of this pool.
+         */
+        public boolean isFree(T e) {
+            return freeSet.contains(e);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public long getAcquired() {
+            return acquired;
+        }
+
+        public long getReleased() {
+            return released;
+        }
+
+        public int getInUse() {
+            return inUse;
+        }
+
+        public int getAvailable() {
+            return free.size();
+        }
+
+        public int getPeak() {
+            return peak;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("pool:%s[created:%d acquired:%d released:%d inUse:%d free:%d peak:%d]",
+                    name, created, acquired, released, inUse, free.size(), peak);
         }
     }
 
     /**
-     * {@link Animations} are a set
-     * of {@link AnimationFrames} indexed
-     * with a readable name as <code>animationKey.</code>
-     * <p>
+     * The {@link BodyType} defines how an {@link Entity} is processed by the physics:
      * <ul>
-     *     <li>The {@link Animations#update(double)} method manages the frame cycling for the active {@link AnimationFrames}.</li>
-     *     <li>{@link Animations#getImage()} will return the current active frame.</li>
+     *     <li><code>STATIC</code> the body never moves (scenery, level geometry): it is never integrated, and is
+     *     indexed apart from the moving bodies (see {@link SceneIndex#getStatic()}),</li>
+     *     <li><code>KINEMATIC</code> the body is only moved by code, through its position or its velocity: no
+     *     force, gravity nor play area constraint is applied,</li>
+     *     <li><code>DYNAMIC</code> (default) the body is moved by the forces integration, the gravity and the
+     *     collisions.</li>
      * </ul>
      *
      * @author Frédéric Delorme
      * @since 1.0.0
      */
-    public static class Animations {
-        Map<String, AnimationFrames> animationsFrames = new HashMap<>();
-        private String activeAnimationKey = "default";
-        private int currentImage;
+    public enum BodyType {
+        STATIC,
+        KINEMATIC,
+        DYNAMIC
+    }
 
+    /**
+     * Possible {@link GameObject} nature
+     *
+     * <p>it can be one of the following nature per {@link GameObject}:
+     * <ul>
+     *     <li><code>DOT</code> a simple dot,</li>
+     *     <li><code>LINE</code> a line,</li>
+     *     <li><code>RECTANGLE</code> a rectangle,</li>
+     *     <li><code>ELLIPSE</code> an ellipse,</li>
+     *     <li><code>POLYGON</code> a polygone.</li>
+     * </ul></p>
+     */
+    public enum GameObjectNature {
         /**
-         * Update the current active {@link AnimationFrames} according to elapsed time.
-         *
-         * @param elapsed the elapsed time since previous call.
-         * @return the updated {@link Animations} instance.
+         * A simple dot at <code>(x,y)</code> of size <code>w</code> where <code>h=w</code>
          */
-        public Animations update(double elapsed) {
-            if (Optional.ofNullable(animationsFrames).isPresent()
-                    && Optional.ofNullable(activeAnimationKey).isPresent()) {
-                AnimationFrames anim = animationsFrames.get(activeAnimationKey);
-                anim.update(elapsed);
-            }
-            return this;
-        }
-
+        DOT,
         /**
-         * Define the current active animation.
-         *
-         * @param activeAnimationKey the key name for the {@link AnimationFrames} to be activated.
+         * A line from <code>(x,y)</code> to <code>(x+w,y+h)</code>.
          */
-        public void setActiveAnimation(String activeAnimationKey) {
-            this.activeAnimationKey = activeAnimationKey;
-        }
-
+        LINE,
         /**
-         * Return the current frame from the active AnimationFrames.
-         *
-         * @return the BufferedImage corresponding to the current active animation.
+         * A {@link Rectangle2D} at <code>(x,y)</code> of size <code>(w,h)</code>.
          */
-        public BufferedImage getImage() {
-            return this.animationsFrames.get(activeAnimationKey).getImage();
-        }
-
+        RECTANGLE,
         /**
-         * Reset the current active {@link AnimationFrames} to its first frame.
+         * An {@link java.awt.geom.Ellipse2D} at <code>(x,y)</code> with radius of <code>(rx=w,ry=h)</code>.
          */
-        public void reset() {
-            if (Optional.ofNullable(animationsFrames).isPresent()
-                    && Optional.ofNullable(activeAnimationKey).isPresent()) {
-                this.animationsFrames.get(activeAnimationKey).reset();
-            }
-        }
+        ELLIPSE,
+        /**
+         * A {@link Polygon} build of lines at <code>(x,y)</code>.Its size <code>(w,h)</code>
+         * is computed at first display time.
+         */
+        POLYGON;
     }
 
     /**
-     * A new Entity supporting Animations.
+     * A {@link GameObject} is an {@link Entity} with a specific {@link Shape}
+     * according to its {@link GameObjectNature}.
      *
      * @author Frédéric Delorme
      * @since 1.0.0
      */
-    public static class AnimatedObject extends Entity {
+    public static class GameObject extends Entity {
+
+        public GameObjectNature nature = GameObjectNature.RECTANGLE;
 
-        private Animations animations = new Animations();
+        // reused shapes, to avoid allocation on each update.
+        private final Ellipse2D.Double ellipse = new Ellipse2D.Double();
+        private final Rectangle2D.Double rectangle = new Rectangle2D.Double();
 
         /**
-         * Create a brand new {@link AnimatedObject} with its name.
+         * Create a brand new {@link GameObject} with its name.
          *
-         * @param name name of this new {@link AnimatedObject}.
+         * @param name name of this new {@link GameObject}.
          */
-        public AnimatedObject(String name) {
+        public GameObject(String name) {
             super(name);
+            collisionCategory = 1;
         }
 
-        public Animations getAnimations() {
-            return animations;
+        public GameObject setNature(GameObjectNature n) {
+            this.nature = n;
+
+            return this;
         }
 
-        public BufferedImage getImage() {
-            return animations.getImage();
+        @Override
+        public Entity setPosition(double x, double y) {
+            super.setPosition(x, y);
+            setSize(width, height);
+            return this;
         }
 
-        public void update(double elapsed) {
-            animations.update(elapsed);
+        @Override
+        public void update(GameApp app, double elapsed) {
+            super.update(app, elapsed);
+            switch (nature) {
+                case ELLIPSE -> {
+                    ellipse.setFrame(x, y, width, height);
+                    shape = ellipse;
+                }
+                default -> {
+                    rectangle.setRect(x, y, width, height);
+                    shape = rectangle;
+                }
+            }
         }
     }
 
     /**
-     * <p>The {@link Behavior} interface allows new behaviors processing to any Entity when defining the Scene.</p>
-     *
-     * <p>Each behavior linked to an Entity will be processed during the 4 steps of the game loop:
-     * <code>create</code>, <code>input</code>, <code>update</code> and <code>render</code>.</p>
+     * An {@link ImageObject} is basically an {@link Entity} supporting {@link BufferedImage} drawing.
      *
      * @author Frédéric Delorme
      * @since 1.0.0
      */
-    public interface Behavior<T extends Entity> {
+    public static class ImageObject extends Entity {
+
+        public BufferedImage image;
+        // the resource path of the image, if loaded from one.
+        public String imagePath;
+
         /**
-         * Create will help you customize the Entity creation.
+         * Create a brand new {@link ImageObject} with its name.
          *
-         * @param app
+         * @param name name of this new {@link ImageObject}.
          */
-        default void create(GameApp app, T e) {
+        public ImageObject(String name) {
+            super(name);
         }
 
-        /**
-         * On a specific {@link Entity}, you can add input processing.
-         *
-         * @param app the parent application
-         * @param e   the concerned {@link Entity}
-         */
-        default void input(GameApp app, T e) {
+        public ImageObject setImage(BufferedImage img) {
+            this.image = img;
+            this.imagePath = null;
+            return this;
         }
 
         /**
-         * On a specific {@link Entity}, you can add enhance default update.
+         * Load the image from its resource path (see {@link GameApp#getResource(String)}), the path being kept
+         * as the asset reference of this {@link ImageObject}.
          *
-         * @param app the parent application
-         * @param e   the concerned {@link Entity}
+         * @param path the image resource path, with its optional slicing information.
+         * @return the updated {@link ImageObject}.
          */
-        default void update(GameApp app, T e, double elapsed) {
+        public ImageObject setImage(String path) {
+            this.image = getResource(path);
+            this.imagePath = path;
+            return this;
         }
 
-        /**
-         * On a specific {@link Entity}, you can enhance the draw processing.
-         *
-         * @param app the parent application.
-         * @param e   the concerned {@link Entity}.
-         * @param g   the {@link Graphics2D} API to use.
-         */
-        default void draw(GameApp app, T e, Graphics2D g) {
+        public BufferedImage getImage() {
+            return this.image;
         }
+    }
+
+    /**
+     * {@link AnimationFrames} is an immutable animation clip, to animate an {@link AnimatedObject}.
+     *
+     * <p>It defines the frames of each step of the animation with their display duration, kept in primitive
+     * arrays. A clip holds no playback state: it is shared by all the entities playing it, each one having its
+     * own cursor in the {@link AnimationPlayer} of its {@link Scene}.</p>
+     *
+     * @author Frédéric Delorme
+     * @see Animations
+     * @since 1.0.0
+     */
+    public static class AnimationFrames {
+        private final BufferedImage[] frames;
+        // duration of each frame, and cumulated time at the end of each frame (in ms).
+        private final int[] durations;
+        private final int[] endTimes;
+        private final boolean loop;
 
         /**
-         * On a specific {@link Entity}, you can add key pressed processing.
+         * Create a new clip.
          *
-         * @param app the parent application
-         * @param e   the concerned {@link Entity}
-         * @param k   the {@link KeyEvent} to be processed.
+         * @param frames    the images of the clip.
+         * @param durations the display duration of each frame (in ms, at least 1).
+         * @param loop      true if the clip restarts from its first frame once ended.
          */
-        default void onKeyPressed(GameApp app, T e, KeyEvent k) {
+        public AnimationFrames(BufferedImage[] frames, int[] durations, boolean loop) {
+            if (frames.length == 0 || frames.length != durations.length) {
+                throw new IllegalArgumentException("An animation clip needs one duration per frame, and at least one frame");
+            }
+            this.frames = frames.clone();
+            this.durations = new int[durations.length];
+            this.endTimes = new int[durations.length];
+            int time = 0;
+            for (int i = 0; i < durations.length; i++) {
+                this.durations[i] = Math.max(1, durations[i]);
+                time += this.durations[i];
+                this.endTimes[i] = time;
+            }
+            this.loop = loop;
         }
 
         /**
-         * On a specific {@link Entity}, you can add key released processing.
+         * Retrieve the frame to be displayed at <code>time</code>, the search starting from the current frame.
          *
-         * @param app the parent application
-         * @param e   the concerned {@link Entity}
-         * @param k   the {@link KeyEvent} to be processed.
+         * @param frame the current frame.
+         * @param time  the time since the clip start (in ms, less than the clip duration).
+         * @return the frame index.
          */
-        default void onKeyReleased(GameApp app, T e, KeyEvent k) {
+        int frameAt(int frame, double time) {
+            if (frame > 0 && time < endTimes[frame - 1]) {
+                frame = 0;
+            }
+            while (frame < endTimes.length - 1 && time >= endTimes[frame]) {
+                frame++;
+            }
+            return frame;
         }
 
-        /**
-         * On activation of the {@link Entity}, this Behavior is processed.
-         *
-         * @param app the parent application
-         * @param e   the concerned {@link Entity}
-         */
-        default void onActivate(GameApp app, T e) {
+        public BufferedImage getImage(int frame) {
+            return frames[frame];
         }
 
-        /**
-         * On deactivation of the {@link Entity}, this Behavior is processed.
-         *
-         * @param app the parent application
-         * @param e   the concerned {@link Entity}
-         */
-        default void onDeactivate(GameApp app, T e) {
+        public int getFrameCount() {
+            return frames.length;
+        }
+
+        public int getFrameDuration(int frame) {
+            return durations[frame];
         }
 
         /**
-         * On mouse entering the {@link Entity} area, this Behavior is processed.
-         *
-         * @param app    the parent application
-         * @param e      the concerned {@link Entity}
-         * @param mouseX mouse X position
-         * @param mouseY mouse y position
+         * @return the total duration of the clip (in ms).
          */
-        default void onMouseIn(GameApp app, T e, double mouseX, double mouseY) {
+        public int getDuration() {
+            return endTimes[endTimes.length - 1];
+        }
+
+        public boolean isLoop() {
+            return loop;
         }
 
         /**
-         * On mouse moving out of the {@link Entity} area, this Behavior is processed.
+         * Load all the frames from a broader image by slicing each frame from it, as a looping clip.
          *
-         * @param app    the parent application
-         * @param e      the concerned {@link Entity}
-         * @param mouseX mouse X position
-         * @param mouseY mouse y position
-         */
-        default void onMouseOut(GameApp app, T e, double mouseX, double mouseY) {
-        }
-
-        /**
-         * On the mouse button clicked on the {@link Entity} area, this Behavior is processed.
+         * <p></p>source is image source and table is list of integer structured like [x,y,w,h,t] for each frame
+         * to slice from the source image where
+         * <ul>
+         *     <li><code>(x,y)</code> is position of the frame in the source image,</li>
+         *     <li><code>(w,h)</code> is the size of the extracted frame,</li>
+         *     <li><code>(t)</code> is the duration for that frame.</li>
+         * </ul>
          *
-         * @param app      the parent application
-         * @param e        the concerned {@link Entity}
-         * @param mouseX   mouse X position
-         * @param mouseY   mouse y position
-         * @param buttonId the button number that has been clicked.
+         * @param source source for images
+         * @param table  list of [x,y,w,h,t] structures.
+         * @return a brand new AnimationFrames instance.
          */
-        default void onMouseClick(GameApp app, T e, double mouseX, double mouseY, int buttonId) {
+        public static AnimationFrames load(BufferedImage source, int[] table) {
+            return load(source, table, true);
         }
 
         /**
-         * On the mouse button pressed on the {@link Entity} area, this Behavior is processed.
+         * Load all the frames from a broader image by slicing each frame from it (see
+         * {@link #load(BufferedImage, int[])}).
          *
-         * @param app      the parent application
-         * @param e        the concerned {@link Entity}
-         * @param mouseX   mouse X position
-         * @param mouseY   mouse y position
-         * @param buttonId the button number that has been clicked.
+         * @param source source for images
+         * @param table  list of [x,y,w,h,t] structures.
+         * @param loop   true if the clip restarts from its first frame once ended.
+         * @return a brand new AnimationFrames instance.
          */
-        default void onMousePressed(GameApp app, T e, double mouseX, double mouseY, int buttonId) {
+        public static AnimationFrames load(BufferedImage source, int[] table, boolean loop) {
+            if (source != null) {
+                BufferedImage[] images = new BufferedImage[table.length / 5];
+                int[] durations = new int[table.length / 5];
+                for (int idx = 0; idx < images.length; idx++) {
+                    int x = table[idx * 5];
+                    int y = table[idx * 5 + 1];
+                    int w = table[idx * 5 + 2];
+                    int h = table[idx * 5 + 3];
+                    images[idx] = source.getSubimage(x, y, w, h);
+                    durations[idx] = table[idx * 5 + 4];
+                }
+                return new AnimationFrames(images, durations, loop);
+            }
+            return null;
         }
+    }
+
+    /**
+     * {@link Animations} are a set
+     * of {@link AnimationFrames} indexed
+     * with a readable name as <code>animationKey.</code>
+     * <p>
+     * <ul>
+     *     <li>A set is built once (e.g. per character type) and shared by all the {@link AnimatedObject}'s
+     *     using it,</li>
+     *     <li>{@link AnimatedObject#play(String)} selects the clip played by one entity.</li>
+     * </ul>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class Animations {
+        private final Map<String, AnimationFrames> animationsFrames = new HashMap<>();
 
         /**
-         * On the mouse button released on the {@link Entity} area, this Behavior is processed.
+         * Add a clip to this set.
          *
-         * @param app      the parent application
-         * @param e        the concerned {@link Entity}
-         * @param mouseX   mouse X position
-         * @param mouseY   mouse y position
-         * @param buttonId the button number that has been clicked.
+         * @param animationKey the key name of the clip.
+         * @param clip         the {@link AnimationFrames} to be added.
+         * @return the updated {@link Animations} instance.
          */
-        default void onMouseReleased(GameApp app, T e, double mouseX, double mouseY, int buttonId) {
+        public Animations add(String animationKey, AnimationFrames clip) {
+            animationsFrames.put(animationKey, clip);
+            return this;
         }
 
         /**
-         * If the Entity is selected (e.g. ItemObject in a MenuObject)
+         * Retrieve a clip.
          *
-         * @param app the parent application
-         * @param e   the concerned {@link Entity}
+         * @param animationKey the key name of the clip.
+         * @return the corresponding {@link AnimationFrames}, or null if unknown.
          */
-        default void onSelected(GameApp app, T e) {
+        public AnimationFrames get(String animationKey) {
+            return animationsFrames.get(animationKey);
         }
     }
 
     /**
-     * <p>The {@link World} object helps define the context where all the Entity's instances will evolve during loop.</p>
+     * A {@link TileMap} is a level layer made of a grid of tiles, all sliced from one tileset image.
      *
-     * <p>It defines te play area and the current gravity to be applied to all objects contained by the play area.</p>
+     * <p>The grid is a compact <code>short[]</code> of tile ids: <code>0</code> is an empty cell, and the id
+     * <code>n</code> is the <code>n-1</code>th tile of the tileset, counted row by row. The grid is split into
+     * square chunks of <code>chunkSize</code> tiles, pre-rendered by the {@link TileMapRendererPlugin} into cached
+     * images, and re-baked only when one of their tiles changes.</p>
+     *
+     * <p>Some tile ids can be declared as solid (see {@link #setSolid(int...)}): the moving entities of the
+     * {@link Scene} are then stopped (and bounced according to their {@link Material}) by the solid cells,
+     * with a grid lookup costing only the cells covered by the entity.</p>
+     *
+     * <pre>
+     * TileMap map = new TileMap("level")
+     *     .setTileset("/images/tiles01.png", 16, 16)
+     *     .setMapSize(50, 37)
+     *     .setSolid(27, 41);
+     * map.setTile(10, 36, (short) 27);
+     * </pre>
      *
      * @author Frédéric Delorme
+     * @see TileMapRendererPlugin
      * @since 1.0.0
      */
-    public static class World {
-        public String name = "default_world";
-        public Rectangle2D playArea = new Rectangle2D.Double(0, 0, 640, 480);
-        public double gravity = 0.981;
-        public Material material = Material.DEFAULT;
-        public Color playAreaColor = new Color(0.0f, 0.0f, 0.3f);
+    public static class TileMap extends Entity {
+        public int tileWidth = 16, tileHeight = 16;
+        public int columns = 0, rows = 0;
+        public short[] tiles = new short[0];
+        public int chunkSize = 16;
+
+        // the tileset image path and its sliced tiles.
+        public String tilesetPath;
+        private BufferedImage[] tileset = new BufferedImage[0];
+        private final BitSet solid = new BitSet();
+
+        // pre-rendered chunks, and their dirty state.
+        private BufferedImage[] chunkImages = new BufferedImage[0];
+        private boolean[] chunkDirty = new boolean[0];
+        private int chunkColumns = 0, chunkRows = 0;
+
+        public TileMap(String name) {
+            super(name);
+            setBodyType(BodyType.STATIC);
+            collisionCategory = 1;
+        }
 
+        /**
+         * Load and slice the tileset image.
+         *
+         * @param path the tileset image resource path.
+         * @param tw   the width of a tile.
+         * @param th   the height of a tile.
+         * @return the updated {@link TileMap}.
+         */
+        public TileMap setTileset(String path, int tw, int th) {
+            BufferedImage img = getResource(path);
+            this.tilesetPath = path;
+            this.tileWidth = tw;
+            this.tileHeight = th;
+            int cols = img.getWidth() / tw;
+            int count = cols * (img.getHeight() / th);
+            tileset = new BufferedImage[count];
+            for (int i = 0; i < count; i++) {
+                tileset[i] = img.getSubimage((i % cols) * tw, (i / cols) * th, tw, th);
+            }
+            setMapSize(columns, rows);
+            return this;
+        }
 
-        public World(String name) {
-            this.name = name;
+        /**
+         * Define the size of the grid (the existing tiles are kept).
+         *
+         * @param columns number of columns.
+         * @param rows    number of rows.
+         * @return the updated {@link TileMap}.
+         */
+        public TileMap setMapSize(int columns, int rows) {
+            short[] grid = new short[columns * rows];
+            for (int r = 0; r < Math.min(rows, this.rows); r++) {
+                System.arraycopy(tiles, r * this.columns, grid, r * columns, Math.min(columns, this.columns));
+            }
+            this.tiles = grid;
+            this.columns = columns;
+            this.rows = rows;
+            this.chunkColumns = (columns + chunkSize - 1) / chunkSize;
+            this.chunkRows = (rows + chunkSize - 1) / chunkSize;
+            this.chunkImages = new BufferedImage[chunkColumns * chunkRows];
+            this.chunkDirty = new boolean[chunkColumns * chunkRows];
+            Arrays.fill(chunkDirty, true);
+            setSize(columns * tileWidth, rows * tileHeight);
+            return this;
         }
 
-        public World(String name, double gravity, Rectangle2D.Double playArea, Material playAreaLimitMaterial) {
-            this.name = name;
-            this.gravity = gravity;
-            this.playArea = playArea;
-            this.material = playAreaLimitMaterial;
+        public TileMap setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+            return setMapSize(columns, rows);
         }
-    }
 
-    /**
-     * <p>The {@link Material} object is used to set the material's constants used by an {@link Entity} during te physic processing.</p>
-     *
-     * <p>The material define first a name for a material, the density, the elasticity and the roughness for contact.</p>
-     *
-     * @author Frédéric Delorme
-     * @since 1.0.0
-     */
-    public static class Material {
-        public static Material DEFAULT = new Material("default", 1.0, 1.0, 1.0);
-        public String name;
-        public double density;
-        public double elasticity;
-        public double roughness;
+        /**
+         * Declare the tile ids stopping the moving entities.
+         *
+         * @param ids the solid tile ids.
+         * @return the updated {@link TileMap}.
+         */
+        public TileMap setSolid(int... ids) {
+            for (int id : ids) {
+                solid.set(id);
+            }
+            return this;
+        }
 
-        public Material(String name, double d, double e, double r) {
-            this.name = name;
-            this.density = d;
-            this.elasticity = e;
-            this.roughness = r;
+        public short getTile(int col, int row) {
+            if (col < 0 || row < 0 || col >= columns || row >= rows) {
+                return 0;
+            }
+            return tiles[row * columns + col];
+        }
+
+        /**
+         * Set the tile id of a cell, its chunk will be re-baked on next rendering.
+         *
+         * @param col the cell column.
+         * @param row the cell row.
+         * @param id  the tile id (0 for an empty cell).
+         * @return the updated {@link TileMap}.
+         */
+        public TileMap setTile(int col, int row, short id) {
+            if (col >= 0 && row >= 0 && col < columns && row < rows && tiles[row * columns + col] != id) {
+                tiles[row * columns + col] = id;
+                chunkDirty[(row / chunkSize) * chunkColumns + col / chunkSize] = true;
+            }
+            return this;
+        }
+
+        /**
+         * Fill a rectangle of cells with a tile id.
+         */
+        public TileMap fill(int col, int row, int w, int h, short id) {
+            for (int r = row; r < row + h; r++) {
+                for (int c = col; c < col + w; c++) {
+                    setTile(c, r, id);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Is the cell at the world position solid ?
+         *
+         * @param wx world horizontal position.
+         * @param wy world vertical position.
+         * @return true if the cell contains a solid tile.
+         */
+        public boolean isSolidAt(double wx, double wy) {
+            return solid.get(getTile((int) Math.floor((wx - x) / tileWidth), (int) Math.floor((wy - y) / tileHeight)));
+        }
+
+        /**
+         * Does the rectangle overlap at least one solid cell ?
+         *
+         * @param rx the rectangle left, in world coordinates.
+         * @param ry the rectangle top, in world coordinates.
+         * @param rw the rectangle width.
+         * @param rh the rectangle height.
+         * @return true if a solid cell is overlapped.
+         */
+        public boolean collides(double rx, double ry, double rw, double rh) {
+            int c0 = (int) Math.floor((rx - x) / tileWidth);
+            int r0 = (int) Math.floor((ry - y) / tileHeight);
+            int c1 = (int) Math.floor((rx + rw - 1e-6 - x) / tileWidth);
+            int r1 = (int) Math.floor((ry + rh - 1e-6 - y) / tileHeight);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    if (solid.get(getTile(c, r))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Find the solid cell the most overlapped by the rectangle.
+         *
+         * @param rx the rectangle left, in world coordinates.
+         * @param ry the rectangle top, in world coordinates.
+         * @param rw the rectangle width.
+         * @param rh the rectangle height.
+         * @return the index of the cell (<code>row * columns + column</code>), or -1 if no solid cell is overlapped.
+         */
+        public int getDeepestSolidCell(double rx, double ry, double rw, double rh) {
+            int c0 = Math.max((int) Math.floor((rx - x) / tileWidth), 0);
+            int r0 = Math.max((int) Math.floor((ry - y) / tileHeight), 0);
+            int c1 = Math.min((int) Math.floor((rx + rw - 1e-6 - x) / tileWidth), columns - 1);
+            int r1 = Math.min((int) Math.floor((ry + rh - 1e-6 - y) / tileHeight), rows - 1);
+            int cell = -1;
+            double max = -1;
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    if (solid.get(tiles[r * columns + c])) {
+                        double cx = x + c * tileWidth, cy = y + r * tileHeight;
+                        double area = (Math.min(rx + rw, cx + tileWidth) - Math.max(rx, cx))
+                                * (Math.min(ry + rh, cy + tileHeight) - Math.max(ry, cy));
+                        if (area > max) {
+                            max = area;
+                            cell = r * columns + c;
+                        }
+                    }
+                }
+            }
+            return cell;
+        }
+
+        /**
+         * Stop the {@link Entity} moved from <code>(prevX,prevY)</code> by the solid cells, axis by axis, its
+         * velocity and acceleration being bounced according to its {@link Material} elasticity.
+         *
+         * @param e     the moving {@link Entity}.
+         * @param prevX the position before the move.
+         * @param prevY the position before the move.
+         * @return true if a collision has been resolved.
+         */
+        public boolean resolve(Entity e, double prevX, double prevY) {
+            if (!collides(e.x, e.y, e.width, e.height)) {
+                return false;
+            }
+            if (collides(e.x, prevY, e.width, e.height)) {
+                e.x = prevX;
+                e.dx = -e.dx * e.material.elasticity;
+                e.ax = -e.ax * e.material.elasticity;
+            }
+            if (collides(e.x, e.y, e.width, e.height)) {
+                e.y = prevY;
+                e.dy = -e.dy * e.material.elasticity;
+                e.ay = -e.ay * e.material.elasticity;
+            }
+            return true;
+        }
+
+        /**
+         * Retrieve the pre-rendered image of a chunk, baked again if one of its tiles has changed.
+         *
+         * @param cc the chunk column.
+         * @param cr the chunk row.
+         * @return the chunk image, or null if the chunk is empty.
+         */
+        BufferedImage getChunkImage(int cc, int cr) {
+            int i = cr * chunkColumns + cc;
+            if (chunkDirty[i]) {
+                chunkImages[i] = bake(cc, cr, chunkImages[i]);
+                chunkDirty[i] = false;
+            }
+            return chunkImages[i];
+        }
+
+        private BufferedImage bake(int cc, int cr, BufferedImage image) {
+            BufferedImage chunk = image != null ? image
+                    : new BufferedImage(chunkSize * tileWidth, chunkSize * tileHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = chunk.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, chunk.getWidth(), chunk.getHeight());
+            g.setComposite(AlphaComposite.SrcOver);
+            boolean empty = true;
+            for (int r = 0; r < chunkSize; r++) {
+                for (int c = 0; c < chunkSize; c++) {
+                    int id = getTile(cc * chunkSize + c, cr * chunkSize + r);
+                    if (id > 0 && id <= tileset.length) {
+                        g.drawImage(tileset[id - 1], c * tileWidth, r * tileHeight, null);
+                        empty = false;
+                    }
+                }
+            }
+            g.dispose();
+            return empty ? null : chunk;
+        }
+
+        public int getChunkColumns() {
+            return chunkColumns;
+        }
+
+        public int getChunkRows() {
+            return chunkRows;
         }
     }
 
     /**
-     * <p>The {@link TextObject} is an enhanced {@link Entity} used to display Text on screen.</p>
+     * A new Entity supporting Animations.
      *
-     * <p>It adds a <code>text</code> and a <code>value</code> to the {@link Entity} Attributes to be displayed on screen.
-     * A simple text can be used &nd it will be directly drawn on screen. If a value object is set, the text must
-     * contain the {@link String#format(String, Object...)} conversion operation to be applied on to be displayed.</p>
+     * <p>The {@link Animations} set is shared; the entity only keeps the played clip and its speed, the playback
+     * time and frame being kept by the {@link AnimationPlayer} of its {@link Scene}, and drawn by the
+     * {@link AnimatedObjectRendererPlugin}.</p>
+     *
+     * <pre>
+     * Animations walker = new Animations()
+     *     .add("walk", AnimationFrames.load(sheet, new int[]{0, 0, 16, 16, 100, 16, 0, 16, 16, 100}));
+     * AnimatedObject a = new AnimatedObject("walker_1").setAnimations(walker).play("walk");
+     * </pre>
      *
      * @author Frédéric Delorme
      * @since 1.0.0
      */
-    public static class TextObject extends Entity {
-        public String text;
-        public Object value;
-        public Font font;
-        public Color textColor = Color.WHITE;
+    public static class AnimatedObject extends Entity {
 
-        public Align textAlign = Align.LEFT;
+        private Animations animations;
+        private String animationKey;
+        AnimationFrames clip;
+        float speed = 1.0f;
 
-        public TextObject(String name) {
+        // cursor of this entity in the AnimationPlayer of its scene (-1 if not playing).
+        AnimationPlayer player;
+        int cursor = -1;
+
+        /**
+         * Create a brand new {@link AnimatedObject} with its name.
+         *
+         * @param name name of this new {@link AnimatedObject}.
+         */
+        public AnimatedObject(String name) {
             super(name);
         }
 
-        public TextObject setText(String t) {
-            this.text = t;
+        /**
+         * @param animations the shared set of clips of this entity.
+         * @return the updated {@link AnimatedObject}.
+         */
+        public AnimatedObject setAnimations(Animations animations) {
+            this.animations = animations;
             return this;
         }
 
-        public TextObject setValue(Object t) {
-            this.value = t;
-            return this;
+        public Animations getAnimations() {
+            return animations;
         }
 
-        public TextObject setTextColor(Color tc) {
-            this.textColor = tc;
+        /**
+         * Play a clip of the {@link Animations} set from its start, if not already played.
+         *
+         * @param animationKey the key name of the clip to be played.
+         * @return the updated {@link AnimatedObject}.
+         */
+        public AnimatedObject play(String animationKey) {
+            AnimationFrames c = animations != null ? animations.get(animationKey) : null;
+            if (c != clip) {
+                this.clip = c;
+                this.animationKey = animationKey;
+                if (player != null) {
+                    player.restart(cursor);
+                }
+            }
             return this;
         }
 
-        public TextObject setTextAlign(Align a) {
-            this.textAlign = a;
-            return this;
+        public String getAnimationKey() {
+            return animationKey;
         }
 
-        public String getText() {
-            if (text != null && text.contains("%") && value != null) {
-                return String.format(text, value);
-            }
-            return text;
+        /**
+         * @param speed the playback speed factor (1.0 is the clip speed).
+         * @return the updated {@link AnimatedObject}.
+         */
+        public AnimatedObject setSpeed(double speed) {
+            this.speed = (float) speed;
+            return this;
         }
 
-        public TextObject setFont(Font f) {
-            this.font = f;
-            return this;
+        /**
+         * @return the current frame index of the played clip.
+         */
+        public int getFrameIndex() {
+            return player != null ? player.frames[cursor] : 0;
         }
 
-        public Font getFont() {
-            return this.font;
+        public BufferedImage getImage() {
+            return clip != null ? clip.getImage(getFrameIndex()) : null;
         }
 
-        public Object getValue() {
-            return value;
+        @Override
+        public Entity reset() {
+            if (player != null) {
+                player.restart(cursor);
+            }
+            return super.reset();
         }
     }
 
     /**
-     * <p>The {@link Camera} object will be used to track a {@link Camera#target}</p>
-     * <p>
-     * The targeted {@link Entity} will be keep on the display center according the {@link Camera#tweenFactor}.
+     * The {@link AnimationPlayer} keeps the playback cursors (time and frame) of the {@link AnimatedObject}'s of
+     * a {@link Scene} into primitive arrays, and advances all of them in one loop on each update.
+     *
+     * <p>The time left over when a frame ends is kept for the next frame, so that the clip timing does not drift
+     * with the frame rate. A looping clip restarts from its first frame, the others stay on their last one.</p>
      *
      * @author Frédéric Delorme
      * @since 1.0.0
      */
-    public static class Camera extends Entity {
-        private Entity target;
-        private double tweenFactor;
-        private Rectangle2D viewport = new Double();
+    public static class AnimationPlayer {
+        private AnimatedObject[] owners = new AnimatedObject[64];
+        private double[] times = new double[64];
+        int[] frames = new int[64];
+        private int size = 0;
 
-        public Camera(String name) {
-            super(name);
+        /**
+         * Give a playback cursor to the {@link AnimatedObject}.
+         *
+         * @param ao the {@link AnimatedObject} attached to the {@link Scene}.
+         */
+        public void add(AnimatedObject ao) {
+            if (ao.player == this) {
+                return;
+            }
+            if (size == owners.length) {
+                owners = Arrays.copyOf(owners, size * 2);
+                times = Arrays.copyOf(times, size * 2);
+                frames = Arrays.copyOf(frames, size * 2);
+            }
+            owners[size] = ao;
+            times[size] = 0;
+            frames[size] = 0;
+            ao.player = this;
+            ao.cursor = size++;
+        }
+
+        /**
+         * Release the playback cursor of the {@link AnimatedObject}, the last cursor taking its place.
+         *
+         * @param ao the {@link AnimatedObject} detached from the {@link Scene}.
+         */
+        public void remove(AnimatedObject ao) {
+            if (ao.player != this) {
+                return;
+            }
+            int i = ao.cursor;
+            int last = --size;
+            owners[i] = owners[last];
+            times[i] = times[last];
+            frames[i] = frames[last];
+            owners[i].cursor = i;
+            owners[last] = null;
+            ao.player = null;
+            ao.cursor = -1;
+        }
+
+        void restart(int cursor) {
+            times[cursor] = 0;
+            frames[cursor] = 0;
+        }
+
+        /**
+         * Advance the cursors of all the active animated entities.
+         *
+         * @param elapsed the elapsed time since previous call (in ms).
+         */
+        public void update(double elapsed) {
+            for (int i = 0; i < size; i++) {
+                AnimatedObject ao = owners[i];
+                AnimationFrames clip = ao.clip;
+                if (clip == null || !ao.active) {
+                    continue;
+                }
+                double t = times[i] + elapsed * ao.speed;
+                int duration = clip.getDuration();
+                if (t >= duration) {
+                    if (clip.isLoop()) {
+                        t %= duration;
+                    } else {
+                        times[i] = duration;
+                        frames[i] = clip.getFrameCount() - 1;
+                        continue;
+                    }
+                }
+                times[i] = t;
+                frames[i] = clip.frameAt(frames[i], t);
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void clear() {
+            for (int i = 0; i < size; i++) {
+                owners[i].player = null;
+                owners[i].cursor = -1;
+                owners[i] = null;
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * <p>The {@link Behavior} interface allows new behaviors processing to any Entity when defining the Scene.</p>
+     *
+     * <p>Each behavior linked to an Entity will be processed during the 4 steps of the game loop:
+     * <code>create</code>, <code>input</code>, <code>update</code> and <code>render</code>.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public interface Behavior<T extends Entity> {
+        /**
+         * Create will help you customize the Entity creation.
+         *
+         * @param app
+         */
+        default void create(GameApp app, T e) {
+        }
+
+        /**
+         * On a specific {@link Entity}, you can add input processing.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         */
+        default void input(GameApp app, T e) {
+        }
+
+        /**
+         * On a specific {@link Entity}, you can add enhance default update.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         */
+        default void update(GameApp app, T e, double elapsed) {
+        }
+
+        /**
+         * On a specific {@link Entity}, you can enhance the draw processing.
+         *
+         * @param app the parent application.
+         * @param e   the concerned {@link Entity}.
+         * @param g   the {@link Graphics2D} API to use.
+         */
+        default void draw(GameApp app, T e, Graphics2D g) {
+        }
+
+        /**
+         * On a specific {@link Entity}, you can add key pressed processing. This event is not sent to the
+         * {@link Scene} behaviors.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         * @param k   the {@link KeyEvent} to be processed.
+         */
+        default void onKeyPressed(GameApp app, T e, KeyEvent k) {
+        }
+
+        /**
+         * On a specific {@link Entity}, you can add key released processing.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}, or null for a {@link Scene} behavior
+         * @param k   the {@link KeyEvent} to be processed.
+         */
+        default void onKeyReleased(GameApp app, T e, KeyEvent k) {
+        }
+
+        /**
+         * On activation of the {@link Entity}, this Behavior is processed.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         */
+        default void onActivate(GameApp app, T e) {
+        }
+
+        /**
+         * On deactivation of the {@link Entity}, this Behavior is processed.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         */
+        default void onDeactivate(GameApp app, T e) {
+        }
+
+        /**
+         * On mouse entering the {@link Entity} area, this Behavior is processed.
+         *
+         * @param app    the parent application
+         * @param e      the concerned {@link Entity}
+         * @param mouseX mouse X position
+         * @param mouseY mouse y position
+         */
+        default void onMouseIn(GameApp app, T e, double mouseX, double mouseY) {
+        }
+
+        /**
+         * On mouse moving out of the {@link Entity} area, this Behavior is processed.
+         *
+         * @param app    the parent application
+         * @param e      the concerned {@link Entity}
+         * @param mouseX mouse X position
+         * @param mouseY mouse y position
+         */
+        default void onMouseOut(GameApp app, T e, double mouseX, double mouseY) {
+        }
+
+        /**
+         * On the mouse button clicked on the {@link Entity} area, this Behavior is processed.
+         *
+         * @param app      the parent application
+         * @param e        the concerned {@link Entity}
+         * @param mouseX   mouse X position
+         * @param mouseY   mouse y position
+         * @param buttonId the button number that has been clicked.
+         */
+        default void onMouseClick(GameApp app, T e, double mouseX, double mouseY, int buttonId) {
+        }
+
+        /**
+         * On the mouse button pressed on the {@link Entity} area, this Behavior is processed.
+         *
+         * @param app      the parent application
+         * @param e        the concerned {@link Entity}
+         * @param mouseX   mouse X position
+         * @param mouseY   mouse y position
+         * @param buttonId the button number that has been clicked.
+         */
+        default void onMousePressed(GameApp app, T e, double mouseX, double mouseY, int buttonId) {
+        }
+
+        /**
+         * On the mouse button released on the {@link Entity} area, this Behavior is processed.
+         *
+         * @param app      the parent application
+         * @param e        the concerned {@link Entity}
+         * @param mouseX   mouse X position
+         * @param mouseY   mouse y position
+         * @param buttonId the button number that has been clicked.
+         */
+        default void onMouseReleased(GameApp app, T e, double mouseX, double mouseY, int buttonId) {
+        }
+
+        /**
+         * If the Entity is selected (e.g. ItemObject in a MenuObject)
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         */
+        default void onSelected(GameApp app, T e) {
+        }
+
+        /**
+         * When the {@link Entity} is released to its {@link EntityPool}, the Behavior can reset its own state.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         */
+        default void onReset(GameApp app, T e) {
+        }
+
+        /**
+         * When the {@link Entity} is removed from its {@link Scene}, the Behavior can release what it has created.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         */
+        default void onRemove(GameApp app, T e) {
+        }
+
+        /**
+         * When the {@link Entity} starts touching another body (see {@link ContactSolver}).
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         * @param c   the new {@link Contact} (recycled instance, must not be kept)
+         */
+        default void onContactBegin(GameApp app, T e, Contact c) {
+        }
+
+        /**
+         * While the {@link Entity} keeps touching another body.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         * @param c   the current {@link Contact} (recycled instance, must not be kept)
+         */
+        default void onContactStay(GameApp app, T e, Contact c) {
+        }
+
+        /**
+         * When the {@link Entity} stops touching another body.
+         *
+         * @param app the parent application
+         * @param e   the concerned {@link Entity}
+         * @param c   the ended {@link Contact} (recycled instance, must not be kept)
+         */
+        default void onContactEnd(GameApp app, T e, Contact c) {
+        }
+    }
+
+    /**
+     * The {@link BehaviorEvent} enumeration lists the game loop phases and the events a {@link Behavior} can
+     * handle, with the corresponding {@link Behavior} method.
+     *
+     * <p>The {@link BehaviorEvent#maskOf(Behavior)} detects once per {@link Behavior} class which of these
+     * methods are really overridden (by the class itself or by an intermediate interface like {@link UIObject}),
+     * so that an event is only dispatched to the behaviors really handling it.</p>
+     *
+     * @author Frédéric Delorme
+     * @see BehaviorSubscriptions
+     * @since 1.0.0
+     */
+    public enum BehaviorEvent {
+        INPUT("input", 2),
+        UPDATE("update", 3),
+        DRAW("draw", 3),
+        KEY_PRESSED("onKeyPressed", 3),
+        KEY_RELEASED("onKeyReleased", 3),
+        MOUSE_IN("onMouseIn", 4),
+        MOUSE_OUT("onMouseOut", 4),
+        MOUSE_CLICK("onMouseClick", 5),
+        MOUSE_PRESSED("onMousePressed", 5),
+        MOUSE_RELEASED("onMouseReleased", 5),
+        SELECTED("onSelected", 2),
+        CONTACT_BEGIN("onContactBegin", 3),
+        CONTACT_STAY("onContactStay", 3),
+        CONTACT_END("onContactEnd", 3);
+
+        private final String methodName;
+        private final int parameterCount;
+        private final int bit;
+
+        /**
+         * Cache of the overridden methods mask per {@link Behavior} class.
+         */
+        private static final ClassValue<Integer> masks = new ClassValue<>() {
+            @Override
+            protected Integer computeValue(Class<?> type) {
+                int mask = 0;
+                for (BehaviorEvent be : BehaviorEvent.values()) {
+                    if (isOverridden(type, be.methodName, be.parameterCount)) {
+                        mask |= be.bit;
+                    }
+                }
+                return mask;
+            }
+        };
+
+        BehaviorEvent(String methodName, int parameterCount) {
+            this.methodName = methodName;
+            this.parameterCount = parameterCount;
+            this.bit = 1 << ordinal();
+        }
+
+        /**
+         * Retrieve the mask of events handled by this {@link Behavior}.
+         *
+         * @param b the {@link Behavior} to be analyzed.
+         * @return the mask of handled {@link BehaviorEvent} bits.
+         */
+        public static int maskOf(Behavior<?> b) {
+            return masks.get(b.getClass());
+        }
+
+        /**
+         * Is this event really handled by the {@link Behavior} ?
+         *
+         * @param b the {@link Behavior} to be tested.
+         * @return true if the corresponding method is overridden.
+         */
+        public boolean isHandledBy(Behavior<?> b) {
+            return (maskOf(b) & bit) != 0;
+        }
+
+        /**
+         * Is this event in the mask ?
+         *
+         * @param mask a mask of {@link BehaviorEvent} bits.
+         * @return true if the bit of this event is set in the mask.
+         */
+        public boolean isIn(int mask) {
+            return (mask & bit) != 0;
+        }
+
+        private static boolean isOverridden(Class<?> type, String name, int parameterCount) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                if (declares(c, name, parameterCount)) {
+                    return true;
+                }
+                for (Class<?> i : c.getInterfaces()) {
+                    if (i != Behavior.class && isOverridden(i, name, parameterCount)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean declares(Class<?> c, String name, int parameterCount) {
+            for (java.lang.reflect.Method m : c.getDeclaredMethods()) {
+                if (m.getName().equals(name)
+                        && m.getParameterCount() == parameterCount
+                        && !java.lang.reflect.Modifier.isAbstract(m.getModifiers())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A compact list of (entity, behavior) pairs stored into parallel arrays.
+     *
+     * <p>A <code>null</code> entity means a {@link Scene} level {@link Behavior}.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class SubscriptionList {
+        private Entity[] entities = new Entity[16];
+        @SuppressWarnings("unchecked")
+        private Behavior<Entity>[] behaviors = (Behavior<Entity>[]) new Behavior<?>[16];
+        private int size = 0;
+
+        public void add(Entity e, Behavior<Entity> b) {
+            for (int i = 0; i < size; i++) {
+                if (entities[i] == e && behaviors[i] == b) {
+                    return;
+                }
+            }
+            if (size == entities.length) {
+                entities = Arrays.copyOf(entities, size * 2);
+                behaviors = Arrays.copyOf(behaviors, size * 2);
+            }
+            entities[size] = e;
+            behaviors[size] = b;
+            size++;
+        }
+
+        /**
+         * Remove all the pairs for the {@link Entity} <code>e</code>, keeping the order of the others.
+         *
+         * @param e the {@link Entity} to be removed.
+         */
+        public void remove(Entity e) {
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                if (entities[i] != e) {
+                    entities[j] = entities[i];
+                    behaviors[j] = behaviors[i];
+                    j++;
+                }
+            }
+            Arrays.fill(entities, j, size, null);
+            Arrays.fill(behaviors, j, size, null);
+            size = j;
+        }
+
+        public void clear() {
+            Arrays.fill(entities, 0, size, null);
+            Arrays.fill(behaviors, 0, size, null);
+            size = 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Entity getEntity(int i) {
+            return entities[i];
+        }
+
+        public Behavior<Entity> getBehavior(int i) {
+            return behaviors[i];
+        }
+    }
+
+    /**
+     * The {@link BehaviorSubscriptions} registry records, for each {@link BehaviorEvent}, the entities and
+     * behaviors of a {@link Scene} that really handle it.
+     *
+     * <p>It is maintained when an {@link Entity} (and its child entities) is added to or removed from the
+     * {@link Scene}, and when a {@link Behavior} is added to an {@link Entity} of the {@link Scene}
+     * (see {@link Entity#add(Behavior)}). An input event is then dispatched only to its real listeners, and the
+     * <code>input</code> phase of the game loop only iterates the behaviors doing some work in that phase. The
+     * <code>update</code> behaviors are processed right after their own entity (see
+     * {@link Entity#isHandling(BehaviorEvent)}), to keep the update order.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class BehaviorSubscriptions {
+        private final SubscriptionList[] lists = new SubscriptionList[BehaviorEvent.values().length];
+
+        public BehaviorSubscriptions() {
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = new SubscriptionList();
+            }
+        }
+
+        /**
+         * Register all the behaviors of the {@link Entity}.
+         *
+         * @param e the {@link Entity} to be registered.
+         */
+        public void register(Entity e) {
+            for (Behavior<Entity> b : e.behaviors) {
+                register(e, b);
+            }
+        }
+
+        /**
+         * Register the {@link Behavior} of the {@link Entity} (or of the {@link Scene} if <code>e</code> is null)
+         * for all the events it handles.
+         *
+         * @param e the {@link Entity} owning the behavior, null for a {@link Scene} level behavior.
+         * @param b the {@link Behavior} to be registered.
+         */
+        public void register(Entity e, Behavior<Entity> b) {
+            int mask = BehaviorEvent.maskOf(b);
+            for (BehaviorEvent be : BehaviorEvent.values()) {
+                if ((mask & be.bit) != 0) {
+                    lists[be.ordinal()].add(e, b);
+                }
+            }
+        }
+
+        /**
+         * Remove all the subscriptions of the {@link Entity}.
+         *
+         * @param e the {@link Entity} to be unregistered.
+         */
+        public void unregister(Entity e) {
+            for (SubscriptionList l : lists) {
+                l.remove(e);
+            }
+        }
+
+        public SubscriptionList get(BehaviorEvent be) {
+            return lists[be.ordinal()];
+        }
+
+        public void clear() {
+            for (SubscriptionList l : lists) {
+                l.clear();
+            }
+        }
+    }
+
+    /**
+     * An {@link EntitySet} is a set of entities, iterated through a plain array snapshot.
+     *
+     * <p>The snapshot is rebuilt only after a change, so the game loop iterates a stable array, even if the
+     * set is modified during the iteration.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class EntitySet {
+        private static final Entity[] EMPTY = new Entity[0];
+        // Entity inherits the geometric equals() of Rectangle2D: membership is based on identity.
+        private final Map<Entity, Integer> positions = new IdentityHashMap<>();
+        private Entity[] items = new Entity[16];
+        private int size = 0;
+        private Entity[] array = EMPTY;
+        private List<Entity> view = Collections.emptyList();
+        private boolean dirty = false;
+
+        public boolean add(Entity e) {
+            if (positions.containsKey(e)) {
+                return false;
+            }
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size] = e;
+            positions.put(e, size++);
+            dirty = true;
+            return true;
+        }
+
+        public boolean remove(Entity e) {
+            Integer position = positions.remove(e);
+            if (position == null) {
+                return false;
+            }
+            Entity last = items[--size];
+            if (position != size) {
+                items[position] = last;
+                positions.put(last, position);
+            }
+            items[size] = null;
+            dirty = true;
+            return true;
+        }
+
+        public boolean contains(Entity e) {
+            return positions.containsKey(e);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the entities of this set. The returned array is shared and must not be modified.
+         */
+        public Entity[] toArray() {
+            if (dirty) {
+                array = size == 0 ? EMPTY : Arrays.copyOf(items, size);
+                view = size == 0 ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(array));
+                dirty = false;
+            }
+            return array;
+        }
+
+        /**
+         * @return an unmodifiable list of the entities of this set, rebuilt only after a change.
+         */
+        public List<Entity> asList() {
+            toArray();
+            return view;
+        }
+
+        public void clear() {
+            positions.clear();
+            Arrays.fill(items, 0, size, null);
+            size = 0;
+            array = EMPTY;
+            view = Collections.emptyList();
+            dirty = false;
+        }
+    }
+
+    /**
+     * The {@link SceneIndex} keeps the lookup indexes of the {@link Scene} entities up to date, so that an
+     * enumeration costs the size of its result, and not the size of the scene:
+     * <ul>
+     *     <li>the active set, maintained by {@link Entity#setActive(boolean)},</li>
+     *     <li>the static bodies, maintained by {@link Entity#setBodyType(BodyType)},</li>
+     *     <li>the tagged (or grouped) entities, maintained by {@link Entity#addTag(String...)} and
+     *     {@link Entity#removeTag(String)},</li>
+     *     <li>the entities per class, each entity being indexed under its class and its {@link Entity}
+     *     super classes.</li>
+     * </ul>
+     *
+     * <p>Only the entities added to the {@link Scene} are indexed, not their child entities. As the structural
+     * changes are applied on the game loop thread (see {@link CommandBuffer}), the indexes are plain
+     * {@link EntitySet}'s.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class SceneIndex {
+        private final EntitySet indexed = new EntitySet();
+        private final EntitySet active = new EntitySet();
+        private final EntitySet statics = new EntitySet();
+        private final Map<String, EntitySet> tagged = new HashMap<>();
+        private final Map<Class<?>, EntitySet> byClass = new HashMap<>();
+
+        /**
+         * Index the {@link Entity} according to its active state, its tags and its class.
+         *
+         * @param e the {@link Entity} to be indexed.
+         */
+        public void add(Entity e) {
+            if (!indexed.add(e)) {
+                return;
+            }
+            if (e.isActive()) {
+                active.add(e);
+            }
+            if (e.getBodyType() == BodyType.STATIC) {
+                statics.add(e);
+            }
+            for (String tag : e.getTags()) {
+                tagged.computeIfAbsent(tag, t -> new EntitySet()).add(e);
+            }
+            for (Class<?> type = e.getClass(); type != Object.class; type = type.getSuperclass()) {
+                byClass.computeIfAbsent(type, c -> new EntitySet()).add(e);
+                if (type == Entity.class) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Remove the {@link Entity} from all the indexes.
+         *
+         * @param e the {@link Entity} to be removed.
+         */
+        public void remove(Entity e) {
+            if (!indexed.remove(e)) {
+                return;
+            }
+            active.remove(e);
+            statics.remove(e);
+            for (String tag : e.getTags()) {
+                EntitySet set = tagged.get(tag);
+                if (set != null) {
+                    set.remove(e);
+                }
+            }
+            for (Class<?> type = e.getClass(); type != Object.class; type = type.getSuperclass()) {
+                EntitySet set = byClass.get(type);
+                if (set != null) {
+                    set.remove(e);
+                }
+                if (type == Entity.class) {
+                    break;
+                }
+            }
+        }
+
+        void updateActive(Entity e) {
+            if (indexed.contains(e)) {
+                if (e.isActive()) {
+                    active.add(e);
+                } else {
+                    active.remove(e);
+                }
+            }
+        }
+
+        void updateBodyType(Entity e) {
+            if (indexed.contains(e)) {
+                if (e.getBodyType() == BodyType.STATIC) {
+                    statics.add(e);
+                } else {
+                    statics.remove(e);
+                }
+            }
+        }
+
+        void addTag(Entity e, String tag) {
+            if (indexed.contains(e)) {
+                tagged.computeIfAbsent(tag, t -> new EntitySet()).add(e);
+            }
+        }
+
+        void removeTag(Entity e, String tag) {
+            EntitySet set = tagged.get(tag);
+            if (set != null) {
+                set.remove(e);
+            }
+        }
+
+        /**
+         * @return the active entities of the {@link Scene} (shared array, must not be modified).
+         */
+        public Entity[] getActive() {
+            return active.toArray();
+        }
+
+        /**
+         * @return the static bodies of the {@link Scene} (shared array, must not be modified).
+         */
+        public Entity[] getStatic() {
+            return statics.toArray();
+        }
+
+        /**
+         * @param tag the tag (or group name) to look for.
+         * @return the entities of the {@link Scene} tagged with <code>tag</code> (shared array, must not be
+         * modified).
+         */
+        public Entity[] getTagged(String tag) {
+            EntitySet set = tagged.get(tag);
+            return set != null ? set.toArray() : EntitySet.EMPTY;
+        }
+
+        /**
+         * @param type the class of the requested entities.
+         * @param <T>  the type of the entities.
+         * @return the entities of the {@link Scene} of class <code>type</code> or one of its subclasses (shared
+         * unmodifiable list, rebuilt only after a change).
+         */
+        public <T extends Entity> List<T> getByClass(Class<T> type) {
+            EntitySet set = byClass.get(type);
+            return set != null ? (List<T>) (List<?>) set.asList() : Collections.emptyList();
+        }
+
+        public int getActiveCount() {
+            return active.size();
+        }
+
+        public void clear() {
+            indexed.clear();
+            active.clear();
+            statics.clear();
+            tagged.clear();
+            byClass.clear();
+        }
+    }
+
+    /**
+     * The {@link CommandBuffer} records the structural changes of a {@link Scene}: spawn, destroy, reparent and
+     * activation of entities. They can be recorded from any thread, and are applied all at once on the game
+     * loop thread, at the end of the update phase (see {@link GameApp#update(double)}), so that no entity is
+     * added or removed while the scene is iterated.
+     *
+     * <p>The commands are recorded into primitive arrays, and the recording batch is swapped with the applied
+     * one, so that a command recorded while the buffer is applied is kept for the next frame.</p>
+     *
+     * <pre>
+     * getCommands().spawn(enemyPool.acquire());
+     * getCommands().destroy(enemy, enemyPool);
+     * </pre>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class CommandBuffer {
+        public static final int SPAWN = 0;
+        public static final int DESTROY = 1;
+        public static final int REPARENT = 2;
+        public static final int ACTIVATE = 3;
+
+        private Batch recording = new Batch();
+        private Batch applying = new Batch();
+        private long applied = 0;
+        // the entities destroyed by the applied batch, to destroy an entity only once.
+        private final Set<Entity> destroyed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * Add the {@link Entity} to the {@link Scene}, or as a child of <code>parent</code> if not null.
+         *
+         * @param e      the {@link Entity} to be spawned.
+         * @param parent the parent {@link Entity}, or null.
+         */
+        public synchronized void spawn(Entity e, Entity parent) {
+            recording.add(SPAWN, e, parent, null, true);
+        }
+
+        public void spawn(Entity e) {
+            spawn(e, null);
+        }
+
+        /**
+         * Remove the {@link Entity} (and its child) from the {@link Scene}, and give it back to its
+         * {@link EntityPool}, if any.
+         *
+         * @param e    the {@link Entity} to be destroyed.
+         * @param pool the {@link EntityPool} the entity must be released to, or null.
+         * @param <T>  the type of the pooled entities.
+         */
+        public synchronized <T extends Entity> void destroy(T e, EntityPool<T> pool) {
+            recording.add(DESTROY, e, null, pool, false);
+        }
+
+        public void destroy(Entity e) {
+            destroy(e, null);
+        }
+
+        /**
+         * Move the {@link Entity} to a new parent. A null <code>parent</code> turns it to a {@link Scene}
+         * level entity.
+         *
+         * @param e      the {@link Entity} to be moved.
+         * @param parent the new parent {@link Entity}, or null.
+         */
+        public synchronized void reparent(Entity e, Entity parent) {
+            recording.add(REPARENT, e, parent, null, false);
+        }
+
+        /**
+         * Activate (or deactivate) the {@link Entity} and its child (see {@link GameApp#setVisible(Entity, boolean)}).
+         *
+         * @param e      the {@link Entity} to be (de)activated.
+         * @param active the new active state.
+         */
+        public synchronized void activate(Entity e, boolean active) {
+            recording.add(ACTIVATE, e, null, null, active);
+        }
+
+        /**
+         * Apply all the recorded commands to the {@link Scene}, in their recording order.
+         *
+         * @param app   the parent application.
+         * @param scene the {@link Scene} to be modified.
+         */
+        public void apply(GameApp app, Scene scene) {
+            Batch batch;
+            synchronized (this) {
+                if (recording.size == 0) {
+                    return;
+                }
+                batch = recording;
+                recording = applying;
+                applying = batch;
+            }
+            for (int i = 0; i < batch.size; i++) {
+                Entity e = batch.targets[i];
+                Entity other = batch.others[i];
+                switch (batch.ops[i]) {
+                    case SPAWN -> {
+                        if (other != null) {
+                            other.add(e);
+                        } else {
+                            scene.add(e);
+                        }
+                    }
+                    case DESTROY -> {
+                        if (!destroyed.add(e)) {
+                            continue;
+                        }
+                        if (e.getParent() != null) {
+                            e.getParent().remove(e);
+                        }
+                        scene.remove(e);
+                        if (batch.pools[i] != null) {
+                            release(batch.pools[i], e);
+                        }
+                    }
+                    case REPARENT -> {
+                        if (e.getParent() != null) {
+                            e.getParent().remove(e);
+                        }
+                        if (other != null) {
+                            other.add(e);
+                        } else if (scene.getEntity(e.name) != e) {
+                            scene.add(e);
+                        }
+                    }
+                    case ACTIVATE -> app.setVisible(e, batch.flags[i]);
+                    default -> warn("Unknown scene command %d", batch.ops[i]);
+                }
+            }
+            applied += batch.size;
+            batch.clear();
+            destroyed.clear();
+        }
+
+        /**
+         * @return the number of commands waiting to be applied.
+         */
+        public synchronized int getPending() {
+            return recording.size;
+        }
+
+        public long getApplied() {
+            return applied;
+        }
+
+        public synchronized void clear() {
+            recording.clear();
+        }
+
+        /**
+         * Give the {@link Entity} back to its pool, the type of which has been checked by
+         * {@link #destroy(Entity, EntityPool)}.
+         */
+        @SuppressWarnings("unchecked")
+        private static <T extends Entity> void release(EntityPool<T> pool, Entity e) {
+            pool.release((T) e);
+        }
+
+        private static class Batch {
+            private int[] ops = new int[64];
+            private Entity[] targets = new Entity[64];
+            private Entity[] others = new Entity[64];
+            private EntityPool<?>[] pools = new EntityPool<?>[64];
+            private boolean[] flags = new boolean[64];
+            private int size = 0;
+
+            private void add(int op, Entity target, Entity other, EntityPool<?> pool, boolean flag) {
+                if (size == ops.length) {
+                    int capacity = size * 2;
+                    ops = Arrays.copyOf(ops, capacity);
+                    targets = Arrays.copyOf(targets, capacity);
+                    others = Arrays.copyOf(others, capacity);
+                    pools = Arrays.copyOf(pools, capacity);
+                    flags = Arrays.copyOf(flags, capacity);
+                }
+                ops[size] = op;
+                targets[size] = target;
+                others[size] = other;
+                pools[size] = pool;
+                flags[size] = flag;
+                size++;
+            }
+
+            private void clear() {
+                Arrays.fill(targets, 0, size, null);
+                Arrays.fill(others, 0, size, null);
+                Arrays.fill(pools, 0, size, null);
+                size = 0;
+            }
+        }
+    }
+
+    /**
+     * A {@link SceneSnapshot} is a compact binary image of the entities of a {@link Scene}, written with a NIO
+     * {@link ByteBuffer}. For each scene entity, it records:
+     * <ul>
+     *     <li>identity: id, name, class and parent name, and tags,</li>
+     *     <li>transform, velocity, acceleration and mass,</li>
+     *     <li>material, body type, collision filter, priority, colors and flags (active, relative to camera / parent),</li>
+     *     <li>the class names of its {@link Behavior}'s,</li>
+     *     <li>the {@link TextObject} text, value, colors and font, and the {@link ImageObject} image path,</li>
+     *     <li>the {@link GameObject} nature.</li>
+     * </ul>
+     *
+     * <p>The restore applies the recorded state onto the live entities (by name), without going through
+     * {@link Scene#create(GameApp)}: entities missing from the scene are re-added from the instances retained
+     * at capture time, or created from their class (with their image reloaded from its path) for a snapshot
+     * loaded from a file. The behaviors of an entity created from its class are created from their class too:
+     * only the behaviors having a no-argument constructor (not the anonymous ones) can be restored this way.</p>
+     *
+     * <p>The snapshots written by the previous versions are still readable: the missing values keep their
+     * current (or default) value.</p>
+     *
+     * @author Frédéric Delorme
+     * @see GameApp#resetScene()
+     * @since 1.0.0
+     */
+    public static class SceneSnapshot {
+        private static final int MAGIC = 0x47534E50; // "GSNP"
+        // 1: first version, 2: body type, 3: collision filter, 4: behaviors.
+        private static final short VERSION = 4;
+
+        private static final int FLAG_ACTIVE = 1;
+        private static final int FLAG_RELATIVE_TO_CAMERA = 2;
+        private static final int FLAG_RELATIVE_TO_PARENT = 4;
+        private static final int FLAG_BORDER_COLOR = 8;
+        private static final int FLAG_FILL_COLOR = 16;
+
+        private static final byte VALUE_NONE = 0;
+        private static final byte VALUE_INT = 1;
+        private static final byte VALUE_DOUBLE = 2;
+        private static final byte VALUE_STRING = 3;
+
+        // the captured fonts, materials and the restored colors, shared by the restores not to allocate them again.
+        private static final Map<String, Font> fonts = new ConcurrentHashMap<>();
+        private static final Map<String, Material> materials = new ConcurrentHashMap<>();
+        private static final Map<Integer, Color> colors = new ConcurrentHashMap<>();
+
+        private final String sceneName;
+        private final short version;
+        private final ByteBuffer data;
+        private final int count;
+        // the captured instances, to restore the entities removed since the capture.
+        private final Map<String, Entity> instances;
+
+        private SceneSnapshot(String sceneName, short version, ByteBuffer data, int count,
+                              Map<String, Entity> instances) {
+            this.sceneName = sceneName;
+            this.version = version;
+            this.data = data;
+            this.count = count;
+            this.instances = instances;
+        }
+
+        /**
+         * Capture the state of all the entities of the {@link Scene}.
+         *
+         * @param scene the {@link Scene} to be captured.
+         * @return the new {@link SceneSnapshot}.
+         */
+        public static SceneSnapshot capture(Scene scene) {
+            WorldStreamer streamer = scene.getStreamer();
+            if (streamer == null) {
+                return capture(scene.getName(), scene.getEntities().values());
+            }
+            // the streamed entities are managed by their chunk.
+            List<Entity> entities = new ArrayList<>();
+            for (Entity e : scene.getEntities().values()) {
+                if (!streamer.isStreamed(e)) {
+                    entities.add(e);
+                }
+            }
+            return capture(scene.getName(), entities);
+        }
+
+        /**
+         * Capture the state of a set of entities.
+         *
+         * @param name     the name of the snapshot.
+         * @param entities the entities to be captured.
+         * @return the new {@link SceneSnapshot}.
+         */
+        public static SceneSnapshot capture(String name, Collection<Entity> entities) {
+            Map<String, Entity> instances = new LinkedHashMap<>();
+            for (Entity e : entities) {
+                instances.put(e.name, e);
+            }
+            ByteBuffer buf = ByteBuffer.allocate(256 + instances.size() * 192);
+            buf.putInt(MAGIC).putShort(VERSION);
+            buf = putString(buf, name);
+            buf.putInt(instances.size());
+            for (Entity e : instances.values()) {
+                buf = write(buf, e);
+            }
+            buf.flip();
+            return new SceneSnapshot(name, VERSION, buf.asReadOnlyBuffer(), instances.size(), instances);
+        }
+
+        /**
+         * Build the recorded entities outside any {@link Scene}: the instances retained at capture time are
+         * reused, the other ones are created from their class.
+         *
+         * @return the list of the recorded entities.
+         */
+        public List<Entity> instantiate() {
+            ByteBuffer buf = data.duplicate();
+            readHeader(buf);
+            buf.getInt();
+            List<Entity> entities = new ArrayList<>(count);
+            Map<Entity, String> parents = new IdentityHashMap<>();
+            for (int i = 0; i < count; i++) {
+                Entity e = read(buf, null, parents);
+                if (e != null) {
+                    entities.add(e);
+                }
+            }
+            return entities;
+        }
+
+        private static ByteBuffer write(ByteBuffer buf, Entity e) {
+            buf = ensure(buf, 160);
+            buf.putInt(e.id);
+            buf = putString(buf, e.name);
+            buf = putString(buf, e.getClass().getName());
+            buf = putString(buf, e.getParent() != null ? e.getParent().name : "");
+            buf = ensure(buf, 128);
+            buf.putDouble(e.x).putDouble(e.y).putDouble(e.width).putDouble(e.height)
+                    .putDouble(e.dx).putDouble(e.dy).putDouble(e.ax).putDouble(e.ay)
+                    .putDouble(e.mass)
+                    .putInt(e.priority);
+            int flags = (e.active ? FLAG_ACTIVE : 0)
+                    | (e.relativeToCamera ? FLAG_RELATIVE_TO_CAMERA : 0)
+                    | (e.relativeToParent ? FLAG_RELATIVE_TO_PARENT : 0)
+                    | (e.borderColor != null ? FLAG_BORDER_COLOR : 0)
+                    | (e.fillColor != null ? FLAG_FILL_COLOR : 0);
+            buf.put((byte) flags)
+                    .put((byte) e.getBodyType().ordinal())
+                    .putInt(e.collisionCategory)
+                    .putInt(e.collisionMask)
+                    .putInt(e.borderColor != null ? e.borderColor.getRGB() : 0)
+                    .putInt(e.fillColor != null ? e.fillColor.getRGB() : 0);
+            Material m = e.material != null ? e.material : Material.DEFAULT;
+            materials.putIfAbsent(m.name, m);
+            buf = putString(buf, m.name);
+            buf = ensure(buf, 32);
+            buf.putDouble(m.density).putDouble(m.elasticity).putDouble(m.roughness);
+            Set<String> tags = e.getTags();
+            buf.putShort((short) tags.size());
+            for (String tag : tags) {
+                buf = putString(buf, tag);
+            }
+            buf = ensure(buf, 2);
+            buf.putShort((short) e.behaviors.size());
+            for (Behavior<?> b : e.behaviors) {
+                buf = putString(buf, b.getClass().getName());
+            }
+            if (e instanceof GameObject go) {
+                buf = putString(buf, go.nature.name());
+            }
+            if (e instanceof ImageObject io) {
+                buf = putString(buf, io.imagePath != null ? io.imagePath : "");
+            }
+            if (e instanceof TextObject to) {
+                buf = putString(buf, to.text);
+                buf = ensure(buf, 16);
+                if (to.value instanceof Integer i) {
+                    buf.put(VALUE_INT).putInt(i);
+                } else if (to.value instanceof Number n) {
+                    buf.put(VALUE_DOUBLE).putDouble(n.doubleValue());
+                } else if (to.value != null) {
+                    buf.put(VALUE_STRING);
+                    buf = putString(buf, to.value.toString());
+                } else {
+                    buf.put(VALUE_NONE);
+                }
+                buf = ensure(buf, 8);
+                buf.putInt(to.textColor != null ? to.textColor.getRGB() : 0);
+                buf = putString(buf, to.textAlign.name());
+                buf = putString(buf, to.font != null ? to.font.getFontName() : "");
+                if (to.font != null) {
+                    // the font is retrieved by its name, style and size on restore.
+                    fonts.putIfAbsent(fontKey(to.font.getFontName(), to.font.getStyle(), to.font.getSize2D()),
+                            to.font);
+                }
+                buf = ensure(buf, 8);
+                buf.putInt(to.font != null ? to.font.getStyle() : 0)
+                        .putFloat(to.font != null ? to.font.getSize2D() : 0f);
+            }
+            return buf;
+        }
+
+        /**
+         * Restore the recorded state into the {@link Scene}: the recorded entities are updated (or re-added),
+         * the other ones are removed, and the pending structural changes are dropped. Then
+         * {@link Scene#restore(GameApp)} is called to let the scene re-synchronize its own state.
+         *
+         * @param app   the parent application.
+         * @param scene the {@link Scene} to be restored.
+         */
+        public void restore(GameApp app, Scene scene) {
+            long start = System.nanoTime();
+            ByteBuffer buf = data.duplicate();
+            readHeader(buf);
+            buf.getInt();
+            scene.getCommands().clear();
+            scene.getContacts().clear();
+            Map<String, Entity> restored = new LinkedHashMap<>();
+            Map<Entity, String> parents = new IdentityHashMap<>();
+            for (int i = 0; i < count; i++) {
+                Entity e = read(buf, scene, parents);
+                if (e != null) {
+                    restored.put(e.name, e);
+                }
+            }
+            // remove the entities created since the capture (the streamed ones are managed by their chunk).
+            WorldStreamer streamer = scene.getStreamer();
+            for (Entity e : new ArrayList<>(scene.getEntities().values())) {
+                if (restored.get(e.name) != e && (streamer == null || !streamer.isStreamed(e))) {
+                    scene.remove(e);
+                }
+            }
+            for (Entity e : restored.values()) {
+                if (scene.getEntity(e.name) != e) {
+                    scene.add(e);
+                }
+                // an entity moved by the ECS gets its restored state back in its ECS entity.
+                if (e.ecsId >= 0 && scene.getEcs().getView(e.ecsId) == e) {
+                    scene.getEcs().set(e.ecsId, ComponentType.POSITION, e.x, e.y)
+                            .set(e.ecsId, ComponentType.VELOCITY, e.dx, e.dy);
+                }
+            }
+            // re-link the child entities to their parent.
+            parents.forEach((e, parentName) -> {
+                Entity parent = restored.get(parentName);
+                if (parent != null && e.getParent() != parent) {
+                    if (e.getParent() != null) {
+                        e.getParent().remove(e);
+                    }
+                    parent.add(e);
+                }
+            });
+            scene.restore(app);
+            debug("Scene %s restored from snapshot (%d entities, %d bytes) in %d µs",
+                    scene.getName(), count, data.limit(), (System.nanoTime() - start) / 1000);
+        }
+
+        private Entity read(ByteBuffer buf, Scene scene, Map<Entity, String> parents) {
+            int id = buf.getInt();
+            String name = getString(buf);
+            String className = getString(buf);
+            String parentName = getString(buf);
+            Entity e = scene != null ? scene.getEntity(name) : null;
+            if (e == null || !e.getClass().getName().equals(className)) {
+                e = instances.get(name);
+            }
+            boolean created = false;
+            if (e == null) {
+                e = newInstance(className, name);
+                created = e != null;
+            }
+            double x = buf.getDouble(), y = buf.getDouble(), w = buf.getDouble(), h = buf.getDouble();
+            double dx = buf.getDouble(), dy = buf.getDouble(), ax = buf.getDouble(), ay = buf.getDouble();
+            double mass = buf.getDouble();
+            int priority = buf.getInt();
+            int flags = buf.get();
+            BodyType bodyType = version >= 2 ? BodyType.values()[buf.get()] : null;
+            int collisionCategory = version >= 3 ? buf.getInt() : -1;
+            int collisionMask = version >= 3 ? buf.getInt() : -1;
+            int borderColor = buf.getInt();
+            int fillColor = buf.getInt();
+            String materialName = getString(buf);
+            double density = buf.getDouble(), elasticity = buf.getDouble(), roughness = buf.getDouble();
+            int tagCount = buf.getShort();
+            String[] tags = new String[tagCount];
+            for (int t = 0; t < tagCount; t++) {
+                tags[t] = getString(buf);
+            }
+            String[] behaviorClasses = new String[version >= 4 ? buf.getShort() : 0];
+            for (int b = 0; b < behaviorClasses.length; b++) {
+                behaviorClasses[b] = getString(buf);
+            }
+            String nature = e instanceof GameObject || isA(className, GameObject.class) ? getString(buf) : null;
+            String imagePath = e instanceof ImageObject || isA(className, ImageObject.class) ? getString(buf) : null;
+            boolean text = e instanceof TextObject || isA(className, TextObject.class);
+            if (e == null) {
+                // unknown class: skip its text part and ignore it.
+                if (text) {
+                    readText(buf, null);
+                }
+                return null;
+            }
+            e.id = id;
+            e.setPosition(x, y);
+            e.setSize(w, h);
+            e.setVelocity(dx, dy);
+            e.setAcceleration(ax, ay);
+            e.forces.clear();
+            e.mass = mass;
+            e.priority = priority;
+            // setActive() maintains the scene index of an entity already in the scene.
+            e.setActive((flags & FLAG_ACTIVE) != 0);
+            e.relativeToCamera = (flags & FLAG_RELATIVE_TO_CAMERA) != 0;
+            e.setRelativeToParent((flags & FLAG_RELATIVE_TO_PARENT) != 0);
+            if (bodyType != null) {
+                e.setBodyType(bodyType);
+            }
+            if (version >= 3) {
+                e.setCollisionFilter(collisionCategory, collisionMask);
+            }
+            e.borderColor = (flags & FLAG_BORDER_COLOR) != 0 ? color(e.borderColor, borderColor) : null;
+            e.fillColor = (flags & FLAG_FILL_COLOR) != 0 ? color(e.fillColor, fillColor) : null;
+            if (!matches(e.material, materialName, density, elasticity, roughness)) {
+                Material m = materials.get(materialName);
+                if (!matches(m, materialName, density, elasticity, roughness)) {
+                    m = new Material(materialName, density, elasticity, roughness);
+                }
+                e.material = m;
+            }
+            if (created) {
+                for (String behaviorClass : behaviorClasses) {
+                    Behavior<?> b = newBehavior(behaviorClass, name);
+                    if (b != null) {
+                        e.add(b);
+                    }
+                }
+            }
+            for (String tag : new ArrayList<>(e.getTags())) {
+                e.removeTag(tag);
+            }
+            e.addTag(tags);
+            if (e instanceof GameObject go) {
+                go.setNature(GameObjectNature.valueOf(nature));
+            }
+            if (e instanceof ImageObject io && !imagePath.isEmpty()
+                    && (io.image == null || !imagePath.equals(io.imagePath))) {
+                io.setImage(imagePath);
+            }
+            if (e instanceof TextObject to) {
+                readText(buf, to);
+            }
+            if (!parentName.isEmpty()) {
+                parents.put(e, parentName);
+            }
+            return e;
+        }
+
+        private static void readText(ByteBuffer buf, TextObject to) {
+            String text = getString(buf);
+            Object value = switch (buf.get()) {
+                case VALUE_INT -> buf.getInt();
+                case VALUE_DOUBLE -> buf.getDouble();
+                case VALUE_STRING -> getString(buf);
+                default -> null;
+            };
+            int textColor = buf.getInt();
+            String align = getString(buf);
+            String fontName = getString(buf);
+            int style = buf.getInt();
+            float size = buf.getFloat();
+            if (to != null) {
+                to.setText(text);
+                to.setValue(value);
+                to.setTextColor(color(to.textColor, textColor));
+                to.setTextAlign(Align.valueOf(align));
+                if (!fontName.isEmpty() && (to.font == null || !to.font.getFontName().equals(fontName)
+                        || to.font.getStyle() != style || to.font.getSize2D() != size)) {
+                    Font font = fonts.get(fontKey(fontName, style, size));
+                    to.setFont(font != null ? font : new Font(fontName, style, 1).deriveFont(size));
+                }
+            }
+        }
+
+        private static String fontKey(String name, int style, float size) {
+            return name + "|" + style + "|" + size;
+        }
+
+        private static Color color(Color current, int rgb) {
+            if (current != null && current.getRGB() == rgb) {
+                return current;
+            }
+            return colors.computeIfAbsent(rgb, c -> new Color(c, true));
+        }
+
+        private static boolean matches(Material m, String name, double density, double elasticity, double roughness) {
+            return m != null && m.name.equals(name) && m.density == density
+                    && m.elasticity == elasticity && m.roughness == roughness;
+        }
+
+        private static Behavior<?> newBehavior(String className, String entityName) {
+            try {
+                Constructor<?> constructor = Class.forName(className).getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return (Behavior<?>) constructor.newInstance();
+            } catch (ReflectiveOperationException | ClassCastException | SecurityException e) {
+                warn("Unable to restore behavior %s of entity %s: it needs a no-argument constructor",
+                        className, entityName);
+                return null;
+            }
+        }
+
+        private static boolean isA(String className, Class<?> type) {
+            try {
+                return type.isAssignableFrom(Class.forName(className));
+            } catch (ClassNotFoundException e) {
+                return false;
+            }
+        }
+
+        private static Entity newInstance(String className, String name) {
+            try {
+                return (Entity) Class.forName(className).getConstructor(String.class).newInstance(name);
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                warn("Unable to restore entity %s of class %s: %s", name, className, e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * Write this snapshot to a file.
+         *
+         * @param file the path of the file to be written.
+         * @throws IOException if the file can not be written.
+         */
+        public void save(Path file) throws IOException {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = data.duplicate();
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+            }
+        }
+
+        /**
+         * Read a snapshot from a file.
+         *
+         * @param file the path of the file to be read.
+         * @return the loaded {@link SceneSnapshot}.
+         * @throws IOException if the file can not be read or is not a snapshot.
+         */
+        public static SceneSnapshot load(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buf = ByteBuffer.allocate((int) channel.size());
+                while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                    // read until the end of the file.
+                }
+                buf.flip();
+                ByteBuffer header = buf.duplicate();
+                short version = readVersion(header);
+                String sceneName = getString(header);
+                int count = header.getInt();
+                return new SceneSnapshot(sceneName, version, buf.asReadOnlyBuffer(), count, Collections.emptyMap());
+            }
+        }
+
+        private static short readVersion(ByteBuffer buf) {
+            if (buf.remaining() < 6 || buf.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a scene snapshot");
+            }
+            short version = buf.getShort();
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("Unsupported scene snapshot version " + version);
+            }
+            return version;
+        }
+
+        private static String readHeader(ByteBuffer buf) {
+            readVersion(buf);
+            return getString(buf);
+        }
+
+        public String getSceneName() {
+            return sceneName;
+        }
+
+        public short getVersion() {
+            return version;
+        }
+
+        public int getEntityCount() {
+            return count;
+        }
+
+        public int getSize() {
+            return data.limit();
+        }
+
+        private static ByteBuffer ensure(ByteBuffer buf, int needed) {
+            if (buf.remaining() >= needed) {
+                return buf;
+            }
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + needed));
+            buf.flip();
+            bigger.put(buf);
+            return bigger;
+        }
+
+        private static ByteBuffer putString(ByteBuffer buf, String s) {
+            if (s == null) {
+                buf = ensure(buf, 2);
+                buf.putShort((short) -1);
+                return buf;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            buf = ensure(buf, 2 + bytes.length);
+            buf.putShort((short) bytes.length).put(bytes);
+            return buf;
+        }
+
+        private static String getString(ByteBuffer buf) {
+            int length = buf.getShort();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buf.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The {@link InputRecorder} writes, tick after tick, the input of a game session into a compact binary
+     * file, to be replayed later by {@link InputReplay}:
+     * <ul>
+     *     <li>a header with the seed of the {@link GameApp#getRandom()} generator,</li>
+     *     <li>for each tick: the tick delta (ms), the key and mouse events dispatched during the tick
+     *     (with their {@link InputQueue} type, mouse positions in buffer coordinates), and the changes of the
+     *     {@link GameApp} keys state.</li>
+     * </ul>
+     *
+     * <p>It is activated with the <code>app.record.file</code> configuration key. The records are written
+     * through a NIO {@link FileChannel}.</p>
+     *
+     * @author Frédéric Delorme
+     * @see InputReplay
+     * @since 1.0.0
+     */
+    public static class InputRecorder {
+        static final int MAGIC = 0x47524543; // "GREC"
+        static final short VERSION = 1;
+        private static final int TICK_CAPACITY = 32 * 1024;
+
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        private final boolean[] lastKeys = new boolean[1024];
+        private boolean tickOpen = false;
+        private int tickStart;
+        private int eventCount;
+        private long ticks = 0;
+        private long dropped = 0;
+
+        /**
+         * Create the recording file and write its header.
+         *
+         * @param file the path of the recording file.
+         * @param seed the seed of the game random generator.
+         * @throws IOException if the file can not be created.
+         */
+        public InputRecorder(Path file, long seed) throws IOException {
+            this.file = file;
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.putInt(MAGIC).putShort(VERSION).putLong(seed);
+        }
+
+        private boolean openTick(int needed) {
+            if (!tickOpen) {
+                if (buffer.remaining() < TICK_CAPACITY) {
+                    flush();
+                }
+                tickStart = buffer.position();
+                // reserve the tick delta and the event count.
+                buffer.putInt(0).putShort((short) 0);
+                eventCount = 0;
+                tickOpen = true;
+            }
+            if (buffer.position() - tickStart + needed > TICK_CAPACITY - 4096) {
+                dropped++;
+                return false;
+            }
+            return true;
+        }
+
+        public void recordKey(int type, KeyEvent k) {
+            if (openTick(11)) {
+                buffer.put((byte) type).putInt(k.getKeyCode()).putChar(k.getKeyChar()).putShort((short) k.getModifiersEx());
+                eventCount++;
+            }
+        }
+
+        public void recordMouse(int type, double x, double y, int button) {
+            if (openTick(21)) {
+                buffer.put((byte) type).putDouble(x).putDouble(y).putInt(button);
+                eventCount++;
+            }
+        }
+
+        /**
+         * Close the current tick, with its delta and the changes of the keys state.
+         *
+         * @param delay the tick delta in ms.
+         * @param keys  the current keys state.
+         */
+        public void endTick(long delay, boolean[] keys) {
+            openTick(0);
+            buffer.putInt(tickStart, (int) delay);
+            buffer.putShort(tickStart + 4, (short) eventCount);
+            int countPosition = buffer.position();
+            buffer.putShort((short) 0);
+            short changes = 0;
+            for (int i = 0; i < lastKeys.length; i++) {
+                if (keys[i] != lastKeys[i]) {
+                    lastKeys[i] = keys[i];
+                    buffer.putShort((short) (keys[i] ? i | 0x8000 : i));
+                    changes++;
+                }
+            }
+            buffer.putShort(countPosition, changes);
+            tickOpen = false;
+            ticks++;
+        }
+
+        private void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                error("Unable to write the input recording %s: %s", file, e.getMessage());
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Write the pending records and close the recording file.
+         */
+        public void close() {
+            if (tickOpen) {
+                // drop the unfinished tick.
+                buffer.position(tickStart);
+                tickOpen = false;
+            }
+            flush();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                error("Unable to close the input recording %s: %s", file, e.getMessage());
+            }
+            info("Input recording %s closed: %d ticks (%d events dropped)", file, ticks, dropped);
+        }
+    }
+
+    /**
+     * The {@link InputReplay} feeds back a recording of the {@link InputRecorder} into the game loop: the
+     * random generator is seeded with the recorded seed, each tick uses its recorded delta as a fixed timestep
+     * (no wait between ticks), and its recorded events are dispatched by {@link GameApp#input()} in place of the
+     * AWT ones.
+     *
+     * <p>It is activated with the <code>app.replay.file</code> configuration key; with
+     * <code>app.replay.render=false</code>, the replay runs headless, without window nor rendering. The
+     * duration of each tick phases is measured, a summary is logged at the end of the replay, and the per tick
+     * timings can be written into the <code>app.replay.timings</code> CSV file to compare engine versions.</p>
+     *
+     * @author Frédéric Delorme
+     * @see InputRecorder
+     * @since 1.0.0
+     */
+    public static class InputReplay {
+        private final Path file;
+        private final ByteBuffer data;
+        private final long seed;
+        private final Component source = new Canvas();
+        private int tick = 0;
+        private long delay;
+
+        // per tick timings (ns) of the input, update and render phases.
+        private long[] timings = new long[3 * 4096];
+
+        private InputReplay(Path file, ByteBuffer data, long seed) {
+            this.file = file;
+            this.data = data;
+            this.seed = seed;
+        }
+
+        /**
+         * Read a recording file.
+         *
+         * @param file the path of the recording file.
+         * @return the {@link InputReplay} ready to be played.
+         * @throws IOException if the file can not be read or is not an input recording.
+         */
+        public static InputReplay open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+                while (data.hasRemaining() && channel.read(data) >= 0) {
+                    // read until the end of the file.
+                }
+                data.flip();
+                if (data.remaining() < 14 || data.getInt() != InputRecorder.MAGIC) {
+                    throw new IOException("Not an input recording: " + file);
+                }
+                short version = data.getShort();
+                if (version != InputRecorder.VERSION) {
+                    throw new IOException("Unsupported input recording version " + version);
+                }
+                return new InputReplay(file, data, data.getLong());
+            }
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Move to the next recorded tick.
+         *
+         * @return false at the end of the recording.
+         */
+        public boolean nextTick() {
+            if (data.remaining() < 6) {
+                return false;
+            }
+            delay = data.getInt();
+            tick++;
+            return true;
+        }
+
+        public long getDelay() {
+            return delay;
+        }
+
+        public int getTick() {
+            return tick;
+        }
+
+        /**
+         * Dispatch the events of the current tick, and apply its keys state changes.
+         *
+         * @param app the parent application.
+         */
+        private void dispatch(GameApp app) {
+            int count = data.getShort();
+            for (int i = 0; i < count; i++) {
+                int type = data.get();
+                switch (type) {
+                    case InputQueue.KEY_PRESSED, InputQueue.KEY_RELEASED -> {
+                        int keyCode = data.getInt();
+                        char keyChar = data.getChar();
+                        int modifiers = data.getShort() & 0xFFFF;
+                        app.processInputEvent(type, new KeyEvent(source,
+                                type == InputQueue.KEY_PRESSED ? KeyEvent.KEY_PRESSED : KeyEvent.KEY_RELEASED,
+                                0, modifiers, keyCode, keyChar));
+                    }
+                    default -> {
+                        app.mouseX = data.getDouble();
+                        app.mouseY = data.getDouble();
+                        int button = data.getInt();
+                        if (type == InputQueue.MOUSE_MOVED) {
+                            app.processMouseHover();
+                        } else {
+                            app.processInputEvent(type, new MouseEvent(source, mouseId(type), 0, 0,
+                                    (int) app.mouseX, (int) app.mouseY, 1, false, button));
+                        }
+                    }
+                }
+            }
+            int changes = data.getShort();
+            for (int i = 0; i < changes; i++) {
+                int key = data.getShort() & 0xFFFF;
+                app.keys[key & 0x7FFF] = (key & 0x8000) != 0;
+            }
+        }
+
+        private static int mouseId(int type) {
+            return switch (type) {
+                case InputQueue.MOUSE_PRESSED -> MouseEvent.MOUSE_PRESSED;
+                case InputQueue.MOUSE_RELEASED -> MouseEvent.MOUSE_RELEASED;
+                case InputQueue.MOUSE_MOVED -> MouseEvent.MOUSE_MOVED;
+                default -> MouseEvent.MOUSE_CLICKED;
+            };
+        }
+
+        /**
+         * Record the phases duration of the current tick.
+         */
+        public void time(long inputNs, long updateNs, long renderNs) {
+            int i = (tick - 1) * 3;
+            if (i + 3 > timings.length) {
+                timings = Arrays.copyOf(timings, timings.length * 2);
+            }
+            timings[i] = inputNs;
+            timings[i + 1] = updateNs;
+            timings[i + 2] = renderNs;
+        }
+
+        /**
+         * Log the summary of the tick timings, and write the per tick timings to a CSV file.
+         *
+         * @param csv the path of the CSV file, or null.
+         */
+        public void report(String csv) {
+            long[] totals = new long[tick];
+            for (int t = 0; t < tick; t++) {
+                totals[t] = timings[t * 3] + timings[t * 3 + 1] + timings[t * 3 + 2];
+            }
+            long[] sorted = totals.clone();
+            Arrays.sort(sorted);
+            long sum = 0;
+            for (long v : sorted) {
+                sum += v;
+            }
+            if (tick > 0) {
+                info("Replay of %s: %d ticks, tick time avg:%d µs p50:%d µs p95:%d µs p99:%d µs max:%d µs",
+                        file, tick, sum / tick / 1000,
+                        sorted[tick / 2] / 1000,
+                        sorted[Math.min(tick - 1, tick * 95 / 100)] / 1000,
+                        sorted[Math.min(tick - 1, tick * 99 / 100)] / 1000,
+                        sorted[tick - 1] / 1000);
+            }
+            if (csv != null && !csv.isEmpty()) {
+                try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(csv)))) {
+                    out.println("tick,input_ns,update_ns,render_ns,total_ns");
+                    for (int t = 0; t < tick; t++) {
+                        out.printf("%d,%d,%d,%d,%d%n",
+                                t + 1, timings[t * 3], timings[t * 3 + 1], timings[t * 3 + 2], totals[t]);
+                    }
+                } catch (IOException e) {
+                    error("Unable to write the replay timings to %s: %s", csv, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * The {@link WorldStreamer} splits a large world into fixed size square chunks, and keeps in the
+     * {@link Scene} only the entities of the chunks around the active {@link Camera} center:
+     * <ul>
+     *     <li>the chunks within <code>app.world.chunk.radius</code> of the camera chunk are active: their
+     *     entities are added to the scene (and so updated and drawn),</li>
+     *     <li>the chunks leaving this neighbourhood are deactivated: their entities are removed from the scene,
+     *     and re-assigned to the chunk of their current position,</li>
+     *     <li>the <code>app.world.chunk.prefetch</code> next rings of chunks in the direction of travel are loaded
+     *     in advance,</li>
+     *     <li>the loaded chunks farther than the prefetch distance are serialized to
+     *     <code>app.world.chunk.path</code> (a {@link SceneSnapshot} per chunk) and released from memory.</li>
+     * </ul>
+     *
+     * <p>Reading and writing the chunk files is done by a background thread; the entities are captured before
+     * the write and instantiated after the read on the game loop thread, and the scene itself is only modified by
+     * {@link #update(GameApp)}, at the end of the update phase. While an input recording is replayed, the chunk
+     * files are read and written by the game loop thread itself, so the chunks are loaded on the same tick at
+     * each replay.</p>
+     *
+     * <p>Only the entities given to {@link #add(Entity)} are streamed. Their {@link Behavior}'s are kept in
+     * memory while their chunk is unloaded, and given back to the entities read from the chunk file. The
+     * streamed entities are not part of the scene snapshots (see {@link SceneSnapshot}).</p>
+     *
+     * <pre>
+     * WorldStreamer streamer = new WorldStreamer(app, this);
+     * streamer.add(new GameObject("rock_1").setPosition(4000, 1200));
+     * setStreamer(streamer);
+     * </pre>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class WorldStreamer {
+
+        private enum ChunkState {UNLOADED, LOADING, LOADED, ACTIVE}
+
+        private static class Chunk {
+            final int cx, cy;
+            ChunkState state = ChunkState.LOADED;
+            final List<Entity> entities = new ArrayList<>();
+            // the chunk file holds some entities.
+            boolean stored = false;
+            // a save of this chunk is in progress.
+            boolean saving = false;
+
+            Chunk(int cx, int cy) {
+                this.cx = cx;
+                this.cy = cy;
+            }
+        }
+
+        private final Scene scene;
+        private final double chunkSize;
+        private final int radius;
+        private final int prefetch;
+        private final Path storage;
+        private final Map<Long, Chunk> chunks = new HashMap<>();
+        // the LOADED chunks, candidates to the release (in creation order, to release them in the same order).
+        private final Set<Chunk> loaded = new LinkedHashSet<>();
+        private final List<Chunk> releasing = new ArrayList<>();
+        private int active = 0;
+        private final ExecutorService io;
+        // the results of the background tasks, applied on the game loop thread.
+        private final Queue<Runnable> completions = new ConcurrentLinkedQueue<>();
+        // the streamed entities currently in memory (Entity inherits the geometric equals() of Rectangle2D).
+        private final Set<Entity> streamed = Collections.newSetFromMap(new IdentityHashMap<>());
+        // the behaviors of the entities of the unloaded chunks, per entity name.
+        private final Map<String, List<Behavior<?>>> storedBehaviors = new HashMap<>();
+        private int centerX = Integer.MIN_VALUE, centerY = Integer.MIN_VALUE;
+        private int loads = 0, saves = 0;
+        // the background tasks are run by the game loop thread (input replay).
+        private boolean synchronous = false;
+
+        /**
+         * Create a new {@link WorldStreamer} for the {@link Scene}, configured from the <code>app.world.chunk.*</code>
+         * configuration keys.
+         *
+         * @param app   the parent application.
+         * @param scene the {@link Scene} receiving the entities of the active chunks.
+         */
+        public WorldStreamer(GameApp app, Scene scene) {
+            Properties config = app.getConfig();
+            this.scene = scene;
+            this.chunkSize = Double.parseDouble(config.getProperty("app.world.chunk.size", "256"));
+            this.radius = Integer.parseInt(config.getProperty("app.world.chunk.radius", "1"));
+            this.prefetch = Integer.parseInt(config.getProperty("app.world.chunk.prefetch", "1"));
+            String path = config.getProperty("app.world.chunk.path", "");
+            try {
+                this.storage = path.isEmpty()
+                        ? Files.createTempDirectory("chunks-" + scene.getName())
+                        : Files.createDirectories(Paths.get(path, scene.getName()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to create the world chunks storage: " + e.getMessage(), e);
+            }
+            this.io = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "world-streamer");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        private static long key(int cx, int cy) {
+            return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+        }
+
+        private Chunk chunk(int cx, int cy) {
+            long k = key(cx, cy);
+            Chunk c = chunks.get(k);
+            if (c == null) {
+                c = new Chunk(cx, cy);
+                chunks.put(k, c);
+                loaded.add(c);
+            }
+            return c;
+        }
+
+        private void setState(Chunk c, ChunkState state) {
+            if (c.state == ChunkState.ACTIVE) {
+                active--;
+            } else if (c.state == ChunkState.LOADED) {
+                loaded.remove(c);
+            }
+            c.state = state;
+            if (state == ChunkState.ACTIVE) {
+                active++;
+            } else if (state == ChunkState.LOADED) {
+                loaded.add(c);
+            }
+        }
+
+        private void submit(Runnable task) {
+            if (synchronous) {
+                // the completion is applied at the start of the next update, whatever the disk speed.
+                task.run();
+            } else {
+                io.submit(task);
+            }
+        }
+
+        private int chunkX(Entity e) {
+            return (int) Math.floor((e.x + e.width * 0.5) / chunkSize);
+        }
+
+        private int chunkY(Entity e) {
+            return (int) Math.floor((e.y + e.height * 0.5) / chunkSize);
+        }
+
+        /**
+         * Add a streamed {@link Entity} into the chunk of its position.
+         *
+         * @param e the {@link Entity} to be streamed.
+         */
+        public void add(Entity e) {
+            Chunk c = chunk(chunkX(e), chunkY(e));
+            c.entities.add(e);
+            streamed.add(e);
+            if (c.state == ChunkState.ACTIVE) {
+                scene.add(e);
+            }
+        }
+
+        /**
+         * Apply the background tasks results, then activate, deactivate, load and unload the chunks according
+         * to the active {@link Camera} center.
+         *
+         * @param app the parent application.
+         */
+        public void update(GameApp app) {
+            synchronous = app.inputReplay != null;
+            Runnable done;
+            while ((done = completions.poll()) != null) {
+                done.run();
+            }
+            Camera cam = scene.getActiveCamera();
+            if (cam == null) {
+                return;
+            }
+            int cx = (int) Math.floor((cam.x + cam.width * 0.5) / chunkSize);
+            int cy = (int) Math.floor((cam.y + cam.height * 0.5) / chunkSize);
+            int dirX = centerX == Integer.MIN_VALUE ? 0 : Integer.signum(cx - centerX);
+            int dirY = centerY == Integer.MIN_VALUE ? 0 : Integer.signum(cy - centerY);
+            boolean moved = cx != centerX || cy != centerY;
+            int oldX = centerX, oldY = centerY;
+            centerX = cx;
+            centerY = cy;
+
+            // deactivate the chunks of the previous neighbourhood out of the new one.
+            if (moved && oldX != Integer.MIN_VALUE) {
+                for (int y = oldY - radius; y <= oldY + radius; y++) {
+                    for (int x = oldX - radius; x <= oldX + radius; x++) {
+                        if (Math.max(Math.abs(x - cx), Math.abs(y - cy)) > radius) {
+                            Chunk c = chunks.get(key(x, y));
+                            if (c != null && c.state == ChunkState.ACTIVE) {
+                                deactivate(c);
+                            }
+                        }
+                    }
+                }
+            }
+            // activate the neighbourhood (as soon as loaded).
+            for (int y = cy - radius; y <= cy + radius; y++) {
+                for (int x = cx - radius; x <= cx + radius; x++) {
+                    Chunk c = chunks.get(key(x, y));
+                    if (c != null) {
+                        if (c.state == ChunkState.UNLOADED) {
+                            load(c);
+                        } else if (c.state == ChunkState.LOADED) {
+                            activate(c);
+                        }
+                    }
+                }
+            }
+            if (moved) {
+                // prefetch the next rings in the direction of travel.
+                if (dirX != 0 || dirY != 0) {
+                    int far = radius + prefetch;
+                    for (int y = cy - far; y <= cy + far; y++) {
+                        for (int x = cx - far; x <= cx + far; x++) {
+                            if (Math.max(Math.abs(x - cx), Math.abs(y - cy)) > radius
+                                    && (x - cx) * dirX + (y - cy) * dirY > 0) {
+                                Chunk c = chunks.get(key(x, y));
+                                if (c != null && c.state == ChunkState.UNLOADED) {
+                                    load(c);
+                                }
+                            }
+                        }
+                    }
+                }
+                // release the chunks far from the camera.
+                releasing.clear();
+                for (Chunk c : loaded) {
+                    if (!c.saving && distance(c, cx, cy) > radius + prefetch) {
+                        releasing.add(c);
+                    }
+                }
+                for (Chunk c : releasing) {
+                    save(c);
+                }
+                releasing.clear();
+            }
+        }
+
+        private static int distance(Chunk c, int cx, int cy) {
+            return Math.max(Math.abs(c.cx - cx), Math.abs(c.cy - cy));
+        }
+
+        private void activate(Chunk c) {
+            setState(c, ChunkState.ACTIVE);
+            for (Entity e : c.entities) {
+                scene.add(e);
+            }
+        }
+
+        private void deactivate(Chunk c) {
+            setState(c, ChunkState.LOADED);
+            List<Entity> entities = new ArrayList<>(c.entities);
+            c.entities.clear();
+            for (Entity e : entities) {
+                // the entity may have moved to another chunk.
+                Chunk target = chunk(chunkX(e), chunkY(e));
+                if (target.state != ChunkState.ACTIVE) {
+                    scene.remove(e);
+                }
+                target.entities.add(e);
+            }
+        }
+
+        private void load(Chunk c) {
+            if (!c.stored) {
+                setState(c, ChunkState.LOADED);
+                return;
+            }
+            setState(c, ChunkState.LOADING);
+            Path file = file(c);
+            submit(() -> {
+                try {
+                    SceneSnapshot snapshot = SceneSnapshot.load(file);
+                    completions.add(() -> {
+                        // the entities are created on the game loop thread (Entity.index is not thread safe).
+                        List<Entity> entities = snapshot.instantiate();
+                        for (Entity e : entities) {
+                            List<Behavior<?>> behaviors = storedBehaviors.remove(e.name);
+                            if (behaviors != null) {
+                                // the kept instances replace the behaviors re-created from their class.
+                                e.behaviors.clear();
+                                e.behaviorMask = 0;
+                                behaviors.forEach(e::add);
+                            }
+                        }
+                        streamed.addAll(entities);
+                        c.entities.addAll(entities);
+                        c.stored = false;
+                        setState(c, ChunkState.LOADED);
+                        loads++;
+                    });
+                } catch (IOException | RuntimeException e) {
+                    error("Unable to load the world chunk %d,%d: %s", c.cx, c.cy, e.getMessage());
+                    completions.add(() -> setState(c, ChunkState.LOADED));
+                }
+            });
+        }
+
+        private void save(Chunk c) {
+            if (c.entities.isEmpty() || c.stored) {
+                setState(c, c.stored ? ChunkState.UNLOADED : ChunkState.LOADED);
+                return;
+            }
+            List<Entity> entities = new ArrayList<>(c.entities);
+            Path file = file(c);
+            // captured on the game loop thread, only the bytes are written by the background thread.
+            SceneSnapshot snapshot = SceneSnapshot.capture(file.getFileName().toString(), entities);
+            c.saving = true;
+            submit(() -> {
+                try {
+                    snapshot.save(file);
+                    completions.add(() -> {
+                        c.saving = false;
+                        // keep the entities added to the chunk during the save.
+                        Set<Entity> saved = Collections.newSetFromMap(new IdentityHashMap<>());
+                        saved.addAll(entities);
+                        c.entities.removeIf(saved::contains);
+                        if (c.state == ChunkState.LOADED && c.entities.isEmpty()) {
+                            for (Entity e : entities) {
+                                List<Behavior<?>> behaviors = new ArrayList<>(e.behaviors.size());
+                                for (Behavior<?> b : e.behaviors) {
+                                    behaviors.add(b);
+                                }
+                                storedBehaviors.put(e.name, behaviors);
+                                streamed.remove(e);
+                            }
+                            c.stored = true;
+                            setState(c, ChunkState.UNLOADED);
+                            saves++;
+                        } else {
+                            // back in use (or new entities) during the save: keep them in memory.
+                            c.entities.addAll(0, entities);
+                        }
+                    });
+                } catch (IOException | RuntimeException e) {
+                    error("Unable to save the world chunk %d,%d: %s", c.cx, c.cy, e.getMessage());
+                    completions.add(() -> c.saving = false);
+                }
+            });
+        }
+
+        private Path file(Chunk c) {
+            return storage.resolve("chunk_" + c.cx + "_" + c.cy + ".snap");
+        }
+
+        public int getActiveChunks() {
+            return active;
+        }
+
+        public int getLoadedChunks() {
+            return active + loaded.size();
+        }
+
+        public int getChunkCount() {
+            return chunks.size();
+        }
+
+        public double getChunkSize() {
+            return chunkSize;
+        }
+
+        /**
+         * Is the {@link Entity} managed by this {@link WorldStreamer} ?
+         *
+         * @param e the {@link Entity} to be checked.
+         * @return true if the entity is streamed.
+         */
+        public boolean isStreamed(Entity e) {
+            return streamed.contains(e);
+        }
+
+        /**
+         * Stop the background thread, wait for the end of the chunk file in progress, and delete the chunk files.
+         */
+        public void dispose() {
+            io.shutdownNow();
+            try {
+                // a save in progress would create the chunk file again after its deletion.
+                if (!io.awaitTermination(5, TimeUnit.SECONDS)) {
+                    warn("World streamer still running after 5 s, the chunks storage %s may not be cleaned", storage);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            completions.clear();
+            chunks.clear();
+            loaded.clear();
+            releasing.clear();
+            active = 0;
+            streamed.clear();
+            storedBehaviors.clear();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(storage, "chunk_*.snap")) {
+                for (Path f : files) {
+                    Files.deleteIfExists(f);
+                }
+                Files.deleteIfExists(storage);
+            } catch (IOException e) {
+                warn("Unable to clean the world chunks storage %s: %s", storage, e.getMessage());
+            }
+            debug("World streamer disposed (%d chunk loads, %d chunk saves)", loads, saves);
+        }
+    }
+
+    /**
+     * <p>The {@link World} object helps define the context where all the Entity's instances will evolve during loop.</p>
+     *
+     * <p>It defines te play area and the current gravity to be applied to all objects contained by the play area.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class World {
+        public String name = "default_world";
+        public Rectangle2D playArea = new Rectangle2D.Double(0, 0, 640, 480);
+        public double gravity = 0.981;
+        public Material material = Material.DEFAULT;
+        public Color playAreaColor = new Color(0.0f, 0.0f, 0.3f);
+        // a body moving less than sleepThreshold (per tick) during sleepTicks ticks is put to sleep.
+        public double sleepThreshold = 0.05;
+        // ... if its acceleration is also below sleepAcceleration.
+        public double sleepAcceleration = 0.05;
+        public int sleepTicks = 60;
+        // number of impulse iterations per tick of the ContactSolver.
+        public int contactIterations = 4;
+
+
+        public World(String name) {
+            this.name = name;
+        }
+
+        public World(String name, double gravity, Rectangle2D.Double playArea, Material playAreaLimitMaterial) {
+            this.name = name;
+            this.gravity = gravity;
+            this.playArea = playArea;
+            this.material = playAreaLimitMaterial;
+        }
+    }
+
+    /**
+     * <p>The {@link Material} object is used to set the material's constants used by an {@link Entity} during te physic processing.</p>
+     *
+     * <p>The material define first a name for a material, the density, the elasticity and the roughness for contact.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class Material {
+        public static Material DEFAULT = new Material("default", 1.0, 1.0, 1.0);
+        public String name;
+        public double density;
+        public double elasticity;
+        public double roughness;
+
+        public Material(String name, double d, double e, double r) {
+            this.name = name;
+            this.density = d;
+            this.elasticity = e;
+            this.roughness = r;
+        }
+    }
+
+    /**
+     * A {@link Contact} between two bodies, kept by the {@link ContactSolver} as long as the bodies are touching.
+     *
+     * <p>The normal goes from the body <code>a</code> to the body <code>b</code>, and the accumulated impulses
+     * are kept from one tick to the next to warm-start the solver.</p>
+     *
+     * <p>The Contact instances are recycled: a {@link Behavior} receiving a contact event must not keep a
+     * reference on it.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class Contact {
+        public Entity a, b;
+        // contact normal (from a to b), penetration depth and contact point.
+        public double nx, ny, depth;
+        public double px, py;
+        // accumulated normal impulse (reused on the next tick) and last tangential impulse.
+        public double normalImpulse, tangentImpulse;
+        // separating speed to be reached when the bodies bounce.
+        private double bounce;
+        // positions of the bodies when the depth was measured.
+        private double ax0, ay0, bx0, by0;
+
+        // last tick the bodies were found touching.
+        private long tick;
+        // created during the current tick.
+        private boolean fresh;
+        // both bodies are at rest: the contact is kept without being solved.
+        private boolean resting;
+
+        /**
+         * @param e one of the two bodies of this contact.
+         * @return the other body.
+         */
+        public Entity other(Entity e) {
+            return e == a ? b : a;
+        }
+
+        /**
+         * @param e one of the two bodies of this contact.
+         * @return the horizontal component of the contact normal, seen from the <code>e</code> body.
+         */
+        public double getNormalX(Entity e) {
+            return e == a ? nx : -nx;
+        }
+
+        /**
+         * @param e one of the two bodies of this contact.
+         * @return the vertical component of the contact normal, seen from the <code>e</code> body.
+         */
+        public double getNormalY(Entity e) {
+            return e == a ? ny : -ny;
+        }
+
+        public boolean isResting() {
+            return resting;
+        }
+    }
+
+    /**
+     * The {@link ContactSolver} detects and resolves the collisions between the bodies of a {@link Scene}.
+     *
+     * <p>On each update:
+     * <ul>
+     *     <li>the broad phase sorts the bodies on their horizontal position (the order of the previous tick is
+     *     kept, so the sort is almost free) and sweeps them to find the overlapping bounding boxes; the
+     *     {@link TileMap}'s, covering the whole level, are left out of the sweep and tested against each body,</li>
+     *     <li>the narrow phase tests the real shapes, according to the {@link GameObjectNature}: rectangles (and
+     *     polygons through their bounds), ellipses (as a circle of their mean radius), dots and lines,</li>
+     *     <li>the contacts are kept from one tick to the next in a cache, so that their accumulated impulses
+     *     warm-start the solver; the impulses use the mass and the {@link Material} elasticity of both bodies,
+     *     and the roughness slows down their tangential speed,</li>
+     *     <li>the begin, stay and end events are delivered to the {@link Behavior}'s of both bodies (see
+     *     {@link Behavior#onContactBegin(GameApp, Entity, Contact)}).</li>
+     * </ul></p>
+     *
+     * <p>Only the top level entities with a collision category (see {@link Entity#setCollisionFilter(int, int)})
+     * are processed, and a pair is solved only if at least one of its bodies is dynamic and awake. The contacts
+     * between resting bodies are kept without any event, until one of them is woken up. A sleeping body hit by
+     * an awake one is woken up. The contacts of an entity removed from the scene are dropped at once (see
+     * {@link #remove(GameApp, Entity)}). All the structures are recycled: nothing is allocated per tick once the
+     * arrays have grown to the size of the scene.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class ContactSolver {
+        private static final int RECTANGLE = 0, CIRCLE = 1, SEGMENT = 2;
+        // penetration allowed without correction, and part of the penetration corrected per tick.
+        private static final double SLOP = 0.01, CORRECTION = 0.8;
+
+        // bodies, sorted on their x position.
+        private Entity[] bodies = new Entity[64];
+        private int bodyCount = 0;
+
+        // contacts cache, indexed by an open addressing table of (index + 1).
+        private Contact[] contacts = new Contact[64];
+        private int contactCount = 0;
+        private int[] table = new int[128];
+
+        private long tick = 0;
+
+        // result of the narrow phase.
+        private double nx, ny, depth, px, py;
+
+        /**
+         * Is this {@link Entity} processed by the {@link ContactSolver} ?
+         *
+         * @param e the {@link Entity} to be tested.
+         * @return true if the entity is a colliding body.
+         */
+        public static boolean isBody(Entity e) {
+            return e.collisionCategory != 0 && e.getParent() == null && !e.isRelativeToCamera() && e.ecsId < 0;
+        }
+
+        /**
+         * Detect, solve and notify the contacts between the active bodies of the {@link Scene}.
+         *
+         * @param app   the parent application.
+         * @param scene the {@link Scene} to be processed.
+         * @param delay the elapsed time since previous call.
+         */
+        public void update(GameApp app, Scene scene, double delay) {
+            tick++;
+            collectBodies(scene);
+            sortBodies();
+            findContacts(app, scene, delay);
+            solve(app.world, delay);
+            for (int i = 0; i < bodyCount; i++) {
+                Entity e = bodies[i];
+                if (e.getBodyType() == BodyType.DYNAMIC && !e.isSleeping()) {
+                    // the penetration correction must not push a body into the level.
+                    for (TileMap tm : app.tileMaps) {
+                        if (tm.isActive()) {
+                            tm.resolve(e, e.prevX, e.prevY);
+                        }
+                    }
+                    // ... nor out of the play area.
+                    app.controlPlayAreaBoundaries(e);
+                    app.updateSleep(e, e.prevX, e.prevY, delay);
+                }
+            }
+            notifyAndPrune(app, scene);
+        }
+
+        /**
+         * Drop the contacts of an {@link Entity} leaving the {@link Scene}: the end event of the notified ones
+         * is delivered right now, while both bodies are still there.
+         *
+         * @param app the parent application.
+         * @param e   the {@link Entity} removed from the {@link Scene}.
+         */
+        public void remove(GameApp app, Entity e) {
+            int n = 0;
+            for (int i = 0; i < bodyCount; i++) {
+                if (bodies[i] != e) {
+                    bodies[n++] = bodies[i];
+                }
+            }
+            for (int i = n; i < bodyCount; i++) {
+                bodies[i] = null;
+            }
+            bodyCount = n;
+            n = 0;
+            for (int i = 0; i < contactCount; i++) {
+                Contact c = contacts[i];
+                if (c.a == e || c.b == e) {
+                    if (!c.fresh) {
+                        notify(app, BehaviorEvent.CONTACT_END, c);
+                    }
+                    c.a = c.b = null;
+                } else {
+                    contacts[i] = contacts[n];
+                    contacts[n++] = c;
+                }
+            }
+            if (n < contactCount) {
+                contactCount = n;
+                Arrays.fill(table, 0);
+                for (int i = 0; i < contactCount; i++) {
+                    insert(i);
+                }
+            }
+        }
+
+        /**
+         * Keep the bodies of the previous tick still in the scene, in their order, then add the new ones.
+         */
+        private void collectBodies(Scene scene) {
+            int n = 0;
+            for (int i = 0; i < bodyCount; i++) {
+                Entity e = bodies[i];
+                if (e.getScene() == scene && e.isActive() && isBody(e) && !(e instanceof TileMap)) {
+                    e.contactStamp = tick;
+                    bodies[n++] = e;
+                }
+            }
+            for (int i = n; i < bodyCount; i++) {
+                bodies[i] = null;
+            }
+            bodyCount = n;
+            for (Entity e : scene.getIndex().getActive()) {
+                if (e.contactStamp != tick && isBody(e) && !(e instanceof TileMap)) {
+                    if (bodyCount == bodies.length) {
+                        bodies = Arrays.copyOf(bodies, bodyCount * 2);
+                    }
+                    e.contactStamp = tick;
+                    bodies[bodyCount++] = e;
+                }
+            }
+        }
+
+        /**
+         * Insertion sort on the x position: the bodies are almost sorted from the previous tick.
+         */
+        private void sortBodies() {
+            for (int i = 1; i < bodyCount; i++) {
+                Entity e = bodies[i];
+                int j = i - 1;
+                while (j >= 0 && bodies[j].x > e.x) {
+                    bodies[j + 1] = bodies[j];
+                    j--;
+                }
+                bodies[j + 1] = e;
+            }
+        }
+
+        private void findContacts(GameApp app, Scene scene, double delay) {
+            for (int i = 0; i < bodyCount; i++) {
+                Entity a = bodies[i];
+                double maxX = a.x + a.width;
+                for (int j = i + 1; j < bodyCount && bodies[j].x <= maxX; j++) {
+                    Entity b = bodies[j];
+                    if (b.y > a.y + a.height || a.y > b.y + b.height) {
+                        continue;
+                    }
+                    pair(app, a, b, delay);
+                }
+            }
+            // a tile map covers the whole level: its cells are tested against each body, out of the sweep.
+            for (TileMap tm : app.tileMaps) {
+                if (tm.getScene() != scene || !tm.isActive() || !isBody(tm)) {
+                    continue;
+                }
+                for (int i = 0; i < bodyCount; i++) {
+                    Entity b = bodies[i];
+                    if (b.x <= tm.x + tm.width && tm.x <= b.x + b.width
+                            && b.y <= tm.y + tm.height && tm.y <= b.y + b.height) {
+                        pair(app, tm, b, delay);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Test the two bodies with overlapping bounding boxes, and create or update their contact.
+         */
+        private void pair(GameApp app, Entity a, Entity b, double delay) {
+            if ((a.collisionCategory & b.collisionMask) == 0 || (b.collisionCategory & a.collisionMask) == 0) {
+                return;
+            }
+            boolean aMoving = isAwake(a), bMoving = isAwake(b);
+            if (!aMoving && !bMoving) {
+                // both at rest: keep their contact (if any) as is.
+                Contact c = find(a, b);
+                if (c != null) {
+                    c.tick = tick;
+                    c.resting = true;
+                }
+                return;
+            }
+            if (!collide(a, b)) {
+                return;
+            }
+            Contact c = find(a, b);
+            if (c == null) {
+                c = create(a, b);
+            }
+            // the cached contact may have the reversed order.
+            double sign = c.a == a ? 1 : -1;
+            c.nx = nx * sign;
+            c.ny = ny * sign;
+            c.depth = depth;
+            c.px = px;
+            c.py = py;
+            c.ax0 = c.a.x;
+            c.ay0 = c.a.y;
+            c.bx0 = c.b.x;
+            c.by0 = c.b.y;
+            c.tick = tick;
+            c.resting = false;
+            double vn = (c.b.dx - c.a.dx) * c.nx + (c.b.dy - c.a.dy) * c.ny;
+            if (vn * delay < -app.world.sleepThreshold) {
+                // a body hit by an awake one is woken up, and both bounce.
+                a.wake();
+                b.wake();
+                c.bounce = -vn * a.material.elasticity * b.material.elasticity;
+            } else {
+                c.bounce = 0;
+            }
+        }
+
+        private boolean isAwake(Entity e) {
+            return e.getBodyType() == BodyType.KINEMATIC
+                    || (e.getBodyType() == BodyType.DYNAMIC && !e.isSleeping());
+        }
+
+        private static double inverseMass(Entity e) {
+            return e.getBodyType() == BodyType.DYNAMIC && !e.isSleeping() && e.mass > 0 ? 1.0 / e.mass : 0.0;
+        }
+
+        /**
+         * Warm-start the contacts with their previous impulses, then iterate the normal impulses, apply the
+         * roughness of both materials on the tangential speed and correct the penetration.
+         */
+        private void solve(World world, double delay) {
+            for (int i = 0; i < contactCount; i++) {
+                Contact c = contacts[i];
+                if (c.tick != tick || c.resting) {
+                    continue;
+                }
+                double ia = inverseMass(c.a), ib = inverseMass(c.b);
+                if (ia + ib == 0) {
+                    c.normalImpulse = c.tangentImpulse = 0;
+                    continue;
+                }
+                applyImpulse(c, ia, ib, c.normalImpulse * c.nx, c.normalImpulse * c.ny);
+            }
+            for (int it = 0; it < world.contactIterations; it++) {
+                for (int i = 0; i < contactCount; i++) {
+                    Contact c = contacts[i];
+                    if (c.tick != tick || c.resting) {
+                        continue;
+                    }
+                    double ia = inverseMass(c.a), ib = inverseMass(c.b);
+                    if (ia + ib == 0) {
+                        continue;
+                    }
+                    double vn = (c.b.dx - c.a.dx) * c.nx + (c.b.dy - c.a.dy) * c.ny;
+                    double lambda = (c.bounce - vn) / (ia + ib);
+                    double acc = Math.max(c.normalImpulse + lambda, 0);
+                    lambda = acc - c.normalImpulse;
+                    c.normalImpulse = acc;
+                    applyImpulse(c, ia, ib, lambda * c.nx, lambda * c.ny);
+                }
+            }
+            for (int i = 0; i < contactCount; i++) {
+                Contact c = contacts[i];
+                if (c.tick != tick || c.resting) {
+                    continue;
+                }
+                double ia = inverseMass(c.a), ib = inverseMass(c.b);
+                if (ia + ib == 0) {
+                    continue;
+                }
+                // the roughness of both materials slows down the tangential speed.
+                double vt = -(c.b.dx - c.a.dx) * c.ny + (c.b.dy - c.a.dy) * c.nx;
+                double lambda = (vt * c.a.material.roughness * c.b.material.roughness - vt) / (ia + ib);
+                c.tangentImpulse = lambda;
+                applyImpulse(c, ia, ib, -lambda * c.ny, lambda * c.nx);
+                // keep the acceleration consistent with the new velocity (see GameApp#applyPhysics).
+                syncAcceleration(c.a, delay);
+                syncAcceleration(c.b, delay);
+            }
+            // push the bodies out of each other, the depth being updated with the corrections already applied.
+            for (int it = 0; it < world.contactIterations; it++) {
+                for (int i = 0; i < contactCount; i++) {
+                    Contact c = contacts[i];
+                    if (c.tick != tick || c.resting) {
+                        continue;
+                    }
+                    double ia = inverseMass(c.a), ib = inverseMass(c.b);
+                    if (ia + ib == 0) {
+                        continue;
+                    }
+                    double d = c.depth - ((c.b.x - c.bx0 - c.a.x + c.ax0) * c.nx
+                            + (c.b.y - c.by0 - c.a.y + c.ay0) * c.ny);
+                    double correction = Math.max(d - SLOP, 0) * CORRECTION / (ia + ib);
+                    c.a.x -= correction * ia * c.nx;
+                    c.a.y -= correction * ia * c.ny;
+                    c.b.x += correction * ib * c.nx;
+                    c.b.y += correction * ib * c.ny;
+                }
+            }
+        }
+
+        private static void applyImpulse(Contact c, double ia, double ib, double jx, double jy) {
+            c.a.dx -= jx * ia;
+            c.a.dy -= jy * ia;
+            c.b.dx += jx * ib;
+            c.b.dy += jy * ib;
+        }
+
+        private static void syncAcceleration(Entity e, double delay) {
+            if (e.getBodyType() == BodyType.DYNAMIC && !e.isSleeping()) {
+                e.ax = e.dx * delay;
+                e.ay = e.dy * delay / e.mass;
+            }
+        }
+
+        /**
+         * Deliver the begin, stay and end events, and remove the ended contacts from the cache.
+         */
+        private void notifyAndPrune(GameApp app, Scene scene) {
+            BehaviorSubscriptions subs = scene.getSubscriptions();
+            boolean begin = subs.get(BehaviorEvent.CONTACT_BEGIN).size() > 0;
+            boolean stay = subs.get(BehaviorEvent.CONTACT_STAY).size() > 0;
+            boolean end = subs.get(BehaviorEvent.CONTACT_END).size() > 0;
+            int n = 0;
+            for (int i = 0; i < contactCount; i++) {
+                Contact c = contacts[i];
+                if (c.tick == tick) {
+                    if (c.fresh) {
+                        if (begin) {
+                            notify(app, BehaviorEvent.CONTACT_BEGIN, c);
+                        }
+                        c.fresh = false;
+                    } else if (stay && !c.resting) {
+                        notify(app, BehaviorEvent.CONTACT_STAY, c);
+                    }
+                    contacts[i] = contacts[n];
+                    contacts[n++] = c;
+                } else {
+                    if (end) {
+                        notify(app, BehaviorEvent.CONTACT_END, c);
+                    }
+                    c.a = c.b = null;
+                }
+            }
+            contactCount = n;
+            // rebuild the lookup table of the remaining contacts.
+            Arrays.fill(table, 0);
+            for (int i = 0; i < contactCount; i++) {
+                insert(i);
+            }
+        }
+
+        private void notify(GameApp app, BehaviorEvent be, Contact c) {
+            notify(app, be, c.a, c);
+            notify(app, be, c.b, c);
+        }
+
+        private void notify(GameApp app, BehaviorEvent be, Entity e, Contact c) {
+            if (!e.isHandling(be)) {
+                return;
+            }
+            for (int i = 0; i < e.behaviors.size(); i++) {
+                Behavior<Entity> b = e.behaviors.get(i);
+                if (be.isHandledBy(b)) {
+                    switch (be) {
+                        case CONTACT_BEGIN -> b.onContactBegin(app, e, c);
+                        case CONTACT_STAY -> b.onContactStay(app, e, c);
+                        case CONTACT_END -> b.onContactEnd(app, e, c);
+                        default -> {
+                            // not a contact event.
+                        }
+                    }
+                }
+            }
+        }
+
+        /*----- contacts cache -----*/
+
+        private static int hash(Entity a, Entity b) {
+            int h = System.identityHashCode(a) ^ System.identityHashCode(b);
+            return h ^ (h >>> 16);
+        }
+
+        private Contact find(Entity a, Entity b) {
+            int mask = table.length - 1;
+            for (int slot = hash(a, b) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                Contact c = contacts[table[slot] - 1];
+                if ((c.a == a && c.b == b) || (c.a == b && c.b == a)) {
+                    return c;
+                }
+            }
+            return null;
+        }
+
+        private Contact create(Entity a, Entity b) {
+            if (contactCount == contacts.length) {
+                contacts = Arrays.copyOf(contacts, contactCount * 2);
+            }
+            if ((contactCount + 1) * 2 > table.length) {
+                table = new int[table.length * 2];
+                for (int i = 0; i < contactCount; i++) {
+                    insert(i);
+                }
+            }
+            Contact c = contacts[contactCount];
+            if (c == null) {
+                c = new Contact();
+                contacts[contactCount] = c;
+            }
+            c.a = a;
+            c.b = b;
+            c.normalImpulse = c.tangentImpulse = 0;
+            c.fresh = true;
+            insert(contactCount++);
+            return c;
+        }
+
+        private void insert(int index) {
+            Contact c = contacts[index];
+            int mask = table.length - 1;
+            int slot = hash(c.a, c.b) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+
+        /*----- narrow phase -----*/
+
+        private static int shapeOf(Entity e) {
+            if (e instanceof GameObject go) {
+                return switch (go.nature) {
+                    case ELLIPSE, DOT -> CIRCLE;
+                    case LINE -> SEGMENT;
+                    default -> RECTANGLE;
+                };
+            }
+            return RECTANGLE;
+        }
+
+        private static double radiusOf(Entity e) {
+            return ((GameObject) e).nature == GameObjectNature.DOT ? 0 : (e.width + e.height) * 0.25;
+        }
+
+        private static double centerX(Entity e) {
+            return e instanceof GameObject go && go.nature == GameObjectNature.DOT ? e.x : e.x + e.width * 0.5;
+        }
+
+        private static double centerY(Entity e) {
+            return e instanceof GameObject go && go.nature == GameObjectNature.DOT ? e.y : e.y + e.height * 0.5;
+        }
+
+        /**
+         * Test the shapes of the two bodies, and set the normal (from a to b), the depth and the contact point.
+         * A {@link TileMap} is tested through its most overlapped solid cell.
+         *
+         * @return true if the shapes are overlapping.
+         */
+        private boolean collide(Entity a, Entity b) {
+            if (a instanceof TileMap tm) {
+                return collideCell(tm, b, false);
+            } else if (b instanceof TileMap tm) {
+                return collideCell(tm, a, true);
+            }
+            int sa = shapeOf(a), sb = shapeOf(b);
+            if (sa > sb) {
+                if (!collide(b, a, sb, sa)) {
+                    return false;
+                }
+                nx = -nx;
+                ny = -ny;
+                return true;
+            }
+            return collide(a, b, sa, sb);
+        }
+
+        private boolean collide(Entity a, Entity b, int sa, int sb) {
+            if (sa == RECTANGLE && sb == RECTANGLE) {
+                return rectangleRectangle(a.x, a.y, a.width, a.height, b.x, b.y, b.width, b.height);
+            } else if (sa == RECTANGLE && sb == CIRCLE) {
+                return rectangleCircle(a.x, a.y, a.width, a.height, centerX(b), centerY(b), radiusOf(b));
+            } else if (sa == RECTANGLE) {
+                return rectangleSegment(a.x, a.y, a.width, a.height, b);
+            } else if (sa == CIRCLE && sb == CIRCLE) {
+                return circleCircle(centerX(a), centerY(a), radiusOf(a), centerX(b), centerY(b), radiusOf(b));
+            } else if (sa == CIRCLE) {
+                // closest point of the segment from the circle center.
+                double cx = centerX(a), cy = centerY(a);
+                double t = ((cx - b.x) * b.width + (cy - b.y) * b.height)
+                        / Math.max(b.width * b.width + b.height * b.height, 1e-9);
+                t = Math.max(0, Math.min(1, t));
+                return circleCircle(cx, cy, radiusOf(a), b.x + b.width * t, b.y + b.height * t, 0);
+            }
+            // two segments have no surface to be resolved.
+            return false;
+        }
+
+        private boolean collideCell(TileMap tm, Entity e, boolean reversed) {
+            // the tile maps already stopped the body (see TileMap#resolve): a touching cell is a contact.
+            int cell = tm.getDeepestSolidCell(e.x - SLOP, e.y - SLOP, e.width + 2 * SLOP, e.height + 2 * SLOP);
+            if (cell < 0) {
+                return false;
+            }
+            double cx = tm.x + (cell % tm.columns) * tm.tileWidth - SLOP;
+            double cy = tm.y + (cell / tm.columns) * tm.tileHeight - SLOP;
+            double cw = tm.tileWidth + 2 * SLOP, ch = tm.tileHeight + 2 * SLOP;
+            boolean hit = switch (shapeOf(e)) {
+                case CIRCLE -> rectangleCircle(cx, cy, cw, ch, centerX(e), centerY(e), radiusOf(e));
+                case SEGMENT -> rectangleSegment(cx, cy, cw, ch, e);
+                default -> rectangleRectangle(cx, cy, cw, ch, e.x, e.y, e.width, e.height);
+            };
+            if (hit && reversed) {
+                nx = -nx;
+                ny = -ny;
+            }
+            return hit;
+        }
+
+        private boolean rectangleRectangle(double ax, double ay, double aw, double ah,
+                                           double bx, double by, double bw, double bh) {
+            if (!separate(ax, ay, aw, ah, bx, bx + bw, by, by + bh) || depth <= 0) {
+                return false;
+            }
+            px = (Math.max(ax, bx) + Math.min(ax + aw, bx + bw)) * 0.5;
+            py = (Math.max(ay, by) + Math.min(ay + ah, by + bh)) * 0.5;
+            return true;
+        }
+
+        private boolean rectangleCircle(double ax, double ay, double aw, double ah, double cx, double cy, double r) {
+            double qx = Math.max(ax, Math.min(cx, ax + aw));
+            double qy = Math.max(ay, Math.min(cy, ay + ah));
+            double dx = cx - qx, dy = cy - qy;
+            double d2 = dx * dx + dy * dy;
+            if (d2 > 0) {
+                if (d2 >= r * r) {
+                    return false;
+                }
+                double d = Math.sqrt(d2);
+                nx = dx / d;
+                ny = dy / d;
+                depth = r - d;
+            } else {
+                // the circle center is inside the rectangle: push it out through the nearest side.
+                double left = cx - ax, right = ax + aw - cx;
+                double top = cy - ay, bottom = ay + ah - cy;
+                double min = Math.min(Math.min(left, right), Math.min(top, bottom));
+                nx = min == left ? -1 : min == right ? 1 : 0;
+                ny = nx != 0 ? 0 : min == top ? -1 : 1;
+                depth = min + r;
+            }
+            px = qx;
+            py = qy;
+            return true;
+        }
+
+        private boolean circleCircle(double ax, double ay, double ra, double bx, double by, double rb) {
+            double dx = bx - ax, dy = by - ay;
+            double r = ra + rb;
+            double d2 = dx * dx + dy * dy;
+            if (d2 >= r * r) {
+                return false;
+            }
+            double d = Math.sqrt(d2);
+            if (d > 0) {
+                nx = dx / d;
+                ny = dy / d;
+            } else {
+                nx = 0;
+                ny = 1;
+            }
+            depth = r - d;
+            px = ax + nx * ra;
+            py = ay + ny * ra;
+            return true;
+        }
+
+        /**
+         * Minimal translation between the rectangle <code>a</code> and the box <code>[minX,maxX]x[minY,maxY]</code>
+         * on the x and y axes.
+         *
+         * @return false if the boxes are separated.
+         */
+        private boolean separate(double ax, double ay, double aw, double ah,
+                                 double minX, double maxX, double minY, double maxY) {
+            double right = ax + aw - minX, left = maxX - ax;
+            double down = ay + ah - minY, up = maxY - ay;
+            if (right < 0 || left < 0 || down < 0 || up < 0) {
+                return false;
+            }
+            double ox = Math.min(right, left), oy = Math.min(down, up);
+            if (ox < oy) {
+                nx = right < left ? 1 : -1;
+                ny = 0;
+                depth = ox;
+            } else {
+                nx = 0;
+                ny = down < up ? 1 : -1;
+                depth = oy;
+            }
+            return true;
+        }
+
+        /**
+         * Separating axis test between a rectangle and a segment, on the rectangle axes and the segment normal.
+         */
+        private boolean rectangleSegment(double ax, double ay, double aw, double ah, Entity b) {
+            double x1 = b.x, y1 = b.y, x2 = b.x + b.width, y2 = b.y + b.height;
+            if (!separate(ax, ay, aw, ah, Math.min(x1, x2), Math.max(x1, x2), Math.min(y1, y2), Math.max(y1, y2))) {
+                return false;
+            }
+            double cx = ax + aw * 0.5, cy = ay + ah * 0.5;
+            double length = Math.sqrt(b.width * b.width + b.height * b.height);
+            if (length > 0 && b.width != 0 && b.height != 0) {
+                // the segment normal axis.
+                double sx = -b.height / length, sy = b.width / length;
+                double s = x1 * sx + y1 * sy;
+                double c = cx * sx + cy * sy;
+                double extent = (aw * Math.abs(sx) + ah * Math.abs(sy)) * 0.5;
+                double overlap = extent - Math.abs(s - c);
+                if (overlap <= 0) {
+                    return false;
+                }
+                if (overlap < depth) {
+                    depth = overlap;
+                    nx = s < c ? -sx : sx;
+                    ny = s < c ? -sy : sy;
+                }
+            }
+            px = Math.max(ax, Math.min((x1 + x2) * 0.5, ax + aw));
+            py = Math.max(ay, Math.min((y1 + y2) * 0.5, ay + ah));
+            return true;
+        }
+
+        public int getContactCount() {
+            return contactCount;
+        }
+
+        /**
+         * @param i the index of the contact, from 0 to {@link #getContactCount()} (excluded).
+         * @return the contact (recycled instance, must not be kept).
+         */
+        public Contact getContact(int i) {
+            return contacts[i];
+        }
+
+        public void clear() {
+            for (int i = 0; i < contactCount; i++) {
+                contacts[i].a = contacts[i].b = null;
+            }
+            contactCount = 0;
+            Arrays.fill(table, 0);
+            Arrays.fill(bodies, 0, bodyCount, null);
+            bodyCount = 0;
+        }
+    }
+
+    /**
+     * A {@link QueryFilter} selects the entities returned by a {@link SpatialIndex} query, on their class, one
+     * of their tags and their layers (the collision categories, see {@link Entity#setCollisionFilter(int, int)}).
+     *
+     * <p>A filter is meant to be created once and reused by the calling {@link Behavior}.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class QueryFilter {
+        /**
+         * The filter accepting any entity.
+         */
+        public static final QueryFilter ANY = new QueryFilter();
+
+        private Class<?> type;
+        private String tag;
+        private int layers = SpatialIndex.ALL_LAYERS;
+        private Entity exclude;
+
+        public QueryFilter setType(Class<?> type) {
+            this.type = type;
+            return this;
+        }
+
+        public QueryFilter setTag(String tag) {
+            this.tag = tag;
+            return this;
+        }
+
+        public QueryFilter setLayers(int layers) {
+            this.layers = layers;
+            return this;
+        }
+
+        /**
+         * @param exclude an entity to be ignored, typically the one running the query.
+         * @return the updated {@link QueryFilter}.
+         */
+        public QueryFilter setExclude(Entity exclude) {
+            this.exclude = exclude;
+            return this;
+        }
+
+        public boolean accept(Entity e) {
+            return e != exclude
+                    && (type == null || type.isInstance(e))
+                    && (layers == SpatialIndex.ALL_LAYERS || (e.collisionCategory & layers) != 0)
+                    && (tag == null || e.hasTag(tag));
+        }
+    }
+
+    /**
+     * The result of a {@link SpatialIndex#raycast(double, double, double, double, double, QueryFilter, RaycastHit)},
+     * to be reused from one call to the next.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class RaycastHit {
+        // the hit entity, null if nothing has been hit.
+        public Entity entity;
+        // distance from the ray origin, hit point and normal of the hit side.
+        public double distance;
+        public double x, y;
+        public double nx, ny;
+    }
+
+    /**
+     * The {@link SpatialIndex} is a uniform grid of the {@link Scene} entities, to answer the gameplay
+     * neighbourhood queries (rectangle, radius, ray and nearest entities) by visiting only the cells around the
+     * requested area.
+     *
+     * <p>The grid is updated incrementally at the end of each update phase (see {@link GameApp#update(double)}):
+     * an entity is moved from its cells only when its bounds overlap another range of cells. Only the top level
+     * entities are indexed, except the ones relative to the camera, the cameras and the tile maps.</p>
+     *
+     * <p>The queries write their results into buffers provided by the caller and return the number of entities
+     * found, so that nothing is allocated:
+     * <pre>
+     * Entity[] around = new Entity[16];
+     * QueryFilter enemies = new QueryFilter().setTag("enemy");
+     * ...
+     * int n = scene.getSpatialIndex().queryRadius(e.x, e.y, 64, enemies, around);
+     * </pre></p>
+     *
+     * <p>The entities are tested against their bounding box, and the queries must be run from the game loop
+     * thread.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class SpatialIndex {
+        public static final int ALL_LAYERS = ~0;
+
+        /**
+         * The entities of one cell of the grid.
+         */
+        private static class Cell {
+            private Entity[] items = new Entity[8];
+            private int size = 0;
+
+            void add(Entity e) {
+                if (size == items.length) {
+                    items = Arrays.copyOf(items, size * 2);
+                }
+                items[size++] = e;
+            }
+
+            void remove(Entity e) {
+                for (int i = 0; i < size; i++) {
+                    if (items[i] == e) {
+                        items[i] = items[--size];
+                        items[size] = null;
+                        return;
+                    }
+                }
+            }
+        }
+
+        private final double cellSize;
+        // cells per (column, row) key, in an open addressing table; the cells are kept once created.
+        private long[] keys = new long[256];
+        private Cell[] cells = new Cell[256];
+        private int cellCount = 0;
+        // range of the created cells.
+        private int minCol = Integer.MAX_VALUE, minRow = Integer.MAX_VALUE;
+        private int maxCol = Integer.MIN_VALUE, maxRow = Integer.MIN_VALUE;
+
+        // the indexed entities.
+        private Entity[] items = new Entity[64];
+        private int itemCount = 0;
+
+        private long tick = 0;
+        private long mark = 0;
+        // distances of the nearestK candidates.
+        private double[] distances = new double[16];
+
+        public SpatialIndex(double cellSize) {
+            this.cellSize = cellSize;
+        }
+
+        /**
+         * Is this {@link Entity} indexed ?
+         *
+         * @param e the {@link Entity} to be tested.
+         * @return true if the entity is kept in the grid.
+         */
+        public static boolean isIndexed(Entity e) {
+            return e.getParent() == null && !e.isRelativeToCamera() && !(e instanceof Camera)
+                    && !(e instanceof TileMap);
+        }
+
+        /**
+         * Move the entities whose cells have changed, index the new active ones, and drop the ones removed
+         * or deactivated.
+         *
+         * @param scene the indexed {@link Scene}.
+         */
+        public void update(Scene scene) {
+            tick++;
+            int n = 0;
+            for (int i = 0; i < itemCount; i++) {
+                Entity e = items[i];
+                if (e.getScene() == scene && e.isActive() && isIndexed(e)) {
+                    e.spatialTick = tick;
+                    move(e);
+                    items[n++] = e;
+                } else {
+                    unlink(e);
+                }
+            }
+            for (int i = n; i < itemCount; i++) {
+                items[i] = null;
+            }
+            itemCount = n;
+            for (Entity e : scene.getIndex().getActive()) {
+                if (e.spatialTick != tick && isIndexed(e)) {
+                    if (itemCount == items.length) {
+                        items = Arrays.copyOf(items, itemCount * 2);
+                    }
+                    e.spatialTick = tick;
+                    items[itemCount++] = e;
+                    move(e);
+                }
+            }
+        }
+
+        private int col(double wx) {
+            return (int) Math.floor(wx / cellSize);
+        }
+
+        private int row(double wy) {
+            return (int) Math.floor(wy / cellSize);
+        }
+
+        private void move(Entity e) {
+            int c0 = col(e.x), r0 = row(e.y);
+            int c1 = col(e.x + e.width), r1 = row(e.y + e.height);
+            if (e.cellLinked && c0 == e.cellC0 && r0 == e.cellR0 && c1 == e.cellC1 && r1 == e.cellR1) {
+                return;
+            }
+            unlink(e);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    cell(c, r, true).add(e);
+                }
+            }
+            e.cellC0 = c0;
+            e.cellR0 = r0;
+            e.cellC1 = c1;
+            e.cellR1 = r1;
+            e.cellLinked = true;
+        }
+
+        private void unlink(Entity e) {
+            if (!e.cellLinked) {
+                return;
+            }
+            for (int r = e.cellR0; r <= e.cellR1; r++) {
+                for (int c = e.cellC0; c <= e.cellC1; c++) {
+                    Cell cell = cell(c, r, false);
+                    if (cell != null) {
+                        cell.remove(e);
+                    }
+                }
+            }
+            e.cellLinked = false;
+        }
+
+        private static long key(int c, int r) {
+            return ((long) c << 32) | (r & 0xFFFFFFFFL);
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        private Cell cell(int c, int r, boolean create) {
+            long key = key(c, r);
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (cells[slot] != null) {
+                if (keys[slot] == key) {
+                    return cells[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (!create) {
+                return null;
+            }
+            if ((cellCount + 1) * 2 > keys.length) {
+                grow();
+                return cell(c, r, true);
+            }
+            Cell cell = new Cell();
+            keys[slot] = key;
+            cells[slot] = cell;
+            cellCount++;
+            minCol = Math.min(minCol, c);
+            maxCol = Math.max(maxCol, c);
+            minRow = Math.min(minRow, r);
+            maxRow = Math.max(maxRow, r);
+            return cell;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            Cell[] oldCells = cells;
+            keys = new long[oldKeys.length * 2];
+            cells = new Cell[oldCells.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldCells.length; i++) {
+                if (oldCells[i] != null) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (cells[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    cells[slot] = oldCells[i];
+                }
+            }
+        }
+
+        /**
+         * Retrieve the entities overlapping a rectangle.
+         *
+         * @param x      the rectangle left, in world coordinates.
+         * @param y      the rectangle top, in world coordinates.
+         * @param w      the rectangle width.
+         * @param h      the rectangle height.
+         * @param filter the entities to be retrieved.
+         * @param out    the buffer receiving the entities: when it is full, the next matching entities are only
+         *               counted.
+         * @return the number of matching entities, greater than the <code>out</code> length if some of them
+         * could not be written.
+         */
+        public int queryRect(double x, double y, double w, double h, QueryFilter filter, Entity[] out) {
+            mark++;
+            int count = 0;
+            for (int r = row(y); r <= row(y + h); r++) {
+                for (int c = col(x); c <= col(x + w); c++) {
+                    Cell cell = cell(c, r, false);
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        Entity e = cell.items[i];
+                        if (e.queryMark != mark) {
+                            e.queryMark = mark;
+                            if (e.x <= x + w && x <= e.x + e.width && e.y <= y + h && y <= e.y + e.height
+                                    && filter.accept(e)) {
+                                if (count < out.length) {
+                                    out[count] = e;
+                                }
+                                count++;
+                            }
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Retrieve the entities at a distance of the point less or equal to <code>radius</code>.
+         *
+         * @param cx     the point horizontal position, in world coordinates.
+         * @param cy     the point vertical position, in world coordinates.
+         * @param radius the search radius.
+         * @param filter the entities to be retrieved.
+         * @param out    the buffer receiving the entities: when it is full, the next matching entities are only
+         *               counted.
+         * @return the number of matching entities, greater than the <code>out</code> length if some of them
+         * could not be written.
+         */
+        public int queryRadius(double cx, double cy, double radius, QueryFilter filter, Entity[] out) {
+            mark++;
+            int count = 0;
+            double r2 = radius * radius;
+            for (int r = row(cy - radius); r <= row(cy + radius); r++) {
+                for (int c = col(cx - radius); c <= col(cx + radius); c++) {
+                    Cell cell = cell(c, r, false);
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        Entity e = cell.items[i];
+                        if (e.queryMark != mark) {
+                            e.queryMark = mark;
+                            if (distance2(e, cx, cy) <= r2 && filter.accept(e)) {
+                                if (count < out.length) {
+                                    out[count] = e;
+                                }
+                                count++;
+                            }
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Retrieve the entities the nearest from a point, sorted by distance. The number of requested entities
+         * is the size of the <code>out</code> buffer.
+         *
+         * @param cx          the point horizontal position, in world coordinates.
+         * @param cy          the point vertical position, in world coordinates.
+         * @param maxDistance the maximum distance of the retrieved entities.
+         * @param filter      the entities to be retrieved.
+         * @param out         the buffer receiving the entities.
+         * @return the number of entities written to <code>out</code>.
+         */
+        public int nearestK(double cx, double cy, double maxDistance, QueryFilter filter, Entity[] out) {
+            int k = out.length;
+            if (k == 0 || cellCount == 0) {
+                return 0;
+            }
+            if (distances.length < k) {
+                distances = new double[k];
+            }
+            mark++;
+            int count = 0;
+            double max2 = maxDistance * maxDistance;
+            int c0 = col(cx), r0 = row(cy);
+            // visit the rings of cells around the point, until no nearer entity can be found. The rings start
+            // at the first one reaching the created cells, and only their part inside these cells is visited.
+            int first = Math.max(Math.max(minCol - c0, c0 - maxCol), Math.max(Math.max(minRow - r0, r0 - maxRow), 0));
+            for (int ring = first; ; ring++) {
+                double ringDistance = Math.max(ring - 1, 0) * cellSize;
+                if (ringDistance > maxDistance || (count == k && ringDistance * ringDistance > distances[k - 1])
+                        || (c0 - ring < minCol && c0 + ring > maxCol && r0 - ring < minRow && r0 + ring > maxRow)) {
+                    break;
+                }
+                int cMin = Math.max(c0 - ring, minCol), cMax = Math.min(c0 + ring, maxCol);
+                for (int r = Math.max(r0 - ring, minRow); r <= Math.min(r0 + ring, maxRow); r++) {
+                    boolean edge = r == r0 - ring || r == r0 + ring;
+                    for (int c = edge ? cMin : c0 - ring; c <= cMax; c += edge ? 1 : 2 * ring) {
+                        if (c < cMin) {
+                            continue;
+                        }
+                        Cell cell = cell(c, r, false);
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int i = 0; i < cell.size; i++) {
+                            Entity e = cell.items[i];
+                            if (e.queryMark == mark) {
+                                continue;
+                            }
+                            e.queryMark = mark;
+                            double d2 = distance2(e, cx, cy);
+                            if (d2 > max2 || (count == k && d2 >= distances[k - 1]) || !filter.accept(e)) {
+                                continue;
+                            }
+                            // insert the candidate in the sorted buffer.
+                            int j = count < k ? count++ : k - 1;
+                            while (j > 0 && distances[j - 1] > d2) {
+                                distances[j] = distances[j - 1];
+                                out[j] = out[j - 1];
+                                j--;
+                            }
+                            distances[j] = d2;
+                            out[j] = e;
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Cast a ray and retrieve the first entity it hits, walking the grid cells along the ray.
+         *
+         * @param ox          the ray origin, in world coordinates.
+         * @param oy          the ray origin, in world coordinates.
+         * @param dx          the ray direction.
+         * @param dy          the ray direction.
+         * @param maxDistance the ray length.
+         * @param filter      the entities to be tested.
+         * @param hit         the result of the cast, updated.
+         * @return true if an entity has been hit.
+         */
+        public boolean raycast(double ox, double oy, double dx, double dy, double maxDistance,
+                               QueryFilter filter, RaycastHit hit) {
+            hit.entity = null;
+            double length = Math.sqrt(dx * dx + dy * dy);
+            if (length == 0 || cellCount == 0) {
+                return false;
+            }
+            dx /= length;
+            dy /= length;
+            mark++;
+            int c = col(ox), r = row(oy);
+            int stepC = dx > 0 ? 1 : dx < 0 ? -1 : 0, stepR = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+            double tMaxX = dx != 0 ? ((dx > 0 ? (c + 1) * cellSize : c * cellSize) - ox) / dx : Double.MAX_VALUE;
+            double tMaxY = dy != 0 ? ((dy > 0 ? (r + 1) * cellSize : r * cellSize) - oy) / dy : Double.MAX_VALUE;
+            double tDeltaX = dx != 0 ? cellSize / Math.abs(dx) : Double.MAX_VALUE;
+            double tDeltaY = dy != 0 ? cellSize / Math.abs(dy) : Double.MAX_VALUE;
+            double best = maxDistance;
+            double t = 0;
+            while (t <= best) {
+                Cell cell = cell(c, r, false);
+                if (cell != null) {
+                    for (int i = 0; i < cell.size; i++) {
+                        Entity e = cell.items[i];
+                        if (e.queryMark != mark) {
+                            e.queryMark = mark;
+                            if (filter.accept(e)) {
+                                double th = intersect(e, ox, oy, dx, dy, best, hit);
+                                if (th >= 0) {
+                                    best = th;
+                                    hit.entity = e;
+                                }
+                            }
+                        }
+                    }
+                }
+                // next cell along the ray, until it leaves the grid.
+                if (tMaxX < tMaxY) {
+                    t = tMaxX;
+                    tMaxX += tDeltaX;
+                    c += stepC;
+                } else {
+                    t = tMaxY;
+                    tMaxY += tDeltaY;
+                    r += stepR;
+                }
+                if ((c < minCol && stepC <= 0) || (c > maxCol && stepC >= 0)
+                        || (r < minRow && stepR <= 0) || (r > maxRow && stepR >= 0)) {
+                    break;
+                }
+            }
+            if (hit.entity != null) {
+                hit.distance = best;
+                hit.x = ox + dx * best;
+                hit.y = oy + dy * best;
+            }
+            return hit.entity != null;
+        }
+
+        /**
+         * Slab test of the ray against the bounds of the entity.
+         *
+         * @return the hit distance, or -1 if the entity is missed or farther than <code>max</code>.
+         */
+        private static double intersect(Entity e, double ox, double oy, double dx, double dy, double max,
+                                        RaycastHit hit) {
+            double tMin = 0, tMax = max;
+            double nx = 0, ny = 0;
+            if (dx != 0) {
+                double t1 = (e.x - ox) / dx, t2 = (e.x + e.width - ox) / dx;
+                if (t1 > t2) {
+                    double t = t1;
+                    t1 = t2;
+                    t2 = t;
+                }
+                if (t1 > tMin) {
+                    tMin = t1;
+                    nx = dx > 0 ? -1 : 1;
+                }
+                tMax = Math.min(tMax, t2);
+            } else if (ox < e.x || ox > e.x + e.width) {
+                return -1;
+            }
+            if (dy != 0) {
+                double t1 = (e.y - oy) / dy, t2 = (e.y + e.height - oy) / dy;
+                if (t1 > t2) {
+                    double t = t1;
+                    t1 = t2;
+                    t2 = t;
+                }
+                if (t1 > tMin) {
+                    tMin = t1;
+                    nx = 0;
+                    ny = dy > 0 ? -1 : 1;
+                }
+                tMax = Math.min(tMax, t2);
+            } else if (oy < e.y || oy > e.y + e.height) {
+                return -1;
+            }
+            if (tMin > tMax) {
+                return -1;
+            }
+            hit.nx = nx;
+            hit.ny = ny;
+            return tMin;
+        }
+
+        private static double distance2(Entity e, double px, double py) {
+            double dx = Math.max(Math.max(e.x - px, 0), px - (e.x + e.width));
+            double dy = Math.max(Math.max(e.y - py, 0), py - (e.y + e.height));
+            return dx * dx + dy * dy;
+        }
+
+        /**
+         * Evict an {@link Entity} removed from the {@link Scene} from its cells, so that it is no more returned
+         * by the queries until the next {@link #update(Scene)}.
+         *
+         * @param e the removed {@link Entity}.
+         */
+        public void remove(Entity e) {
+            unlink(e);
+        }
+
+        public int size() {
+            return itemCount;
+        }
+
+        public void clear() {
+            for (int i = 0; i < itemCount; i++) {
+                items[i].cellLinked = false;
+                items[i] = null;
+            }
+            itemCount = 0;
+            Arrays.fill(keys, 0);
+            Arrays.fill(cells, null);
+            cellCount = 0;
+            minCol = minRow = Integer.MAX_VALUE;
+            maxCol = maxRow = Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * A {@link ParticleEmitter} spawns and simulates particles, stored into preallocated primitive arrays (position,
+     * velocity, life and size), and drawn by the {@link ParticleEmitterRendererPlugin}.
+     *
+     * <p>An emitter can be added to a {@link Scene}, or owned by another {@link Entity} as a child (with
+     * {@link Entity#setRelativeToParent(boolean)} to follow it). The particles are emitted from the center of
+     * the emitter bounds, then live in world coordinates:
+     * <ul>
+     *     <li>a continuous flow is set by {@link #setRate(double)} (particles per second),</li>
+     *     <li>a one-shot explosion is emitted by {@link #burst(int)}.</li>
+     * </ul></p>
+     *
+     * <p>The particle color goes from the start color to the end color along its life, through a palette
+     * computed once, so no {@link Color} is created while drawing. An emitter can be recycled by an
+     * {@link EntityPool}: once finished (no more flow and no living particle), it destroys itself through
+     * the {@link CommandBuffer} of its {@link Scene} and goes back to its pool (see {@link #setPool(EntityPool)}).</p>
+     *
+     * <pre>
+     * EntityPool&lt;ParticleEmitter&gt; sparks = new EntityPool&lt;&gt;(app, "sparks", () -&gt;
+     *     new ParticleEmitter("spark", 256).setSpeed(40, 120).setLife(200, 600).setColors(Color.YELLOW, Color.RED));
+     * ParticleEmitter pe = sparks.acquire();
+     * pe.setPool(sparks).setPosition(x, y);
+     * pe.burst(64);
+     * scene.getCommands().spawn(pe);
+     * </pre>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class ParticleEmitter extends Entity {
+        private static final int PALETTE_SIZE = 32;
+
+        // particles, the living ones being packed from 0 to count.
+        final float[] px, py, vx, vy, life, maxLife;
+        int count = 0;
+
+        // emission settings (speeds in pixels per second, life in ms, angles in radians).
+        private double rate = 0;
+        private double accumulator = 0;
+        // particles requested by burst(), emitted on the next update.
+        private int pendingBurst = 0;
+        private double minSpeed = 20, maxSpeed = 60;
+        private double angle = -Math.PI / 2, spread = Math.PI * 2;
+        private double minLife = 500, maxLife0 = 1000;
+        private double gravity = 0;
+        float startSize = 2, endSize = 1;
+        final Color[] palette = new Color[PALETTE_SIZE];
+        final int[] paletteArgb = new int[PALETTE_SIZE];
+
+        private EntityPool<ParticleEmitter> pool;
+
+        /**
+         * Create a new {@link ParticleEmitter}.
+         *
+         * @param name     the name of this emitter.
+         * @param capacity the maximum number of living particles.
+         */
+        public ParticleEmitter(String name, int capacity) {
+            super(name);
+            px = new float[capacity];
+            py = new float[capacity];
+            vx = new float[capacity];
+            vy = new float[capacity];
+            life = new float[capacity];
+            maxLife = new float[capacity];
+            setSize(1, 1);
+            setBodyType(BodyType.KINEMATIC);
+            setColors(Color.WHITE, new Color(255, 255, 255, 0));
+        }
+
+        public ParticleEmitter(String name) {
+            this(name, 1024);
+        }
+
+        /**
+         * @param rate the number of particles emitted per second (0 to stop the flow).
+         * @return the updated {@link ParticleEmitter}.
+         */
+        public ParticleEmitter setRate(double rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        public ParticleEmitter setSpeed(double min, double max) {
+            this.minSpeed = min;
+            this.maxSpeed = max;
+            return this;
+        }
+
+        /**
+         * @param angle  the emission direction, in radians.
+         * @param spread the emission cone width around the direction, in radians.
+         * @return the updated {@link ParticleEmitter}.
+         */
+        public ParticleEmitter setDirection(double angle, double spread) {
+            this.angle = angle;
+            this.spread = spread;
+            return this;
+        }
+
+        /**
+         * @param min the minimum life of a particle, in ms.
+         * @param max the maximum life of a particle, in ms.
+         * @return the updated {@link ParticleEmitter}.
+         */
+        public ParticleEmitter setLife(double min, double max) {
+            this.minLife = min;
+            this.maxLife0 = max;
+            return this;
+        }
+
+        /**
+         * @param gravity the vertical acceleration of the particles, in pixels per second².
+         * @return the updated {@link ParticleEmitter}.
+         */
+        public ParticleEmitter setGravity(double gravity) {
+            this.gravity = gravity;
+            return this;
+        }
+
+        public ParticleEmitter setParticleSize(double start, double end) {
+            this.startSize = (float) start;
+            this.endSize = (float) end;
+            return this;
+        }
+
+        /**
+         * Compute the palette of the particles colors along their life.
+         *
+         * @param start the color of a new particle.
+         * @param end   the color of a dying particle.
+         * @return the updated {@link ParticleEmitter}.
+         */
+        public ParticleEmitter setColors(Color start, Color end) {
+            for (int i = 0; i < PALETTE_SIZE; i++) {
+                float t = (float) i / (PALETTE_SIZE - 1);
+                palette[i] = new Color(
+                        Math.round(start.getRed() + (end.getRed() - start.getRed()) * t),
+                        Math.round(start.getGreen() + (end.getGreen() - start.getGreen()) * t),
+                        Math.round(start.getBlue() + (end.getBlue() - start.getBlue()) * t),
+                        Math.round(start.getAlpha() + (end.getAlpha() - start.getAlpha()) * t));
+                paletteArgb[i] = palette[i].getRGB();
+            }
+            return this;
+        }
+
+        /**
+         * @param pool the {@link EntityPool} this emitter goes back to once finished.
+         * @return the updated {@link ParticleEmitter}.
+         */
+        public ParticleEmitter setPool(EntityPool<ParticleEmitter> pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Emit <code>n</code> particles at once (limited to the free capacity).
+         *
+         * @param n the number of particles to be emitted.
+         * @return the updated {@link ParticleEmitter}.
+         */
+        public ParticleEmitter burst(int n) {
+            pendingBurst += n;
+            return this;
+        }
+
+        private void emit(Random random, float ox, float oy) {
+            if (count == px.length) {
+                return;
+            }
+            int i = count++;
+            double a = angle + (random.nextDouble() - 0.5) * spread;
+            double s = minSpeed + (maxSpeed - minSpeed) * random.nextDouble();
+            px[i] = ox;
+            py[i] = oy;
+            vx[i] = (float) (Math.cos(a) * s);
+            vy[i] = (float) (Math.sin(a) * s);
+            maxLife[i] = (float) (minLife + (maxLife0 - minLife) * random.nextDouble());
+            life[i] = maxLife[i];
+        }
+
+        @Override
+        public void update(GameApp app, double elapsed) {
+            super.update(app, elapsed);
+            float dt = (float) (elapsed / 1000.0);
+            float g = (float) (gravity * dt);
+            float ms = (float) elapsed;
+            // move the living particles, the dead ones being replaced by the last living one.
+            for (int i = 0; i < count; ) {
+                life[i] -= ms;
+                if (life[i] <= 0) {
+                    int last = --count;
+                    px[i] = px[last];
+                    py[i] = py[last];
+                    vx[i] = vx[last];
+                    vy[i] = vy[last];
+                    life[i] = life[last];
+                    maxLife[i] = maxLife[last];
+                    continue;
+                }
+                vy[i] += g;
+                px[i] += vx[i] * dt;
+                py[i] += vy[i] * dt;
+                i++;
+            }
+            // emit the new particles from the center of the emitter.
+            Random random = app.getRandom();
+            float ox = (float) (getWorldX() + width * 0.5), oy = (float) (getWorldY() + height * 0.5);
+            accumulator += rate * dt;
+            int n = (int) accumulator + pendingBurst;
+            accumulator -= (int) accumulator;
+            pendingBurst = 0;
+            for (int k = 0; k < n; k++) {
+                emit(random, ox, oy);
+            }
+            if (pool != null && isFinished() && getScene() != null) {
+                getScene().getCommands().destroy(this, pool);
+            }
+        }
+
+        /**
+         * @return true if this emitter has no more flow and no living particle.
+         */
+        public boolean isFinished() {
+            return rate == 0 && pendingBurst == 0 && count == 0;
+        }
+
+        public int getParticleCount() {
+            return count;
+        }
+
+        @Override
+        public Entity reset() {
+            count = 0;
+            accumulator = 0;
+            pendingBurst = 0;
+            return super.reset();
+        }
+    }
+
+    /**
+     * <p>The {@link TextObject} is an enhanced {@link Entity} used to display Text on screen.</p>
+     *
+     * <p>It adds a <code>text</code> and a <code>value</code> to the {@link Entity} Attributes to be displayed on screen.
+     * A simple text can be used &nd it will be directly drawn on screen. If a value object is set, the text must
+     * contain the {@link String#format(String, Object...)} conversion operation to be applied on to be displayed.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class TextObject extends Entity {
+        public String text;
+        public Object value;
+        public Font font;
+        public Color textColor = Color.WHITE;
+
+        public Align textAlign = Align.LEFT;
+
+        // formatted text, kept until the text or the value changes.
+        private String formattedText;
+        // text measures, kept until the displayed text or the font changes.
+        private String measuredText;
+        private Font measuredFont;
+        int measuredWidth, measuredHeight, measuredDescent;
+        // the baked background panel and the size and colors it was baked for.
+        BufferedImage panel;
+        private int panelWidth, panelHeight, panelFill, panelBorder;
+
+        public TextObject(String name) {
+            super(name);
+        }
+
+        public TextObject setText(String t) {
+            if (!Objects.equals(t, this.text)) {
+                this.text = t;
+                this.formattedText = null;
+                invalidateLayout();
+            }
+            return this;
+        }
+
+        public TextObject setValue(Object t) {
+            if (!Objects.equals(t, this.value)) {
+                this.value = t;
+                this.formattedText = null;
+                invalidateLayout();
+            }
+            return this;
+        }
+
+        public TextObject setTextColor(Color tc) {
+            this.textColor = tc;
+            return this;
+        }
+
+        public TextObject setTextAlign(Align a) {
+            this.textAlign = a;
+            return this;
+        }
+
+        /**
+         * Retrieve the displayed text, formatted with the value if any.
+         *
+         * <p>The formatted text is kept until {@link #setText(String)} or {@link #setValue(Object)} are called
+         * with a new text or value: a mutable value changed in place is not detected.</p>
+         *
+         * @return the text to be displayed.
+         */
+        public String getText() {
+            if (formattedText == null) {
+                formattedText = (text != null && text.contains("%") && value != null)
+                        ? String.format(text, value)
+                        : text;
+            }
+            return formattedText;
+        }
+
+        /**
+         * Measure the displayed text with the current font of the Graphics2D API. The measures are only computed
+         * again when the text or the font changed.
+         *
+         * @param g the Graphics2D API the text will be drawn with.
+         * @return the width of the displayed text.
+         */
+        int measureText(Graphics2D g) {
+            String t = getText();
+            Font f = g.getFont();
+            if (t != measuredText || f != measuredFont) {
+                FontMetrics fm = g.getFontMetrics();
+                measuredText = t;
+                measuredFont = f;
+                measuredWidth = t != null ? fm.stringWidth(t) : 0;
+                measuredHeight = fm.getHeight();
+                measuredDescent = fm.getDescent();
+            }
+            return measuredWidth;
+        }
+
+        public TextObject setFont(Font f) {
+            if (f != this.font) {
+                this.font = f;
+                invalidateLayout();
+            }
+            return this;
+        }
+
+        public Font getFont() {
+            return this.font;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * <p>The {@link Camera} object will be used to track a {@link Camera#target}</p>
+     * <p>
+     * The targeted {@link Entity} will be keep on the display center according the {@link Camera#tweenFactor}.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class Camera extends Entity {
+        private Entity target;
+        private double tweenFactor;
+        private Rectangle2D viewport = new Double();
+
+        public Camera(String name) {
+            super(name);
         }
 
         public Camera setTarget(Entity target) {
@@ -850,495 +5746,1580 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             return this;
         }
 
-        public Camera setTweenFactor(double tf) {
-            this.tweenFactor = tf;
+        public Camera setTweenFactor(double tf) {
+            this.tweenFactor = tf;
+            return this;
+        }
+
+        public void update(double dt) {
+            if (Optional.ofNullable(target).isPresent()) {
+                this.x += Math.ceil(
+                        (target.getX() + (target.getWidth() * 0.5) - ((viewport.getWidth()) * 0.5) - this.getX())
+                                * tweenFactor * Math.min(dt, 1));
+                this.y += Math.ceil(
+                        (target.getY() + (target.getHeight() * 0.5) - ((viewport.getHeight()) * 0.5) - this.getY())
+                                * tweenFactor * Math.min(dt, 1));
+                this.viewport.setRect(this);
+            }
+        }
+    }
+
+    /**
+     * Define the alignment for the affected {@link Entity} relative to its <code>parent</code> one.
+     *
+     * <p>Align enumeration is used to set automatic position relatively to the
+     * <code>parent</code> {@link Entity} with {@link AlignBehavior}</p>
+     * <p>Example:
+     * <pre>
+     *     Button bt = new Button("MyButton")
+     *       .setParent(myDialogBox)
+     *       .setAlign(Align.LEFT);
+     * </pre>
+     * </p>
+     * <p>This created button will be align on the internal left of the parent Entity,
+     * taking care of {@link UIObject#margin} and {@link UIObject#padding}.</p>
+     *
+     * @see TextObject
+     * @see Button
+     * @see AlignBehavior
+     */
+    public enum Align {
+        LEFT,
+        RIGHT,
+        CENTER,
+        TOP,
+        BOTTOM;
+    }
+
+    /**
+     * This {@link Behavior} implementation is used to automatically move child {@link Button}'s
+     * to their new position according to the {@link Align} attribute.
+     *
+     * <p>This is a retained layout: the children are only moved when the parent moved, or when the layout
+     * has been invalidated (see {@link Entity#invalidateLayout()}) by a change of the size, the text or the
+     * parent of the parent or of one of its children. An {@link AlignBehavior} instance must be dedicated to
+     * one parent {@link Entity}.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class AlignBehavior implements Behavior<Entity> {
+        private double lastX = java.lang.Double.NaN, lastY, lastWidth, lastHeight;
+
+        @Override
+        public void update(GameApp app, Entity e, double elapsed) {
+            if (!e.layoutDirty && e.x == lastX && e.y == lastY && e.width == lastWidth && e.height == lastHeight) {
+                return;
+            }
+            lastX = e.x;
+            lastY = e.y;
+            lastWidth = e.width;
+            lastHeight = e.height;
+            e.layoutDirty = false;
+            for (int i = 0; i < e.child.size(); i++) {
+                if (e.child.get(i) instanceof Button c) {
+                    switch (c.align) {
+                        case LEFT -> {
+                            c.x = e.x + UIObject.margin + UIObject.padding;
+                            c.y = e.y + e.height - (c.height + UIObject.margin + UIObject.padding);
+                        }
+                        case RIGHT -> {
+                            c.x = (e.x + e.width) - (c.width + UIObject.margin + UIObject.padding);
+                            c.y = e.y + e.height - (c.height + UIObject.margin + UIObject.padding);
+                        }
+                        case CENTER -> {
+                            c.x = (e.x + (e.width * 0.5)) - (UIObject.margin + UIObject.padding);
+                            c.y = e.y + e.height - (c.height + UIObject.margin + UIObject.padding);
+                        }
+                        default -> {
+                            // processing TOP,BOTTOM will come later...
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This interface defines internals parameters for any User Interface objects on screen.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public interface UIObject extends Behavior<Entity> {
+        /**
+         * Default margin used for position and drawing of any UIObject
+         */
+        int margin = 2;
+        /**
+         * Default padding used for position and drawing of any UIObject
+         */
+        int padding = 2;
+
+        /**
+         * When mouse goes over a {@link UIObject}, the fill color for this hover object is set.
+         */
+        Color mouseOnColor = Color.LIGHT_GRAY;
+        /**
+         * When mouse goes over a {@link UIObject}, the border color for this hover object is set.
+         */
+        Color mouseOnBorderColor = Color.WHITE;
+
+        /**
+         * When a mouse button is pressed on a {@link UIObject}, the fill color for this object is set.
+         */
+        Color mousePressedColor = Color.CYAN;
+        /**
+         * When a mouse button is pressed on a {@link UIObject}, the text color for this object is set.
+         */
+        Color mousePressedTextColor = Color.BLUE;
+        /**
+         * When the mouse goes out of a {@link UIObject}, the fill color for this object is set.
+         */
+        Color mouseOutColor = Color.GRAY;
+        /**
+         * When the mouse goes out of a {@link UIObject}, the border color for this object is set.
+         */
+        Color mouseOutBorderColor = new Color(0.1f, 0.1f, 0.1f);
+
+        /**
+         * When a mouse button is released on a {@link UIObject}, the fill color for this object is set.
+         */
+        Color mouseReleasedColor = mouseOutColor;
+        /**
+         * When a mouse button is released on a {@link UIObject}, the text color for this object is set.
+         */
+        Color mouseReleasedTextColor = Color.WHITE;
+
+        @Override
+        default void onMousePressed(GameApp app, Entity e, double mouseX, double mouseY, int buttonId) {
+            e.setFillColor(mousePressedColor);
+            if (e instanceof Button || e instanceof ItemObject) {
+                Button bt = (Button) e;
+                bt.setTextColor(mousePressedTextColor);
+            }
+        }
+
+        @Override
+        default void onMouseReleased(GameApp app, Entity e, double mouseX, double mouseY, int buttonId) {
+            e.setFillColor(mouseReleasedColor);
+            if (e instanceof Button || e instanceof ItemObject) {
+                Button bt = (Button) e;
+                bt.setTextColor(mouseReleasedTextColor);
+            }
+        }
+
+        @Override
+        default void onMouseIn(GameApp app, Entity e, double mouseX, double mouseY) {
+            e.setFillColor(mouseOnColor);
+            e.setBorderColor(mouseOnBorderColor);
+        }
+
+        @Override
+        default void onMouseOut(GameApp app, Entity e, double mouseX, double mouseY) {
+            e.setFillColor(mouseOutColor);
+            e.setBorderColor(mouseOutBorderColor);
+        }
+    }
+
+    /**
+     * A {@link DialogBox} entity will create a dialog with a text.
+     * Adding child {@link Button} will add new operations
+     * to activate some processing.
+     * <p>
+     * By default, a DialogBox is not active; it must be activated to be displayed.
+     */
+    public static class DialogBox extends TextObject implements UIObject {
+
+        public DialogBox(String name) {
+            super(name);
+            setSize(100, 48);
+            setPosition((buffer.getWidth() - this.width) * 0.5, (buffer.getHeight() - this.height) * 0.5);
+            setVisible(false);
+            setRelativeToCamera(true);
+            setFillColor(Color.BLUE);
+            setBorderColor(Color.CYAN);
+            setTextColor(Color.WHITE);
+            add(new AlignBehavior());
+        }
+
+        public void setVisible(boolean visible) {
+            setActive(visible);
+            setChildVisible(visible);
+        }
+    }
+
+    /**
+     * A {@link Button} is a {@link UIObject} to capture mouse click action from the user.
+     * <p>
+     * It can be a child of a {@link DialogBox} and the DialogBox defined {@link AlignBehavior} will be applied on it
+     * to define its position.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class Button extends TextObject implements UIObject {
+        public Align align;
+
+        /**
+         * Create a new {@link Button} named name with a default <code>align</code> set to LEFT.
+         *
+         * @param name the name for this new {@link Button} instance
+         */
+        public Button(String name) {
+            super(name);
+            setRelativeToCamera(true);
+            setAlign(Align.LEFT);
+        }
+
+        /**
+         * Set the Align value.
+         *
+         * @param a the new {@link Align} required for this {@link Button}.
+         * @return the updated {@link Button} instance.
+         */
+        public Button setAlign(Align a) {
+            this.align = a;
+            return this;
+        }
+
+    }
+
+    /**
+     * An {@link ItemObject} is an item in a {@link MenuObject}.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class ItemObject extends TextObject implements UIObject {
+
+        private boolean highlight = false;
+
+        public ItemObject(String name) {
+            super(name);
+            setRelativeToCamera(true);
+            setActive(true);
+        }
+
+        public ItemObject setValue(String value) {
+            super.setValue(value);
+            return this;
+        }
+
+        public void setHighLight(boolean b) {
+            this.highlight = b;
+        }
+    }
+
+    /**
+     * The data model of a virtualized {@link MenuObject}: the menu only asks for the text and the value of the
+     * entries it displays.
+     *
+     * <pre>
+     * List&lt;Level&gt; levels = ...;
+     * menu.setModel(new MenuModel() {
+     *     public int size() { return levels.size(); }
+     *     public String getText(int index) { return levels.get(index).getTitle(); }
+     *     public Object getValue(int index) { return levels.get(index); }
+     * }, 8);
+     * </pre>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public interface MenuModel {
+        /**
+         * @return the number of entries in the menu.
+         */
+        int size();
+
+        /**
+         * @param index the index of the entry.
+         * @return the text displayed for the entry.
+         */
+        String getText(int index);
+
+        /**
+         * @param index the index of the entry.
+         * @return the value returned on the entry selection (its index by default).
+         */
+        default Object getValue(int index) {
+            return index;
+        }
+
+        /**
+         * Create a {@link MenuModel} on a list of texts, the value of an entry being its index.
+         *
+         * @param texts the texts of the entries.
+         * @return a new {@link MenuModel}.
+         */
+        static MenuModel of(List<String> texts) {
+            return new MenuModel() {
+                @Override
+                public int size() {
+                    return texts.size();
+                }
+
+                @Override
+                public String getText(int index) {
+                    return texts.get(index);
+                }
+            };
+        }
+    }
+
+    /**
+     * A {@link MenuObject} is a choice selector between multiple items.
+     *
+     * <p>The menu can be used in two modes:
+     * <ul>
+     *     <li>with {@link #addItem(ItemObject)}, the {@link Entity#child} list will be menu entry item
+     *     {@link ItemObject},</li>
+     *     <li>with {@link #setModel(MenuModel, int)}, the menu is virtualized: the entries are read from the
+     *     {@link MenuModel}, and only a fixed number of rows {@link ItemObject} are created to display the visible
+     *     window of entries. The rows are recycled with the entries text and value when the window scrolls to
+     *     follow the selection, so a menu with thousands of entries only updates and draws its visible rows.</li>
+     * </ul>
+     * </p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class MenuObject extends TextObject implements UIObject {
+
+        private Color backgroundColor;
+        private int itemIndex = 0;
+        private Object selectedValue = null;
+        private int itemHeight = 14;
+
+        // virtualized mode: the entries model, the rows displaying the visible window and the first visible entry.
+        private MenuModel model;
+        private ItemObject[] rows;
+        private int firstVisible = 0;
+
+        /**
+         * Create a new {@link MenuObject} with a name.
+         *
+         * @param name the Name of this new {@link MenuObject}.
+         */
+        public MenuObject(String name) {
+            super(name);
+            setBackgroundColor(null);
+            setSize(100, 48);
+            setPosition((buffer.getWidth() - this.width) * 0.5, (buffer.getHeight() - this.height) * 0.5);
+            setRelativeToCamera(true);
+            setActive(true);
+            setFillColor(Color.BLUE);
+            setBorderColor(Color.CYAN);
+            setTextColor(Color.WHITE);
+            setText("");
+            add(new AlignBehavior());
+            add(new Behavior<MenuObject>() {
+                @Override
+                public void onKeyReleased(GameApp app, MenuObject mo, KeyEvent k) {
+                    int page = mo.rows != null ? mo.rows.length : mo.getItemCount();
+                    switch (k.getKeyCode()) {
+                        case KeyEvent.VK_DOWN -> {
+                            mo.setItemIndex(Math.min(mo.itemIndex + 1, mo.getItemCount() - 1));
+                        }
+                        case KeyEvent.VK_UP -> {
+                            mo.setItemIndex(Math.max(mo.itemIndex - 1, 0));
+                        }
+                        case KeyEvent.VK_PAGE_DOWN -> {
+                            mo.setItemIndex(Math.min(mo.itemIndex + page, mo.getItemCount() - 1));
+                        }
+                        case KeyEvent.VK_PAGE_UP -> {
+                            mo.setItemIndex(Math.max(mo.itemIndex - page, 0));
+                        }
+                        case KeyEvent.VK_HOME -> {
+                            mo.setItemIndex(0);
+                        }
+                        case KeyEvent.VK_END -> {
+                            mo.setItemIndex(mo.getItemCount() - 1);
+                        }
+                        case KeyEvent.VK_ENTER, KeyEvent.VK_SPACE -> {
+                            if (mo.itemIndex >= mo.getItemCount()) {
+                                return;
+                            }
+                            mo.selectedValue = mo.getItemValue(mo.itemIndex);
+
+                            for (Behavior<Entity> b : mo.behaviors) {
+                                if (BehaviorEvent.SELECTED.isHandledBy(b)) {
+                                    b.onSelected(app, mo);
+                                }
+                            }
+                        }
+                    }
+                }
+            });
+        }
+
+        public MenuObject setBackgroundColor(Color bckColor) {
+            this.backgroundColor = bckColor;
+            return this;
+        }
+
+        /**
+         * Set the vertical distance between two items (14 pixels by default).
+         *
+         * @param h the height of an item row.
+         * @return the updated {@link MenuObject}.
+         */
+        public MenuObject setItemHeight(int h) {
+            this.itemHeight = h;
+            return this;
+        }
+
+        public MenuObject addItem(ItemObject item) {
+            if (model != null) {
+                throw new IllegalStateException("Items can not be added to the virtualized menu " + name);
+            }
+            item.setPosition(
+                    this.x + UIObject.padding + UIObject.margin,
+                    this.y + UIObject.padding + UIObject.margin + (child.size() + 1.25f) * itemHeight);
+            item.setFont(getFont());
+            item.setHighLight(child.size() == itemIndex);
+            child.add(item);
+            return this;
+        }
+
+        /**
+         * Virtualize the menu on a {@link MenuModel}: the existing items are replaced by <code>visibleCount</code>
+         * rows displaying the window of entries around the selection.
+         *
+         * @param model        the entries of the menu.
+         * @param visibleCount the number of visible rows.
+         * @return the updated {@link MenuObject}.
+         */
+        public MenuObject setModel(MenuModel model, int visibleCount) {
+            // the existing items leave the menu, and its scene, through the normal removal path.
+            for (int i = child.size() - 1; i >= 0; i--) {
+                if (child.get(i) instanceof ItemObject item) {
+                    remove(item);
+                    if (getScene() != null) {
+                        getScene().remove(item);
+                    }
+                }
+            }
+            this.model = model;
+            this.rows = new ItemObject[visibleCount];
+            for (int r = 0; r < visibleCount; r++) {
+                rows[r] = new ItemObject(name + "_row_" + r);
+                rows[r].setPosition(
+                        this.x + UIObject.padding + UIObject.margin,
+                        this.y + UIObject.padding + UIObject.margin + (r + 1.25f) * itemHeight);
+                rows[r].setFont(getFont());
+                add((Entity) rows[r]);
+            }
+            this.itemIndex = 0;
+            this.firstVisible = 0;
+            bindRows();
+            return this;
+        }
+
+        public MenuModel getModel() {
+            return model;
+        }
+
+        /**
+         * Display again the visible entries, after a change of the model content.
+         *
+         * @return the updated {@link MenuObject}.
+         */
+        public MenuObject refresh() {
+            if (model != null) {
+                itemIndex = Math.max(0, Math.min(itemIndex, model.size() - 1));
+                firstVisible = Math.max(0, Math.min(firstVisible, model.size() - rows.length));
+                scrollTo(itemIndex);
+                bindRows();
+            }
             return this;
         }
 
-        public void update(double dt) {
-            if (Optional.ofNullable(target).isPresent()) {
-                this.x += Math.ceil(
-                        (target.getX() + (target.getWidth() * 0.5) - ((viewport.getWidth()) * 0.5) - this.getX())
-                                * tweenFactor * Math.min(dt, 1));
-                this.y += Math.ceil(
-                        (target.getY() + (target.getHeight() * 0.5) - ((viewport.getHeight()) * 0.5) - this.getY())
-                                * tweenFactor * Math.min(dt, 1));
-                this.viewport.setRect(this);
+        /**
+         * Recycle the rows with the text and value of the entries of the visible window. The rows after the last
+         * entry are deactivated.
+         */
+        private void bindRows() {
+            int size = model.size();
+            for (int r = 0; r < rows.length; r++) {
+                int index = firstVisible + r;
+                ItemObject row = rows[r];
+                if (index < size) {
+                    row.setText(model.getText(index));
+                    row.setValue(model.getValue(index));
+                    row.setHighLight(index == itemIndex);
+                    row.setActive(true);
+                } else {
+                    row.setHighLight(false);
+                    row.setActive(false);
+                }
+            }
+        }
+
+        /**
+         * Scroll the visible window to show the entry.
+         *
+         * @param index the index of the entry to be visible.
+         * @return true if the window moved.
+         */
+        private boolean scrollTo(int index) {
+            int first = firstVisible;
+            if (index < firstVisible) {
+                firstVisible = index;
+            } else if (index >= firstVisible + rows.length) {
+                firstVisible = index - rows.length + 1;
+            }
+            return first != firstVisible;
+        }
+
+        /**
+         * Move the selection to another item, only the previous and the new selected items being updated. In the
+         * virtualized mode, the rows are bound again only if the visible window scrolled.
+         *
+         * @param index the index of the new selected item.
+         * @return the updated {@link MenuObject}.
+         */
+        public MenuObject setItemIndex(int index) {
+            if (index == itemIndex || index < 0 || index >= getItemCount()) {
+                return this;
+            }
+            if (model != null) {
+                int previous = itemIndex;
+                itemIndex = index;
+                if (scrollTo(index)) {
+                    bindRows();
+                } else {
+                    if (previous >= firstVisible && previous < firstVisible + rows.length) {
+                        rows[previous - firstVisible].setHighLight(false);
+                    }
+                    rows[index - firstVisible].setHighLight(true);
+                }
+            } else {
+                if (itemIndex < child.size()) {
+                    ((ItemObject) child.get(itemIndex)).setHighLight(false);
+                }
+                itemIndex = index;
+                ((ItemObject) child.get(itemIndex)).setHighLight(true);
             }
+            return this;
+        }
+
+        public int getItemIndex() {
+            return itemIndex;
+        }
+
+        /**
+         * @return the number of entries of the menu.
+         */
+        public int getItemCount() {
+            return model != null ? model.size() : child.size();
+        }
+
+        /**
+         * @param index the index of the entry.
+         * @return the value of the entry.
+         */
+        public Object getItemValue(int index) {
+            return model != null ? model.getValue(index) : ((ItemObject) child.get(index)).getValue();
+        }
+
+        /**
+         * @return the value of the last selected entry (null if none was selected yet).
+         */
+        public Object getSelectedValue() {
+            return selectedValue;
+        }
+
+        /**
+         * @return the index of the first visible entry of the virtualized menu.
+         */
+        public int getFirstVisible() {
+            return firstVisible;
+        }
+
+        /**
+         * @return the number of rows of the virtualized menu, or the number of items.
+         */
+        public int getVisibleCount() {
+            return rows != null ? rows.length : child.size();
         }
     }
 
     /**
-     * Define the alignment for the affected {@link Entity} relative to its <code>parent</code> one.
+     * The possible lifecycle states of a {@link Scene}.
      *
-     * <p>Align enumeration is used to set automatic position relatively to the
-     * <code>parent</code> {@link Entity} with {@link AlignBehavior}</p>
-     * <p>Example:
-     * <pre>
-     *     Button bt = new Button("MyButton")
-     *       .setParent(myDialogBox)
-     *       .setAlign(Align.LEFT);
-     * </pre>
-     * </p>
-     * <p>This created button will be align on the internal left of the parent Entity,
-     * taking care of {@link UIObject#margin} and {@link UIObject#padding}.</p>
+     * <ul>
+     *     <li><code>LOADED</code> the scene resources are loaded, but no {@link Entity} has been created yet,</li>
+     *     <li><code>ACTIVE</code> the scene is created and is the current one,</li>
+     *     <li><code>SUSPENDED</code> the scene is created but not the current one, all its entities are retained,</li>
+     *     <li><code>DISPOSED</code> the scene has released all its entities and will be re-created on next activation.</li>
+     * </ul>
      *
-     * @see TextObject
-     * @see Button
-     * @see AlignBehavior
+     * @author Frédéric Delorme
+     * @see GameApp#activateScene(String)
+     * @since 1.0.0
      */
-    public enum Align {
-        LEFT,
-        RIGHT,
-        CENTER,
-        TOP,
-        BOTTOM;
+    public enum SceneState {
+        LOADED,
+        ACTIVE,
+        SUSPENDED,
+        DISPOSED;
     }
 
     /**
-     * This {@link Behavior} implementation is used to automatically move child {@link TextObject} and {@link Button}
-     * to their new position according to the {@link Align} attribute.
+     * A Scene is defining a full gameplay and integrate all the lifecycle operation.
      *
-     * @author Frédéric Delorme
+     * <p>A Scene is created once, on its first activation. When another scene becomes the current one,
+     * it is only suspended: all its entities and cached resources are kept, and it will be resumed as is
+     * on its next activation. Only a dispose (see {@link GameApp#disposeScene(Scene)}) will release
+     * them.</p>
+     *
+     * @author Frederic Delorme
      * @since 1.0.0
      */
-    public static class AlignBehavior implements Behavior {
-        @Override
-        public void update(GameApp app, Entity e, double elapsed) {
-            e.child.forEach(c -> {
-                switch (c.getClass().getSimpleName()) {
-                    case "Button", "TextBox" -> {
-                        switch (((Button) c).align) {
-                            case LEFT -> {
-                                c.x = e.x + UIObject.margin + UIObject.padding;
-                                c.y = e.y + e.height - (c.height + UIObject.margin + UIObject.padding);
-                            }
-                            case RIGHT -> {
-                                c.x = (e.x + e.width) - (c.width + UIObject.margin + UIObject.padding);
-                                c.y = e.y + e.height - (c.height + UIObject.margin + UIObject.padding);
-                            }
-                            case CENTER -> {
-                                c.x = (e.x + (e.width * 0.5)) - (UIObject.margin + UIObject.padding);
-                                c.y = e.y + e.height - (c.height + UIObject.margin + UIObject.padding);
-                            }
-                            default -> {
-                                // processing TOP,BOTTOM will come later...
-                            }
-                        }
-                    }
-                    default -> {
-                        // nothing to do thaaaaaa....
-                    }
-                }
-            });
+    public interface Scene {
+
+        default void load(GameApp app) {
+        }
+
+        void create(GameApp app);
+
+        default void initialize(GameApp app) {
+        }
+
+        void activate(GameApp app);
+
+        /**
+         * The Scene is no more the current one, but its state is retained for a future resume.
+         *
+         * @param app the parent application.
+         */
+        default void suspend(GameApp app) {
+        }
+
+        /**
+         * The Scene is back as the current one, with its retained state.
+         *
+         * @param app the parent application.
+         */
+        default void resume(GameApp app) {
+        }
+
+        default void input(GameApp app) {
+        }
+
+        default void update(GameApp app, double elapsed) {
+        }
+
+        default void draw(GameApp app, Graphics2D g) {
         }
+
+        /**
+         * The Scene entities have just been restored from a {@link SceneSnapshot}: the Scene can re-synchronize
+         * its own state with them.
+         *
+         * @param app the parent application.
+         */
+        default void restore(GameApp app) {
+        }
+
+        void deactivate(GameApp app);
+
+        void dispose(GameApp app);
+
+        SceneState getState();
+
+        void setState(SceneState state);
+
+        List<Behavior<Entity>> getBehaviors();
+
+        Map<String, Entity> getEntities();
+
+        <T extends Entity> T getEntity(String name);
+
+        void add(Behavior<?> behavior);
+
+        void add(Entity entity);
+
+        void remove(Entity entity);
+
+        /**
+         * Attach an {@link Entity} (and its child) to the Scene indexes, without adding it to the Scene entities.
+         *
+         * @param entity the {@link Entity} to be attached.
+         */
+        void attach(Entity entity);
+
+        void reset();
+
+        BehaviorSubscriptions getSubscriptions();
+
+        /**
+         * @return the active, tags and class indexes of the Scene entities.
+         */
+        SceneIndex getIndex();
+
+        /**
+         * @return the buffer of the structural changes to be applied at the end of the update phase.
+         */
+        CommandBuffer getCommands();
+
+        /**
+         * @return the contacts between the bodies of the Scene.
+         */
+        ContactSolver getContacts();
+
+        /**
+         * @return the spatial index answering the neighbourhood queries on the Scene entities.
+         */
+        SpatialIndex getSpatialIndex();
+
+        /**
+         * @return the playback cursors of the animated entities of the Scene.
+         */
+        AnimationPlayer getAnimationPlayer();
+
+        EcsWorld getEcs();
+
+        Camera getActiveCamera();
+
+        /**
+         * @return the {@link WorldStreamer} of the Scene, or null if its world is not streamed.
+         */
+        WorldStreamer getStreamer();
+
+        String getName();
     }
 
     /**
-     * This interface defines internals parameters for any User Interface objects on screen.
+     * Default abstract scene implementation for {@link Entity} and {@link Scene} management.
      *
-     * @author Frédéric Delorme
+     * @author Frederic Delorme
      * @since 1.0.0
      */
-    public interface UIObject extends Behavior {
+    public abstract static class AbstractScene implements Scene {
+        private static long index = 0;
+        private final long id = index++;
+        private final GameApp app;
+        private String name = "scene_" + id;
+        private List<Behavior<Entity>> behaviors = new CopyOnWriteArrayList<>();
+
         /**
-         * Default margin used for position and drawing of any UIObject
+         * Internal map of {@link Entity} for the active scene.
          */
-        int margin = 2;
+        private Map<String, Entity> entities = new LinkedHashMap<>();
         /**
-         * Default padding used for position and drawing of any UIObject
+         * The current active {@link Camera} (is any).
          */
-        int padding = 2;
-
+        private Camera activeCamera;
         /**
-         * When mouse goes over a {@link UIObject}, the fill color for this hover object is set.
+         * The chunked world streamer (if any).
          */
-        Color mouseOnColor = Color.LIGHT_GRAY;
+        private WorldStreamer streamer;
         /**
-         * When mouse goes over a {@link UIObject}, the border color for this hover object is set.
+         * The current lifecycle state of this scene.
          */
-        Color mouseOnBorderColor = Color.WHITE;
-
+        private SceneState state = SceneState.LOADED;
         /**
-         * When a mouse button is pressed on a {@link UIObject}, the fill color for this object is set.
+         * Entities and behaviors subscriptions to input events.
          */
-        Color mousePressedColor = Color.CYAN;
+        private final BehaviorSubscriptions subscriptions = new BehaviorSubscriptions();
         /**
-         * When a mouse button is pressed on a {@link UIObject}, the text color for this object is set.
+         * Active, tags and class indexes of the scene entities.
          */
-        Color mousePressedTextColor = Color.BLUE;
+        private final SceneIndex sceneIndex = new SceneIndex();
         /**
-         * When the mouse goes out of a {@link UIObject}, the fill color for this object is set.
+         * Structural changes recorded for the end of the update phase.
          */
-        Color mouseOutColor = Color.GRAY;
+        private final CommandBuffer commands = new CommandBuffer();
         /**
-         * When the mouse goes out of a {@link UIObject}, the border color for this object is set.
+         * Contacts between the scene bodies.
          */
-        Color mouseOutBorderColor = new Color(0.1f, 0.1f, 0.1f);
+        private final ContactSolver contacts = new ContactSolver();
+        /**
+         * Grid of the scene entities for the spatial queries.
+         */
+        private final SpatialIndex spatialIndex;
+        /**
+         * Playback cursors of the scene animated entities.
+         */
+        private final AnimationPlayer animationPlayer = new AnimationPlayer();
+        /**
+         * The archetype based entity-component storage of this scene.
+         */
+        private final EcsWorld ecs = new EcsWorld();
 
         /**
-         * When a mouse button is released on a {@link UIObject}, the fill color for this object is set.
+         * Create a new {@link AbstractScene} with a <code>name</code> and a parent <code>app</code>.
+         *
+         * @param app  the parent application {@link GameApp}
+         * @param name thename opf this new {@link AbstractScene}
          */
-        Color mouseReleasedColor = mouseOutColor;
+        public AbstractScene(GameApp app, String name) {
+            this.name = name;
+            this.app = app;
+            this.spatialIndex = new SpatialIndex(
+                    Double.parseDouble(app.getConfig().getProperty("app.spatial.cell.size", "64")));
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Add an {@link Entity} to the current scene.
+         *
+         * @param entity the new {@link Entity} to be added to the current scene.
+         */
+        public void add(Entity entity) {
+            entity.behaviors.forEach(b -> {
+                b.create(app, entity);
+            });
+            Entity previous = entities.put(entity.name, entity);
+            if (previous != null && previous != entity) {
+                sceneIndex.remove(previous);
+                detach(previous);
+            }
+            attach(entity);
+            sceneIndex.add(entity);
+        }
+
+        @Override
+        public void attach(Entity entity) {
+            entity.setScene(this);
+            subscriptions.register(entity);
+            if (entity instanceof AnimatedObject ao) {
+                animationPlayer.add(ao);
+            }
+            entity.child.forEach(this::attach);
+        }
+
         /**
-         * When a mouse button is released on a {@link UIObject}, the text color for this object is set.
+         * Detach the {@link Entity} and its child from the Scene indexes, release their ECS entities,
+         * and notify their behaviors. A child being also a Scene entity is kept.
+         *
+         * @param entity the {@link Entity} to be detached.
          */
-        Color mouseReleasedTextColor = Color.WHITE;
+        private void detach(Entity entity) {
+            contacts.remove(app, entity);
+            spatialIndex.remove(entity);
+            for (Behavior<Entity> b : entity.behaviors) {
+                b.onRemove(app, entity);
+            }
+            if (entity.ecsId >= 0 && ecs.getView(entity.ecsId) == entity) {
+                ecs.destroy(entity.ecsId);
+            }
+            subscriptions.unregister(entity);
+            if (entity instanceof AnimatedObject ao) {
+                animationPlayer.remove(ao);
+            }
+            entity.setScene(null);
+            entity.child.stream()
+                    .filter(c -> entities.get(c.name) != c)
+                    .forEach(this::detach);
+        }
 
+        /**
+         * Remove an {@link Entity} from the current scene. The {@link Behavior#onRemove(GameApp, Entity)} of
+         * the entity and its child is called.
+         *
+         * <p>While the scene is processed by the game loop, prefer {@link CommandBuffer#destroy(Entity)}.</p>
+         *
+         * @param entity the {@link Entity} to be removed from the current scene.
+         */
         @Override
-        default void onMousePressed(GameApp app, Entity e, double mouseX, double mouseY, int buttonId) {
-            e.setFillColor(mousePressedColor);
-            if (e instanceof Button || e instanceof ItemObject) {
-                Button bt = (Button) e;
-                bt.setTextColor(mousePressedTextColor);
+        public void remove(Entity entity) {
+            // identity check: Map.remove(key, value) would use the geometric equals() of Rectangle2D.
+            if (entities.get(entity.name) == entity) {
+                entities.remove(entity.name);
             }
+            sceneIndex.remove(entity);
+            detach(entity);
         }
 
         @Override
-        default void onMouseReleased(GameApp app, Entity e, double mouseX, double mouseY, int buttonId) {
-            e.setFillColor(mouseReleasedColor);
-            if (e instanceof Button || e instanceof ItemObject) {
-                Button bt = (Button) e;
-                bt.setTextColor(mouseReleasedTextColor);
-            }
+        @SuppressWarnings("unchecked")
+        public void add(Behavior<?> behavior) {
+            Behavior<Entity> b = (Behavior<Entity>) behavior;
+            behaviors.add(b);
+            subscriptions.register(null, b);
         }
 
         @Override
-        default void onMouseIn(GameApp app, Entity e, double mouseX, double mouseY) {
-            e.setFillColor(mouseOnColor);
-            e.setBorderColor(mouseOnBorderColor);
+        public BehaviorSubscriptions getSubscriptions() {
+            return subscriptions;
         }
 
         @Override
-        default void onMouseOut(GameApp app, Entity e, double mouseX, double mouseY) {
-            e.setFillColor(mouseOutColor);
-            e.setBorderColor(mouseOutBorderColor);
+        public SceneIndex getIndex() {
+            return sceneIndex;
         }
-    }
 
-    /**
-     * A {@link DialogBox} entity will create a dialog with a text.
-     * Adding child {@link Button} will add new operations
-     * to activate some processing.
-     * <p>
-     * By default, a DialogBox is not active; it must be activated to be displayed.
-     */
-    public static class DialogBox extends TextObject implements UIObject {
+        @Override
+        public CommandBuffer getCommands() {
+            return commands;
+        }
 
-        public DialogBox(String name) {
-            super(name);
-            setSize(100, 48);
-            setPosition((buffer.getWidth() - this.width) * 0.5, (buffer.getHeight() - this.height) * 0.5);
-            setVisible(false);
-            setRelativeToCamera(true);
-            setFillColor(Color.BLUE);
-            setBorderColor(Color.CYAN);
-            setTextColor(Color.WHITE);
-            add(new AlignBehavior());
+        @Override
+        public ContactSolver getContacts() {
+            return contacts;
         }
 
-        public void setVisible(boolean visible) {
-            setActive(visible);
-            setChildVisible(visible);
+        @Override
+        public SpatialIndex getSpatialIndex() {
+            return spatialIndex;
         }
-    }
 
-    /**
-     * A {@link Button} is a {@link UIObject} to capture mouse click action from the user.
-     * <p>
-     * It can be a child of a {@link DialogBox} and the DialogBox defined {@link AlignBehavior} will be applied on it
-     * to define its position.
-     *
-     * @author Frédéric Delorme
-     * @since 1.0.0
-     */
-    public static class Button extends TextObject implements UIObject {
-        public Align align;
+        @Override
+        public AnimationPlayer getAnimationPlayer() {
+            return animationPlayer;
+        }
+
+        @Override
+        public EcsWorld getEcs() {
+            return ecs;
+        }
 
         /**
-         * Create a new {@link Button} named name with a default <code>align</code> set to LEFT.
+         * @param tag the tag (or group name) to look for.
+         * @return the entities of this scene tagged with <code>tag</code>.
+         */
+        public Entity[] getTagged(String tag) {
+            return sceneIndex.getTagged(tag);
+        }
+
+        @Override
+        public Map<String, Entity> getEntities() {
+            return entities;
+        }
+
+        public <T extends Entity> T getEntity(String name) {
+            return (T) entities.get(name);
+        }
+
+        @Override
+        public List<Behavior<Entity>> getBehaviors() {
+            return behaviors;
+        }
+
+        @Override
+        public void reset() {
+            // the contacts and cells are dropped at once, not one entity at a time.
+            contacts.clear();
+            spatialIndex.clear();
+            entities.values().forEach(this::detach);
+            entities.clear();
+            sceneIndex.clear();
+            commands.clear();
+            animationPlayer.clear();
+            behaviors.clear();
+            subscriptions.clear();
+            ecs.clear();
+            if (streamer != null) {
+                streamer.dispose();
+                streamer = null;
+            }
+            activeCamera = null;
+        }
+
+        /**
+         * Define the current active {@link Camera}.
+         * <p>
+         * The defined {@link Camera}'s targeted {@link Entity} will be tracked on center of the Camera viewport
+         * corresponding to the window center.
          *
-         * @param name the name for this new {@link Button} instance
+         * @param cam the new {@link Camera} to activate.
          */
-        public Button(String name) {
-            super(name);
-            setRelativeToCamera(true);
-            setAlign(Align.LEFT);
+        protected void setActiveCamera(Camera cam) {
+            this.activeCamera = cam;
+
+        }
+
+        @Override
+        public Camera getActiveCamera() {
+            return activeCamera;
         }
 
         /**
-         * Set the Align value.
+         * Define the {@link WorldStreamer} managing the entities of a large world.
          *
-         * @param a the new {@link Align} required for this {@link Button}.
-         * @return the updated {@link Button} instance.
+         * @param streamer the new {@link WorldStreamer}.
          */
-        public Button setAlign(Align a) {
-            this.align = a;
-            return this;
+        protected void setStreamer(WorldStreamer streamer) {
+            this.streamer = streamer;
         }
 
-    }
+        @Override
+        public WorldStreamer getStreamer() {
+            return streamer;
+        }
 
-    /**
-     * An {@link ItemObject} is an item in a {@link MenuObject}.
-     *
-     * @author Frédéric Delorme
-     * @since 1.0.0
-     */
-    public static class ItemObject extends TextObject implements UIObject {
+        @Override
+        public void activate(GameApp app) {
+            // nothing to do by default.
+        }
 
-        private boolean highlight = false;
+        @Override
+        public void deactivate(GameApp app) {
+            for (Entity e : sceneIndex.getActive()) {
+                e.setActive(false);
+            }
+        }
+
+        @Override
+        public void dispose(GameApp app) {
 
-        public ItemObject(String name) {
-            super(name);
-            setRelativeToCamera(true);
-            setActive(true);
         }
 
-        public ItemObject setValue(String value) {
-            this.value = value;
-            return this;
+        @Override
+        public SceneState getState() {
+            return state;
         }
 
-        public void setHighLight(boolean b) {
-            this.highlight = b;
+        @Override
+        public void setState(SceneState state) {
+            this.state = state;
         }
     }
 
     /**
-     * A {@link MenuObject} is a choice selector between multiple items.
-     * {@link Entity#child} list will be menu entry item {@link ItemObject}.
+     * A {@link ComponentType} defines an entity-component system component as a set of named <code>double</code>
+     * fields. Each field is stored in its own primitive column in the {@link Archetype} tables.
+     *
+     * <p>Component types are registered once and get a dense id (up to 64 component types):</p>
+     * <pre>
+     * ComponentType HEALTH = ComponentType.register("health", "value", "max");
+     * </pre>
      *
      * @author Frédéric Delorme
+     * @see EcsWorld
      * @since 1.0.0
      */
-    public static class MenuObject extends TextObject implements UIObject {
+    public static final class ComponentType {
+        private static final List<ComponentType> types = new ArrayList<>();
 
-        private Color backgroundColor;
-        private int itemIndex = 0;
-        private Object selectedValue = null;
+        public static final ComponentType POSITION = register("position", "x", "y");
+        public static final ComponentType VELOCITY = register("velocity", "dx", "dy");
+        public static final ComponentType ACCELERATION = register("acceleration", "ax", "ay");
+        public static final ComponentType SIZE = register("size", "width", "height");
+        public static final ComponentType MASS = register("mass", "mass");
 
-        /**
-         * Create a new {@link MenuObject} with a name.
-         *
-         * @param name the Name of this new {@link MenuObject}.
-         */
-        public MenuObject(String name) {
-            super(name);
-            setBackgroundColor(null);
-            setSize(100, 48);
-            setPosition((buffer.getWidth() - this.width) * 0.5, (buffer.getHeight() - this.height) * 0.5);
-            setRelativeToCamera(true);
-            setActive(true);
-            setFillColor(Color.BLUE);
-            setBorderColor(Color.CYAN);
-            setTextColor(Color.WHITE);
-            setText("");
-            add(new AlignBehavior());
-            add(new Behavior() {
-                @Override
-                public void onKeyReleased(GameApp app, Entity e, KeyEvent k) {
-                    MenuObject mo = (MenuObject) e;
-                    switch (k.getKeyCode()) {
-                        case KeyEvent.VK_DOWN -> {
-                            mo.itemIndex = Math.min(itemIndex + 1, child.size() - 1);
-                        }
-                        case KeyEvent.VK_UP -> {
-                            mo.itemIndex = Math.max(itemIndex - 1, 0);
-                        }
-                        case KeyEvent.VK_ENTER, KeyEvent.VK_SPACE -> {
-                            ItemObject io = ((ItemObject) child.get(itemIndex));
-                            mo.selectedValue = io.getValue();
+        public final int id;
+        public final String name;
+        public final String[] fields;
 
-                            mo.behaviors.forEach(b -> b.onSelected(app, mo));
-                        }
-                    }
-                }
-            });
+        private ComponentType(int id, String name, String[] fields) {
+            this.id = id;
+            this.name = name;
+            this.fields = fields;
         }
 
-        public MenuObject setBackgroundColor(Color bckColor) {
-            this.backgroundColor = bckColor;
-            return this;
+        /**
+         * Register a new {@link ComponentType}.
+         *
+         * @param name   the name of the component.
+         * @param fields the names of its fields.
+         * @return the new {@link ComponentType}.
+         */
+        public static synchronized ComponentType register(String name, String... fields) {
+            if (types.size() == 64) {
+                throw new IllegalStateException("No more than 64 component types can be registered");
+            }
+            ComponentType ct = new ComponentType(types.size(), name, fields);
+            types.add(ct);
+            return ct;
         }
 
-        public MenuObject addItem(ItemObject item) {
-            item.setPosition(
-                    this.x + UIObject.padding + UIObject.margin,
-                    this.y + UIObject.padding + UIObject.margin + (child.size() + 1.25f) * 14);
-            item.setFont(getFont());
-            child.add(item);
-            return this;
+        public long bit() {
+            return 1L << id;
         }
 
-        @Override
-        public void update(GameApp app, double elapsed) {
-            super.update(app, elapsed);
-            for (int i = 0; i < child.size(); i++) {
-                ((ItemObject) child.get(i)).setHighLight(i == itemIndex);
+        /**
+         * Compute the mask for a set of component types.
+         *
+         * @param cts the component types.
+         * @return the corresponding mask.
+         */
+        public static long mask(ComponentType... cts) {
+            long m = 0;
+            for (ComponentType ct : cts) {
+                m |= ct.bit();
             }
+            return m;
         }
 
-        public int getItemIndex() {
-            return itemIndex;
+        public static ComponentType get(int id) {
+            return types.get(id);
         }
     }
 
     /**
-     * A Scene is defining a full gameplay and integrate all the lifecycle operation.
+     * An {@link Archetype} is the table storing all the ECS entities sharing exactly the same set of components.
      *
-     * @author Frederic Delorme
+     * <p>Each component field is a dense <code>double[]</code> column; a row is an entity. Rows are kept
+     * contiguous: removing an entity moves the last row in its place.</p>
+     *
+     * @author Frédéric Delorme
+     * @see EcsWorld
      * @since 1.0.0
      */
-    public interface Scene {
-
-        default void load(GameApp app) {
+    public static final class Archetype {
+        private final long mask;
+        // column index of the first field of each component type, -1 if not in this archetype.
+        private final int[] columnOffset = new int[64];
+        private double[][] columns;
+        private int[] entityIds = new int[16];
+        private int size = 0;
+
+        Archetype(long mask) {
+            this.mask = mask;
+            Arrays.fill(columnOffset, -1);
+            int nbColumns = 0;
+            for (int i = 0; i < 64; i++) {
+                if ((mask & (1L << i)) != 0) {
+                    columnOffset[i] = nbColumns;
+                    nbColumns += ComponentType.get(i).fields.length;
+                }
+            }
+            columns = new double[nbColumns][16];
         }
 
-        void create(GameApp app);
+        public long getMask() {
+            return mask;
+        }
 
-        default void initialize(GameApp app) {
+        public boolean has(ComponentType ct) {
+            return (mask & ct.bit()) != 0;
         }
 
-        void activate(GameApp app);
+        public int size() {
+            return size;
+        }
 
-        default void input(GameApp app) {
+        /**
+         * Retrieve the dense column of a component field.
+         *
+         * @param ct    the component type.
+         * @param field the index of the field in the component.
+         * @return the column array (only the <code>size()</code> first values are meaningful).
+         */
+        public double[] column(ComponentType ct, int field) {
+            return columns[columnOffset[ct.id] + field];
         }
 
-        default void update(GameApp app, double elapsed) {
+        public int entityId(int row) {
+            return entityIds[row];
         }
 
-        default void draw(GameApp app, Graphics2D g) {
+        int addRow(int entityId) {
+            if (size == entityIds.length) {
+                int capacity = size * 2;
+                entityIds = Arrays.copyOf(entityIds, capacity);
+                for (int c = 0; c < columns.length; c++) {
+                    columns[c] = Arrays.copyOf(columns[c], capacity);
+                }
+            }
+            entityIds[size] = entityId;
+            for (double[] column : columns) {
+                column[size] = 0;
+            }
+            return size++;
         }
 
-        void deactivate(GameApp app);
+        /**
+         * Remove a row, moving the last row in its place.
+         *
+         * @param row the row to be removed.
+         * @return the id of the entity moved to <code>row</code>, or -1 if none moved.
+         */
+        int removeRow(int row) {
+            int last = --size;
+            if (row == last) {
+                return -1;
+            }
+            entityIds[row] = entityIds[last];
+            for (double[] column : columns) {
+                column[row] = column[last];
+            }
+            return entityIds[row];
+        }
 
-        void dispose(GameApp app);
+        void copyRow(int row, Archetype to, int toRow) {
+            for (int i = 0; i < 64; i++) {
+                if (columnOffset[i] >= 0 && to.columnOffset[i] >= 0) {
+                    int n = ComponentType.get(i).fields.length;
+                    for (int f = 0; f < n; f++) {
+                        to.columns[to.columnOffset[i] + f][toRow] = columns[columnOffset[i] + f][row];
+                    }
+                }
+            }
+        }
+    }
 
-        List<Behavior> getBehaviors();
+    /**
+     * A cached query on the {@link EcsWorld}: the list of {@link Archetype}'s containing at least all the
+     * required component types. It is updated when a new {@link Archetype} is created.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static final class EcsQuery {
+        private final long mask;
+        private final List<Archetype> archetypes = new ArrayList<>();
 
-        Map<String, Entity> getEntities();
+        EcsQuery(long mask) {
+            this.mask = mask;
+        }
 
-        <T extends Entity> T getEntity(String name);
+        boolean matches(Archetype a) {
+            return (a.mask & mask) == mask;
+        }
 
-        void add(Behavior behavior);
+        public List<Archetype> getArchetypes() {
+            return archetypes;
+        }
 
-        void add(Entity entity);
+        /**
+         * Count the entities matching this query.
+         *
+         * @return the number of matching entities.
+         */
+        public int count() {
+            int n = 0;
+            for (int i = 0; i < archetypes.size(); i++) {
+                n += archetypes.get(i).size();
+            }
+            return n;
+        }
+    }
 
-        void reset();
+    /**
+     * An {@link EcsSystem} processes the ECS entities, iterating the dense columns of the {@link Archetype}'s
+     * returned by an {@link EcsQuery}.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public interface EcsSystem {
+        void update(GameApp app, EcsWorld world, double elapsed);
+    }
 
-        Camera getActiveCamera();
+    /**
+     * The default {@link EcsSystem} moving the entities: the velocity is updated with the acceleration,
+     * and the position with the velocity.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class MovementSystem implements EcsSystem {
+        private EcsQuery query;
 
-        String getName();
+        @Override
+        public void update(GameApp app, EcsWorld world, double elapsed) {
+            if (query == null) {
+                query = world.query(ComponentType.POSITION, ComponentType.VELOCITY);
+            }
+            List<Archetype> archetypes = query.getArchetypes();
+            for (int a = 0; a < archetypes.size(); a++) {
+                Archetype arch = archetypes.get(a);
+                double[] x = arch.column(ComponentType.POSITION, 0);
+                double[] y = arch.column(ComponentType.POSITION, 1);
+                double[] dx = arch.column(ComponentType.VELOCITY, 0);
+                double[] dy = arch.column(ComponentType.VELOCITY, 1);
+                int n = arch.size();
+                if (arch.has(ComponentType.ACCELERATION)) {
+                    double[] ax = arch.column(ComponentType.ACCELERATION, 0);
+                    double[] ay = arch.column(ComponentType.ACCELERATION, 1);
+                    for (int i = 0; i < n; i++) {
+                        dx[i] += ax[i] * elapsed;
+                        dy[i] += ay[i] * elapsed;
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    x[i] += dx[i] * elapsed;
+                    y[i] += dy[i] * elapsed;
+                }
+            }
+        }
     }
 
     /**
-     * Default abstract scene implementation for {@link Entity} and {@link Scene} management.
+     * The {@link EcsWorld} is an archetype based entity-component storage, an alternative to the {@link Entity}
+     * class hierarchy to manage very large numbers of entities.
      *
-     * @author Frederic Delorme
+     * <p>An ECS entity is only an <code>int</code> id; its components are stored in the {@link Archetype} table
+     * corresponding to its set of components. {@link EcsQuery} are cached per set of components, and
+     * {@link EcsSystem}'s iterate the dense arrays of the matching archetypes.</p>
+     *
+     * <p>To run on top of the existing {@link Scene} and {@link RendererPlugin}'s, an ECS entity can be linked to an
+     * {@link Entity} view (see {@link EcsWorld#spawn(Entity)}): after the systems update, the position and size
+     * components are copied to the view, that is drawn by its usual {@link RendererPlugin}. A linked {@link Entity}
+     * is moved by the ECS only, not by the {@link GameApp} physics.</p>
+     *
+     * <p>Structural changes (create, destroy, add or remove a component) must not be done while a system is
+     * iterating the archetypes.</p>
+     *
+     * @author Frédéric Delorme
      * @since 1.0.0
      */
-    public abstract static class AbstractScene implements Scene {
-        private static long index = 0;
-        private final long id = index++;
-        private final GameApp app;
-        private String name = "scene_" + id;
-        private List<Behavior> behaviors = new CopyOnWriteArrayList<>();
+    public static class EcsWorld {
+        private final Map<Long, Archetype> archetypes = new HashMap<>();
+        private final Map<Long, EcsQuery> queries = new HashMap<>();
+        private final List<EcsSystem> systems = new ArrayList<>();
+        private Archetype[] entityArchetype = new Archetype[64];
+        private int[] entityRow = new int[64];
+        private Entity[] views = new Entity[64];
+        private int nextId = 0;
+        private final Deque<Integer> freeIds = new ArrayDeque<>();
+        private final EcsQuery viewQuery;
+
+        public EcsWorld() {
+            systems.add(new MovementSystem());
+            viewQuery = query(ComponentType.POSITION);
+        }
 
         /**
-         * Internal map of {@link Entity} for the active scene.
+         * Add a new system, processed after the already added ones.
+         *
+         * @param system the {@link EcsSystem} to be added.
+         * @return the updated {@link EcsWorld}.
          */
-        private Map<String, Entity> entities = new ConcurrentHashMap<>();
+        public EcsWorld add(EcsSystem system) {
+            systems.add(system);
+            return this;
+        }
+
         /**
-         * The current active {@link Camera} (is any).
+         * Create a new ECS entity with a set of components, all fields set to 0.
+         *
+         * @param cts the component types of the new entity.
+         * @return the id of the new entity.
          */
-        private Camera activeCamera;
+        public int create(ComponentType... cts) {
+            int id = freeIds.isEmpty() ? nextId++ : freeIds.pop();
+            if (id >= entityArchetype.length) {
+                int capacity = entityArchetype.length * 2;
+                entityArchetype = Arrays.copyOf(entityArchetype, capacity);
+                entityRow = Arrays.copyOf(entityRow, capacity);
+                views = Arrays.copyOf(views, capacity);
+            }
+            Archetype a = archetype(ComponentType.mask(cts));
+            entityArchetype[id] = a;
+            entityRow[id] = a.addRow(id);
+            return id;
+        }
 
         /**
-         * Create a new {@link AbstractScene} with a <code>name</code> and a parent <code>app</code>.
+         * Destroy the ECS entity, and unlink its {@link Entity} view (if any).
          *
-         * @param app  the parent application {@link GameApp}
-         * @param name thename opf this new {@link AbstractScene}
+         * @param id the id of the entity to be destroyed.
          */
-        public AbstractScene(GameApp app, String name) {
-            this.name = name;
-            this.app = app;
+        public void destroy(int id) {
+            Archetype a = entityArchetype[id];
+            if (a == null) {
+                return;
+            }
+            removeFrom(a, entityRow[id]);
+            entityArchetype[id] = null;
+            if (views[id] != null) {
+                views[id].ecsId = -1;
+                views[id] = null;
+            }
+            freeIds.push(id);
         }
 
-        @Override
-        public String getName() {
-            return name;
+        /**
+         * Add a component to the entity, moving it to the corresponding {@link Archetype}.
+         *
+         * @param id the entity id.
+         * @param ct the component type to be added.
+         */
+        public void addComponent(int id, ComponentType ct) {
+            move(id, entityArchetype[id].mask | ct.bit());
         }
 
         /**
-         * Add an {@link Entity} to the current scene.
+         * Remove a component from the entity, moving it to the corresponding {@link Archetype}.
          *
-         * @param entity the new {@link Entity} to be added to the current scene.
+         * @param id the entity id.
+         * @param ct the component type to be removed.
          */
-        public void add(Entity entity) {
-            entity.behaviors.forEach(b -> {
-                b.create(app, entity);
-            });
-            entities.put(entity.name, entity);
+        public void removeComponent(int id, ComponentType ct) {
+            move(id, entityArchetype[id].mask & ~ct.bit());
         }
 
-        @Override
-        public void add(Behavior behavior) {
-            behaviors.add(behavior);
+        public boolean has(int id, ComponentType ct) {
+            return entityArchetype[id] != null && entityArchetype[id].has(ct);
         }
 
-        @Override
-        public Map<String, Entity> getEntities() {
-            return entities;
+        public double get(int id, ComponentType ct, int field) {
+            return entityArchetype[id].column(ct, field)[entityRow[id]];
         }
 
-        public <T extends Entity> T getEntity(String name) {
-            return (T) entities.get(name);
+        public EcsWorld setField(int id, ComponentType ct, int field, double value) {
+            entityArchetype[id].column(ct, field)[entityRow[id]] = value;
+            return this;
         }
 
-        @Override
-        public List<Behavior> getBehaviors() {
-            return behaviors;
+        public EcsWorld set(int id, ComponentType ct, double v0, double v1) {
+            Archetype a = entityArchetype[id];
+            a.column(ct, 0)[entityRow[id]] = v0;
+            a.column(ct, 1)[entityRow[id]] = v1;
+            return this;
         }
 
-        @Override
-        public void reset() {
-            entities.clear();
-            behaviors.clear();
-            activeCamera = null;
+        /**
+         * Retrieve the cached {@link EcsQuery} for the set of component types.
+         *
+         * @param cts the required component types.
+         * @return the corresponding {@link EcsQuery}.
+         */
+        public EcsQuery query(ComponentType... cts) {
+            long mask = ComponentType.mask(cts);
+            EcsQuery q = queries.get(mask);
+            if (q == null) {
+                q = new EcsQuery(mask);
+                for (Archetype a : archetypes.values()) {
+                    if (q.matches(a)) {
+                        q.archetypes.add(a);
+                    }
+                }
+                queries.put(mask, q);
+            }
+            return q;
         }
 
         /**
-         * Define the current active {@link Camera}.
-         * <p>
-         * The defined {@link Camera}'s targeted {@link Entity} will be tracked on center of the Camera viewport
-         * corresponding to the window center.
+         * Create an ECS entity from an {@link Entity} (position, velocity, acceleration, size and mass),
+         * and link the {@link Entity} as its view.
          *
-         * @param cam the new {@link Camera} to activate.
+         * @param e the {@link Entity} to be managed by the ECS.
+         * @return the id of the new ECS entity.
          */
-        protected void setActiveCamera(Camera cam) {
-            this.activeCamera = cam;
+        public int spawn(Entity e) {
+            int id = create(ComponentType.POSITION, ComponentType.VELOCITY, ComponentType.ACCELERATION,
+                    ComponentType.SIZE, ComponentType.MASS);
+            set(id, ComponentType.POSITION, e.x, e.y);
+            set(id, ComponentType.VELOCITY, e.dx, e.dy);
+            set(id, ComponentType.ACCELERATION, e.ax, e.ay);
+            set(id, ComponentType.SIZE, e.width, e.height);
+            setField(id, ComponentType.MASS, 0, e.mass);
+            link(id, e);
+            return id;
+        }
 
+        /**
+         * Link an {@link Entity} as the view of an ECS entity.
+         *
+         * @param id the ECS entity id.
+         * @param e  the {@link Entity} view.
+         */
+        public void link(int id, Entity e) {
+            views[id] = e;
+            e.ecsId = id;
         }
 
-        @Override
-        public Camera getActiveCamera() {
-            return activeCamera;
+        public Entity getView(int id) {
+            return id >= 0 && id < views.length ? views[id] : null;
         }
 
-        @Override
-        public void activate(GameApp app) {
-            // nothing to do by default.
+        /**
+         * Process all the systems, then copy the position and size components to the linked {@link Entity} views.
+         *
+         * @param app     the parent application.
+         * @param elapsed the elapsed time since previous call.
+         */
+        public void update(GameApp app, double elapsed) {
+            for (int i = 0; i < systems.size(); i++) {
+                systems.get(i).update(app, this, elapsed);
+            }
+            syncViews();
         }
 
-        @Override
-        public void deactivate(GameApp app) {
-            getEntities().values().forEach(e -> e.setActive(false));
+        /**
+         * Copy the position and size components to the linked {@link Entity} views.
+         */
+        public void syncViews() {
+            List<Archetype> list = viewQuery.getArchetypes();
+            for (int a = 0; a < list.size(); a++) {
+                Archetype arch = list.get(a);
+                double[] x = arch.column(ComponentType.POSITION, 0);
+                double[] y = arch.column(ComponentType.POSITION, 1);
+                boolean sized = arch.has(ComponentType.SIZE);
+                for (int i = 0; i < arch.size(); i++) {
+                    Entity v = views[arch.entityId(i)];
+                    if (v != null) {
+                        v.x = x[i];
+                        v.y = y[i];
+                        if (sized) {
+                            v.width = arch.column(ComponentType.SIZE, 0)[i];
+                            v.height = arch.column(ComponentType.SIZE, 1)[i];
+                        }
+                    }
+                }
+            }
         }
 
-        @Override
-        public void dispose(GameApp app) {
+        /**
+         * Count the living ECS entities.
+         *
+         * @return the number of entities.
+         */
+        public int size() {
+            return nextId - freeIds.size();
+        }
+
+        /**
+         * Destroy all the ECS entities (the systems are kept).
+         */
+        public void clear() {
+            for (int id = 0; id < nextId; id++) {
+                if (views[id] != null) {
+                    views[id].ecsId = -1;
+                }
+            }
+            archetypes.clear();
+            queries.values().forEach(q -> q.archetypes.clear());
+            Arrays.fill(entityArchetype, null);
+            Arrays.fill(views, null);
+            freeIds.clear();
+            nextId = 0;
+        }
+
+        private Archetype archetype(long mask) {
+            Archetype a = archetypes.get(mask);
+            if (a == null) {
+                a = new Archetype(mask);
+                archetypes.put(mask, a);
+                for (EcsQuery q : queries.values()) {
+                    if (q.matches(a)) {
+                        q.archetypes.add(a);
+                    }
+                }
+            }
+            return a;
+        }
 
+        private void move(int id, long mask) {
+            Archetype from = entityArchetype[id];
+            if (from.mask == mask) {
+                return;
+            }
+            Archetype to = archetype(mask);
+            int row = to.addRow(id);
+            from.copyRow(entityRow[id], to, row);
+            removeFrom(from, entityRow[id]);
+            entityArchetype[id] = to;
+            entityRow[id] = row;
+        }
+
+        private void removeFrom(Archetype a, int row) {
+            int moved = a.removeRow(row);
+            if (moved >= 0) {
+                entityRow[moved] = row;
+            }
         }
     }
 
@@ -1437,6 +7418,151 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         }
     }
 
+    /**
+     * Draw the current frame of an {@link AnimatedObject}, from the shared clip and the entity cursor.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class AnimatedObjectRendererPlugin implements RendererPlugin<AnimatedObject> {
+
+        @Override
+        public Class<? extends Entity> getEntityClass() {
+            return AnimatedObject.class;
+        }
+
+        @Override
+        public void draw(Graphics2D g, Entity e) {
+            AnimatedObject ao = (AnimatedObject) e;
+            BufferedImage image = ao.getImage();
+            if (image != null) {
+                g.drawImage(image,
+                        (int) ao.getWorldX(), (int) ao.getWorldY(),
+                        ao.width > 0 ? (int) ao.width : image.getWidth(),
+                        ao.height > 0 ? (int) ao.height : image.getHeight(),
+                        null);
+            }
+        }
+    }
+
+    /**
+     * The {@link TileMapRendererPlugin} draws only the chunks of a {@link TileMap} intersecting the visible area
+     * (the clip of the rendering buffer), each one with a single blit of its pre-rendered image.
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class TileMapRendererPlugin implements RendererPlugin<TileMap> {
+
+        @Override
+        public Class<? extends Entity> getEntityClass() {
+            return TileMap.class;
+        }
+
+        @Override
+        public void draw(Graphics2D g, Entity e) {
+            TileMap tm = (TileMap) e;
+            int cw = tm.chunkSize * tm.tileWidth;
+            int ch = tm.chunkSize * tm.tileHeight;
+            int c0 = 0, r0 = 0, c1 = tm.getChunkColumns() - 1, r1 = tm.getChunkRows() - 1;
+            Rectangle clip = g.getClipBounds();
+            if (clip != null) {
+                c0 = Math.max(c0, (int) Math.floor((clip.x - tm.x) / cw));
+                r0 = Math.max(r0, (int) Math.floor((clip.y - tm.y) / ch));
+                c1 = Math.min(c1, (int) Math.floor((clip.x + clip.width - tm.x) / cw));
+                r1 = Math.min(r1, (int) Math.floor((clip.y + clip.height - tm.y) / ch));
+            }
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    BufferedImage chunk = tm.getChunkImage(c, r);
+                    if (chunk != null) {
+                        g.drawImage(chunk, (int) tm.x + c * cw, (int) tm.y + r * ch, null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draw the particles of a {@link ParticleEmitter} as small squares, colored from its palette according to
+     * their remaining life.
+     *
+     * <p>A few particles are drawn with {@link Graphics2D#fillRect(int, int, int, int)}. Above
+     * <code>DIRECT_THRESHOLD</code> particles, they are written straight into the pixels of a layer image
+     * covering the clip area, then the layer is drawn at once: the cost no more depends on the Java2D pipeline
+     * per particle, and nothing is allocated while the clip area does not grow.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class ParticleEmitterRendererPlugin implements RendererPlugin<ParticleEmitter> {
+        private static final int DIRECT_THRESHOLD = 256;
+
+        private BufferedImage layer;
+        private int[] pixels;
+
+        @Override
+        public Class<? extends Entity> getEntityClass() {
+            return ParticleEmitter.class;
+        }
+
+        @Override
+        public void draw(Graphics2D g, Entity e) {
+            ParticleEmitter pe = (ParticleEmitter) e;
+            Rectangle clip = g.getClipBounds();
+            if (pe.count < DIRECT_THRESHOLD || clip == null || clip.isEmpty()) {
+                drawRectangles(g, pe);
+            } else {
+                drawLayer(g, pe, clip);
+            }
+        }
+
+        private void drawRectangles(Graphics2D g, ParticleEmitter pe) {
+            Color[] palette = pe.palette;
+            int last = palette.length - 1;
+            int current = -1;
+            for (int i = 0; i < pe.count; i++) {
+                float age = 1.0f - pe.life[i] / pe.maxLife[i];
+                int c = (int) (age * last);
+                if (c != current) {
+                    g.setColor(palette[c]);
+                    current = c;
+                }
+                int size = Math.max(1, Math.round(pe.startSize + (pe.endSize - pe.startSize) * age));
+                g.fillRect((int) pe.px[i], (int) pe.py[i], size, size);
+            }
+        }
+
+        private void drawLayer(Graphics2D g, ParticleEmitter pe, Rectangle clip) {
+            int cw = clip.width, ch = clip.height;
+            if (layer == null || layer.getWidth() < cw || layer.getHeight() < ch) {
+                layer = new BufferedImage(Math.max(cw, layer != null ? layer.getWidth() : 0),
+                        Math.max(ch, layer != null ? layer.getHeight() : 0), BufferedImage.TYPE_INT_ARGB);
+                pixels = ((DataBufferInt) layer.getRaster().getDataBuffer()).getData();
+            }
+            int stride = layer.getWidth();
+            for (int row = 0; row < ch; row++) {
+                Arrays.fill(pixels, row * stride, row * stride + cw, 0);
+            }
+            int[] palette = pe.paletteArgb;
+            int last = palette.length - 1;
+            for (int i = 0; i < pe.count; i++) {
+                float age = 1.0f - pe.life[i] / pe.maxLife[i];
+                int argb = palette[(int) (age * last)];
+                int size = Math.max(1, Math.round(pe.startSize + (pe.endSize - pe.startSize) * age));
+                int x0 = Math.max((int) pe.px[i] - clip.x, 0), x1 = Math.min((int) pe.px[i] - clip.x + size, cw);
+                int y0 = Math.max((int) pe.py[i] - clip.y, 0), y1 = Math.min((int) pe.py[i] - clip.y + size, ch);
+                for (int y = y0; y < y1; y++) {
+                    int o = y * stride;
+                    for (int x = x0; x < x1; x++) {
+                        pixels[o + x] = argb;
+                    }
+                }
+            }
+            g.drawImage(layer, clip.x, clip.y, clip.x + cw, clip.y + ch, 0, 0, cw, ch, null);
+        }
+    }
+
     public static class TextObjectRendererPlugin implements RendererPlugin<TextObject> {
 
         @Override
@@ -1453,9 +7579,9 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
                 g.setFont(te.font);
             }
 
-            int textWidth = g.getFontMetrics().stringWidth(te.text);
-            int textHeight = g.getFontMetrics().getHeight();
-            int tx2 = g.getFontMetrics().getDescent();
+            int textWidth = te.measureText(g);
+            int textHeight = te.measuredHeight;
+            int tx2 = te.measuredDescent;
             int offsetX = 0;
             switch (te.textAlign) {
                 case CENTER -> {
@@ -1485,25 +7611,20 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         @Override
         public void draw(Graphics2D g, Entity e) {
             Button te = (Button) e;
-            int x = (int) ((Optional.ofNullable(te.getParent()).isPresent() && te.isRelativeToParent())
-                    ? (te.getParent().getX() + te.getX())
-                    : te.getX());
-
-            int y = (int) ((Optional.ofNullable(te.getParent()).isPresent() && te.isRelativeToParent())
-                    ? (te.getParent().getY() + te.getY())
-                    : te.getY());
+            int x = (int) te.getWorldX();
+            int y = (int) te.getWorldY();
 
             if (Optional.ofNullable(te.font).isPresent()) {
                 g.setFont(te.font);
             }
 
-            int fontHeight = g.getFontMetrics().getHeight();
-            int textWidth = g.getFontMetrics().stringWidth(te.getText());
-            int yOffset = g.getFontMetrics().getDescent();
+            int textWidth = te.measureText(g);
+            int fontHeight = te.measuredHeight;
+            int yOffset = te.measuredDescent;
 
             te.setSize(te.getWidth(), fontHeight + 2 * UIObject.margin);
 
-            Renderer.drawEdgeRectangle(g, te);
+            Renderer.drawPanel(g, te, te.fillColor);
 
             g.setColor(te.textColor);
             g.drawString(
@@ -1526,9 +7647,9 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             if (Optional.ofNullable(te.font).isPresent()) {
                 g.setFont(te.font);
             }
-            int textWidth = g.getFontMetrics().stringWidth(te.text);
-            int textHeight = g.getFontMetrics().getHeight();
-            int tx2 = g.getFontMetrics().getDescent();
+            int textWidth = te.measureText(g);
+            int textHeight = te.measuredHeight;
+            int tx2 = te.measuredDescent;
             int offsetX = 0;
             switch (te.textAlign) {
                 case CENTER -> {
@@ -1574,13 +7695,20 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             if (Optional.ofNullable(mo.font).isPresent()) {
                 g.setFont(mo.font);
             }
-            int textHeight = g.getFontMetrics().getHeight();
             g.setColor(mo.textColor);
             g.drawString(mo.getText(), (int) mo.getX(), (int) mo.getY());
 
             if (mo.backgroundColor != null) {
+                Renderer.drawPanel(g, mo, mo.backgroundColor);
+            }
+            // scroll bar of a virtualized menu longer than its visible rows.
+            int count = mo.getItemCount(), visible = mo.getVisibleCount();
+            if (mo.getModel() != null && count > visible) {
+                int h = (int) mo.getHeight();
+                int thumb = Math.max(4, h * visible / count);
+                int ty = (int) (mo.getY() + (long) (h - thumb) * mo.getFirstVisible() / (count - visible));
                 g.setColor(mo.textColor);
-                Renderer.drawEdgeRectangle(g, mo, mo.backgroundColor);
+                g.fillRect((int) (mo.getX() + mo.getWidth()) - 3, ty, 2, thumb);
             }
 
             drawVisualDebugInformation(g, mo, mo.child.size() * mo.getFont().getSize());
@@ -1601,18 +7729,9 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             if (Optional.ofNullable(db.font).isPresent()) {
                 g.setFont(db.font);
             }
-            int textHeight = g.getFontMetrics().getHeight();
-            int textWidth = g.getFontMetrics().stringWidth(db.getText());
+            int textWidth = db.measureText(g);
 
-            /*
-            g.setColor(Color.GRAY);
-
-            g.fillRect((int) db.getX(), (int) db.getY(), (int) db.getWidth(), (int) db.getHeight());
-
-            g.setColor(db.borderColor);
-            g.drawRect((int) db.getX(), (int) db.getY(), (int) db.getWidth(), (int) db.getHeight());
-            */
-            Renderer.drawEdgeRectangle(g, db);
+            Renderer.drawPanel(g, db, db.fillColor);
 
             g.setColor(db.textColor);
 
@@ -1621,6 +7740,107 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         }
     }
 
+    /**
+     * A {@link NineSlice} is a widget background skin: a small source image cut into 3x3 parts, the corners
+     * being copied as is and the edges and center being stretched to the panel size.
+     *
+     * <p>The panels are baked once into an image at their size (see {@link #bake(int, int)}) and then drawn
+     * with a single blit, instead of the lines and rectangles of the bevel on each frame.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class NineSlice {
+        // the bevel skins already built, by fill and border colors.
+        private static final Map<Long, NineSlice> bevels = new HashMap<>();
+
+        private final BufferedImage source;
+        private final int left, top, right, bottom;
+
+        /**
+         * Create a new skin from its source image and the size of its borders.
+         *
+         * @param source the source image.
+         * @param left   width of the left corners and edge.
+         * @param top    height of the top corners and edge.
+         * @param right  width of the right corners and edge.
+         * @param bottom height of the bottom corners and edge.
+         */
+        public NineSlice(BufferedImage source, int left, int top, int right, int bottom) {
+            this.source = source;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+        }
+
+        /**
+         * Retrieve the bevelled panel skin of the UI widgets: a border line, a light top-left edge and a dark
+         * bottom-right edge around the fill color.
+         *
+         * @param fill   the fill color (null for a transparent one).
+         * @param border the border color (null for a transparent one).
+         * @return the shared {@link NineSlice} skin.
+         */
+        public static NineSlice bevel(Color fill, Color border) {
+            int f = fill != null ? fill.getRGB() : 0;
+            int b = border != null ? border.getRGB() : 0;
+            return bevels.computeIfAbsent(((long) f << 32) | (b & 0xffffffffL), k -> {
+                int l = Color.LIGHT_GRAY.getRGB(), d = Color.DARK_GRAY.getRGB(), m = Color.GRAY.getRGB();
+                int[] pixels = {
+                        b, b, b, b, b,
+                        b, l, l, m, b,
+                        b, l, f, d, b,
+                        b, m, d, d, b,
+                        b, b, b, b, b};
+                BufferedImage image = new BufferedImage(5, 5, BufferedImage.TYPE_INT_ARGB);
+                image.setRGB(0, 0, 5, 5, pixels, 0, 5);
+                return new NineSlice(image, 2, 2, 2, 2);
+            });
+        }
+
+        /**
+         * Draw the skin stretched to the given area, with 9 blits.
+         *
+         * @param g the Graphics2D API to be used.
+         * @param x horizontal position of the area.
+         * @param y vertical position of the area.
+         * @param w width of the area.
+         * @param h height of the area.
+         */
+        public void draw(Graphics2D g, int x, int y, int w, int h) {
+            int sw = source.getWidth(), sh = source.getHeight();
+            int[] sx = {0, left, sw - right, sw};
+            int[] sy = {0, top, sh - bottom, sh};
+            int[] dx = {x, x + Math.min(left, w), x + Math.max(w - right, Math.min(left, w)), x + w};
+            int[] dy = {y, y + Math.min(top, h), y + Math.max(h - bottom, Math.min(top, h)), y + h};
+            for (int j = 0; j < 3; j++) {
+                for (int i = 0; i < 3; i++) {
+                    if (dx[i + 1] > dx[i] && dy[j + 1] > dy[j]) {
+                        g.drawImage(source,
+                                dx[i], dy[j], dx[i + 1], dy[j + 1],
+                                sx[i], sy[j], sx[i + 1], sy[j + 1], null);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Bake the skin into a new image of the given size.
+         *
+         * @param w width of the panel.
+         * @param h height of the panel.
+         * @return the panel image.
+         */
+        public BufferedImage bake(int w, int h) {
+            BufferedImage panel = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = panel.createGraphics();
+            draw(g, 0, 0, w, h);
+            g.dispose();
+            return panel;
+        }
+    }
+
     /**
      * The new {@link Renderer} service is responsible for drawing the current state of
      * the game onto the screen. It prepares the graphics context,
@@ -1661,6 +7881,11 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
 
         private Map<Class<? extends Entity>, RendererPlugin<? extends Entity>> plugins = new HashMap<>();
 
+        /**
+         * Rendering hints according to the rendering quality.
+         */
+        private Map<RenderingHints.Key, Object> renderingHints = new HashMap<>();
+
         public Renderer(GameApp app) {
             this.app = app;
         }
@@ -1682,9 +7907,13 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
                     BufferedImage.TYPE_INT_ARGB
             );
             fullScreenStatus = Boolean.parseBoolean(app.getConfig().getProperty("app.window.full.screen", "false"));
+            setQuality(app.getConfig().getProperty("app.render.quality", "high"));
             // add default Plugins implementation
             register(new GameObjectRendererPlugin());
             register(new ImageObjectRendererPlugin());
+            register(new TileMapRendererPlugin());
+            register(new ParticleEmitterRendererPlugin());
+            register(new AnimatedObjectRendererPlugin());
             register(new TextObjectRendererPlugin());
             register(new ButtonRendererPlugin());
             register(new DialogBoxRendererPlugin());
@@ -1692,6 +7921,32 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             register(new MenuObjectRendererPlugin());
         }
 
+        /**
+         * Define the rendering quality.
+         *
+         * @param quality <code>high</code> to activate antialiasing and quality rendering,
+         *                <code>low</code> for speed rendering.
+         */
+        public void setQuality(String quality) {
+            boolean high = !"low".equalsIgnoreCase(quality);
+            renderingHints.put(RenderingHints.KEY_ANTIALIASING,
+                    high ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+            renderingHints.put(RenderingHints.KEY_TEXT_ANTIALIASING,
+                    high ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+            renderingHints.put(RenderingHints.KEY_RENDERING,
+                    high ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
+        }
+
+        /**
+         * Replace the rendering buffer with a new one of the required size.
+         *
+         * @param width  the new buffer width.
+         * @param height the new buffer height.
+         */
+        public void resizeBuffer(int width, int height) {
+            buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+
         /**
          * Prepare the default display before anything else.
          */
@@ -1741,12 +7996,10 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
          */
         public void draw(Scene currentScene, Map<String, Object> stats) {
             Graphics2D g = buffer.createGraphics();
+            // the clip gives the visible area to the plugins (e.g. TileMapRendererPlugin).
+            g.setClip(0, 0, buffer.getWidth(), buffer.getHeight());
             World world = app.getWorld();
-            g.setRenderingHints(
-                    Map.of(
-                            RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON,
-                            RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON,
-                            RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY));
+            g.setRenderingHints(renderingHints);
             g.setBackground(backGroundColor);
             g.clearRect(0, 0, buffer.getWidth(), buffer.getHeight());
 
@@ -1760,7 +8013,7 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             g.fillRect(0, 0, (int) world.playArea.getWidth(), (int) world.playArea.getHeight());
 
             //draw everything
-            currentScene.getEntities().values().stream().filter(e -> e.isActive() && !e.isRelativeToCamera())
+            Arrays.stream(currentScene.getIndex().getActive()).filter(e -> !e.isRelativeToCamera())
                     .sorted(Comparator.comparingInt(a -> a.priority))
                     .forEach(e -> {
                         drawEntity(e, g);
@@ -1784,7 +8037,7 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             }
 
             // draw all objects stick to the Camera.
-            currentScene.getEntities().values().stream().filter(e -> e.isActive() && e.isRelativeToCamera())
+            Arrays.stream(currentScene.getIndex().getActive()).filter(Entity::isRelativeToCamera)
                     .sorted(Comparator.comparingInt(a -> a.priority))
                     .forEach(e -> {
                         drawEntity(e, g);
@@ -1824,12 +8077,26 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
                                     stats.get("ups"),
                                     stats.get("ft"),
                                     (long) currentScene.getEntities().values().size(),
-                                    currentScene.getEntities().values().stream().filter(Entity::isActive).count(),
+                                    (long) currentScene.getIndex().getActiveCount(),
                                     stats.get("scene")),
                             10, window.getHeight() - 10
                     );
                 }
 
+                if (app.isDebugAtLeast(2)) {
+                    g2s.setColor(Color.ORANGE);
+                    g2s.drawString(String.format("[ sleeping:%04d / sleeps:%06d wakes:%06d / contacts:%04d ]",
+                                    stats.get("sleeping"), stats.get("sleeps"), stats.get("wakes"),
+                                    stats.get("contacts")),
+                            10, window.getHeight() - 38);
+                }
+
+                if (app.isDebugAtLeast(1) && app.getAllocationMonitor().isEnabled()) {
+                    g2s.setColor(Color.ORANGE);
+                    g2s.drawString(String.format("[ alloc:%08d bytes/frame ]", stats.get("alloc")),
+                            10, window.getHeight() - 24);
+                }
+
                 if (app.isDebugAtLeast(2)) {
                     // draw mouse
                     g2s.setColor(Color.WHITE);
@@ -1847,83 +8114,824 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         private void drawEntity(Entity e, Graphics2D g) {
 
             if (plugins.containsKey(e.getClass())) {
+                AllocationMonitor am = app.getAllocationMonitor();
+                long allocStart = am.begin();
                 plugins.get(e.getClass()).draw(g, e);
+                if (am.isEnabled()) {
+                    am.end(am.phase(e.getClass()), allocStart);
+                }
                 //plugins.get(e.getClass()).drawVisualDebugInformation(g, e, 0);
-                e.setAttribute("renderedBy", plugins.get(e.getClass()).getClass());
+                e.set(Entity.RENDERED_BY, plugins.get(e.getClass()).getClass());
             } else {
                 error("Unknown drawing method/plugin for '%s' type %s", e.getName(), e.getClass());
             }
-            e.behaviors.forEach(b -> {
-                b.draw(app, e, g);
-            });
-            e.child.forEach(c -> {
-                drawEntity(c, g);
-            });
+            // draw behaviors are processed in the entity drawing order, only if some are implementing draw.
+            if (e.isHandling(BehaviorEvent.DRAW)) {
+                for (Behavior<Entity> b : e.behaviors) {
+                    if (BehaviorEvent.DRAW.isHandledBy(b)) {
+                        b.draw(app, e, g);
+                    }
+                }
+            }
+            // the inactive children (e.g. the unused rows of a virtualized menu) are not drawn.
+            for (int i = 0; i < e.child.size(); i++) {
+                if (e.child.get(i).isActive()) {
+                    drawEntity(e.child.get(i), g);
+                }
+            }
+        }
+
+        /**
+         * Draw the bevelled background panel of a UI widget, baked from the {@link NineSlice#bevel(Color, Color)}
+         * skin and kept by the widget until its size or its colors change.
+         *
+         * @param g    the Graphics2D API to be used.
+         * @param te   the widget to draw the panel of.
+         * @param fill the fill color of the panel.
+         */
+        private static void drawPanel(Graphics2D g, TextObject te, Color fill) {
+            int w = (int) te.getWidth();
+            int h = (int) te.getHeight();
+            if (w <= 0 || h <= 0) {
+                return;
+            }
+            int f = fill != null ? fill.getRGB() : 0;
+            int b = te.borderColor != null ? te.borderColor.getRGB() : 0;
+            if (te.panel == null || w != te.panelWidth || h != te.panelHeight || f != te.panelFill || b != te.panelBorder) {
+                // the bevel outer border stands one pixel around the widget bounds.
+                te.panel = NineSlice.bevel(fill, te.borderColor).bake(w + 3, h + 3);
+                te.panelWidth = w;
+                te.panelHeight = h;
+                te.panelFill = f;
+                te.panelBorder = b;
+            }
+            // use the cached world position (see Entity#updateTransform).
+            g.drawImage(te.panel, (int) te.getWorldX() - 1, (int) te.getWorldY() - 1, null);
+        }
+
+        /**
+         * release all resources from Renderer system.
+         */
+        public void dispose() {
+            window.dispose();
+            buffer = null;
+        }
+
+        /**
+         * switch from windowed to full screen display.
+         */
+        public void switchFullScreen() {
+            fullScreenStatus = !fullScreenStatus;
+            prepareDisplay(fullScreenStatus);
+        }
+
+        /**
+         * retrieve the current created {@link JFrame} window.
+         *
+         * @return the current {@link JFrame} instance as main game window.
+         */
+        public JFrame getWindow() {
+            return window;
+        }
+    }
+
+    /**
+     * The {@link AllocationMonitor} is an instrumentation service measuring the heap memory allocated by the game
+     * thread, per frame and per phase of the game loop (and per {@link RendererPlugin}).
+     *
+     * <p>It reads the thread allocated bytes counter from the JDK {@link com.sun.management.ThreadMXBean} around
+     * each measured phase. Once per second, the mean allocated bytes per frame and per phase are sent to the
+     * debug log, and a warning is logged if some frames exceeded the configured budget.</p>
+     *
+     * <p>Configuration keys:
+     * <ul>
+     *     <li><code>app.debug.alloc.enabled</code> to activate the instrumentation (default is false),</li>
+     *     <li><code>app.debug.alloc.budget</code> the maximum bytes allocated per frame (default is 0: no budget).</li>
+     * </ul></p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class AllocationMonitor {
+        /**
+         * Max number of measured phases.
+         */
+        private static final int MAX_PHASES = 64;
+
+        private com.sun.management.ThreadMXBean threadMXBean;
+        private boolean enabled = false;
+        private long budget = 0;
+
+        private final String[] phaseNames = new String[MAX_PHASES];
+        private final long[] phaseBytes = new long[MAX_PHASES];
+        private final Map<Object, Integer> phaseIndex = new HashMap<>();
+        private int phaseCount = 0;
+
+        private long frameStartBytes = 0;
+        private long lastFrameBytes = 0;
+        private long periodBytes = 0;
+        private long periodFrames = 0;
+        private long periodOverBudget = 0;
+        private long periodStart = 0;
+
+        /**
+         * Configure the {@link AllocationMonitor} according to the configuration properties.
+         *
+         * @param config the configuration properties.
+         */
+        public void init(Properties config) {
+            enabled = Boolean.parseBoolean(config.getProperty("app.debug.alloc.enabled", "false"));
+            budget = Long.parseLong(config.getProperty("app.debug.alloc.budget", "0"));
+            if (enabled) {
+                java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean sunBean
+                        && sunBean.isThreadAllocatedMemorySupported()) {
+                    threadMXBean = sunBean;
+                    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+                    info("Allocation monitor activated with a budget of %d bytes per frame", budget);
+                } else {
+                    warn("Thread allocated memory measurement is not supported by this JVM");
+                    enabled = false;
+                }
+            }
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Retrieve (or register) the index of the named phase.
+         *
+         * @param key the phase key (a name or a class).
+         * @return the index of the phase to be used with {@link AllocationMonitor#end(int, long)}.
+         */
+        public int phase(Object key) {
+            Integer idx = phaseIndex.get(key);
+            if (idx == null) {
+                if (phaseCount == MAX_PHASES) {
+                    return -1;
+                }
+                idx = phaseCount++;
+                phaseNames[idx] = key instanceof Class<?> c ? c.getSimpleName() : key.toString();
+                phaseIndex.put(key, idx);
+            }
+            return idx;
+        }
+
+        /**
+         * Read the current allocated bytes for the game thread.
+         *
+         * @return the allocated bytes since the thread start, or 0 if the monitor is disabled.
+         */
+        public long begin() {
+            return enabled ? threadMXBean.getCurrentThreadAllocatedBytes() : 0;
+        }
+
+        /**
+         * Accumulate allocated bytes since <code>start</code> (see {@link AllocationMonitor#begin()}) to the phase.
+         *
+         * @param phase the index of the phase.
+         * @param start the allocated bytes value at start of the phase.
+         */
+        public void end(int phase, long start) {
+            if (enabled && phase >= 0) {
+                phaseBytes[phase] += threadMXBean.getCurrentThreadAllocatedBytes() - start;
+            }
+        }
+
+        /**
+         * Start a new frame measure.
+         */
+        public void startFrame() {
+            if (enabled) {
+                frameStartBytes = begin();
+                if (periodStart == 0) {
+                    periodStart = System.currentTimeMillis();
+                }
+            }
+        }
+
+        /**
+         * End the current frame measure, check the budget and report once per second.
+         *
+         * @param stats the map with stats to be updated.
+         */
+        public void endFrame(Map<String, Object> stats) {
+            if (!enabled) {
+                return;
+            }
+            lastFrameBytes = begin() - frameStartBytes;
+            periodBytes += lastFrameBytes;
+            periodFrames++;
+            if (budget > 0 && lastFrameBytes > budget) {
+                periodOverBudget++;
+            }
+            long now = System.currentTimeMillis();
+            if (now - periodStart > 1000) {
+                report();
+                periodStart = now;
+            }
+            stats.put("alloc", lastFrameBytes);
+        }
+
+        private void report() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < phaseCount; i++) {
+                sb.append(phaseNames[i]).append('=').append(phaseBytes[i] / periodFrames).append(' ');
+                phaseBytes[i] = 0;
+            }
+            debug("Allocation|frame=%d bytes (mean on %d frames) | %s", periodBytes / periodFrames, periodFrames, sb);
+            if (periodOverBudget > 0) {
+                warn("Allocation|%d frame(s) over the budget of %d bytes, last one allocated %d bytes",
+                        periodOverBudget, budget, lastFrameBytes);
+            }
+            periodBytes = 0;
+            periodFrames = 0;
+            periodOverBudget = 0;
+        }
+
+        public long getLastFrameBytes() {
+            return lastFrameBytes;
+        }
+    }
+
+    /**
+     * The {@link Logger} is the asynchronous logging backend for the {@link GameApp} log API.
+     *
+     * <p>The level is checked against a bitmask before anything else. An accepted record is only stored, not
+     * formatted, into a preallocated ring buffer: the immutable arguments (strings, numbers, enums...) are kept as
+     * is, the other ones are converted to a string at call time, so that a mutable argument is written with its
+     * value at the time of the call. A background writer thread, started on the first record, drains the ring
+     * buffer, formats the records and writes them to the console and/or to a rolling file. Logging never blocks
+     * the calling thread: if the ring buffer is full, the record is dropped and counted.</p>
+     *
+     * <p>Repeated messages (same message template) are rate limited: over <code>app.log.rate.limit</code>
+     * records per second, they are suppressed and only a summary is written, at the next same message, when the
+     * writer is idle, or on {@link #flush()}.</p>
+     *
+     * <p>Configuration keys:
+     * <ul>
+     *     <li><code>app.debug.filter</code> the list of output levels (e.g. <code>DEBUG,INFO,WARN,ERROR</code>),</li>
+     *     <li><code>app.log.console</code> output to console (default is true),</li>
+     *     <li><code>app.log.file</code> the path to the log file (default is none),</li>
+     *     <li><code>app.log.file.max.size</code> the max size in bytes of a log file before rolling,</li>
+     *     <li><code>app.log.file.count</code> the number of rolled log files to keep,</li>
+     *     <li><code>app.log.rate.limit</code> max records per second for the same message (0 means no limit).</li>
+     * </ul></p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class Logger {
+        public static final int DEBUG = 1;
+        public static final int INFO = 2;
+        public static final int WARN = 4;
+        public static final int ERROR = 8;
+
+        /**
+         * Size of the ring buffer (must be a power of 2).
+         */
+        private static final int CAPACITY = 1024;
+        private static final int MASK = CAPACITY - 1;
+
+        /**
+         * A preallocated slot of the ring buffer.
+         */
+        private static class LogRecord {
+            volatile long sequence = -1;
+            long timestamp;
+            String level;
+            String message;
+            Object[] args;
+        }
+
+        /**
+         * Per-message counter for the rate limiting.
+         */
+        private static class RateCounter {
+            String level;
+            long windowStart;
+            int count;
+            int suppressed;
+        }
+
+        private static final LogRecord[] ring = new LogRecord[CAPACITY];
+        private static final AtomicLong tail = new AtomicLong();
+        private static final AtomicLong head = new AtomicLong();
+        private static final AtomicLong dropped = new AtomicLong();
+        private static final Map<String, RateCounter> rateCounters = new ConcurrentHashMap<>();
+
+        private static volatile int levelMask = ERROR | WARN | INFO;
+        private static volatile int rateLimit = 10;
+        private static volatile boolean console = true;
+        private static volatile boolean running = true;
+
+        private static File logFile;
+        private static long maxFileSize = 1024 * 1024;
+        private static int fileCount = 3;
+        private static PrintWriter fileWriter;
+        private static long fileSize = 0;
+
+        private static volatile Thread writer;
+        private static long lastSuppressedCheck = 0;
+
+        static {
+            for (int i = 0; i < CAPACITY; i++) {
+                ring[i] = new LogRecord();
+            }
+        }
+
+        private Logger() {
+        }
+
+        /**
+         * Start the writer thread, on the first published record.
+         */
+        private static synchronized void startWriter() {
+            if (writer == null) {
+                writer = new Thread(Logger::drainLoop, "log-writer");
+                writer.setDaemon(true);
+                writer.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(Logger::shutdown, "log-shutdown"));
+            }
+        }
+
+        /**
+         * Configure the {@link Logger} according to the configuration properties.
+         *
+         * @param config the configuration properties.
+         */
+        public static synchronized void configure(Properties config) {
+            setLevels(config.getProperty("app.debug.filter", "ERROR,WARN,INFO"));
+            rateLimit = Integer.parseInt(config.getProperty("app.log.rate.limit", "10"));
+            console = Boolean.parseBoolean(config.getProperty("app.log.console", "true"));
+            maxFileSize = Long.parseLong(config.getProperty("app.log.file.max.size", "1048576"));
+            fileCount = Integer.parseInt(config.getProperty("app.log.file.count", "3"));
+            String path = config.getProperty("app.log.file", "");
+            if (fileWriter != null) {
+                drain();
+                fileWriter.close();
+                fileWriter = null;
+            }
+            if (!path.isEmpty()) {
+                logFile = new File(path);
+                openFile();
+            }
+        }
+
+        /**
+         * Define the output levels from a comma separated list of level names.
+         *
+         * @param levels the list of levels (e.g. <code>INFO,WARN,ERROR</code>).
+         */
+        public static void setLevels(String levels) {
+            int m = 0;
+            for (String l : levels.split(",")) {
+                m |= levelBit(l.trim());
+            }
+            levelMask = m;
+        }
+
+        /**
+         * Convert a level name to its bit.
+         *
+         * @param level the name of the level.
+         * @return the corresponding bit, 0 if unknown.
+         */
+        public static int levelBit(String level) {
+            return switch (level) {
+                case "DEBUG" -> DEBUG;
+                case "INFO" -> INFO;
+                case "WARN" -> WARN;
+                case "ERROR", "ERR" -> ERROR;
+                default -> 0;
+            };
+        }
+
+        public static boolean isEnabled(int levelBit) {
+            return (levelMask & levelBit) != 0;
+        }
+
+        /**
+         * Store a new record into the ring buffer, if its level is enabled and not rate limited.
+         *
+         * @param levelBit the level bit of the record.
+         * @param level    the level name.
+         * @param message  the message template (a {@link String#format(String, Object...)} format).
+         * @param args     the arguments for the message template.
+         */
+        public static void log(int levelBit, String level, String message, Object... args) {
+            if ((levelMask & levelBit) == 0 || isRateLimited(level, message)) {
+                return;
+            }
+            publish(level, message, args);
+        }
+
+        private static boolean isRateLimited(String level, String message) {
+            if (rateLimit <= 0) {
+                return false;
+            }
+            RateCounter rc = rateCounters.computeIfAbsent(message, k -> new RateCounter());
+            long now = System.currentTimeMillis();
+            int suppressed = 0;
+            boolean limited;
+            synchronized (rc) {
+                rc.level = level;
+                if (now - rc.windowStart > 1000) {
+                    suppressed = rc.suppressed;
+                    rc.windowStart = now;
+                    rc.count = 0;
+                    rc.suppressed = 0;
+                }
+                limited = ++rc.count > rateLimit;
+                if (limited) {
+                    rc.suppressed++;
+                }
+            }
+            if (suppressed > 0) {
+                publish(level, "%d similar message(s) suppressed: %s", suppressed, message);
+            }
+            return limited;
+        }
+
+        /**
+         * Publish the summary of the suppressed messages.
+         *
+         * @param all true to publish all the pending summaries, false to only publish the ones of the rate windows
+         *            already ended.
+         */
+        private static void publishSuppressed(boolean all) {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<String, RateCounter> entry : rateCounters.entrySet()) {
+                RateCounter rc = entry.getValue();
+                int suppressed = 0;
+                synchronized (rc) {
+                    if (rc.suppressed > 0 && (all || now - rc.windowStart > 1000)) {
+                        suppressed = rc.suppressed;
+                        rc.suppressed = 0;
+                    }
+                }
+                if (suppressed > 0) {
+                    publish(rc.level, "%d similar message(s) suppressed: %s", suppressed, entry.getKey());
+                }
+            }
+        }
+
+        /**
+         * Keep the immutable arguments as is, and convert the other ones to a string, so that the record is
+         * written with the values at the time of the call.
+         *
+         * @param args the arguments of the record.
+         * @return the arguments to be stored.
+         */
+        private static Object[] snapshot(Object[] args) {
+            Object[] copy = args;
+            for (int i = 0; args != null && i < args.length; i++) {
+                Object a = args[i];
+                if (!(a == null || a instanceof String || a instanceof Integer || a instanceof Long
+                        || a instanceof Double || a instanceof Float || a instanceof Short || a instanceof Byte
+                        || a instanceof Boolean || a instanceof Character || a instanceof Enum<?>
+                        || a instanceof Class<?>)) {
+                    if (copy == args) {
+                        copy = args.clone();
+                    }
+                    copy[i] = String.valueOf(a);
+                }
+            }
+            return copy;
         }
 
-        private static void drawEdgeRectangle(Graphics2D g, Entity te) {
-            drawEdgeRectangle(g, te, te.fillColor);
+        private static void publish(String level, String message, Object... args) {
+            if (writer == null) {
+                startWriter();
+            }
+            long seq;
+            do {
+                seq = tail.get();
+                if (seq - head.get() >= CAPACITY) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+            } while (!tail.compareAndSet(seq, seq + 1));
+            LogRecord r = ring[(int) (seq & MASK)];
+            r.timestamp = System.currentTimeMillis();
+            r.level = level;
+            r.message = message;
+            r.args = snapshot(args);
+            r.sequence = seq;
+        }
+
+        private static void drainLoop() {
+            while (running) {
+                if (drain() == 0) {
+                    // while idle, write the summaries of the rate windows ended without any new same message.
+                    long now = System.currentTimeMillis();
+                    if (now - lastSuppressedCheck > 250) {
+                        lastSuppressedCheck = now;
+                        publishSuppressed(false);
+                    }
+                    LockSupport.parkNanos(1_000_000L);
+                }
+            }
+        }
+
+        private static synchronized int drain() {
+            int count = 0;
+            long h = head.get();
+            LogRecord r = ring[(int) (h & MASK)];
+            while (r.sequence == h) {
+                write(r.timestamp, r.level, r.message, r.args);
+                r.args = null;
+                r.message = null;
+                head.lazySet(++h);
+                r = ring[(int) (h & MASK)];
+                count++;
+            }
+            long d = dropped.getAndSet(0);
+            if (d > 0) {
+                write(System.currentTimeMillis(), "WARN", "%d log record(s) dropped (ring buffer full)", d);
+            }
+            return count;
+        }
+
+        private static void write(long timestamp, String level, String message, Object... args) {
+            String text;
+            try {
+                text = args != null && args.length > 0 ? String.format(message, args) : message;
+            } catch (IllegalFormatException e) {
+                text = message;
+            }
+            String line = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(
+                    LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(timestamp), java.time.ZoneId.systemDefault()))
+                    + "|" + level + "|" + text;
+            if (console) {
+                System.out.println(line);
+            }
+            if (fileWriter != null) {
+                fileWriter.println(line);
+                fileSize += line.length() + 1;
+                if (fileSize > maxFileSize) {
+                    rollFile();
+                }
+            }
+        }
+
+        private static void openFile() {
+            try {
+                if (logFile.getParentFile() != null) {
+                    logFile.getParentFile().mkdirs();
+                }
+                fileSize = logFile.length();
+                fileWriter = new PrintWriter(new BufferedWriter(new FileWriter(logFile, true)));
+            } catch (IOException e) {
+                System.err.println("Unable to open log file " + logFile + " : " + e.getMessage());
+                fileWriter = null;
+            }
+        }
+
+        private static void rollFile() {
+            fileWriter.close();
+            for (int i = fileCount - 1; i > 0; i--) {
+                File from = new File(logFile.getPath() + (i > 1 ? "." + (i - 1) : ""));
+                File to = new File(logFile.getPath() + "." + i);
+                if (from.exists()) {
+                    to.delete();
+                    from.renameTo(to);
+                }
+            }
+            if (fileCount <= 1) {
+                logFile.delete();
+            }
+            openFile();
+        }
+
+        /**
+         * Write all the pending records, with the summaries of the suppressed messages.
+         */
+        public static synchronized void flush() {
+            publishSuppressed(true);
+            drain();
+            System.out.flush();
+            if (fileWriter != null) {
+                fileWriter.flush();
+            }
+        }
+
+        /**
+         * Flush all the pending records, stop the writer and close the log file.
+         */
+        public static synchronized void shutdown() {
+            flush();
+            running = false;
+            if (fileWriter != null) {
+                fileWriter.close();
+                fileWriter = null;
+            }
         }
+    }
+
+    /**
+     * The {@link InputQueue} captures the AWT input events from the AWT event thread to let the game thread
+     * dispatch them once per tick, during the {@link GameApp#input()} phase.
+     *
+     * <p>It is a bounded lock-free single-producer (the AWT event thread), single-consumer (the game thread)
+     * ring buffer with preallocated slots. If the queue is full, the event is dropped and counted. The events are
+     * dispatched in their arrival order. Consecutive mouse move events are coalesced in place: a mouse move
+     * replaces the previous queued event if it is a not yet dispatched mouse move.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class InputQueue {
+        public static final int KEY_PRESSED = 1;
+        public static final int KEY_RELEASED = 2;
+        public static final int MOUSE_CLICKED = 3;
+        public static final int MOUSE_PRESSED = 4;
+        public static final int MOUSE_RELEASED = 5;
+        public static final int MOUSE_MOVED = 6;
 
-        private static void drawEdgeRectangle(Graphics2D g, Entity te, Color fill) {
+        /**
+         * Size of the ring buffer (must be a power of 2).
+         */
+        private static final int CAPACITY = 256;
+        private static final int MASK = CAPACITY - 1;
+
+        private final int[] types = new int[CAPACITY];
+        // a slot is taken by the consumer with getAndSet(null), so that the producer can only replace a mouse
+        // move (with compareAndSet) while it is not yet dispatched.
+        private final AtomicReferenceArray<InputEvent> events = new AtomicReferenceArray<>(CAPACITY);
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        // the last queued event if it is a mouse move (only used by the producer).
+        private MouseEvent lastMouseMove;
+        // written by the producer, read by the game thread (statistics).
+        private final AtomicLong dropped = new AtomicLong();
+
+        /**
+         * Consumer of the queued events.
+         */
+        public interface Handler {
+            void handle(int type, InputEvent event);
+        }
 
-            int x = (int) ((Optional.ofNullable(te.getParent()).isPresent() && te.isRelativeToParent())
-                    ? (te.getParent().getX() + te.getX())
-                    : te.getX());
+        /**
+         * Add an event to the queue (from the AWT event thread).
+         *
+         * @param type  the type of event.
+         * @param event the AWT event.
+         * @return true if queued, false if the queue is full.
+         */
+        public boolean offer(int type, InputEvent event) {
+            long t = tail.get();
+            if (t - head.get() >= CAPACITY) {
+                dropped.incrementAndGet();
+                lastMouseMove = null;
+                return false;
+            }
+            int idx = (int) (t & MASK);
+            types[idx] = type;
+            events.set(idx, event);
+            tail.lazySet(t + 1);
+            lastMouseMove = type == MOUSE_MOVED ? (MouseEvent) event : null;
+            return true;
+        }
 
-            int y = (int) ((Optional.ofNullable(te.getParent()).isPresent() && te.isRelativeToParent())
-                    ? (te.getParent().getY() + te.getY())
-                    : te.getY());
-            g.setColor(fill);
-            g.fillRect(x, y, (int) te.getWidth(), (int) te.getHeight());
+        /**
+         * Add a mouse move event, replacing the last queued event if it is a not yet dispatched mouse move.
+         *
+         * @param event the mouse move event.
+         * @return true if queued, false if the queue is full.
+         */
+        public boolean offerMouseMove(MouseEvent event) {
+            if (lastMouseMove != null
+                    && events.compareAndSet((int) ((tail.get() - 1) & MASK), lastMouseMove, event)) {
+                lastMouseMove = event;
+                return true;
+            }
+            return offer(MOUSE_MOVED, event);
+        }
 
-            g.setColor(Color.LIGHT_GRAY);
-            g.drawLine(
-                    (int) te.getX(), (int) te.getY(),
-                    (int) (x + te.getWidth()), (int) te.getY());
-            g.drawLine(
-                    (int) te.getX(), (int) (te.getY()),
-                    (int) (te.getX()), (int) (te.getY() + te.getHeight()));
+        /**
+         * Dispatch all the queued events to the handler, in their arrival order (from the game thread).
+         *
+         * @param handler the handler for the queued events.
+         * @return the number of dispatched events.
+         */
+        public int drain(Handler handler) {
+            int count = 0;
+            long h = head.get();
+            long t = tail.get();
+            while (h < t) {
+                int idx = (int) (h & MASK);
+                int type = types[idx];
+                InputEvent event = events.getAndSet(idx, null);
+                head.lazySet(++h);
+                handler.handle(type, event);
+                count++;
+            }
+            return count;
+        }
 
-            g.setColor(Color.DARK_GRAY);
-            g.drawLine((int) te.getX(), (int) (te.getY() + te.getHeight()), (int) (x + te.getWidth()), (int) (te.getY() + te.getHeight()));
-            g.drawLine((int) (te.getX() + te.getWidth()), (int) te.getY(), (int) (x + te.getWidth()), (int) (te.getY() + te.getHeight()));
+        public long getDropped() {
+            return dropped.get();
+        }
+    }
 
-            g.setColor(te.borderColor);
-            g.drawRect(x - 1, y - 1, (int) (te.getWidth() + 2), (int) (te.getHeight() + 2));
+    /**
+     * The {@link ConfigurationWatcher} watches the external configuration file (the one next to the JAR,
+     * see {@link GameApp#loadConfiguration(String)}) with a {@link WatchService}.
+     *
+     * <p>On each file modification, the configuration file is read again by the watcher thread, and kept as
+     * pending. The game thread applies the pending configuration at the start of the next loop iteration
+     * (see {@link GameApp#applyConfiguration(Properties)}).</p>
+     *
+     * <p>This watcher is activated with the <code>app.config.watch=true</code> configuration key.</p>
+     *
+     * @author Frédéric Delorme
+     * @since 1.0.0
+     */
+    public static class ConfigurationWatcher {
+        private final File file;
+        private final AtomicReference<Properties> pending
+                = new AtomicReference<>();
+        private WatchService watchService;
+        private Thread thread;
 
-            g.setColor(Color.GRAY);
-            g.drawLine(
-                    (int) (te.getX() + te.getWidth()), (int) (te.getY()),
-                    (int) (te.getX() + te.getWidth()), (int) (te.getY()));
-            g.drawLine(
-                    (int) (te.getX()), (int) (te.getY() + te.getHeight()),
-                    (int) (te.getX()), (int) (te.getY() + te.getHeight()));
+        /**
+         * Create a new watcher for the configuration <code>file</code>.
+         *
+         * @param file the external configuration file to be watched.
+         */
+        public ConfigurationWatcher(File file) {
+            this.file = file;
         }
 
         /**
-         * release all resources from Renderer system.
+         * Start the watcher thread.
          */
-        public void dispose() {
-            window.dispose();
-            buffer = null;
+        public void start() {
+            try {
+                Path dir = file.getAbsoluteFile().getParentFile().toPath();
+                watchService = dir.getFileSystem().newWatchService();
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+                thread = new Thread(this::watch, "config-watcher");
+                thread.setDaemon(true);
+                thread.start();
+                info("Configuration|Watching file %s for live changes", file.getAbsolutePath());
+            } catch (IOException e) {
+                error("Configuration|Unable to watch file %s : %s", file.getAbsolutePath(), e.getMessage());
+            }
+        }
+
+        private void watch() {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path p && p.getFileName().toString().equals(file.getName())) {
+                            changed = true;
+                        }
+                    }
+                    key.reset();
+                    if (changed) {
+                        // let the editor finish writing the file.
+                        Thread.sleep(100);
+                        Properties props = new Properties();
+                        try (InputStream input = new FileInputStream(file)) {
+                            props.load(input);
+                            pending.set(props);
+                        } catch (IOException e) {
+                            error("Configuration|Unable to read file %s : %s", file.getAbsolutePath(), e.getMessage());
+                        }
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // the watcher is stopped.
+            }
         }
 
         /**
-         * switch from windowed to full screen display.
+         * Retrieve the pending configuration, if any.
+         *
+         * @return the last read configuration not applied yet, or null.
          */
-        public void switchFullScreen() {
-            fullScreenStatus = !fullScreenStatus;
-            prepareDisplay(fullScreenStatus);
+        public Properties poll() {
+            return pending.getAndSet(null);
         }
 
         /**
-         * retrieve the current created {@link JFrame} window.
-         *
-         * @return the current {@link JFrame} instance as main game window.
+         * Stop the watcher thread.
          */
-        public JFrame getWindow() {
-            return window;
+        public void stop() {
+            try {
+                if (watchService != null) {
+                    watchService.close();
+                }
+            } catch (IOException e) {
+                error("Configuration|Unable to stop watching : %s", e.getMessage());
+            }
         }
     }
 
@@ -1942,6 +8950,54 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
      * Default file path for configuration properties
      */
     private String configFilePath = "/config.properties";
+    /**
+     * The external configuration file (next to the JAR), watched for live changes.
+     */
+    private File externalConfigFile;
+    /**
+     * The live configuration changes watcher (if activated).
+     */
+    private ConfigurationWatcher configWatcher;
+    /**
+     * The live configuration changes already reported as ignored or rejected, not to report them again.
+     */
+    private final Map<String, String> reportedChanges = new HashMap<>();
+    /**
+     * Number of sleeping bodies during the last update.
+     */
+    private int sleepingBodies = 0;
+    /**
+     * Total number of bodies put to sleep and woken.
+     */
+    private long sleepCount = 0, wakeCount = 0;
+    /**
+     * The {@link TileMap}'s of the current scene, retrieved once per update.
+     */
+    private List<TileMap> tileMaps = Collections.emptyList();
+    /**
+     * The game random generator, seeded from <code>app.random.seed</code> (or the replayed recording).
+     */
+    private Random random = new Random();
+    /**
+     * The input recorder, if <code>app.record.file</code> is set.
+     */
+    private InputRecorder inputRecorder;
+    /**
+     * The input replay, if <code>app.replay.file</code> is set.
+     */
+    private InputReplay inputReplay;
+    /**
+     * Rendering is active (false for a headless replay).
+     */
+    private boolean rendering = true;
+    /**
+     * The initial state of the created scenes, used to reset them.
+     */
+    private final Map<String, SceneSnapshot> initialSnapshots = new HashMap<>();
+    /**
+     * Directory of the quick saved scene snapshots.
+     */
+    private String snapshotPath = "./snapshots";
 
 
     /**
@@ -1960,13 +9016,9 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
      * (No used) Internal debug filtering on {@link Entity}'s name.
      */
     private static String debugFilter = "";
-    /**
-     * Filtering debug information output on console based on debug info level.
-     */
-    private static String loggerFilter = "ERROR,WARN,INFO";
 
     /**
-     * Frame Per Second rate
+     * Frame Per Second rate: the maximum number of rendered frames per second.
      */
     private int FPS = 60;
     /**
@@ -2002,9 +9054,25 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
      */
     private Scene currentScene;
     /**
-     * Internal buffer for key states
+     * Suspended {@link Scene}'s, the most recently suspended first.
+     */
+    private Deque<Scene> suspendedScenes = new ArrayDeque<>();
+    /**
+     * Maximum number of suspended {@link Scene}'s retained in memory (-1 means no limit).
+     */
+    private int maxSuspendedScenes = -1;
+    /**
+     * Used heap ratio (from 0.0 to 1.0) above which the suspended {@link Scene}'s are disposed (0 means disabled).
+     */
+    private double sceneMemoryThreshold = 0.0;
+    /**
+     * Internal buffer for key states, only updated by the game thread while draining the {@link InputQueue}.
      */
     private boolean[] keys = new boolean[1024];
+    /**
+     * Input events captured from the AWT event thread, to be dispatched on the game thread.
+     */
+    private final InputQueue inputQueue = new InputQueue();
     /**
      * World default instance to define a play area, a gravity and a Material.
      */
@@ -2013,6 +9081,11 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
 
     private Renderer renderer;
 
+    /**
+     * Allocation instrumentation service.
+     */
+    private final AllocationMonitor allocationMonitor = new AllocationMonitor();
+
     /**
      * Create the {@link GameApp} instance and detect the current java context.
      */
@@ -2027,7 +9100,9 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
 
     public void run(String[] args) {
         init(args);
-        renderer.prepareDisplay();
+        if (rendering) {
+            renderer.prepareDisplay();
+        }
         createScene();
         loop();
         dispose();
@@ -2048,8 +9123,37 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
                 .map(key -> key + "=" + config.getProperty(key))
                 .collect(Collectors.joining(", ")));
 
+        allocationMonitor.init(config);
         renderer = new Renderer(this);
         renderer.init(this);
+        if (Boolean.parseBoolean(config.getProperty("app.config.watch", "false")) && externalConfigFile != null) {
+            configWatcher = new ConfigurationWatcher(externalConfigFile);
+            configWatcher.start();
+        }
+        initInputRecording();
+    }
+
+    /**
+     * Seed the game random generator, and open the input replay or recording file, if requested.
+     */
+    private void initInputRecording() {
+        long seed = Long.parseLong(config.getProperty("app.random.seed", String.valueOf(System.nanoTime())));
+        String replayFile = config.getProperty("app.replay.file", "");
+        String recordFile = config.getProperty("app.record.file", "");
+        try {
+            if (!replayFile.isEmpty()) {
+                inputReplay = InputReplay.open(Paths.get(replayFile));
+                seed = inputReplay.getSeed();
+                rendering = Boolean.parseBoolean(config.getProperty("app.replay.render", "true"));
+                info("Replaying input from %s (rendering:%s)", replayFile, rendering);
+            } else if (!recordFile.isEmpty()) {
+                inputRecorder = new InputRecorder(Paths.get(recordFile), seed);
+                info("Recording input to %s", recordFile);
+            }
+        } catch (IOException e) {
+            error("Unable to open the input recording: %s", e.getMessage());
+        }
+        random.setSeed(seed);
     }
 
     /**
@@ -2099,6 +9203,14 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
                 case "config" -> {
                     configFilePath = keyVal[1];
                 }
+                case "record" -> {
+                    config.setProperty("app.record.file", keyVal[1]);
+                    info("The input is recorded to %s", keyVal[1]);
+                }
+                case "replay" -> {
+                    config.setProperty("app.replay.file", keyVal[1]);
+                    info("The input is replayed from %s", keyVal[1]);
+                }
                 default -> {
                     warn("This argument %s is unknown, it is ignored.", s);
                 }
@@ -2108,15 +9220,15 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
 
     public void parseConfiguration() {
         // set the default FPS for the game
-        FPS = Integer.parseInt(config.getProperty("app.render.fps", "60"));
+        FPS = readInt("app.render.fps", 60, 1, 1000);
         // set the default processing update pace for the game
-        UPS = Integer.parseInt(config.getProperty("app.update.ups", "60"));
+        UPS = readInt("app.update.ups", 60, 1, 1000);
         // is exit because of test mode requested ?
         exit = Boolean.parseBoolean(config.getProperty("app.exit", "false"));
         // define debug output level, on console.
-        debug = Integer.parseInt(config.getProperty("app.debug.level", "0"));
-        // Retrieve debug filtering configuration. Only listed status will be sent to console output.
-        debugFilter = config.getProperty("app.debug.level", "WARN,ERROR");
+        debug = readInt("app.debug.level", 0, 0, 5);
+        // Retrieve debug filtering configuration (app.debug.filter). Only listed status will be sent to output.
+        Logger.configure(config);
         // world size
         world.playArea = new Rectangle2D.Double(0, 0,
                 Integer.parseInt(config.getProperty("app.world.play.area.width", "320")),
@@ -2124,7 +9236,17 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         );
         // world gravity
         world.gravity = Double.parseDouble(config.getProperty("app.world.gravity", "0.0981"));
+        // sleeping bodies (a 0 tick count deactivates the sleep).
+        world.sleepThreshold = Double.parseDouble(config.getProperty("app.physics.sleep.threshold", "0.05"));
+        world.sleepTicks = Integer.parseInt(config.getProperty("app.physics.sleep.ticks", "60"));
+        world.sleepAcceleration = Double.parseDouble(config.getProperty("app.physics.sleep.acceleration", "0.05"));
+        world.contactIterations = Integer.parseInt(config.getProperty("app.physics.contact.iterations", "4"));
         // full screen mode active or not.
+        // memory pressure policy for suspended scenes.
+        maxSuspendedScenes = Integer.parseInt(config.getProperty("app.scene.suspended.max", "-1"));
+        sceneMemoryThreshold = Double.parseDouble(config.getProperty("app.scene.memory.threshold", "0.0"));
+        // quick save/load of the scene snapshots.
+        snapshotPath = config.getProperty("app.snapshot.path", snapshotPath);
     }
 
     /**
@@ -2137,6 +9259,7 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         try {
             Path rootPath = Paths.get(GameApp.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getParent();
             File propertyFile = new File(rootPath.toFile(), configFilePath);
+            externalConfigFile = propertyFile;
             if (propertyFile.exists()) {
                 try (InputStream input = new FileInputStream(propertyFile)) {
                     config.load(input);
@@ -2151,6 +9274,104 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         }
     }
 
+    /**
+     * Apply live the safe configuration changes from <code>updated</code>, and log the applied differences.
+     *
+     * <p>Supported keys are <code>app.render.fps</code>, <code>app.update.ups</code>,
+     * <code>app.render.quality</code>, <code>app.render.buffer.width</code>, <code>app.render.buffer.height</code>,
+     * <code>app.debug.level</code>, <code>app.debug.filter</code> and <code>app.pause</code>.
+     * Any other changed key requires a restart and is ignored.</p>
+     *
+     * @param updated the new configuration properties.
+     */
+    public void applyConfiguration(Properties updated) {
+        List<String> applied = new ArrayList<>();
+        List<String> ignored = new ArrayList<>();
+        boolean bufferChanged = false;
+        for (String key : new TreeSet<>(updated.stringPropertyNames())) {
+            String value = updated.getProperty(key);
+            String previous = config.getProperty(key);
+            // an unchanged value, or a change already reported as ignored or rejected.
+            if (value.equals(previous) || value.equals(reportedChanges.get(key))) {
+                continue;
+            }
+            try {
+                switch (key) {
+                    case "app.render.fps" -> FPS = parseInt(key, value, 1, 1000);
+                    case "app.update.ups" -> UPS = parseInt(key, value, 1, 1000);
+                    case "app.render.quality" -> renderer.setQuality(value);
+                    case "app.render.buffer.width", "app.render.buffer.height" -> {
+                        parseInt(key, value, 1, 8192);
+                        bufferChanged = true;
+                    }
+                    case "app.debug.level" -> debug = parseInt(key, value, 0, 5);
+                    case "app.debug.filter" -> Logger.setLevels(value);
+                    case "app.pause" -> setPause(Boolean.parseBoolean(value));
+                    default -> {
+                        ignored.add(key);
+                        reportedChanges.put(key, value);
+                        continue;
+                    }
+                }
+                config.setProperty(key, value);
+                reportedChanges.remove(key);
+                applied.add(key + ":" + previous + "->" + value);
+            } catch (IllegalArgumentException iae) {
+                error("Configuration|Wrong value for %s=%s, rejected: %s", key, value, iae.getMessage());
+                reportedChanges.put(key, value);
+            }
+        }
+        if (bufferChanged) {
+            renderer.resizeBuffer(
+                    Integer.parseInt(config.getProperty("app.render.buffer.width", "320")),
+                    Integer.parseInt(config.getProperty("app.render.buffer.height", "240")));
+        }
+        if (!applied.isEmpty()) {
+            info("Configuration|Live changes applied: %s", String.join(", ", applied));
+        }
+        if (!ignored.isEmpty()) {
+            warn("Configuration|Changes requiring a restart, ignored: %s", String.join(", ", ignored));
+        }
+    }
+
+    /**
+     * Parse an integer configuration value and check its range.
+     *
+     * @param key   the configuration key.
+     * @param value the value to be parsed.
+     * @param min   the minimum accepted value.
+     * @param max   the maximum accepted value.
+     * @return the parsed value.
+     * @throws IllegalArgumentException if the value is not an integer or is out of range.
+     */
+    private static int parseInt(String key, String value, int min, int max) {
+        int v = Integer.parseInt(value.trim());
+        if (v < min || v > max) {
+            throw new IllegalArgumentException(
+                    String.format("%s must be between %d and %d", key, min, max));
+        }
+        return v;
+    }
+
+    /**
+     * Read an integer configuration value, the default value being used if it is wrong.
+     *
+     * @param key          the configuration key.
+     * @param defaultValue the default value.
+     * @param min          the minimum accepted value.
+     * @param max          the maximum accepted value.
+     * @return the configured value, or the default one.
+     */
+    private int readInt(String key, int defaultValue, int min, int max) {
+        String value = config.getProperty(key, String.valueOf(defaultValue));
+        try {
+            return parseInt(key, value, min, max);
+        } catch (IllegalArgumentException iae) {
+            error("Configuration|Wrong value for %s=%s, %d is used: %s", key, value, defaultValue, iae.getMessage());
+            return defaultValue;
+        }
+    }
+
     /*----- Manage current Scene -----*/
 
     public void createScene() {
@@ -2182,15 +9403,75 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
     /**
      * Activate the {@link Scene} named <code>sceneName</code>.
      *
+     * <p>The previous current {@link Scene} is suspended with all its entities retained.
+     * The activated {@link Scene} is created only if it has never been created (or has been disposed),
+     * otherwise it is just resumed.</p>
+     *
      * @param sceneName the name of the {@link Scene} to be activated.
      */
     public void activateScene(String sceneName) {
-        if (Optional.ofNullable(currentScene).isPresent()) {
-            currentScene.deactivate(this);
+        Scene scene = scenes.get(sceneName);
+        if (Optional.ofNullable(currentScene).isPresent() && currentScene != scene) {
+            currentScene.suspend(this);
+            currentScene.setState(SceneState.SUSPENDED);
+            suspendedScenes.addFirst(currentScene);
+        }
+        suspendedScenes.remove(scene);
+        setCurrentScene(scene);
+        switch (scene.getState()) {
+            case SUSPENDED -> {
+                scene.resume(this);
+                debug("Scene %s resumed", scene.getName());
+            }
+            case ACTIVE -> {
+                // already the current one, nothing to do.
+            }
+            default -> {
+                scene.create(this);
+                scene.initialize(this);
+                // entities spawned at creation are part of the initial state.
+                scene.getCommands().apply(this, scene);
+                initialSnapshots.put(scene.getName(), SceneSnapshot.capture(scene));
+                debug("Scene %s created", scene.getName());
+            }
+        }
+        scene.setState(SceneState.ACTIVE);
+        scene.activate(this);
+        applySceneMemoryPolicy();
+    }
+
+    /**
+     * Dispose suspended {@link Scene}'s, the least recently used first, while the number of suspended scenes
+     * exceeds <code>app.scene.suspended.max</code> or the used heap ratio exceeds
+     * <code>app.scene.memory.threshold</code>.
+     */
+    private void applySceneMemoryPolicy() {
+        while (maxSuspendedScenes >= 0 && suspendedScenes.size() > maxSuspendedScenes) {
+            disposeScene(suspendedScenes.peekLast());
+        }
+        if (sceneMemoryThreshold > 0.0) {
+            Runtime rt = Runtime.getRuntime();
+            while (!suspendedScenes.isEmpty()
+                    && (double) (rt.totalMemory() - rt.freeMemory()) / rt.maxMemory() > sceneMemoryThreshold) {
+                disposeScene(suspendedScenes.peekLast());
+            }
         }
-        setCurrentScene(scenes.get(sceneName));
-        currentScene.create(this);
-        currentScene.activate(this);
+    }
+
+    /**
+     * Release all the entities and behaviors of the {@link Scene}. The {@link Scene} will be re-created
+     * on its next activation.
+     *
+     * @param scene the {@link Scene} to be disposed.
+     */
+    public void disposeScene(Scene scene) {
+        suspendedScenes.remove(scene);
+        scene.deactivate(this);
+        scene.dispose(this);
+        scene.reset();
+        initialSnapshots.remove(scene.getName());
+        scene.setState(SceneState.DISPOSED);
+        debug("Scene %s disposed", scene.getName());
     }
 
     /**
@@ -2274,11 +9555,49 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
     }
 
     /**
-     * Reset current Scene.
+     * Reset current Scene: its entities are restored from the snapshot captured at its creation. Without
+     * snapshot, it is disposed, then created again.
      */
     public void resetScene() {
-        currentScene.reset();
-        createScene();
+        SceneSnapshot snapshot = initialSnapshots.get(currentScene.getName());
+        if (snapshot != null) {
+            snapshot.restore(this, currentScene);
+        } else {
+            disposeScene(currentScene);
+            activateScene(currentScene.getName());
+        }
+    }
+
+    /**
+     * Save the current state of the current {@link Scene} to the <code>app.snapshot.path</code> directory.
+     */
+    public void saveScene() {
+        Path file = Paths.get(snapshotPath, currentScene.getName() + ".snap");
+        try {
+            SceneSnapshot snapshot = SceneSnapshot.capture(currentScene);
+            snapshot.save(file);
+            info("Scene %s saved to %s (%d entities, %d bytes)",
+                    currentScene.getName(), file, snapshot.getEntityCount(), snapshot.getSize());
+        } catch (IOException e) {
+            error("Unable to save scene %s to %s: %s", currentScene.getName(), file, e.getMessage());
+        }
+    }
+
+    /**
+     * Restore the current {@link Scene} from its last save in the <code>app.snapshot.path</code> directory.
+     */
+    public void loadScene() {
+        Path file = Paths.get(snapshotPath, currentScene.getName() + ".snap");
+        if (!Files.exists(file)) {
+            warn("No saved state for scene %s in %s", currentScene.getName(), file);
+            return;
+        }
+        try {
+            SceneSnapshot.load(file).restore(this, currentScene);
+            info("Scene %s loaded from %s", currentScene.getName(), file);
+        } catch (IOException | IllegalArgumentException e) {
+            error("Unable to load scene %s from %s: %s", currentScene.getName(), file, e.getMessage());
+        }
     }
 
     public void activateEntity(Entity e, boolean a) {
@@ -2303,10 +9622,38 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         long renderTime = 0;
         long renderFrames = 0;
         long currentFPS = 0;
+        long renderWait = 0;
 
         Map<String, Object> stats = new ConcurrentHashMap<>();
+        int inputPhase = allocationMonitor.phase("input");
+        int updatePhase = allocationMonitor.phase("update");
+        int renderPhase = allocationMonitor.phase("render");
+        long allocStart;
+        long inputNs = 0, updateNs = 0, renderNs = 0;
         do {
+            if (inputReplay != null) {
+                // the recorded tick delta is used as a fixed timestep.
+                if (!inputReplay.nextTick()) {
+                    break;
+                }
+                delay = inputReplay.getDelay();
+                inputNs = System.nanoTime();
+            }
+            // apply live configuration changes, if any.
+            if (configWatcher != null) {
+                Properties updated = configWatcher.poll();
+                if (updated != null) {
+                    applyConfiguration(updated);
+                }
+            }
+            allocationMonitor.startFrame();
+            allocStart = allocationMonitor.begin();
             input();
+            allocationMonitor.end(inputPhase, allocStart);
+            if (inputReplay != null) {
+                updateNs = System.nanoTime();
+                inputNs = updateNs - inputNs;
+            }
             updateTime += delay;
             if (updateTime > 1000) {
                 currentUPS = updateFrames;
@@ -2316,17 +9663,40 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
                 updateFrames++;
 
             }
+            allocStart = allocationMonitor.begin();
             update(delay);
+            allocationMonitor.end(updatePhase, allocStart);
+            if (inputRecorder != null) {
+                inputRecorder.endTick(delay, keys);
+            }
+            if (inputReplay != null) {
+                renderNs = System.nanoTime();
+                updateNs = renderNs - updateNs;
+            }
 
             renderTime += delay;
             if (renderTime > 1000) {
                 currentFPS = renderFrames;
                 renderFrames = 0;
                 renderTime = 0;
-            } else {
+            }
+            // render at most FPS frames per second (every tick while UPS <= FPS).
+            renderWait += delay;
+            if (renderWait >= 1000 / FPS) {
+                renderWait = 0;
                 renderFrames++;
+                if (rendering) {
+                    allocStart = allocationMonitor.begin();
+                    renderer.draw(currentScene, stats);
+                    allocationMonitor.end(renderPhase, allocStart);
+                }
+            }
+            allocationMonitor.endFrame(stats);
+            if (inputReplay != null) {
+                inputReplay.time(inputNs, updateNs, System.nanoTime() - renderNs);
+                // no wait between the replayed ticks.
+                continue;
             }
-            renderer.draw(currentScene, stats);
 
             try {
                 Thread.sleep(delay > 1000 / UPS ? 1 : 1000 / UPS - delay);
@@ -2339,12 +9709,19 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
             stats.put("fps", currentFPS);
             stats.put("ups", currentUPS);
             stats.put("ft", delay);
+            stats.put("sleeping", sleepingBodies);
+            stats.put("sleeps", sleepCount);
+            stats.put("wakes", wakeCount);
+            stats.put("contacts", currentScene.getContacts().getContactCount());
 
             endTime = System.currentTimeMillis();
             delay = endTime - startTime;
             startTime = endTime;
 
         } while (!exit);
+        if (inputReplay != null) {
+            inputReplay.report(config.getProperty("app.replay.timings", ""));
+        }
     }
 
     private static boolean isPause() {
@@ -2355,21 +9732,48 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
      * Process all input management on the current scene {@link Entity}'s.
      */
     public void input() {
-        currentScene.getEntities().values()
-                .stream().filter(Entity::isActive)
-                .forEach(this::processInputBehaviorForEntity);
+        if (inputReplay != null) {
+            // dispatch the recorded events in place of the AWT ones.
+            inputReplay.dispatch(this);
+        } else {
+            // dispatch the AWT events captured since the previous tick.
+            inputQueue.drain(this::processInputEvent);
+        }
+        // only the behaviors really implementing input are processed.
+        SubscriptionList subs = currentScene.getSubscriptions().get(BehaviorEvent.INPUT);
+        for (int i = 0; i < subs.size(); i++) {
+            Entity e = subs.getEntity(i);
+            if (e != null && e.isActive()) {
+                subs.getBehavior(i).input(this, e);
+            }
+        }
     }
 
     /**
-     * Apply all the {@link Behavior#input()} to the {@link Entity}.
+     * Dispatch a queued input event on the game thread.
      *
-     * @param e the {@link Entity} to be processed abut input management.
+     * @param type  the {@link InputQueue} event type.
+     * @param event the AWT event.
      */
-    private void processInputBehaviorForEntity(Entity e) {
-        e.behaviors.forEach(b -> {
-            b.input(this, e);
-        });
-        e.child.forEach(this::processInputBehaviorForEntity);
+    private void processInputEvent(int type, InputEvent event) {
+        if (inputRecorder != null && type != InputQueue.MOUSE_MOVED) {
+            if (event instanceof KeyEvent k) {
+                inputRecorder.recordKey(type, k);
+            } else {
+                inputRecorder.recordMouse(type, mouseX, mouseY, ((MouseEvent) event).getButton());
+            }
+        }
+        switch (type) {
+            case InputQueue.MOUSE_MOVED -> processMouseMoved((MouseEvent) event);
+            case InputQueue.KEY_PRESSED -> processKeyPressed((KeyEvent) event);
+            case InputQueue.KEY_RELEASED -> processKeyReleased((KeyEvent) event);
+            case InputQueue.MOUSE_CLICKED -> processMouseClicked((MouseEvent) event);
+            case InputQueue.MOUSE_PRESSED -> processMousePressed((MouseEvent) event);
+            case InputQueue.MOUSE_RELEASED -> processMouseReleased((MouseEvent) event);
+            default -> {
+                // unknown event type, ignored.
+            }
+        }
     }
 
     /**
@@ -2380,11 +9784,39 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
      * @param delay The elapsed time since previous call.
      */
     public void update(double delay) {
-        // update all entities not stick to activeCamera.
-        currentScene.getEntities().values()
-                .forEach(e -> {
-                    updateEntity(delay, e);
-                });
+        // the tile maps stopping the moving entities.
+        tileMaps = currentScene.getIndex().getByClass(TileMap.class);
+        sleepingBodies = 0;
+        // update all the active entities.
+        for (Entity e : currentScene.getIndex().getActive()) {
+            updateEntity(delay, e);
+        }
+        // detect and resolve the contacts between the moved bodies.
+        if (!isPause()) {
+            currentScene.getContacts().update(this, currentScene, delay);
+        }
+        // process the ECS systems and synchronize their linked entities.
+        if (!isPause()) {
+            currentScene.getEcs().update(this, delay);
+        }
+        // advance all the animation cursors at once.
+        if (!isPause()) {
+            currentScene.getAnimationPlayer().update(delay);
+        }
+        // apply the structural changes recorded during the frame.
+        currentScene.getCommands().apply(this, currentScene);
+        // stream the world chunks around the camera.
+        if (currentScene.getStreamer() != null) {
+            currentScene.getStreamer().update(this);
+        }
+        // refresh the cached world transforms of the entities which moved.
+        for (Entity e : currentScene.getIndex().getActive()) {
+            if (e.getParent() == null) {
+                e.updateTransform(false);
+            }
+        }
+        // move the entities to their new cells for the spatial queries.
+        currentScene.getSpatialIndex().update(currentScene);
         // update camera position
         if (Optional.ofNullable(currentScene.getActiveCamera()).isPresent()) {
             currentScene.getActiveCamera().update(delay);
@@ -2411,18 +9843,81 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
      * @param e     the {@link Entity} instance to be updated.
      */
     private void updateEntity(double delay, Entity e) {
-        if (!e.isRelativeToCamera() && !isPause()) {
-            applyPhysics(delay, e);
-            controlPlayAreaBoundaries(e);
+        if (!e.isRelativeToCamera() && e.ecsId < 0 && !isPause() && e.getBodyType() == BodyType.KINEMATIC) {
+            // moved by code only: its velocity is applied, without any force nor constraint.
+            e.x += e.dx * delay;
+            e.y += e.dy * delay;
+        }
+        if (!e.isRelativeToCamera() && e.ecsId < 0 && !isPause() && e.getBodyType() == BodyType.DYNAMIC) {
+            // a new force wakes a sleeping body up.
+            if (e.sleeping && !e.forces.isEmpty()) {
+                e.wake();
+            }
+            if (!e.sleeping) {
+                e.prevX = e.x;
+                e.prevY = e.y;
+                applyPhysics(delay, e);
+                for (TileMap tm : tileMaps) {
+                    if (tm.isActive()) {
+                        tm.resolve(e, e.prevX, e.prevY);
+                    }
+                }
+                controlPlayAreaBoundaries(e);
+                // the colliding bodies are put to sleep once their contacts are resolved.
+                if (!ContactSolver.isBody(e)) {
+                    updateSleep(e, e.prevX, e.prevY, delay);
+                }
+            } else {
+                sleepingBodies++;
+            }
+            // count the state changes, whatever put the body to sleep or woke it up.
+            if (e.sleeping != e.wasSleeping) {
+                if (e.sleeping) {
+                    sleepCount++;
+                } else {
+                    wakeCount++;
+                }
+                e.wasSleeping = e.sleeping;
+            }
         }
         e.update(this, delay);
-        e.behaviors.forEach(b -> {
-            b.update(this, e, delay);
-        });
+        // the behaviors are updated right after their own entity (only the ones really implementing update).
+        if (e.isHandling(BehaviorEvent.UPDATE)) {
+            for (Behavior<Entity> b : e.behaviors) {
+                if (BehaviorEvent.UPDATE.isHandledBy(b)) {
+                    b.update(this, e, delay);
+                }
+            }
+        }
         // proceed with child entities (if any).
         e.child.forEach(c -> updateEntity(delay, c));
     }
 
+    /**
+     * Put the body to sleep if, during the last <code>world.sleepTicks</code> ticks, it has moved and its velocity
+     * would have moved it less than <code>world.sleepThreshold</code> per tick, and its acceleration stayed below
+     * <code>world.sleepAcceleration</code>.
+     *
+     * @param e     the {@link Entity} just processed by the physics.
+     * @param prevX the position before the physics step.
+     * @param prevY the position before the physics step.
+     * @param delay the elapsed time of the physics step.
+     */
+    private void updateSleep(Entity e, double prevX, double prevY, double delay) {
+        if (world.sleepTicks <= 0) {
+            return;
+        }
+        if (Math.abs(e.x - prevX) < world.sleepThreshold && Math.abs(e.y - prevY) < world.sleepThreshold
+                && Math.abs(e.dx * delay) < world.sleepThreshold && Math.abs(e.dy * delay) < world.sleepThreshold
+                && Math.abs(e.ax) < world.sleepAcceleration && Math.abs(e.ay) < world.sleepAcceleration) {
+            if (++e.stillTicks >= world.sleepTicks) {
+                e.sleep();
+            }
+        } else {
+            e.stillTicks = 0;
+        }
+    }
+
     /**
      * The {@link GameApp#applyPhysics(double, Entity)} method updates the
      * physics properties of an {@link Entity} object based on the forces acting
@@ -2522,8 +10017,20 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
     /*----- releasing objects and resources -----*/
 
     public void dispose() {
-        renderer.dispose();
+        scenes.values().stream()
+                .filter(s -> s.getState() == SceneState.ACTIVE || s.getState() == SceneState.SUSPENDED)
+                .forEach(s -> s.dispose(this));
+        if (configWatcher != null) {
+            configWatcher.stop();
+        }
+        if (inputRecorder != null) {
+            inputRecorder.close();
+        }
+        if (rendering) {
+            renderer.dispose();
+        }
         info("End of application ");
+        Logger.flush();
     }
 
     /*----- Game start entry point -----*/
@@ -2537,26 +10044,23 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
     /*----- Logger API -----*/
 
     public static void log(String level, String message, Object... args) {
-        if (loggerFilter.contains(level)) {
-            String dateFormatted = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now());
-            System.out.printf(dateFormatted + "|" + level + "|" + message + "%n", args);
-        }
+        Logger.log(Logger.levelBit(level), level, message, args);
     }
 
     public static void debug(String message, Object... args) {
-        log("DEBUG", message, args);
+        Logger.log(Logger.DEBUG, "DEBUG", message, args);
     }
 
     public static void info(String message, Object... args) {
-        log("INFO", message, args);
+        Logger.log(Logger.INFO, "INFO", message, args);
     }
 
     public static void warn(String message, Object... args) {
-        log("WARN", message, args);
+        Logger.log(Logger.WARN, "WARN", message, args);
     }
 
     public static void error(String message, Object... args) {
-        log("ERROR", message, args);
+        Logger.log(Logger.ERROR, "ERROR", message, args);
     }
 
 
@@ -2568,29 +10072,37 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
 
     @Override
     public void keyPressed(KeyEvent k) {
+        inputQueue.offer(InputQueue.KEY_PRESSED, k);
+    }
+
+    private void processKeyPressed(KeyEvent k) {
         keys[k.getKeyCode()] = true;
-        currentScene.getEntities().values().stream()
-                .filter(Entity::isActive)
-                .filter(e -> !e.behaviors.isEmpty())
-                .forEach(e -> {
-                    e.behaviors.forEach(b -> {
-                        b.onKeyPressed(this, e, k);
-                    });
-                });
+        // only the entities behaviors listen to the key pressed event, the scene behaviors (with a null entity)
+        // only receive the key released one.
+        SubscriptionList subs = currentScene.getSubscriptions().get(BehaviorEvent.KEY_PRESSED);
+        for (int i = 0; i < subs.size(); i++) {
+            Entity e = subs.getEntity(i);
+            if (e != null && e.isActive()) {
+                subs.getBehavior(i).onKeyPressed(this, e, k);
+            }
+        }
     }
 
     @Override
     public void keyReleased(KeyEvent k) {
+        inputQueue.offer(InputQueue.KEY_RELEASED, k);
+    }
+
+    private void processKeyReleased(KeyEvent k) {
         keys[k.getKeyCode()] = false;
-        currentScene.getEntities().values().stream()
-                .filter(Entity::isActive)
-                .filter(e -> !e.behaviors.isEmpty())
-                .forEach(e -> {
-                    e.behaviors.forEach(b -> {
-                        b.onKeyReleased(this, e, k);
-                    });
-                });
-        currentScene.getBehaviors().forEach(b -> b.onKeyReleased(this, null, k));
+        // entities and scene behaviors (with a null entity) listening to the key released event.
+        SubscriptionList subs = currentScene.getSubscriptions().get(BehaviorEvent.KEY_RELEASED);
+        for (int i = 0; i < subs.size(); i++) {
+            Entity e = subs.getEntity(i);
+            if (e == null || e.isActive()) {
+                subs.getBehavior(i).onKeyReleased(this, e, k);
+            }
+        }
         switch (k.getKeyCode()) {
             // reset the scene on CTRL+Z
             case KeyEvent.VK_Z -> {
@@ -2598,6 +10110,17 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
                     resetScene();
                 }
             }
+            // quick save / load the scene on CTRL+S / CTRL+L
+            case KeyEvent.VK_S -> {
+                if (k.isControlDown()) {
+                    saveScene();
+                }
+            }
+            case KeyEvent.VK_L -> {
+                if (k.isControlDown()) {
+                    loadScene();
+                }
+            }
 
             case KeyEvent.VK_D -> {
                 if (k.isControlDown()) {
@@ -2627,40 +10150,60 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
 
     @Override
     public void mouseClicked(MouseEvent e) {
+        inputQueue.offer(InputQueue.MOUSE_CLICKED, e);
+    }
+
+    private void processMouseClicked(MouseEvent e) {
         if (getEntityUnderMouse(mouseX, mouseY).isPresent()) {
             Entity entityClicked = getEntityUnderMouse(mouseX, mouseY).get();
             debug("Entity %s has been clicked", entityClicked.name);
-            entityClicked.behaviors
-                    .forEach(b -> b.onMouseClick(this, entityClicked, mouseX, mouseY, e.getButton()));
+            for (Behavior<Entity> b : entityClicked.behaviors) {
+                if (BehaviorEvent.MOUSE_CLICK.isHandledBy(b)) {
+                    b.onMouseClick(this, entityClicked, mouseX, mouseY, e.getButton());
+                }
+            }
         }
     }
 
     private Optional<Entity> getEntityUnderMouse(double mouseX, double mouseY) {
-        Optional<Entity> entityClicked = currentScene.getEntities().values().stream()
+        Optional<Entity> entityClicked = Arrays.stream(currentScene.getIndex().getActive())
                 .filter(entity -> Arrays.stream(entity.getClass().getInterfaces()).filter(i -> i.equals(UIObject.class)).findFirst().isPresent()
-                        && entity.isActive()
-                        && entity.contains(mouseX, mouseY)).sorted((a, b) -> Integer.compare(b.priority, a.priority)).findFirst();
+                        && entity.getWorldBounds().contains(mouseX, mouseY)).sorted((a, b) -> Integer.compare(b.priority, a.priority)).findFirst();
 
         return entityClicked;
     }
 
     @Override
     public void mousePressed(MouseEvent e) {
+        inputQueue.offer(InputQueue.MOUSE_PRESSED, e);
+    }
+
+    private void processMousePressed(MouseEvent e) {
         if (getEntityUnderMouse(mouseX, mouseY).isPresent()) {
             Entity entityClicked = getEntityUnderMouse(mouseX, mouseY).get();
             debug("Entity %s has been pressed", entityClicked.name);
-            entityClicked.behaviors
-                    .forEach(b -> b.onMousePressed(this, entityClicked, mouseX, mouseY, e.getButton()));
+            for (Behavior<Entity> b : entityClicked.behaviors) {
+                if (BehaviorEvent.MOUSE_PRESSED.isHandledBy(b)) {
+                    b.onMousePressed(this, entityClicked, mouseX, mouseY, e.getButton());
+                }
+            }
         }
     }
 
     @Override
     public void mouseReleased(MouseEvent e) {
+        inputQueue.offer(InputQueue.MOUSE_RELEASED, e);
+    }
+
+    private void processMouseReleased(MouseEvent e) {
         if (getEntityUnderMouse(mouseX, mouseY).isPresent()) {
             Entity entityClicked = getEntityUnderMouse(mouseX, mouseY).get();
             debug("Entity %s has been released", entityClicked.name);
-            entityClicked.behaviors
-                    .forEach(b -> b.onMouseReleased(this, entityClicked, mouseX, mouseY, e.getButton()));
+            for (Behavior<Entity> b : entityClicked.behaviors) {
+                if (BehaviorEvent.MOUSE_RELEASED.isHandledBy(b)) {
+                    b.onMouseReleased(this, entityClicked, mouseX, mouseY, e.getButton());
+                }
+            }
         }
     }
 
@@ -2684,11 +10227,25 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
 
     @Override
     public void mouseMoved(MouseEvent e) {
+        inputQueue.offerMouseMove(e);
+    }
+
+    private void processMouseMoved(MouseEvent e) {
         JFrame window = renderer.getWindow();
         this.realMouseX = e.getX();
         this.realMouseY = e.getY() - window.getInsets().top;
         this.mouseX = (realMouseX * ((double) buffer.getWidth() / window.getWidth()));
         this.mouseY = (realMouseY * ((double) buffer.getHeight() / (window.getHeight() - window.getInsets().top)));
+        if (inputRecorder != null) {
+            inputRecorder.recordMouse(InputQueue.MOUSE_MOVED, mouseX, mouseY, 0);
+        }
+        processMouseHover();
+    }
+
+    /**
+     * Process the mouse hovering of the UI entities at the current mouse position (in buffer coordinates).
+     */
+    private void processMouseHover() {
 
         if (getEntityUnderMouse(mouseX, mouseY).isPresent()) {
             Entity entityClicked = getEntityUnderMouse(mouseX, mouseY).get();
@@ -2699,16 +10256,22 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
                     previousEntity.fillColor = UIObject.mouseOutColor;
 
                     debug("Mouse is out of the entity  %s (%s)", previousEntity.name, previousEntity.getClass());
-                    previousEntity.setAttribute("mouse_hover", false);
-                    previousEntity.behaviors
-                            .forEach(b -> b.onMouseOut(this, previousEntity, mouseX, mouseY));
+                    previousEntity.setBoolean(Entity.MOUSE_HOVER, false);
+                    for (Behavior<Entity> b : previousEntity.behaviors) {
+                        if (BehaviorEvent.MOUSE_OUT.isHandledBy(b)) {
+                            b.onMouseOut(this, previousEntity, mouseX, mouseY);
+                        }
+                    }
                 }
             }
             previousEntity = entityClicked;
             if (entityClicked instanceof Button) {
-                entityClicked.behaviors
-                        .forEach(b -> b.onMouseIn(this, entityClicked, mouseX, mouseY));
-                entityClicked.setAttribute("mouse_hover", true);
+                for (Behavior<Entity> b : entityClicked.behaviors) {
+                    if (BehaviorEvent.MOUSE_IN.isHandledBy(b)) {
+                        b.onMouseIn(this, entityClicked, mouseX, mouseY);
+                    }
+                }
+                entityClicked.setBoolean(Entity.MOUSE_HOVER, true);
             }
             debug("Mouse enter over the entity  %s (%s)", entityClicked.name, entityClicked.getClass());
 
@@ -2728,6 +10291,32 @@ public class GameApp implements KeyListener, MouseListener, MouseWheelListener,
         return this.world;
     }
 
+    /**
+     * @return the total number of bodies put to sleep by the physics.
+     */
+    public long getSleepCount() {
+        return sleepCount;
+    }
+
+    /**
+     * @return the total number of sleeping bodies woken up.
+     */
+    public long getWakeCount() {
+        return wakeCount;
+    }
+
+    /**
+     * @return the game random generator, to be used in place of {@link Math#random()} to keep the recorded
+     * sessions replayable.
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    public AllocationMonitor getAllocationMonitor() {
+        return allocationMonitor;
+    }
+
     public void setExitRequest(boolean x) {
         exit = x;
     }
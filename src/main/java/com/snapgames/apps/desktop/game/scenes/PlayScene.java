@@ -5,6 +5,9 @@ import com.snapgames.apps.desktop.game.GameApp;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static com.snapgames.apps.desktop.game.GameApp.*;
 
@@ -20,10 +23,54 @@ public class PlayScene extends GameApp.AbstractScene {
      */
     private int lifeCount = 3;
 
+    /**
+     * Material shared by all the enemies.
+     */
+    private static final GameApp.Material ENEMY_MATERIAL = new GameApp.Material("Enemy_MAT", 1.0, 0.96, 0.98);
+    /**
+     * Number of glowworms spread over the play area, streamed around the camera.
+     */
+    private static final int GLOWWORMS_COUNT = 60;
+    /**
+     * Maximum number of random positions tried to spawn an enemy out of the level platforms.
+     */
+    private static final int SPAWN_ATTEMPTS = 32;
+    private static final Color GLOW_ON = new Color(255, 255, 128);
+    private static final Color GLOW_OFF = new Color(96, 96, 32);
+    /**
+     * The colliding bodies an enemy must not be spawned onto.
+     */
+    private static final GameApp.QueryFilter BODIES = new GameApp.QueryFilter().setLayers(1);
+
     Font scoreFont;
 
     Font textFont;
 
+    /**
+     * Pool of recycled enemies.
+     */
+    private GameApp.EntityPool<GameApp.GameObject> enemyPool;
+    /**
+     * The enemies currently in the scene.
+     */
+    private final List<GameApp.GameObject> enemies = new ArrayList<>();
+    /**
+     * The level ground and platforms.
+     */
+    private GameApp.TileMap level;
+    /**
+     * Pool of the sparks emitted when an enemy hits the player.
+     */
+    private GameApp.EntityPool<GameApp.ParticleEmitter> sparksPool;
+    /**
+     * The sparks acquired from the pool, the ones back in the pool being dropped on the next acquire.
+     */
+    private final List<GameApp.ParticleEmitter> sparks = new ArrayList<>();
+    /**
+     * Buffer of the spatial queries run on spawn.
+     */
+    private final GameApp.Entity[] spawnHits = new GameApp.Entity[1];
+
     public PlayScene(GameApp app, String name) {
         super(app, name);
     }
@@ -36,16 +83,42 @@ public class PlayScene extends GameApp.AbstractScene {
 
     @Override
     public void create(GameApp app) {
-
-        Font scoreFont = getResource("/fonts/upheavtt.ttf");
-        Font textFont = getResource("/fonts/Minecraftia-Regular.ttf");
+        enemyPool = new GameApp.EntityPool<>(app, "enemies", () ->
+                (GameApp.GameObject) new GameApp.GameObject("enemy_" + GameApp.Entity.index)
+                        .setNature(GameApp.GameObjectNature.ELLIPSE)
+                        .setSize(8, 8)
+                        .setFillColor(Color.RED)
+                        .setMaterial(ENEMY_MATERIAL)
+                        .addTag("enemy"));
+        sparksPool = new GameApp.EntityPool<>(app, "sparks", () ->
+                (GameApp.ParticleEmitter) new GameApp.ParticleEmitter("sparks_" + GameApp.Entity.index, 64)
+                        .setSpeed(30, 90)
+                        .setLife(150, 450)
+                        .setGravity(60)
+                        .setParticleSize(2, 1)
+                        .setColors(Color.YELLOW, new Color(255, 0, 0, 0))
+                        .setPriority(300));
 
         add(new GameApp.ImageObject("forest")
-                .setImage(getResource("/images/backgrounds/forest.jpg"))
+                .setImage("/images/backgrounds/forest.jpg")
+                .setBodyType(GameApp.BodyType.STATIC)
                 .setPosition(0, 0)
                 .setSize(app.getWorld().playArea.getWidth(), app.getWorld().playArea.getHeight())
         );
 
+        // ground (grass) and platforms (stone bricks) from the tiles01.png tileset.
+        level = (GameApp.TileMap) new GameApp.TileMap("level")
+                .setTileset("/images/tiles01.png", 16, 16)
+                .setMapSize((int) (app.getWorld().playArea.getWidth() / 16),
+                        (int) (app.getWorld().playArea.getHeight() / 16))
+                .setSolid(27, 41)
+                .setPriority(1);
+        level.fill(0, level.rows - 1, level.columns, 1, (short) 27)
+                .fill(5, level.rows - 9, 10, 1, (short) 41)
+                .fill(30, level.rows - 15, 12, 1, (short) 41)
+                .fill(12, level.rows - 21, 9, 1, (short) 41);
+        add(level);
+
         add(new GameApp.TextObject("score")
                 .setText("%05d")
                 .setValue(score)
@@ -61,7 +134,7 @@ public class PlayScene extends GameApp.AbstractScene {
                 })
         );
         add(new GameApp.ImageObject("heart")
-                .setImage(getResource("/images/tiles01.png|0,96,16,16"))
+                .setImage("/images/tiles01.png|0,96,16,16")
                 .setPosition(app.getBuffer().getWidth() - 40, 3)
                 .setSize(16, 16)
                 .setRelativeToCamera(true)
@@ -82,7 +155,7 @@ public class PlayScene extends GameApp.AbstractScene {
                 })
         );
 
-        generateEntities(app, "enemy_", 20);
+        generateEntities(app, 20);
 
         GameApp.GameObject player = (GameApp.GameObject) new GameApp.GameObject("player")
                 .setNature(GameApp.GameObjectNature.RECTANGLE)
@@ -108,10 +181,23 @@ public class PlayScene extends GameApp.AbstractScene {
                             player.forces.add(new Point2D.Double(speed, 0));
                         }
                     }
+
+                    @Override
+                    public void onContactBegin(GameApp app, GameApp.Entity player, GameApp.Contact c) {
+                        if (c.other(player).hasTag("enemy")) {
+                            sparks.removeIf(sparksPool::isFree);
+                            GameApp.ParticleEmitter emitter = sparksPool.acquire();
+                            sparks.add(emitter);
+                            emitter.setPool(sparksPool).setPosition(c.px, c.py);
+                            emitter.burst(24);
+                            getCommands().spawn(emitter);
+                        }
+                    }
                 });
         add(player);
 
-        generateEntities(app, "enemy_", 20);
+        generateEntities(app, 20);
+        createGlowworms(app);
 
         setActiveCamera((GameApp.Camera)
                 new GameApp.Camera("cam01")
@@ -227,11 +313,18 @@ public class PlayScene extends GameApp.AbstractScene {
                         app.activateEntity(db, true);
                     }
                     case KeyEvent.VK_PAGE_UP -> {
-                        generateEntities(app, "enemy_", 10);
+                        generateEntities(app, 10);
+                    }
+                    case KeyEvent.VK_PAGE_DOWN -> {
+                        removeEntities(10);
                     }
                     case KeyEvent.VK_G -> {
                         if (k.isControlDown()) {
                             app.getWorld().gravity *= -1;
+                            // the sleeping bodies must feel the new gravity.
+                            for (GameApp.Entity entity : getIndex().getActive()) {
+                                entity.wake();
+                            }
                         }
                     }
                     case KeyEvent.VK_F12 -> {
@@ -246,18 +339,128 @@ public class PlayScene extends GameApp.AbstractScene {
     }
 
 
-    private void generateEntities(GameApp app, String rootName, int nbEntities) {
+    /**
+     * Spawn <code>nbEntities</code> enemies into the scene, recycled from the enemy pool when possible.
+     * They are added at the end of the current update phase, out of the level platforms and of the bodies
+     * already in the scene. An enemy without any free place after <code>SPAWN_ATTEMPTS</code> tries is not
+     * spawned.
+     *
+     * @param app        the parent application.
+     * @param nbEntities the number of enemies to be added.
+     */
+    private void generateEntities(GameApp app, int nbEntities) {
+        Random random = app.getRandom();
         for (int i = 0; i < nbEntities; i++) {
-            add(new GameApp.GameObject(rootName + GameApp.Entity.index)
+            GameApp.GameObject enemy = enemyPool.acquire();
+            // never spawn an enemy into the level platforms, nor onto another body.
+            int attempts = 0;
+            do {
+                enemy.setPosition(app.getWorld().playArea.getWidth() * random.nextDouble(),
+                        app.getWorld().playArea.getHeight() * random.nextDouble());
+            } while ((level.collides(enemy.x, enemy.y, enemy.width, enemy.height)
+                    || getSpatialIndex().queryRect(enemy.x, enemy.y, enemy.width, enemy.height, BODIES, spawnHits) > 0)
+                    && ++attempts < SPAWN_ATTEMPTS);
+            if (attempts == SPAWN_ATTEMPTS) {
+                GameApp.warn("Scene %s: no free place found for a new enemy, %d enemies not spawned",
+                        getName(), nbEntities - i);
+                enemyPool.release(enemy);
+                break;
+            }
+            enemy.setPriority(100 + i)
+                    .setAcceleration(0.25 - (random.nextDouble() * 0.5), 0.25 - (random.nextDouble() * 0.5))
+                    .setMass(2.0 + (5.0 * random.nextDouble()));
+            enemies.add(enemy);
+            getCommands().spawn(enemy);
+        }
+    }
+
+    /**
+     * Spread the glowworms over the play area: they are given to a {@link GameApp.WorldStreamer}, which adds
+     * to the scene only the ones around the camera. Each one twinkles with its own period.
+     *
+     * @param app the parent application.
+     */
+    private void createGlowworms(GameApp app) {
+        Random random = app.getRandom();
+        GameApp.WorldStreamer streamer = new GameApp.WorldStreamer(app, this);
+        for (int i = 0; i < GLOWWORMS_COUNT; i++) {
+            double period = 400 + random.nextDouble() * 800;
+            streamer.add(new GameApp.GameObject("glowworm_" + i)
                     .setNature(GameApp.GameObjectNature.ELLIPSE)
-                    .setPosition(app.getWorld().playArea.getWidth() * Math.random(),
-                            app.getWorld().playArea.getHeight() * Math.random())
-                    .setSize(8, 8)
-                    .setPriority(100 + i)
-                    .setFillColor(Color.RED)
-                    .setAcceleration(0.25 - (Math.random() * 0.5), 0.25 - (Math.random() * 0.5))
-                    .setMaterial(new GameApp.Material("Enemy_MAT", 1.0, 0.96, 0.98))
-                    .setMass(2.0 + (5.0 * Math.random())));
+                    .setFillColor(GLOW_OFF)
+                    .setSize(2, 2)
+                    .setPosition(app.getWorld().playArea.getWidth() * random.nextDouble(),
+                            app.getWorld().playArea.getHeight() * random.nextDouble())
+                    .setBodyType(GameApp.BodyType.STATIC)
+                    .setCollisionFilter(0, 0)
+                    .setPriority(2)
+                    .add(new GameApp.Behavior<GameApp.Entity>() {
+                        private double time = 0;
+
+                        @Override
+                        public void update(GameApp app, GameApp.Entity e, double elapsed) {
+                            time = (time + elapsed) % period;
+                            e.setFillColor(time < period * 0.5 ? GLOW_ON : GLOW_OFF);
+                        }
+                    }));
+        }
+        setStreamer(streamer);
+    }
+
+    /**
+     * Destroy the <code>nbEntities</code> last added enemies: at the end of the current update phase, they are
+     * removed from the scene and released to the enemy pool.
+     *
+     * @param nbEntities the number of enemies to be removed.
+     */
+    private void removeEntities(int nbEntities) {
+        for (int i = 0; i < nbEntities && !enemies.isEmpty(); i++) {
+            GameApp.GameObject enemy = enemies.remove(enemies.size() - 1);
+            getCommands().destroy(enemy, enemyPool);
+        }
+    }
+
+    /**
+     * After a snapshot restore, release the enemies and sparks which are no more in the scene, and take back
+     * from their pool the restored ones.
+     *
+     * @param app the parent application.
+     */
+    @Override
+    public void restore(GameApp app) {
+        for (GameApp.ParticleEmitter emitter : sparks) {
+            if (emitter.getScene() == null && !sparksPool.isFree(emitter)) {
+                sparksPool.release(emitter);
+            }
+        }
+        sparks.clear();
+        for (GameApp.ParticleEmitter emitter : getIndex().getByClass(GameApp.ParticleEmitter.class)) {
+            sparksPool.reclaim(emitter);
+            sparks.add(emitter);
+        }
+        for (GameApp.GameObject enemy : enemies) {
+            if (enemy.getScene() == null) {
+                enemyPool.release(enemy);
+            }
+        }
+        enemies.clear();
+        for (GameApp.Entity e : getTagged("enemy")) {
+            GameApp.GameObject enemy = (GameApp.GameObject) e;
+            enemyPool.reclaim(enemy);
+            enemies.add(enemy);
+        }
+    }
+
+    @Override
+    public void dispose(GameApp app) {
+        if (enemyPool != null) {
+            GameApp.debug("Scene %s %s", getName(), enemyPool);
+            enemyPool.clear();
+        }
+        if (sparksPool != null) {
+            sparksPool.clear();
         }
+        enemies.clear();
+        sparks.clear();
     }
 }
@@ -3,12 +3,21 @@ package com.snapgames.apps.desktop.game.scenes;
 import com.snapgames.apps.desktop.game.GameApp;
 
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.Random;
 
 import static com.snapgames.apps.desktop.game.GameApp.getResource;
 import static com.snapgames.apps.desktop.game.GameApp.messages;
 
 public class TitleScene extends GameApp.AbstractScene {
 
+    /**
+     * Number of leaves falling over the forest, moved by the scene ECS.
+     */
+    private static final int LEAVES_COUNT = 24;
+    private boolean leavesAdded = false;
+
     Font scoreFont;
     Font textFont;
 
@@ -32,10 +41,13 @@ public class TitleScene extends GameApp.AbstractScene {
     public void create(GameApp app) {
 
         add(new GameApp.ImageObject("forest")
-                .setImage(getResource("/images/backgrounds/forest.jpg"))
+                .setImage("/images/backgrounds/forest.jpg")
+                .setBodyType(GameApp.BodyType.STATIC)
                 .setPosition(0, 0)
                 .setSize(app.getWorld().playArea.getWidth(), app.getWorld().playArea.getHeight())
         );
+        createLeaves(app);
+
         add(new GameApp.TextObject("game-title")
                 .setText(messages.getString("app.scene.title.game.title"))
                 .setFont(scoreFont.deriveFont(18.0f))
@@ -79,7 +91,7 @@ public class TitleScene extends GameApp.AbstractScene {
         mo.add(new GameApp.Behavior<GameApp.MenuObject>() {
             @Override
             public void onSelected(GameApp app, GameApp.MenuObject e) {
-                int vio = (int) ((GameApp.ItemObject) e.child.get(e.getItemIndex())).getValue();
+                int vio = (int) e.getSelectedValue();
                 if (vio == 1) {
                     app.activateScene("play");
                 } else if (vio == 2) {
@@ -89,4 +101,55 @@ public class TitleScene extends GameApp.AbstractScene {
         });
         add((GameApp.Entity) mo);
     }
+
+    /**
+     * Create the leaves falling over the forest: they are moved by the scene {@link GameApp.EcsWorld}, and put
+     * back at the top of the play area once they leave it by the bottom.
+     *
+     * @param app the parent application.
+     */
+    private void createLeaves(GameApp app) {
+        Random random = app.getRandom();
+        Rectangle2D playArea = app.getWorld().playArea;
+        Color[] colors = {new Color(0xC8, 0x6A, 0x1E), new Color(0xA3, 0x3B, 0x20), new Color(0x8C, 0x9A, 0x2C)};
+        for (int i = 0; i < LEAVES_COUNT; i++) {
+            GameApp.Entity leaf = new GameApp.GameObject("leaf_" + i)
+                    .setNature(GameApp.GameObjectNature.ELLIPSE)
+                    .setFillColor(colors[i % colors.length])
+                    .setSize(3, 2)
+                    .setPosition(playArea.getWidth() * random.nextDouble(), playArea.getHeight() * random.nextDouble())
+                    .setVelocity(0.01 - random.nextDouble() * 0.02, 0.01 + random.nextDouble() * 0.02)
+                    .setCollisionFilter(0, 0);
+            add(leaf);
+            getEcs().spawn(leaf);
+        }
+        // the systems are kept by the ECS when the scene is reset: add it only once.
+        if (!leavesAdded) {
+            getEcs().add(this::wrapLeaves);
+            leavesAdded = true;
+        }
+    }
+
+    /**
+     * The ECS system putting back at the top of the play area the leaves having left it by the bottom.
+     *
+     * @param app     the parent application.
+     * @param world   the scene {@link GameApp.EcsWorld}.
+     * @param elapsed the elapsed time since previous call.
+     */
+    private void wrapLeaves(GameApp app, GameApp.EcsWorld world, double elapsed) {
+        Rectangle2D playArea = app.getWorld().playArea;
+        List<GameApp.Archetype> archetypes = world.query(GameApp.ComponentType.POSITION).getArchetypes();
+        for (int a = 0; a < archetypes.size(); a++) {
+            GameApp.Archetype arch = archetypes.get(a);
+            double[] x = arch.column(GameApp.ComponentType.POSITION, 0);
+            double[] y = arch.column(GameApp.ComponentType.POSITION, 1);
+            for (int i = 0; i < arch.size(); i++) {
+                if (y[i] > playArea.getHeight()) {
+                    y[i] = -2;
+                    x[i] = playArea.getWidth() * app.getRandom().nextDouble();
+                }
+            }
+        }
+    }
 }
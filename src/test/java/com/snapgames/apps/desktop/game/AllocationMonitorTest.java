@@ -0,0 +1,49 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.AllocationMonitor} measures of the game thread allocated bytes.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class AllocationMonitorTest {
+
+    static byte[] sink;
+
+    @Test
+    public void aDisabledMonitorMeasuresNothing() {
+        GameApp.AllocationMonitor am = new GameApp.AllocationMonitor();
+        am.init(new Properties());
+        assertFalse(am.isEnabled());
+        assertEquals(0, am.begin());
+    }
+
+    @Test
+    public void theFrameAllocationIsMeasured() {
+        Properties config = new Properties();
+        config.setProperty("app.debug.alloc.enabled", "true");
+        GameApp.AllocationMonitor am = new GameApp.AllocationMonitor();
+        am.init(config);
+        assertTrue(am.isEnabled());
+
+        Map<String, Object> stats = new HashMap<>();
+        am.startFrame();
+        int phase = am.phase("test");
+        long start = am.begin();
+        sink = new byte[1024 * 1024];
+        am.end(phase, start);
+        am.endFrame(stats);
+
+        assertTrue(am.getLastFrameBytes() >= 1024 * 1024);
+        assertEquals(am.getLastFrameBytes(), stats.get("alloc"));
+        assertEquals(phase, am.phase("test"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.AnimationPlayer} cursors of the {@link GameApp.AnimatedObject}'s sharing a clip.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class AnimationPlayerTest {
+
+    private GameApp.AnimationPlayer player;
+    private final GameApp.AnimatedObject[] sprites = new GameApp.AnimatedObject[3];
+
+    @BeforeEach
+    public void setup() {
+        BufferedImage[] images = new BufferedImage[3];
+        for (int i = 0; i < images.length; i++) {
+            images[i] = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        }
+        GameApp.Animations animations = new GameApp.Animations()
+                .add("walk", new GameApp.AnimationFrames(images, new int[]{100, 100, 100}, true));
+        player = new GameApp.AnimationPlayer();
+        double[] speeds = {1.0, 1.5, 2.5};
+        for (int i = 0; i < sprites.length; i++) {
+            sprites[i] = new GameApp.AnimatedObject("sprite_" + i);
+            sprites[i].setAnimations(animations).setSpeed(speeds[i]).play("walk");
+            sprites[i].setActive(true);
+            player.add(sprites[i]);
+        }
+        // 100, 150 and 250 ms into the clip.
+        player.update(100);
+    }
+
+    @Test
+    public void theCursorsAdvanceAtTheSpeedOfTheirEntity() {
+        assertEquals(1, sprites[0].getFrameIndex());
+        assertEquals(1, sprites[1].getFrameIndex());
+        assertEquals(2, sprites[2].getFrameIndex());
+
+        // the time left over at the end of the clip is kept: 310 ms loops to 10 ms.
+        player.update(24);
+        assertEquals(0, sprites[2].getFrameIndex());
+    }
+
+    @Test
+    public void theLastCursorTakesThePlaceOfTheRemovedOne() {
+        player.remove(sprites[0]);
+        assertEquals(2, player.size());
+        assertEquals(-1, sprites[0].cursor);
+        assertNull(sprites[0].player);
+        assertEquals(0, sprites[2].cursor);
+        // the moved cursor keeps its playback state.
+        assertEquals(2, sprites[2].getFrameIndex());
+        assertEquals(1, sprites[1].getFrameIndex());
+
+        // 240 and 400 ms: the moved cursor looped to 100 ms.
+        player.update(60);
+        assertEquals(2, sprites[1].getFrameIndex());
+        assertEquals(1, sprites[2].getFrameIndex());
+
+        // removing twice, then the last cursor.
+        player.remove(sprites[0]);
+        assertEquals(2, player.size());
+        player.remove(sprites[1]);
+        assertEquals(1, player.size());
+        assertEquals(0, sprites[2].cursor);
+    }
+}
@@ -0,0 +1,69 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the typed {@link GameApp.AttributeKey} attributes, and the String keyed slow path.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class AttributeKeyTest {
+
+    private static final GameApp.AttributeKey<Integer> ENERGY = GameApp.AttributeKey.of("test.energy", Integer.class);
+    private static final GameApp.AttributeKey<String> LABEL = GameApp.AttributeKey.of("test.label", String.class);
+
+    @Test
+    public void typedAttributesAreStoredAndReset() {
+        GameApp.Entity e = new GameApp.GameObject("a");
+        e.setInt(ENERGY, 12);
+        e.set(LABEL, "hero");
+        assertEquals(12, e.getInt(ENERGY, 0));
+        assertEquals(12, e.get(ENERGY, 0));
+        assertEquals("hero", e.get(LABEL, null));
+
+        e.reset();
+        assertFalse(e.has(ENERGY));
+        assertEquals("none", e.get(LABEL, "none"));
+    }
+
+    @Test
+    public void theStringSlowPathSharesTheTypedSlots() {
+        GameApp.Entity e = new GameApp.GameObject("a");
+        e.setAttribute("test.energy", 5);
+        assertEquals(5, e.getInt(ENERGY, 0));
+        e.setAttribute("test.energy", 7.0);
+        assertEquals(7, (int) e.getAttribute("test.energy", 0));
+
+        e.setAttribute("test.unknown", "free");
+        assertEquals("free", e.getAttribute("test.unknown", null));
+        e.removeAttribute("test.unknown");
+        assertFalse(e.isAttribute("test.unknown"));
+    }
+
+    @Test
+    public void aValueNotMatchingTheRegisteredTypeIsRejected() {
+        GameApp.Entity e = new GameApp.GameObject("a");
+        IllegalArgumentException numeric = assertThrows(IllegalArgumentException.class,
+                () -> e.setAttribute("test.energy", "full"));
+        assertTrue(numeric.getMessage().contains("test.energy"));
+        assertThrows(IllegalArgumentException.class, () -> e.setAttribute("test.label", 3));
+        assertFalse(e.has(ENERGY));
+        assertFalse(e.has(LABEL));
+    }
+
+    @Test
+    public void aNameCanNotBeRegisteredWithAnotherType() {
+        assertSame(ENERGY, GameApp.AttributeKey.of("test.energy", Integer.class));
+        assertThrows(IllegalArgumentException.class, () -> GameApp.AttributeKey.of("test.energy", Double.class));
+    }
+
+    @Test
+    public void theRendererRecordsItsPluginClass() {
+        GameApp.Entity e = new GameApp.GameObject("a");
+        e.set(GameApp.Entity.RENDERED_BY, GameApp.GameObjectRendererPlugin.class);
+        assertEquals(GameApp.GameObjectRendererPlugin.class, e.get(GameApp.Entity.RENDERED_BY, null));
+    }
+}
@@ -0,0 +1,68 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the update behaviors are processed right after their own entity.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class BehaviorUpdateOrderTest {
+
+    private GameApp.GameObject tracked(String name, List<String> calls) {
+        GameApp.GameObject go = new GameApp.GameObject(name) {
+            @Override
+            public void update(GameApp app, double elapsed) {
+                calls.add(getName() + ".update");
+            }
+        };
+        go.add(new GameApp.Behavior<GameApp.Entity>() {
+            @Override
+            public void update(GameApp app, GameApp.Entity e, double elapsed) {
+                calls.add(e.getName() + ".behavior");
+            }
+        });
+        return go;
+    }
+
+    @Test
+    public void aBehaviorIsUpdatedRightAfterItsEntity() {
+        GameApp app = GameTestSupport.createApp();
+        List<String> calls = new ArrayList<>();
+        GameTestSupport.activate(app, s -> {
+            s.add(tracked("a", calls));
+            s.add(tracked("b", calls));
+            s.add(tracked("c", calls));
+        });
+        calls.clear();
+        app.update(16);
+
+        assertEquals(6, calls.size());
+        for (int i = 0; i < calls.size(); i += 2) {
+            String name = calls.get(i).substring(0, 1);
+            assertEquals(name + ".update", calls.get(i));
+            assertEquals(name + ".behavior", calls.get(i + 1));
+        }
+    }
+
+    @Test
+    public void theBehaviorsOfAChildAreUpdatedAfterTheChild() {
+        GameApp app = GameTestSupport.createApp();
+        List<String> calls = new ArrayList<>();
+        GameTestSupport.activate(app, s -> {
+            GameApp.GameObject parent = tracked("p", calls);
+            parent.add(tracked("q", calls));
+            s.add(parent);
+        });
+        calls.clear();
+        app.update(16);
+
+        assertEquals(List.of("p.update", "p.behavior", "q.update", "q.behavior"), calls);
+    }
+}
@@ -0,0 +1,82 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the static, kinematic and dynamic {@link GameApp.BodyType}'s in the physics update and the
+ * {@link GameApp.SceneIndex}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class BodyTypeTest {
+
+    private GameApp app;
+    private GameTestSupport.TestScene scene;
+    private final GameApp.GameObject[] bodies = new GameApp.GameObject[3];
+
+    private static GameApp.GameObject body(String name, double x, double y, GameApp.BodyType type) {
+        GameApp.GameObject go = new GameApp.GameObject(name);
+        go.setPosition(x, y);
+        go.setSize(8, 8);
+        go.setBodyType(type);
+        return go;
+    }
+
+    @BeforeEach
+    public void setup() {
+        app = GameTestSupport.createApp();
+        scene = GameTestSupport.activate(app, s -> {
+            bodies[0] = body("static", 100, 100, GameApp.BodyType.STATIC);
+            bodies[1] = body("kinematic", 300, 100, GameApp.BodyType.KINEMATIC);
+            bodies[2] = body("dynamic", 500, 100, GameApp.BodyType.DYNAMIC);
+            for (GameApp.GameObject b : bodies) {
+                s.add(b);
+            }
+        });
+    }
+
+    private boolean isStatic(GameApp.Entity e) {
+        return Arrays.stream(scene.getIndex().getStatic()).anyMatch(s -> s == e);
+    }
+
+    @Test
+    public void onlyTheDynamicBodiesAreIntegrated() {
+        bodies[0].setVelocity(0.1, 0);
+        bodies[1].setVelocity(0.1, 0);
+        app.update(16);
+
+        assertEquals(100, bodies[0].x, "a static body is never moved");
+        assertEquals(100, bodies[0].y);
+        assertEquals(301.6, bodies[1].x, 1e-9, "a kinematic body only follows its velocity");
+        assertEquals(100, bodies[1].y, "no gravity on a kinematic body");
+        assertTrue(bodies[2].y > 100, "the gravity pulls the dynamic body");
+    }
+
+    @Test
+    public void aKinematicBodyIsNotKeptInThePlayArea() {
+        bodies[1].setPosition(-50, 100);
+        bodies[1].setVelocity(-0.1, 0);
+        app.update(16);
+        assertTrue(bodies[1].x < -50);
+    }
+
+    @Test
+    public void theStaticBodiesAreIndexedApart() {
+        assertTrue(isStatic(bodies[0]));
+        assertFalse(isStatic(bodies[2]));
+
+        bodies[2].setBodyType(GameApp.BodyType.STATIC);
+        bodies[0].setBodyType(GameApp.BodyType.DYNAMIC);
+        assertTrue(isStatic(bodies[2]));
+        assertFalse(isStatic(bodies[0]));
+
+        scene.remove(bodies[2]);
+        assertFalse(isStatic(bodies[2]));
+    }
+}
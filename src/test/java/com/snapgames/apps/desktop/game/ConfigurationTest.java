@@ -0,0 +1,120 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the live configuration changes validation and reporting of {@link GameApp#applyConfiguration(Properties)}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class ConfigurationTest {
+
+    @TempDir
+    Path tmp;
+
+    private GameApp app;
+    private Path log;
+
+    @BeforeEach
+    public void setup() {
+        app = GameTestSupport.createApp();
+        log = tmp.resolve("config.log");
+        Properties config = new Properties();
+        config.setProperty("app.debug.filter", "INFO,WARN,ERROR");
+        config.setProperty("app.log.console", "false");
+        config.setProperty("app.log.file", log.toString());
+        GameApp.Logger.configure(config);
+    }
+
+    @AfterEach
+    public void restore() {
+        Properties config = new Properties();
+        config.setProperty("app.log.console", "false");
+        GameApp.Logger.configure(config);
+    }
+
+    private Properties updated(String... keyValues) throws ReflectiveOperationException {
+        Properties p = new Properties();
+        p.putAll(config());
+        for (int i = 0; i < keyValues.length; i += 2) {
+            p.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return p;
+    }
+
+    private Properties config() throws ReflectiveOperationException {
+        Field f = GameApp.class.getDeclaredField("config");
+        f.setAccessible(true);
+        return (Properties) f.get(app);
+    }
+
+    private int field(String name) throws ReflectiveOperationException {
+        Field f = GameApp.class.getDeclaredField(name);
+        f.setAccessible(true);
+        return f.getInt(app);
+    }
+
+    private String read() throws IOException {
+        GameApp.Logger.flush();
+        return Files.readString(log);
+    }
+
+    private static int count(String text, String part) {
+        int n = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            n++;
+        }
+        return n;
+    }
+
+    @Test
+    public void validValuesAreApplied() throws Exception {
+        app.applyConfiguration(updated("app.update.ups", "30", "app.render.fps", "25"));
+        assertEquals(30, field("UPS"));
+        assertEquals(25, field("FPS"));
+        assertEquals("30", config().getProperty("app.update.ups"));
+        assertTrue(read().contains("Live changes applied"));
+    }
+
+    @Test
+    public void outOfRangeValuesAreRejected() throws Exception {
+        int ups = field("UPS");
+        app.applyConfiguration(updated("app.update.ups", "0"));
+        app.applyConfiguration(updated("app.update.ups", "-5"));
+        app.applyConfiguration(updated("app.render.buffer.width", "0"));
+        app.applyConfiguration(updated("app.debug.level", "12"));
+        app.applyConfiguration(updated("app.render.fps", "sixty"));
+        assertEquals(ups, field("UPS"));
+        assertNotEquals("0", config().getProperty("app.render.buffer.width"));
+        String text = read();
+        assertEquals(5, count(text, "rejected"));
+        assertFalse(text.contains("Live changes applied"));
+    }
+
+    @Test
+    public void ignoredAndRejectedChangesAreReportedOnce() throws Exception {
+        Properties p = updated("app.world.play.area.width", "2000", "app.update.ups", "0");
+        app.applyConfiguration(p);
+        app.applyConfiguration(p);
+        app.applyConfiguration(p);
+        String text = read();
+        assertEquals(1, count(text, "ignored: app.world.play.area.width"));
+        assertEquals(1, count(text, "rejected"));
+
+        // a new value is reported again.
+        app.applyConfiguration(updated("app.world.play.area.width", "3000", "app.update.ups", "0"));
+        assertEquals(2, count(read(), "ignored: app.world.play.area.width"));
+    }
+}
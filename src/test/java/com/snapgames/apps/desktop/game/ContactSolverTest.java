@@ -0,0 +1,112 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.ContactSolver} broad phase, penetration correction and contacts cache.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class ContactSolverTest {
+
+    /**
+     * Record the contact events of its entity.
+     */
+    public static class Recorder implements GameApp.Behavior<GameApp.Entity> {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onContactBegin(GameApp app, GameApp.Entity e, GameApp.Contact c) {
+            events.add("begin:" + c.other(e).getName());
+        }
+
+        @Override
+        public void onContactEnd(GameApp app, GameApp.Entity e, GameApp.Contact c) {
+            events.add("end:" + c.other(e).getName());
+        }
+    }
+
+    private static GameApp.GameObject box(String name, double x, double y) {
+        GameApp.GameObject go = new GameApp.GameObject(name);
+        go.setPosition(x, y);
+        go.setSize(10, 10);
+        return go;
+    }
+
+    private static List<GameApp.Entity> bodies(GameApp.ContactSolver solver) throws ReflectiveOperationException {
+        Field f = GameApp.ContactSolver.class.getDeclaredField("bodies");
+        f.setAccessible(true);
+        return Arrays.asList((GameApp.Entity[]) f.get(solver));
+    }
+
+    @Test
+    public void theTileMapIsLeftOutOfTheSweep() throws ReflectiveOperationException {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.TileMap[] level = new GameApp.TileMap[1];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            level[0] = new GameApp.TileMap("level");
+            level[0].setMapSize(50, 37).setSolid(1).setTile(10, 10, (short) 1);
+            s.add(level[0]);
+            s.add(box("far", 400, 400));
+            s.add(box("onTile", 158, 158));
+        });
+        app.update(16);
+
+        GameApp.ContactSolver solver = scene.getContacts();
+        assertFalse(bodies(solver).contains(level[0]));
+        // only the body touching a solid cell is in contact with the level.
+        assertEquals(1, solver.getContactCount());
+    }
+
+    @Test
+    public void theCorrectionKeepsTheBodiesInThePlayArea() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.GameObject[] boxes = new GameApp.GameObject[2];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            boxes[0] = box("a", 0, 100);
+            boxes[1] = box("b", 2, 100);
+            s.add(boxes[0]);
+            s.add(boxes[1]);
+        });
+        app.getWorld().gravity = 0;
+        app.update(16);
+
+        assertTrue(scene.getContacts().getContactCount() > 0);
+        assertTrue(boxes[0].x >= 0, "the body pushed out of the play area is brought back");
+        assertTrue(boxes[1].x >= 0);
+    }
+
+    @Test
+    public void theContactsOfARemovedEntityEndWithIt() {
+        GameApp app = GameTestSupport.createApp();
+        Recorder recorder = new Recorder();
+        GameApp.GameObject[] boxes = new GameApp.GameObject[2];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            boxes[0] = box("a", 100, 100);
+            boxes[0].add(recorder);
+            boxes[1] = box("b", 105, 100);
+            s.add(boxes[0]);
+            s.add(boxes[1]);
+        });
+        app.getWorld().gravity = 0;
+        app.update(16);
+        assertEquals(List.of("begin:b"), recorder.events);
+
+        scene.remove(boxes[1]);
+        assertEquals(List.of("begin:b", "end:b"), recorder.events);
+        assertEquals(0, scene.getContacts().getContactCount());
+
+        // the removed body is reset by its pool, no late event is delivered.
+        boxes[1].reset();
+        app.update(16);
+        assertEquals(List.of("begin:b", "end:b"), recorder.events);
+    }
+}
@@ -0,0 +1,137 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.EcsWorld} spawn, destroy and movement, and the release of the ECS entities
+ * when their {@link GameApp.Entity} view leaves the scene.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class EcsWorldTest {
+
+    private GameApp.GameObject body(String name) {
+        GameApp.GameObject go = new GameApp.GameObject(name);
+        go.setPosition(10, 20);
+        go.setSize(4, 6);
+        go.setVelocity(1, 2);
+        go.setAcceleration(0.5, 0);
+        go.setMass(3);
+        return go;
+    }
+
+    @Test
+    public void spawnCopiesTheEntityStateAndLinksItsView() {
+        GameApp.EcsWorld world = new GameApp.EcsWorld();
+        GameApp.GameObject go = body("a");
+        int id = world.spawn(go);
+
+        assertEquals(id, go.ecsId);
+        assertSame(go, world.getView(id));
+        assertEquals(1, world.size());
+        assertEquals(10, world.get(id, GameApp.ComponentType.POSITION, 0));
+        assertEquals(20, world.get(id, GameApp.ComponentType.POSITION, 1));
+        assertEquals(2, world.get(id, GameApp.ComponentType.VELOCITY, 1));
+        assertEquals(0.5, world.get(id, GameApp.ComponentType.ACCELERATION, 0));
+        assertEquals(6, world.get(id, GameApp.ComponentType.SIZE, 1));
+        assertEquals(3, world.get(id, GameApp.ComponentType.MASS, 0));
+    }
+
+    @Test
+    public void theMovementSystemStepMovesTheViews() {
+        GameApp.EcsWorld world = new GameApp.EcsWorld();
+        GameApp.GameObject go = body("a");
+        int id = world.spawn(go);
+        int still = world.create(GameApp.ComponentType.POSITION, GameApp.ComponentType.VELOCITY);
+        world.set(still, GameApp.ComponentType.POSITION, 5, 5);
+
+        world.update(null, 2);
+
+        // velocity first updated by the acceleration, then the position by the velocity.
+        assertEquals(2, world.get(id, GameApp.ComponentType.VELOCITY, 0));
+        assertEquals(14, go.x);
+        assertEquals(24, go.y);
+        assertEquals(5, world.get(still, GameApp.ComponentType.POSITION, 0));
+    }
+
+    @Test
+    public void destroyUnlinksTheViewAndRecyclesTheId() {
+        GameApp.EcsWorld world = new GameApp.EcsWorld();
+        GameApp.GameObject a = body("a");
+        GameApp.GameObject b = body("b");
+        int ida = world.spawn(a);
+        int idb = world.spawn(b);
+        b.setPosition(99, 99);
+        world.destroy(ida);
+
+        assertEquals(-1, a.ecsId);
+        assertNull(world.getView(ida));
+        assertEquals(1, world.size());
+        // the moved last row keeps its own values.
+        assertEquals(10, world.get(idb, GameApp.ComponentType.POSITION, 0));
+
+        world.update(null, 1);
+        assertEquals(10, a.x);
+        assertEquals(11.5, b.x);
+        assertEquals(ida, world.spawn(body("c")));
+    }
+
+    @Test
+    public void removingAnEntityFromTheSceneReleasesItsEcsEntity() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.GameObject[] bodies = new GameApp.GameObject[2];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            bodies[0] = body("a");
+            bodies[1] = body("b");
+            s.add(bodies[0]);
+            s.add(bodies[1]);
+            s.getEcs().spawn(bodies[0]);
+            s.getEcs().spawn(bodies[1]);
+        });
+        assertEquals(2, scene.getEcs().size());
+
+        scene.remove(bodies[0]);
+        assertEquals(-1, bodies[0].ecsId);
+        assertEquals(1, scene.getEcs().size());
+
+        scene.getCommands().destroy(bodies[1]);
+        scene.getCommands().apply(app, scene);
+        assertEquals(-1, bodies[1].ecsId);
+        assertEquals(0, scene.getEcs().size());
+    }
+
+    @Test
+    public void aPooledEntityIsMovedByThePhysicsAgain() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.EntityPool<GameApp.GameObject> pool = new GameApp.EntityPool<>(app, "test", () -> body("pooled"));
+        GameApp.GameObject[] holder = new GameApp.GameObject[1];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            holder[0] = pool.acquire();
+            s.add(holder[0]);
+            s.getEcs().spawn(holder[0]);
+        });
+        scene.getCommands().destroy(holder[0], pool);
+        scene.getCommands().apply(app, scene);
+        assertEquals(0, scene.getEcs().size());
+
+        GameApp.GameObject again = pool.acquire();
+        assertSame(holder[0], again);
+        assertEquals(-1, again.ecsId);
+        again.setPosition(50, 50);
+        again.setAcceleration(0.5, 0);
+        scene.add(again);
+        app.update(16);
+        assertTrue(again.x > 50, "the recycled entity is moved by the physics");
+    }
+
+    @Test
+    public void resetClearsTheEcsLink() {
+        GameApp.GameObject go = body("a");
+        new GameApp.EcsWorld().spawn(go);
+        go.reset();
+        assertEquals(-1, go.ecsId);
+    }
+}
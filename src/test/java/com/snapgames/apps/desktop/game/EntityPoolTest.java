@@ -0,0 +1,132 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.EntityPool} recycling, and the single release of a twice destroyed entity.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class EntityPoolTest {
+
+    @Test
+    public void aReleasedEntityIsRecycled() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.EntityPool<GameApp.GameObject> pool = new GameApp.EntityPool<>(app, "test",
+                () -> new GameApp.GameObject("pooled"));
+        GameApp.GameObject a = pool.acquire();
+        a.setPosition(30, 40);
+        assertTrue(pool.release(a));
+        assertEquals(0, a.x);
+        assertSame(a, pool.acquire());
+        assertEquals(1, pool.getCreated());
+        assertEquals(1, pool.getInUse());
+    }
+
+    @Test
+    public void anEntityIsReleasedOnlyOnce() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.EntityPool<GameApp.GameObject> pool = new GameApp.EntityPool<>(app, "test",
+                () -> new GameApp.GameObject("pooled"));
+        GameApp.GameObject a = pool.acquire();
+        assertTrue(pool.release(a));
+        assertFalse(pool.release(a));
+        assertEquals(1, pool.getAvailable());
+        assertEquals(0, pool.getInUse());
+
+        GameApp.GameObject first = pool.acquire();
+        GameApp.GameObject second = pool.acquire();
+        assertNotSame(first, second, "an entity is never handed out to two owners");
+    }
+
+    @Test
+    public void theEntitiesInUseAreStillCountedAfterAClear() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.EntityPool<GameApp.GameObject> pool = new GameApp.EntityPool<>(app, "test",
+                () -> new GameApp.GameObject("pooled"));
+        pool.prefill(2);
+        GameApp.GameObject a = pool.acquire();
+        pool.clear();
+        assertEquals(0, pool.getAvailable());
+        assertEquals(1, pool.getInUse());
+
+        assertTrue(pool.release(a));
+        assertEquals(0, pool.getInUse());
+    }
+
+    @Test
+    public void aForeignEntityIsRecycledWithoutChangingTheInUseCount() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.EntityPool<GameApp.GameObject> pool = new GameApp.EntityPool<>(app, "test",
+                () -> new GameApp.GameObject("pooled"));
+        GameApp.GameObject a = pool.acquire();
+        GameApp.GameObject foreign = new GameApp.GameObject("foreign");
+        assertTrue(pool.release(foreign));
+        assertEquals(1, pool.getInUse());
+        assertEquals(1, pool.getAvailable());
+
+        assertTrue(pool.release(a));
+        assertEquals(0, pool.getInUse());
+    }
+
+    @Test
+    public void aResetEntityLeavesTheActiveIndexOfItsScene() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.GameObject[] holder = new GameApp.GameObject[1];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            holder[0] = new GameApp.GameObject("a");
+            s.add(holder[0]);
+        });
+        assertTrue(Arrays.stream(scene.getIndex().getActive()).anyMatch(e -> e == holder[0]));
+        holder[0].reset();
+        assertFalse(holder[0].isActive());
+        assertFalse(Arrays.stream(scene.getIndex().getActive()).anyMatch(e -> e == holder[0]));
+    }
+
+    @Test
+    public void destroyingTwiceInOneTickReleasesOnce() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.EntityPool<GameApp.GameObject> pool = new GameApp.EntityPool<>(app, "test",
+                () -> new GameApp.GameObject("pooled"));
+        int[] removed = new int[1];
+        GameApp.GameObject[] holder = new GameApp.GameObject[1];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            holder[0] = pool.acquire();
+            holder[0].add(new GameApp.Behavior<GameApp.Entity>() {
+                @Override
+                public void onRemove(GameApp app, GameApp.Entity e) {
+                    removed[0]++;
+                }
+            });
+            s.add(holder[0]);
+        });
+        scene.getCommands().destroy(holder[0], pool);
+        scene.getCommands().destroy(holder[0], pool);
+        scene.getCommands().apply(app, scene);
+
+        assertEquals(1, removed[0]);
+        assertEquals(1, pool.getAvailable());
+        assertEquals(1, pool.getReleased());
+        assertEquals(0, pool.getInUse());
+    }
+
+    @Test
+    public void getByClassReusesItsListUntilAChange() {
+        GameApp.SceneIndex index = new GameApp.SceneIndex();
+        GameApp.GameObject a = new GameApp.GameObject("a");
+        index.add(a);
+        List<GameApp.GameObject> first = index.getByClass(GameApp.GameObject.class);
+        assertSame(first, index.getByClass(GameApp.GameObject.class));
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new GameApp.GameObject("b")));
+
+        index.add(new GameApp.GameObject("b"));
+        assertEquals(2, index.getByClass(GameApp.GameObject.class).size());
+        assertEquals(1, first.size(), "a previous list is not modified");
+    }
+}
@@ -0,0 +1,88 @@
+package com.snapgames.apps.desktop.game;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+/**
+ * Test support: create an initialized {@link GameApp} (without display) and a test {@link GameApp.Scene}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public final class GameTestSupport {
+
+    private GameTestSupport() {
+    }
+
+    /**
+     * A test scene, its entities being created by the given creator.
+     */
+    public static class TestScene extends GameApp.AbstractScene {
+        private final Consumer<TestScene> creator;
+
+        public TestScene(GameApp app, String name, Consumer<TestScene> creator) {
+            super(app, name);
+            this.creator = creator;
+        }
+
+        @Override
+        public void create(GameApp app) {
+            creator.accept(this);
+        }
+
+        @Override
+        public void activate(GameApp app) {
+        }
+
+        @Override
+        public void deactivate(GameApp app) {
+        }
+
+        @Override
+        public void dispose(GameApp app) {
+        }
+    }
+
+    /**
+     * Create a {@link GameApp} initialized from the test configuration, and its arguments.
+     *
+     * @param args the command line arguments (e.g. <code>ups=60</code>).
+     * @return the initialized {@link GameApp}.
+     */
+    public static GameApp createApp(String... args) {
+        String[] all = new String[args.length + 1];
+        all[0] = "config=/test-config.properties";
+        System.arraycopy(args, 0, all, 1, args.length);
+        GameApp app = new GameApp();
+        invoke(app, "init", new Class<?>[]{String[].class}, (Object) all);
+        GameApp.Logger.setLevels("ERROR");
+        return app;
+    }
+
+    /**
+     * Add a test scene to the {@link GameApp} and activate it.
+     *
+     * @param app     the parent {@link GameApp}.
+     * @param creator the creator of the scene entities.
+     * @return the activated scene.
+     */
+    public static TestScene activate(GameApp app, Consumer<TestScene> creator) {
+        TestScene scene = new TestScene(app, "test", creator);
+        invoke(app, "add", new Class<?>[]{GameApp.Scene.class}, scene);
+        app.activateScene("test");
+        return scene;
+    }
+
+    private static Object invoke(GameApp app, String name, Class<?>[] types, Object... args) {
+        try {
+            Method m = GameApp.class.getDeclaredMethod(name, types);
+            m.setAccessible(true);
+            return m.invoke(app, args);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
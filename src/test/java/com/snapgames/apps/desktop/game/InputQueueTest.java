@@ -0,0 +1,86 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.InputQueue} keeps the events order and only coalesces consecutive mouse moves.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class InputQueueTest {
+
+    private final Component source = new Canvas();
+
+    private MouseEvent mouse(int id, int x, int y) {
+        return new MouseEvent(source, id, 0, 0, x, y, 1, false, MouseEvent.BUTTON1);
+    }
+
+    private List<String> drain(GameApp.InputQueue queue) {
+        List<String> dispatched = new ArrayList<>();
+        queue.drain((int type, InputEvent event) -> {
+            if (event instanceof MouseEvent me) {
+                dispatched.add(type + "@" + me.getX() + "," + me.getY());
+            } else {
+                dispatched.add(type + ":" + ((KeyEvent) event).getKeyCode());
+            }
+        });
+        return dispatched;
+    }
+
+    @Test
+    public void consecutiveMouseMovesAreCoalesced() {
+        GameApp.InputQueue queue = new GameApp.InputQueue();
+        queue.offerMouseMove(mouse(MouseEvent.MOUSE_MOVED, 1, 1));
+        queue.offerMouseMove(mouse(MouseEvent.MOUSE_MOVED, 2, 2));
+        queue.offerMouseMove(mouse(MouseEvent.MOUSE_MOVED, 3, 3));
+        assertEquals(List.of(GameApp.InputQueue.MOUSE_MOVED + "@3,3"), drain(queue));
+        assertTrue(drain(queue).isEmpty());
+    }
+
+    @Test
+    public void aClickFollowedByAMoveIsDispatchedBeforeTheMove() {
+        GameApp.InputQueue queue = new GameApp.InputQueue();
+        queue.offerMouseMove(mouse(MouseEvent.MOUSE_MOVED, 10, 10));
+        queue.offer(GameApp.InputQueue.MOUSE_CLICKED, mouse(MouseEvent.MOUSE_CLICKED, 10, 10));
+        queue.offerMouseMove(mouse(MouseEvent.MOUSE_MOVED, 50, 50));
+        queue.offerMouseMove(mouse(MouseEvent.MOUSE_MOVED, 60, 60));
+        queue.offer(GameApp.InputQueue.KEY_PRESSED,
+                new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_A, 'a'));
+        assertEquals(List.of(
+                        GameApp.InputQueue.MOUSE_MOVED + "@10,10",
+                        GameApp.InputQueue.MOUSE_CLICKED + "@10,10",
+                        GameApp.InputQueue.MOUSE_MOVED + "@60,60",
+                        GameApp.InputQueue.KEY_PRESSED + ":" + KeyEvent.VK_A),
+                drain(queue));
+    }
+
+    @Test
+    public void aMoveAfterADispatchedMoveIsQueuedAgain() {
+        GameApp.InputQueue queue = new GameApp.InputQueue();
+        queue.offerMouseMove(mouse(MouseEvent.MOUSE_MOVED, 1, 1));
+        assertEquals(1, drain(queue).size());
+        queue.offerMouseMove(mouse(MouseEvent.MOUSE_MOVED, 2, 2));
+        assertEquals(List.of(GameApp.InputQueue.MOUSE_MOVED + "@2,2"), drain(queue));
+    }
+
+    @Test
+    public void aFullQueueDropsTheEvents() {
+        GameApp.InputQueue queue = new GameApp.InputQueue();
+        for (int i = 0; i < 300; i++) {
+            queue.offer(GameApp.InputQueue.KEY_PRESSED,
+                    new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_A, 'a'));
+        }
+        assertEquals(44, queue.getDropped());
+        assertEquals(256, drain(queue).size());
+    }
+}
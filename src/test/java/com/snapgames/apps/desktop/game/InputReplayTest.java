@@ -0,0 +1,171 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check that an {@link GameApp.InputRecorder} recording played back by {@link GameApp.InputReplay} gives the
+ * same game session.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class InputReplayTest {
+
+    private static final int TICKS = 40;
+
+    @TempDir
+    Path tmp;
+
+    /**
+     * What the game session did, tick after tick.
+     */
+    private static class Session {
+        final List<String> ticks = new ArrayList<>();
+        final List<String> mouse = new ArrayList<>();
+    }
+
+    private static Object field(GameApp app, String name) throws ReflectiveOperationException {
+        Field f = GameApp.class.getDeclaredField(name);
+        f.setAccessible(true);
+        return f.get(app);
+    }
+
+    private static void setField(GameApp app, String name, Object value) throws ReflectiveOperationException {
+        Field f = GameApp.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(app, value);
+    }
+
+    /**
+     * Create the app with the given configuration, and a scene where the player is moved by the arrow keys
+     * with a random step, and a button recording its mouse events.
+     */
+    private static GameApp session(Session session, String key, String value) throws ReflectiveOperationException {
+        GameApp app = GameTestSupport.createApp();
+        Properties config = (Properties) field(app, "config");
+        config.setProperty("app.random.seed", "1234");
+        config.setProperty("app.replay.render", "false");
+        config.setProperty(key, value);
+        Method init = GameApp.class.getDeclaredMethod("initInputRecording");
+        init.setAccessible(true);
+        init.invoke(app);
+        boolean[] keys = (boolean[]) field(app, "keys");
+
+        GameTestSupport.activate(app, s -> {
+            GameApp.GameObject player = new GameApp.GameObject("player");
+            player.setPosition(100, 100);
+            player.setSize(8, 8);
+            player.add(new GameApp.Behavior<>() {
+                @Override
+                public void input(GameApp app, GameApp.Entity e) {
+                    if (app.isKeyPressed(KeyEvent.VK_RIGHT)) {
+                        e.x += 1 + app.getRandom().nextInt(4);
+                    }
+                    if (app.isKeyPressed(KeyEvent.VK_DOWN)) {
+                        e.y += 1 + app.getRandom().nextInt(4);
+                    }
+                }
+
+                @Override
+                public void update(GameApp app, GameApp.Entity e, double elapsed) {
+                    session.ticks.add(e.x + "," + e.y + ":" + app.getRandom().nextLong()
+                            + ":" + Arrays.hashCode(keys));
+                }
+            });
+            s.add(player);
+
+            GameApp.Button button = new GameApp.Button("button");
+            button.setPosition(10, 10);
+            button.setSize(40, 20);
+            button.add(new GameApp.Behavior<>() {
+                @Override
+                public void onMousePressed(GameApp app, GameApp.Entity e, double x, double y, int buttonId) {
+                    session.mouse.add("pressed:" + x + "," + y + ":" + buttonId);
+                }
+
+                @Override
+                public void onMouseReleased(GameApp app, GameApp.Entity e, double x, double y, int buttonId) {
+                    session.mouse.add("released:" + x + "," + y + ":" + buttonId);
+                }
+
+                @Override
+                public void onMouseClick(GameApp app, GameApp.Entity e, double x, double y, int buttonId) {
+                    session.mouse.add("clicked:" + x + "," + y + ":" + buttonId);
+                }
+            });
+            s.add((GameApp.Entity) button);
+        });
+        return app;
+    }
+
+    private static KeyEvent key(int id, int keyCode) {
+        return new KeyEvent(new Canvas(), id, 0, 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+    }
+
+    private static MouseEvent mouse(int id) {
+        return new MouseEvent(new Canvas(), id, 0, 0, 0, 0, 1, false, MouseEvent.BUTTON1);
+    }
+
+    private void record(GameApp app, int tick) throws ReflectiveOperationException {
+        switch (tick) {
+            case 2 -> app.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_RIGHT));
+            case 6 -> {
+                setField(app, "mouseX", 20.0);
+                setField(app, "mouseY", 15.0);
+                app.mousePressed(mouse(MouseEvent.MOUSE_PRESSED));
+            }
+            case 7 -> {
+                app.mouseReleased(mouse(MouseEvent.MOUSE_RELEASED));
+                app.mouseClicked(mouse(MouseEvent.MOUSE_CLICKED));
+            }
+            case 10 -> app.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_DOWN));
+            case 20 -> app.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_RIGHT));
+            case 30 -> app.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_DOWN));
+            default -> {
+                // no input during this tick.
+            }
+        }
+    }
+
+    @Test
+    public void aReplayedRecordingGivesTheSameSession() throws ReflectiveOperationException {
+        Path file = tmp.resolve("session.rec");
+
+        Session recorded = new Session();
+        GameApp recorder = session(recorded, "app.record.file", file.toString());
+        GameApp.InputRecorder inputRecorder = (GameApp.InputRecorder) field(recorder, "inputRecorder");
+        boolean[] keys = (boolean[]) field(recorder, "keys");
+        for (int tick = 1; tick <= TICKS; tick++) {
+            record(recorder, tick);
+            recorder.input();
+            recorder.update(16);
+            inputRecorder.endTick(16, keys);
+        }
+        inputRecorder.close();
+        assertEquals(List.of("pressed:20.0,15.0:1", "released:20.0,15.0:1", "clicked:20.0,15.0:1"),
+                recorded.mouse);
+
+        Session replayed = new Session();
+        GameApp replay = session(replayed, "app.replay.file", file.toString());
+        replay.loop();
+
+        assertEquals(TICKS, replayed.ticks.size());
+        assertEquals(recorded.ticks, replayed.ticks);
+        assertEquals(recorded.mouse, replayed.mouse);
+        assertArrayEquals(keys, (boolean[]) field(replay, "keys"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the key events dispatch to the entities and the scene behaviors.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class KeyEventDispatchTest {
+
+    @Test
+    public void theSceneBehaviorsOnlyReceiveTheKeyReleasedEvent() {
+        GameApp app = GameTestSupport.createApp();
+        List<String> received = new ArrayList<>();
+        GameTestSupport.activate(app, s -> {
+            s.add(new GameApp.GameObject("player").add(new GameApp.Behavior<GameApp.Entity>() {
+                @Override
+                public void onKeyPressed(GameApp app, GameApp.Entity e, KeyEvent k) {
+                    received.add("pressed:" + e.getName());
+                }
+
+                @Override
+                public void onKeyReleased(GameApp app, GameApp.Entity e, KeyEvent k) {
+                    received.add("released:" + e.getName());
+                }
+            }));
+            s.add(new GameApp.Behavior<GameApp.Entity>() {
+                @Override
+                public void onKeyPressed(GameApp app, GameApp.Entity e, KeyEvent k) {
+                    received.add("pressed:scene");
+                }
+
+                @Override
+                public void onKeyReleased(GameApp app, GameApp.Entity e, KeyEvent k) {
+                    received.add("released:" + (e == null ? "scene" : e.getName()));
+                }
+            });
+        });
+        Component source = new Canvas();
+        app.keyPressed(new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_A, 'a'));
+        app.keyReleased(new KeyEvent(source, KeyEvent.KEY_RELEASED, 0, 0, KeyEvent.VK_A, 'a'));
+        app.input();
+
+        assertEquals(List.of("pressed:player", "released:player", "released:scene"), received);
+        assertFalse(app.isKeyPressed(KeyEvent.VK_A));
+    }
+}
@@ -0,0 +1,85 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.Logger} filtering, argument snapshot and rate limiting, through its log file.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class LoggerTest {
+
+    @TempDir
+    Path tmp;
+
+    private Path configure(String filter, int rateLimit) {
+        Path log = tmp.resolve("test.log");
+        Properties config = new Properties();
+        config.setProperty("app.debug.filter", filter);
+        config.setProperty("app.log.console", "false");
+        config.setProperty("app.log.rate.limit", String.valueOf(rateLimit));
+        config.setProperty("app.log.file", log.toString());
+        GameApp.Logger.configure(config);
+        return log;
+    }
+
+    private String read(Path log) throws IOException {
+        GameApp.Logger.flush();
+        return Files.readString(log);
+    }
+
+    @AfterEach
+    public void restore() {
+        Properties config = new Properties();
+        config.setProperty("app.log.console", "false");
+        GameApp.Logger.configure(config);
+    }
+
+    @Test
+    public void onlyTheFilteredLevelsAreWritten() throws IOException {
+        Path log = configure("WARN,ERROR", 0);
+        GameApp.debug("a debug message");
+        GameApp.info("an info message");
+        GameApp.warn("a warn message %d", 1);
+        GameApp.error("an error message %s", "here");
+        String text = read(log);
+        assertFalse(text.contains("debug message"));
+        assertFalse(text.contains("info message"));
+        assertTrue(text.contains("|WARN|a warn message 1"));
+        assertTrue(text.contains("|ERROR|an error message here"));
+    }
+
+    @Test
+    public void aMutableArgumentIsWrittenWithItsValueAtCallTime() throws IOException {
+        Path log = configure("INFO", 0);
+        List<String> list = new ArrayList<>(List.of("one", "two"));
+        GameApp.info("content %s", list);
+        list.clear();
+        assertTrue(read(log).contains("content [one, two]"));
+    }
+
+    @Test
+    public void theSuppressedMessagesSummaryIsWrittenOnFlush() throws IOException {
+        Path log = configure("INFO", 2);
+        for (int i = 0; i < 5; i++) {
+            GameApp.info("repeated message %d", i);
+        }
+        String text = read(log);
+        assertTrue(text.contains("repeated message 0"));
+        assertTrue(text.contains("repeated message 1"));
+        assertFalse(text.contains("repeated message 2"));
+        assertTrue(text.contains("3 similar message(s) suppressed: repeated message %d"));
+    }
+}
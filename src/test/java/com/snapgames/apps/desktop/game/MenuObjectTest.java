@@ -0,0 +1,99 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the virtualized {@link GameApp.MenuObject} rows, scrolling and items replacement.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class MenuObjectTest {
+
+    private static GameApp.MenuModel entries(int count) {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            texts.add("entry " + i);
+        }
+        return GameApp.MenuModel.of(texts);
+    }
+
+    @Test
+    public void theReplacedItemsLeaveTheMenuAndTheScene() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.MenuObject[] menu = new GameApp.MenuObject[1];
+        GameApp.ItemObject[] items = new GameApp.ItemObject[2];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            menu[0] = new GameApp.MenuObject("menu");
+            items[0] = new GameApp.ItemObject("item1");
+            items[1] = new GameApp.ItemObject("item2");
+            menu[0].addItem(items[0]);
+            menu[0].add((GameApp.Entity) items[1]);
+            s.add((GameApp.Entity) menu[0]);
+            s.add((GameApp.Entity) items[0]);
+        });
+        assertSame(menu[0], items[1].getParent());
+        assertSame(scene, items[1].getScene());
+
+        menu[0].setModel(entries(100), 5);
+
+        for (GameApp.ItemObject item : items) {
+            assertNull(item.getParent());
+            assertNull(item.getScene());
+            assertFalse(scene.getIndex().getByClass(GameApp.ItemObject.class).contains(item));
+        }
+        assertNull(scene.getEntities().get("item1"));
+        assertEquals(5, menu[0].child.size());
+        for (GameApp.Entity row : menu[0].child) {
+            assertSame(menu[0], row.getParent());
+            assertSame(scene, row.getScene());
+        }
+    }
+
+    @Test
+    public void theRowsFollowTheSelection() {
+        GameTestSupport.createApp();
+        GameApp.MenuObject menu = new GameApp.MenuObject("menu");
+        menu.setModel(entries(100), 5);
+        assertEquals(100, menu.getItemCount());
+
+        menu.setItemIndex(42);
+        assertEquals(42, menu.getItemIndex());
+        int first = menu.getFirstVisible();
+        assertTrue(first <= 42 && 42 < first + 5);
+        assertEquals(42, menu.getItemValue(42));
+
+        // a new model replaces the rows.
+        menu.setModel(entries(3), 5);
+        assertEquals(5, menu.child.size());
+        assertEquals(0, menu.getItemIndex());
+        assertFalse(menu.child.get(4).isActive());
+    }
+
+    @Test
+    public void theArrowKeysMoveTheSelection() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.MenuObject menu = new GameApp.MenuObject("menu");
+        menu.setModel(entries(10), 5);
+        KeyEvent down = new KeyEvent(new Canvas(), KeyEvent.KEY_RELEASED, 0, 0, KeyEvent.VK_DOWN,
+                KeyEvent.CHAR_UNDEFINED);
+        KeyEvent end = new KeyEvent(new Canvas(), KeyEvent.KEY_RELEASED, 0, 0, KeyEvent.VK_END,
+                KeyEvent.CHAR_UNDEFINED);
+        // dispatched as the scene does, through the entity behaviors.
+        for (GameApp.Behavior<GameApp.Entity> b : menu.behaviors) {
+            b.onKeyReleased(app, menu, down);
+        }
+        assertEquals(1, menu.getItemIndex());
+        for (GameApp.Behavior<GameApp.Entity> b : menu.behaviors) {
+            b.onKeyReleased(app, menu, end);
+        }
+        assertEquals(9, menu.getItemIndex());
+    }
+}
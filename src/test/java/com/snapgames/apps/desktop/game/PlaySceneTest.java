@@ -0,0 +1,108 @@
+package com.snapgames.apps.desktop.game;
+
+import com.snapgames.apps.desktop.game.scenes.PlayScene;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link PlayScene} enemies spawning, and its pools re-synchronized on a snapshot restore.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class PlaySceneTest {
+
+    private PlayScene createPlayScene(GameApp app) throws ReflectiveOperationException {
+        PlayScene scene = new PlayScene(app, "play");
+        Method add = GameApp.class.getDeclaredMethod("add", GameApp.Scene.class);
+        add.setAccessible(true);
+        add.invoke(app, scene);
+        scene.load(app);
+        app.activateScene("play");
+        return scene;
+    }
+
+    private static Object field(PlayScene scene, String name) throws ReflectiveOperationException {
+        Field f = PlayScene.class.getDeclaredField(name);
+        f.setAccessible(true);
+        return f.get(scene);
+    }
+
+    @Test
+    public void enemiesAreNotSpawnedIntoAFullLevel() throws ReflectiveOperationException {
+        GameApp app = GameTestSupport.createApp();
+        PlayScene scene = createPlayScene(app);
+        int enemies = scene.getTagged("enemy").length;
+        assertTrue(enemies > 0);
+
+        GameApp.TileMap level = (GameApp.TileMap) field(scene, "level");
+        // the play area height is not a multiple of the tile height: cover its last pixels too.
+        level.setMapSize(level.columns, level.rows + 1);
+        level.fill(0, 0, level.columns, level.rows, (short) 41);
+        Method generate = PlayScene.class.getDeclaredMethod("generateEntities", GameApp.class, int.class);
+        generate.setAccessible(true);
+        generate.invoke(scene, app, 10);
+        app.update(16);
+
+        assertEquals(enemies, scene.getTagged("enemy").length);
+        GameApp.EntityPool<?> pool = (GameApp.EntityPool<?>) field(scene, "enemyPool");
+        assertEquals(enemies, pool.getInUse());
+        scene.reset();
+    }
+
+    private static void hit(GameApp app, PlayScene scene) {
+        GameApp.Entity player = scene.getEntity("player");
+        GameApp.Contact c = new GameApp.Contact();
+        c.a = player;
+        c.b = scene.getTagged("enemy")[0];
+        for (GameApp.Behavior<GameApp.Entity> b : player.behaviors) {
+            b.onContactBegin(app, player, c);
+        }
+        scene.getCommands().apply(app, scene);
+    }
+
+    @Test
+    public void theSparksRemovedByARestoreGoBackToTheirPool() throws ReflectiveOperationException {
+        GameApp app = GameTestSupport.createApp();
+        PlayScene scene = createPlayScene(app);
+        GameApp.EntityPool<?> pool = (GameApp.EntityPool<?>) field(scene, "sparksPool");
+        GameApp.SceneSnapshot snapshot = GameApp.SceneSnapshot.capture(scene);
+
+        for (int i = 0; i < 3; i++) {
+            hit(app, scene);
+            assertEquals(1, pool.getInUse());
+            snapshot.restore(app, scene);
+            assertEquals(0, pool.getInUse());
+            assertEquals(0, scene.getIndex().getByClass(GameApp.ParticleEmitter.class).size());
+        }
+        scene.reset();
+    }
+
+    @Test
+    public void theRestoredSparksAreTakenBackFromTheirPool() throws ReflectiveOperationException {
+        GameApp app = GameTestSupport.createApp();
+        PlayScene scene = createPlayScene(app);
+        @SuppressWarnings("unchecked")
+        GameApp.EntityPool<GameApp.ParticleEmitter> pool =
+                (GameApp.EntityPool<GameApp.ParticleEmitter>) field(scene, "sparksPool");
+        hit(app, scene);
+        GameApp.SceneSnapshot snapshot = GameApp.SceneSnapshot.capture(scene);
+
+        // the emitter is finished and goes back to its pool, before the restore brings it back.
+        GameApp.ParticleEmitter sparks = scene.getIndex().getByClass(GameApp.ParticleEmitter.class).get(0);
+        scene.getCommands().destroy(sparks, pool);
+        scene.getCommands().apply(app, scene);
+        assertTrue(pool.isFree(sparks));
+        snapshot.restore(app, scene);
+
+        assertSame(sparks, scene.getIndex().getByClass(GameApp.ParticleEmitter.class).get(0));
+        assertFalse(pool.isFree(sparks));
+        assertEquals(1, pool.getInUse());
+        assertNotSame(sparks, pool.acquire());
+        scene.reset();
+    }
+}
@@ -0,0 +1,88 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.SceneIndex} is based on the entities identity, not on their geometric equality.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class SceneIndexTest {
+
+    private GameApp.GameObject button(String name) {
+        GameApp.GameObject go = new GameApp.GameObject(name);
+        go.setPosition(10, 10);
+        go.setSize(40, 12);
+        go.addTag("button");
+        go.setActive(true);
+        return go;
+    }
+
+    @Test
+    public void entitiesWithTheSameBoundsAreIndexedSeparately() {
+        GameApp.SceneIndex index = new GameApp.SceneIndex();
+        GameApp.GameObject ok = button("ok");
+        GameApp.GameObject cancel = button("cancel");
+        assertEquals(ok, cancel, "same bounds, geometrically equal");
+        index.add(ok);
+        index.add(cancel);
+
+        assertEquals(2, index.getActive().length);
+        assertEquals(2, index.getTagged("button").length);
+        assertEquals(2, index.getByClass(GameApp.GameObject.class).size());
+
+        index.remove(cancel);
+        assertEquals(1, index.getActive().length);
+        assertSame(ok, index.getActive()[0]);
+        assertSame(ok, index.getTagged("button")[0]);
+    }
+
+    @Test
+    public void aMovedEntityCanBeRemoved() {
+        GameApp.SceneIndex index = new GameApp.SceneIndex();
+        GameApp.GameObject go = button("moving");
+        index.add(go);
+        go.setPosition(200, 150);
+        index.remove(go);
+
+        assertEquals(0, index.getActive().length);
+        assertEquals(0, index.getTagged("button").length);
+        assertTrue(index.getByClass(GameApp.GameObject.class).isEmpty());
+    }
+
+    @Test
+    public void removingAnEntityKeepsTheSceneEntityOfTheSameName() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.GameObject[] kept = new GameApp.GameObject[1];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            kept[0] = button("ok");
+            s.add(kept[0]);
+        });
+        // another instance, with the same name and bounds, which is not in the scene.
+        scene.remove(button("ok"));
+        assertSame(kept[0], scene.getEntities().get("ok"));
+        assertEquals(1, scene.getIndex().getActive().length);
+    }
+
+    @Test
+    public void getByClassReturnsTheSubclassesToo() {
+        GameApp.SceneIndex index = new GameApp.SceneIndex();
+        GameApp.GameObject plain = new GameApp.GameObject("plain");
+        GameApp.GameObject special = new GameApp.GameObject("special") {
+        };
+        index.add(plain);
+        index.add(special);
+        index.add(new GameApp.TextObject("text"));
+
+        assertEquals(2, index.getByClass(GameApp.GameObject.class).size());
+        assertEquals(1, index.getByClass(special.getClass()).size());
+        assertEquals(3, index.getByClass(GameApp.Entity.class).size());
+
+        index.remove(special);
+        assertEquals(1, index.getByClass(GameApp.GameObject.class).size());
+        assertTrue(index.getByClass(special.getClass()).isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.Scene} lifecycle: created once, suspended and resumed with its entities, and
+ * disposed by the memory policy.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class SceneLifecycleTest {
+
+    /**
+     * A scene counting its lifecycle calls.
+     */
+    private static class CountingScene extends GameTestSupport.TestScene {
+        int created, suspended, resumed, disposed;
+
+        CountingScene(GameApp app, String name) {
+            super(app, name, s -> s.add(new GameApp.GameObject(name + "_player")));
+        }
+
+        @Override
+        public void create(GameApp app) {
+            super.create(app);
+            created++;
+        }
+
+        @Override
+        public void suspend(GameApp app) {
+            suspended++;
+        }
+
+        @Override
+        public void resume(GameApp app) {
+            resumed++;
+        }
+
+        @Override
+        public void dispose(GameApp app) {
+            disposed++;
+        }
+    }
+
+    private GameApp app;
+    private CountingScene title;
+    private CountingScene play;
+
+    @BeforeEach
+    public void setup() throws ReflectiveOperationException {
+        app = GameTestSupport.createApp();
+        title = new CountingScene(app, "title");
+        play = new CountingScene(app, "play");
+        Method add = GameApp.class.getDeclaredMethod("add", GameApp.Scene.class);
+        add.setAccessible(true);
+        add.invoke(app, title);
+        add.invoke(app, play);
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field f = GameApp.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(app, value);
+    }
+
+    @Test
+    public void aSuspendedSceneIsResumedWithItsEntities() {
+        app.activateScene("title");
+        GameApp.Entity player = title.getEntities().get("title_player");
+        app.activateScene("play");
+        assertEquals(GameApp.SceneState.SUSPENDED, title.getState());
+        assertEquals(1, title.suspended);
+
+        app.activateScene("title");
+        assertEquals(GameApp.SceneState.ACTIVE, title.getState());
+        assertEquals(1, title.created);
+        assertEquals(1, title.resumed);
+        assertSame(player, title.getEntities().get("title_player"));
+
+        // activating the current scene again changes nothing.
+        app.activateScene("title");
+        assertEquals(1, title.created);
+        assertEquals(1, title.resumed);
+    }
+
+    @Test
+    public void theScenesOverTheSuspendedLimitAreDisposed() throws ReflectiveOperationException {
+        setField("maxSuspendedScenes", 0);
+        app.activateScene("title");
+        app.activateScene("play");
+        assertEquals(GameApp.SceneState.DISPOSED, title.getState());
+        assertEquals(1, title.disposed);
+        assertTrue(title.getEntities().isEmpty());
+
+        // a disposed scene is created again.
+        app.activateScene("title");
+        assertEquals(2, title.created);
+        assertEquals(0, title.resumed);
+        assertNotNull(title.getEntities().get("title_player"));
+    }
+
+    @Test
+    public void theSuspendedScenesAreDisposedUnderMemoryPressure() throws ReflectiveOperationException {
+        // any used heap is over this threshold.
+        setField("sceneMemoryThreshold", 1.0e-9);
+        app.activateScene("title");
+        app.activateScene("play");
+        assertEquals(GameApp.SceneState.DISPOSED, title.getState());
+        assertEquals(GameApp.SceneState.ACTIVE, play.getState());
+        assertEquals(0, play.disposed);
+    }
+}
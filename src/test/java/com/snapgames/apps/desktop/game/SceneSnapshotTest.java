@@ -0,0 +1,181 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.SceneSnapshot} capture and restore, from memory and from a file.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class SceneSnapshotTest {
+
+    @TempDir
+    Path tmp;
+
+    /**
+     * A behavior which can be restored from its class.
+     */
+    public static class Blink implements GameApp.Behavior<GameApp.Entity> {
+    }
+
+    private static GameApp.GameObject box(String name, double x, double y) {
+        GameApp.GameObject go = new GameApp.GameObject(name);
+        go.setNature(GameApp.GameObjectNature.ELLIPSE);
+        go.setPosition(x, y);
+        go.setSize(8, 8);
+        go.setFillColor(Color.RED);
+        go.addTag("box");
+        go.setActive(true);
+        return go;
+    }
+
+    @Test
+    public void restoreBringsBackTheCapturedState() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.GameObject[] boxes = new GameApp.GameObject[2];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            boxes[0] = box("a", 10, 10);
+            boxes[1] = box("b", 20, 20);
+            s.add(boxes[0]);
+            s.add(boxes[1]);
+        });
+        GameApp.SceneSnapshot snapshot = GameApp.SceneSnapshot.capture(scene);
+
+        boxes[0].setPosition(100, 100);
+        boxes[0].setActive(false);
+        scene.remove(boxes[1]);
+        scene.add(box("c", 30, 30));
+        snapshot.restore(app, scene);
+
+        assertEquals(10, boxes[0].x);
+        assertTrue(boxes[0].isActive());
+        assertSame(boxes[1], scene.getEntities().get("b"));
+        assertNull(scene.getEntities().get("c"));
+        List<GameApp.Entity> active = Arrays.asList(scene.getIndex().getActive());
+        assertEquals(2, active.size());
+        assertTrue(active.contains(boxes[0]) && active.contains(boxes[1]));
+    }
+
+    @Test
+    public void aDeactivatedEntityIsRemovedFromTheActiveIndex() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.GameObject[] boxes = new GameApp.GameObject[1];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            boxes[0] = box("a", 10, 10);
+            boxes[0].setActive(false);
+            s.add(boxes[0]);
+        });
+        GameApp.SceneSnapshot snapshot = GameApp.SceneSnapshot.capture(scene);
+        boxes[0].setActive(true);
+        assertEquals(1, scene.getIndex().getActiveCount());
+
+        snapshot.restore(app, scene);
+        assertFalse(boxes[0].isActive());
+        assertEquals(0, scene.getIndex().getActiveCount());
+    }
+
+    @Test
+    public void theColorsAreNotAllocatedAgainOnRestore() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.GameObject[] boxes = new GameApp.GameObject[1];
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> {
+            boxes[0] = box("a", 10, 10);
+            s.add(boxes[0]);
+        });
+        GameApp.SceneSnapshot snapshot = GameApp.SceneSnapshot.capture(scene);
+        Color fill = boxes[0].fillColor;
+        GameApp.Material material = boxes[0].material;
+        snapshot.restore(app, scene);
+        assertSame(fill, boxes[0].fillColor);
+        assertSame(material, boxes[0].material);
+
+        boxes[0].setFillColor(Color.BLUE);
+        snapshot.restore(app, scene);
+        Color restored = boxes[0].fillColor;
+        assertEquals(Color.RED.getRGB(), restored.getRGB());
+        boxes[0].setFillColor(Color.BLUE);
+        snapshot.restore(app, scene);
+        assertSame(restored, boxes[0].fillColor);
+    }
+
+    @Test
+    public void anEntityLoadedFromAFileGetsItsBehaviorsBack() throws IOException {
+        GameApp app = GameTestSupport.createApp();
+        GameTestSupport.TestScene scene = GameTestSupport.activate(app, s -> s.add(box("a", 10, 10).add(new Blink())));
+        Path file = tmp.resolve("test.snap");
+        GameApp.SceneSnapshot.capture(scene).save(file);
+
+        GameApp.SceneSnapshot loaded = GameApp.SceneSnapshot.load(file);
+        assertEquals(4, loaded.getVersion());
+        List<GameApp.Entity> entities = loaded.instantiate();
+        assertEquals(1, entities.size());
+        GameApp.Entity e = entities.get(0);
+        assertEquals(10, e.x);
+        assertEquals(1, e.behaviors.size());
+        assertInstanceOf(Blink.class, e.behaviors.get(0));
+    }
+
+    @Test
+    public void aFirstVersionSnapshotIsStillReadable() throws IOException {
+        Path file = tmp.resolve("v1.snap");
+        Files.write(file, version1Snapshot());
+
+        GameApp.SceneSnapshot loaded = GameApp.SceneSnapshot.load(file);
+        assertEquals(1, loaded.getVersion());
+        assertEquals("old", loaded.getSceneName());
+        GameApp.Entity e = loaded.instantiate().get(0);
+        assertInstanceOf(GameApp.GameObject.class, e);
+        assertEquals("old_box", e.getName());
+        assertEquals(12, e.x);
+        assertEquals(34, e.y);
+        assertEquals(GameApp.BodyType.DYNAMIC, e.getBodyType());
+        assertTrue(e.getTags().contains("box"));
+        assertEquals(GameApp.GameObjectNature.ELLIPSE, ((GameApp.GameObject) e).nature);
+    }
+
+    /**
+     * A snapshot in the first format: without body type, collision filter and behaviors.
+     */
+    private static byte[] version1Snapshot() {
+        ByteBuffer buf = ByteBuffer.allocate(512);
+        buf.putInt(0x47534E50).putShort((short) 1);
+        put(buf, "old");
+        buf.putInt(1);
+        buf.putInt(7);
+        put(buf, "old_box");
+        put(buf, GameApp.GameObject.class.getName());
+        put(buf, "");
+        buf.putDouble(12).putDouble(34).putDouble(8).putDouble(8)
+                .putDouble(0).putDouble(0).putDouble(0).putDouble(0)
+                .putDouble(1)
+                .putInt(5);
+        buf.put((byte) 1).putInt(0).putInt(Color.RED.getRGB());
+        put(buf, "default");
+        buf.putDouble(1).putDouble(1).putDouble(1);
+        buf.putShort((short) 1);
+        put(buf, "box");
+        put(buf, "ELLIPSE");
+        buf.flip();
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        return bytes;
+    }
+
+    private static void put(ByteBuffer buf, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        buf.putShort((short) bytes.length).put(bytes);
+    }
+}
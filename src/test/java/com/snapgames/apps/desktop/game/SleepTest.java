@@ -0,0 +1,98 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the bodies put to sleep by the physics, woken up, and counted by the {@link GameApp}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class SleepTest {
+
+    private GameApp app;
+    private Method updateSleep;
+
+    @BeforeEach
+    public void setup() throws NoSuchMethodException {
+        app = GameTestSupport.createApp();
+        app.getWorld().sleepTicks = 3;
+        updateSleep = GameApp.class.getDeclaredMethod("updateSleep",
+                GameApp.Entity.class, double.class, double.class, double.class);
+        updateSleep.setAccessible(true);
+    }
+
+    private void still(GameApp.Entity e, int ticks) throws IllegalAccessException, InvocationTargetException {
+        for (int i = 0; i < ticks; i++) {
+            updateSleep.invoke(app, e, e.x, e.y, 16.0);
+        }
+    }
+
+    @Test
+    public void aBodyAtRestFallsAsleep() throws ReflectiveOperationException {
+        GameApp.GameObject go = new GameApp.GameObject("a");
+        still(go, 2);
+        assertFalse(go.isSleeping());
+        still(go, 1);
+        assertTrue(go.isSleeping());
+    }
+
+    @Test
+    public void aBodyNotMovingButStillPushedDoesNotSleep() throws ReflectiveOperationException {
+        GameApp.GameObject go = new GameApp.GameObject("a");
+        // blocked by a wall, but still accelerated.
+        go.ax = 0.5;
+        still(go, 10);
+        assertFalse(go.isSleeping());
+
+        // blocked, with a velocity.
+        go.ax = 0;
+        go.dx = 0.1;
+        still(go, 10);
+        assertFalse(go.isSleeping());
+
+        go.dx = 0;
+        still(go, 3);
+        assertTrue(go.isSleeping());
+    }
+
+    @Test
+    public void aWokenBodyGetsItsAccelerationBack() {
+        GameApp.GameObject go = new GameApp.GameObject("a");
+        go.setVelocity(0.2, 0);
+        go.setAcceleration(0.01, 0.02);
+        go.sleep();
+        assertEquals(0, go.dx);
+        assertEquals(0.01, go.ax);
+        go.wake();
+        assertFalse(go.isSleeping());
+        assertEquals(0.01, go.ax);
+        assertEquals(0.02, go.ay);
+    }
+
+    @Test
+    public void theSleepsAndWakesAreCountedByTheApp() {
+        GameApp.GameObject[] holder = new GameApp.GameObject[1];
+        GameTestSupport.activate(app, s -> {
+            holder[0] = new GameApp.GameObject("a");
+            holder[0].setPosition(50, 50);
+            holder[0].setSize(4, 4);
+            s.add(holder[0]);
+        });
+        holder[0].sleep();
+        app.update(16);
+        assertEquals(1, app.getSleepCount());
+        assertEquals(0, app.getWakeCount());
+
+        holder[0].setVelocity(0.1, 0);
+        app.update(16);
+        assertEquals(1, app.getSleepCount());
+        assertEquals(1, app.getWakeCount());
+    }
+}
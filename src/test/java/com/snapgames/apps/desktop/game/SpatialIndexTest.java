@@ -0,0 +1,92 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.SpatialIndex} queries on the entities of a {@link GameApp.Scene}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class SpatialIndexTest {
+
+    private GameApp app;
+    private GameTestSupport.TestScene scene;
+    private final GameApp.GameObject[] boxes = new GameApp.GameObject[3];
+
+    private static GameApp.GameObject box(String name, double x, double y) {
+        GameApp.GameObject go = new GameApp.GameObject(name);
+        go.setPosition(x, y);
+        go.setSize(4, 4);
+        go.setBodyType(GameApp.BodyType.STATIC);
+        return go;
+    }
+
+    @BeforeEach
+    public void setup() {
+        app = GameTestSupport.createApp();
+        scene = GameTestSupport.activate(app, s -> {
+            boxes[0] = box("a", 10, 10);
+            boxes[1] = box("b", 100, 10);
+            boxes[2] = box("c", 300, 200);
+            s.add(boxes[0]);
+            s.add(boxes[1]);
+            s.add(boxes[2]);
+        });
+        app.update(16);
+    }
+
+    @Test
+    public void theQueriesReturnTheEntitiesAround() {
+        GameApp.Entity[] out = new GameApp.Entity[4];
+        GameApp.SpatialIndex index = scene.getSpatialIndex();
+        assertEquals(1, index.queryRect(0, 0, 20, 20, GameApp.QueryFilter.ANY, out));
+        assertSame(boxes[0], out[0]);
+        assertEquals(2, index.queryRadius(50, 12, 60, GameApp.QueryFilter.ANY, out));
+
+        GameApp.Entity[] nearest = new GameApp.Entity[2];
+        assertEquals(2, index.nearestK(90, 12, 1000, GameApp.QueryFilter.ANY, nearest));
+        assertSame(boxes[1], nearest[0]);
+        assertSame(boxes[0], nearest[1]);
+    }
+
+    @Test
+    public void aFullBufferStillCountsTheMatchingEntities() {
+        GameApp.Entity[] out = new GameApp.Entity[1];
+        GameApp.SpatialIndex index = scene.getSpatialIndex();
+        assertEquals(3, index.queryRect(0, 0, 400, 300, GameApp.QueryFilter.ANY, out));
+        assertNotNull(out[0]);
+        assertEquals(2, index.queryRadius(50, 12, 60, GameApp.QueryFilter.ANY, out));
+        assertEquals(1, index.queryRect(0, 0, 20, 20, GameApp.QueryFilter.ANY, new GameApp.Entity[0]));
+    }
+
+    @Test
+    public void aPointFarOutOfTheGridDoesNotWalkTheEmptyRings() {
+        GameApp.Entity[] nearest = new GameApp.Entity[1];
+        GameApp.SpatialIndex index = scene.getSpatialIndex();
+        int n = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> index.nearestK(1.0e7, 1.0e7, 1.0e8, GameApp.QueryFilter.ANY, nearest));
+        assertEquals(1, n);
+        assertSame(boxes[2], nearest[0]);
+        assertEquals(0, index.nearestK(-1.0e7, 0, 1000, GameApp.QueryFilter.ANY, nearest));
+    }
+
+    @Test
+    public void aRemovedEntityIsNoMoreReturned() {
+        GameApp.Entity[] out = new GameApp.Entity[4];
+        scene.remove(boxes[0]);
+        GameApp.SpatialIndex index = scene.getSpatialIndex();
+        assertEquals(0, index.queryRect(0, 0, 20, 20, GameApp.QueryFilter.ANY, out));
+        assertEquals(1, index.nearestK(0, 0, 1000, GameApp.QueryFilter.ANY, new GameApp.Entity[1]));
+
+        // added back, it is indexed again on the next update.
+        scene.add(boxes[0]);
+        app.update(16);
+        assertEquals(1, index.queryRect(0, 0, 20, 20, GameApp.QueryFilter.ANY, out));
+    }
+}
@@ -0,0 +1,86 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the cached world transforms of the {@link GameApp.Entity} hierarchy and their propagation down
+ * to the child entities.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class TransformTest {
+
+    private GameApp.GameObject root;
+    private GameApp.GameObject child;
+    private GameApp.GameObject grandChild;
+
+    private static GameApp.GameObject relative(String name, double x, double y) {
+        GameApp.GameObject go = new GameApp.GameObject(name);
+        go.setPosition(x, y);
+        go.setSize(4, 4);
+        go.setRelativeToParent(true);
+        return go;
+    }
+
+    @BeforeEach
+    public void setup() {
+        root = new GameApp.GameObject("root");
+        root.setPosition(10, 20);
+        root.setSize(100, 100);
+        child = relative("child", 5, 5);
+        grandChild = relative("grandChild", 1, 2);
+        root.add(child);
+        child.add(grandChild);
+        root.updateTransform(false);
+    }
+
+    @Test
+    public void theWorldPositionAddsTheParentOnes() {
+        assertEquals(15, child.getWorldX());
+        assertEquals(25, child.getWorldY());
+        assertEquals(16, grandChild.getWorldX());
+        assertEquals(27, grandChild.getWorldY());
+    }
+
+    @Test
+    public void aMovedParentUpdatesAllItsDescendants() {
+        // moved without setPosition(), as the physics does.
+        root.x = 100;
+        root.updateTransform(false);
+        assertEquals(105, child.getWorldX());
+        assertEquals(106, grandChild.getWorldX());
+        assertEquals(27, grandChild.getWorldY());
+
+        // only the moved child and its own child are updated.
+        child.setPosition(0, 0);
+        root.updateTransform(false);
+        assertEquals(100, child.getWorldX());
+        assertEquals(101, grandChild.getWorldX());
+        assertEquals(22, grandChild.getWorldY());
+    }
+
+    @Test
+    public void unchangedBoundsAreNotComputedAgain() {
+        // tamper with the cache: it is kept as long as nothing moves in the hierarchy.
+        grandChild.getWorldBounds().setRect(-1, -1, 4, 4);
+        root.updateTransform(false);
+        assertEquals(-1, grandChild.getWorldX());
+
+        child.y = 6;
+        root.updateTransform(false);
+        assertEquals(16, grandChild.getWorldX());
+        assertEquals(28, grandChild.getWorldY());
+    }
+
+    @Test
+    public void anEntityLeavingItsParentGetsItsLocalPositionBack() {
+        child.remove(grandChild);
+        grandChild.updateTransform(false);
+        assertEquals(1, grandChild.getWorldX());
+        assertEquals(2, grandChild.getWorldY());
+    }
+}
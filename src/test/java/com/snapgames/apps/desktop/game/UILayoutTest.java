@@ -0,0 +1,61 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the retained {@link GameApp.AlignBehavior} layout and the {@link GameApp.NineSlice} panels.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class UILayoutTest {
+
+    @Test
+    public void theButtonsAreLaidOutOnlyWhenTheirParentChanges() {
+        GameApp app = GameTestSupport.createApp();
+        GameApp.DialogBox box = new GameApp.DialogBox("box");
+        box.setPosition(10, 20);
+        box.setSize(100, 50);
+        GameApp.Button ok = new GameApp.Button("ok").setAlign(GameApp.Align.RIGHT);
+        ok.setSize(30, 10);
+        box.add((GameApp.Entity) ok);
+        GameApp.AlignBehavior layout = new GameApp.AlignBehavior();
+
+        layout.update(app, box, 16);
+        int gap = GameApp.UIObject.margin + GameApp.UIObject.padding;
+        assertEquals(110 - 30 - gap, ok.x);
+        assertEquals(70 - 10 - gap, ok.y);
+
+        // nothing changed: the layout is not computed again.
+        ok.x = 0;
+        layout.update(app, box, 16);
+        assertEquals(0, ok.x);
+
+        // a new size of the parent, or of a child, requests a new layout.
+        box.setSize(200, 50);
+        layout.update(app, box, 16);
+        assertEquals(210 - 30 - gap, ok.x);
+        ok.setSize(40, 10);
+        layout.update(app, box, 16);
+        assertEquals(210 - 40 - gap, ok.x);
+    }
+
+    @Test
+    public void theBevelSkinIsSharedAndBakedAtThePanelSize() {
+        GameApp.NineSlice skin = GameApp.NineSlice.bevel(Color.BLUE, Color.WHITE);
+        assertSame(skin, GameApp.NineSlice.bevel(Color.BLUE, Color.WHITE));
+        assertNotSame(skin, GameApp.NineSlice.bevel(Color.RED, Color.WHITE));
+
+        BufferedImage panel = skin.bake(40, 20);
+        assertEquals(40, panel.getWidth());
+        assertEquals(20, panel.getHeight());
+        assertEquals(Color.WHITE.getRGB(), panel.getRGB(0, 0));
+        assertEquals(Color.WHITE.getRGB(), panel.getRGB(39, 19));
+        assertEquals(Color.BLUE.getRGB(), panel.getRGB(20, 10));
+    }
+}
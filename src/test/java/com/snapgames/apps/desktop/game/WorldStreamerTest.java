@@ -0,0 +1,177 @@
+package com.snapgames.apps.desktop.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check the {@link GameApp.WorldStreamer} chunks activation, unloading and loading around the camera.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.0
+ */
+public class WorldStreamerTest {
+
+    @TempDir
+    Path tmp;
+
+    private GameApp app;
+    private GameTestSupport.TestScene scene;
+    private GameApp.Camera camera;
+
+    @BeforeEach
+    public void setup() throws ReflectiveOperationException {
+        app = GameTestSupport.createApp();
+        Field f = GameApp.class.getDeclaredField("config");
+        f.setAccessible(true);
+        Properties config = (Properties) f.get(app);
+        config.setProperty("app.world.chunk.size", "64");
+        config.setProperty("app.world.chunk.radius", "0");
+        config.setProperty("app.world.chunk.prefetch", "0");
+        config.setProperty("app.world.chunk.path", tmp.toString());
+        scene = GameTestSupport.activate(app, s -> s.add(new GameApp.GameObject("player")));
+        camera = new GameApp.Camera("cam");
+        camera.setSize(32, 32);
+        scene.setActiveCamera(camera);
+    }
+
+    private GameApp.GameObject rock(String name, double x, double y, GameApp.Behavior<GameApp.Entity> b) {
+        GameApp.GameObject go = new GameApp.GameObject(name);
+        go.setPosition(x, y);
+        go.setSize(4, 4);
+        go.add(b);
+        return go;
+    }
+
+    private void moveCamera(double x, double y) {
+        camera.setPosition(x, y);
+    }
+
+    private void updateUntil(GameApp.WorldStreamer streamer, BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 200 && !condition.getAsBoolean(); i++) {
+            streamer.update(app);
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean(), "streamer condition not reached");
+    }
+
+    @Test
+    public void onlyTheChunksAroundTheCameraAreInTheScene() {
+        GameApp.WorldStreamer streamer = new GameApp.WorldStreamer(app, scene);
+        scene.setStreamer(streamer);
+        GameApp.GameObject a = rock("a", 10, 10, new GameApp.Behavior<>() {
+        });
+        GameApp.GameObject b = rock("b", 300, 10, new GameApp.Behavior<>() {
+        });
+        streamer.add(a);
+        streamer.add(b);
+
+        moveCamera(0, 0);
+        streamer.update(app);
+        assertSame(a, scene.getEntities().get("a"));
+        assertNull(scene.getEntities().get("b"));
+        assertEquals(1, streamer.getActiveChunks());
+
+        // the streamed entities are not part of the scene snapshot.
+        assertEquals(1, GameApp.SceneSnapshot.capture(scene).getEntityCount());
+        streamer.dispose();
+    }
+
+    @Test
+    public void anEntityStreamedBackKeepsItsBehaviors() throws InterruptedException {
+        GameApp.WorldStreamer streamer = new GameApp.WorldStreamer(app, scene);
+        scene.setStreamer(streamer);
+        GameApp.Behavior<GameApp.Entity> behavior = new GameApp.Behavior<>() {
+        };
+        GameApp.GameObject a = rock("a", 10, 10, behavior);
+        streamer.add(a);
+        moveCamera(0, 0);
+        streamer.update(app);
+
+        // leave the chunk: it is saved to its file and released from memory.
+        moveCamera(300, 0);
+        Path file = tmp.resolve("test").resolve("chunk_0_0.snap");
+        updateUntil(streamer, () -> !streamer.isStreamed(a));
+        assertNull(scene.getEntities().get("a"));
+        assertTrue(Files.exists(file));
+
+        // come back: the chunk is read from its file, with the kept behaviors.
+        moveCamera(0, 0);
+        updateUntil(streamer, () -> scene.getEntities().get("a") != null);
+        GameApp.Entity back = scene.getEntities().get("a");
+        assertNotSame(a, back);
+        assertEquals(10, back.x);
+        assertEquals(1, back.behaviors.size());
+        assertSame(behavior, back.behaviors.get(0));
+        assertTrue(streamer.isStreamed(back));
+
+        streamer.dispose();
+        assertFalse(Files.exists(tmp.resolve("test")));
+    }
+
+    @Test
+    public void theChunksAreStreamedOnFixedTicksDuringAReplay() throws Exception {
+        Path recording = tmp.resolve("empty.rec");
+        new GameApp.InputRecorder(recording, 42L).close();
+        Field f = GameApp.class.getDeclaredField("inputReplay");
+        f.setAccessible(true);
+        f.set(app, GameApp.InputReplay.open(recording));
+
+        GameApp.WorldStreamer streamer = new GameApp.WorldStreamer(app, scene);
+        scene.setStreamer(streamer);
+        GameApp.GameObject a = rock("a", 10, 10, new GameApp.Behavior<>() {
+        });
+        streamer.add(a);
+        streamer.add(rock("b", 300, 10, new GameApp.Behavior<>() {
+        }));
+        moveCamera(0, 0);
+        streamer.update(app);
+        assertEquals(1, streamer.getActiveChunks());
+        assertEquals(2, streamer.getLoadedChunks());
+
+        // the chunk file is written during the tick, the chunk is released on the next one.
+        moveCamera(300, 0);
+        streamer.update(app);
+        assertTrue(streamer.isStreamed(a));
+        streamer.update(app);
+        assertFalse(streamer.isStreamed(a));
+        assertEquals(1, streamer.getActiveChunks());
+        assertEquals(1, streamer.getLoadedChunks());
+
+        // read during the tick, activated on the next one.
+        moveCamera(0, 0);
+        streamer.update(app);
+        assertNull(scene.getEntities().get("a"));
+        streamer.update(app);
+        assertNotNull(scene.getEntities().get("a"));
+        assertEquals(1, streamer.getActiveChunks());
+        streamer.dispose();
+    }
+
+    @Test
+    public void disposeWaitsForTheSaveInProgress() throws InterruptedException {
+        GameApp.WorldStreamer streamer = new GameApp.WorldStreamer(app, scene);
+        scene.setStreamer(streamer);
+        for (int i = 0; i < 200; i++) {
+            streamer.add(rock("r" + i, 10 + (i % 40), 10 + (i / 40), new GameApp.Behavior<>() {
+            }));
+        }
+        moveCamera(0, 0);
+        streamer.update(app);
+        moveCamera(300, 0);
+        // the save is submitted to the background thread, and disposed right after.
+        streamer.update(app);
+        streamer.dispose();
+        Thread.sleep(50);
+        assertFalse(Files.exists(tmp.resolve("test").resolve("chunk_0_0.snap")));
+        assertFalse(Files.exists(tmp.resolve("test")));
+    }
+}